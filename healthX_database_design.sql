@@ -9,13 +9,18 @@ CREATE TABLE users (
     age INT,
     height DOUBLE,
     weight DOUBLE,
+    avatar_url VARCHAR(255),
     created_at DATETIME NOT NULL,
     updated_at DATETIME NOT NULL
 );
 
+-- 记录表(体重、步数、睡眠)按月分区，分区由healthX_partition_maintenance.sql中的定时事件维护
+-- 主键以(user_id, 记录时间)开头，同一用户的记录在磁盘上相邻，按时间范围查询只读相关分区的连续页
+-- 分区表不支持外键，删除用户时由应用删除这些记录；id仍自增，单独建索引供按ID查询
+
 -- 体重记录表
 CREATE TABLE weight_records (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    id BIGINT NOT NULL AUTO_INCREMENT COMMENT '记录ID',
     user_id BIGINT NOT NULL COMMENT '用户ID',
     weight DECIMAL(5,2) NOT NULL COMMENT '体重值(kg)',
     bmi DECIMAL(4,2) COMMENT 'BMI指数',
@@ -27,8 +32,25 @@ CREATE TABLE weight_records (
     updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     remote_id BIGINT COMMENT '远程服务器ID',
     sync_status TINYINT NOT NULL DEFAULT 0 COMMENT '同步状态：0-未同步，1-已同步，2-同步失败',
-    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户体重记录表';
+    PRIMARY KEY (user_id, measurement_time, id),
+    KEY idx_weight_records_id (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户体重记录表'
+PARTITION BY RANGE COLUMNS (measurement_time) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
 
 -- 体重目标表
 CREATE TABLE weight_goals (
@@ -50,7 +72,7 @@ CREATE TABLE weight_goals (
 
 -- 步数记录表
 CREATE TABLE step_records (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    id BIGINT NOT NULL AUTO_INCREMENT COMMENT '记录ID',
     user_id BIGINT NOT NULL COMMENT '用户ID',
     step_count INT NOT NULL COMMENT '步数',
     distance DECIMAL(8,2) COMMENT '行走距离(米)',
@@ -61,9 +83,25 @@ CREATE TABLE step_records (
     updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     remote_id BIGINT COMMENT '远程服务器ID',
     sync_status TINYINT NOT NULL DEFAULT 0 COMMENT '同步状态：0-未同步，1-已同步，2-同步失败',
-    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
-    UNIQUE KEY uk_user_date (user_id, record_date) COMMENT '一个用户每天只能有一条步数记录'
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户步数记录表';
+    PRIMARY KEY (user_id, record_date) COMMENT '一个用户每天只能有一条步数记录',
+    KEY idx_step_records_id (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户步数记录表'
+PARTITION BY RANGE COLUMNS (record_date) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
 
 -- 步数目标表
 CREATE TABLE step_goals (
@@ -130,14 +168,31 @@ CREATE TABLE exercise_records (
 
 -- 睡眠记录表
 CREATE TABLE sleep_records (
-    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    id BIGINT NOT NULL AUTO_INCREMENT,
     user_id BIGINT NOT NULL,
-    start_time DATETIME NOT NULL, -- 睡眠开始时间
+    start_time DATETIME NOT NULL, -- 睡眠开始时间，按它分区
     end_time DATETIME NOT NULL,   -- 睡眠结束时间
     duration INT,                 -- 睡眠时长（分钟）
     quality VARCHAR(20),          -- 睡眠质量：好、一般、差
     created_at DATETIME NOT NULL, -- 记录创建时间
-    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+    PRIMARY KEY (user_id, start_time, id),
+    KEY idx_sleep_records_id (id)
+) ENGINE=InnoDB
+PARTITION BY RANGE COLUMNS (start_time) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
 );
 
 -- 健康指标表（用于存储BMI、体脂率等计算结果）
@@ -152,6 +207,54 @@ CREATE TABLE health_metrics (
     FOREIGN KEY (user_id) REFERENCES users(id)
 );
 
+-- 健康提醒表（重复提醒只存一行规则，每次提醒时间按规则计算）
+CREATE TABLE health_reminders (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    user_id BIGINT NOT NULL COMMENT '用户ID',
+    reminder_type SMALLINT NOT NULL COMMENT '提醒类型编码(1服药/2运动/3进餐/4测量/5预约/6自定义)',
+    title VARCHAR(100) NOT NULL COMMENT '标题',
+    description VARCHAR(500) COMMENT '描述',
+    reminder_time DATETIME NOT NULL COMMENT '提醒时间(重复提醒为第一次)',
+    is_repeating BOOLEAN NOT NULL DEFAULT FALSE COMMENT '是否重复',
+    repeat_pattern VARCHAR(20) COMMENT '重复频率(DAILY/WEEKLY/MONTHLY/CUSTOM)',
+    repeat_interval INT NOT NULL DEFAULT 1 COMMENT '每隔几个周期重复一次',
+    repeat_until DATETIME COMMENT '重复截止时间(null表示一直重复)',
+    next_occurrence_time DATETIME COMMENT '下一次需要发送的提醒时间',
+    is_completed BOOLEAN NOT NULL DEFAULT FALSE COMMENT '是否完成',
+    is_expired BOOLEAN NOT NULL DEFAULT FALSE COMMENT '是否已过期(过期太久未完成或重复已结束)',
+    created_at DATETIME NOT NULL COMMENT '创建时间',
+    updated_at DATETIME NOT NULL COMMENT '更新时间',
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='健康提醒表';
+
+-- 重复提醒的完成/跳过记录，没有记录的那一次视为未完成
+CREATE TABLE health_reminder_occurrences (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    reminder_id BIGINT NOT NULL COMMENT '提醒ID',
+    occurrence_time DATETIME NOT NULL COMMENT '按规则计算的这一次的提醒时间',
+    status VARCHAR(20) NOT NULL COMMENT '状态(COMPLETED/SKIPPED)',
+    created_at DATETIME NOT NULL COMMENT '创建时间',
+    FOREIGN KEY (reminder_id) REFERENCES health_reminders(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_reminder_occurrence (reminder_id, occurrence_time) COMMENT '每次提醒最多一条记录'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='重复提醒完成记录表';
+
+-- 健康目标表
+CREATE TABLE health_goals (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    user_id BIGINT NOT NULL COMMENT '用户ID',
+    goal_type SMALLINT NOT NULL COMMENT '目标类型编码(1减重/2增重/3步数/4运动频率/5睡眠时长/6卡路里控制/7自定义)',
+    target_value DOUBLE NOT NULL COMMENT '目标值',
+    current_value DOUBLE NOT NULL COMMENT '当前值',
+    unit VARCHAR(20) COMMENT '单位',
+    start_date DATE NOT NULL COMMENT '开始日期',
+    end_date DATE NOT NULL COMMENT '结束日期',
+    is_completed BOOLEAN NOT NULL DEFAULT FALSE COMMENT '是否完成',
+    progress_recorded_at DATETIME NULL COMMENT '当前值对应的测量时间(体重/睡眠目标)',
+    created_at DATETIME NOT NULL COMMENT '创建时间',
+    updated_at DATETIME NOT NULL COMMENT '更新时间',
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='健康目标表';
+
 -- 食物表
 CREATE TABLE food_items (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
@@ -168,15 +271,22 @@ CREATE TABLE food_items (
 CREATE INDEX idx_food_items_name ON food_items(name);
 
 -- 添加索引以提高查询性能
-CREATE INDEX idx_weight_records_user_id ON weight_records(user_id);
-CREATE INDEX idx_weight_records_measurement_time ON weight_records(measurement_time);
 CREATE INDEX idx_weight_goals_user_id ON weight_goals(user_id);
 CREATE INDEX idx_diet_records_user_id ON diet_records(user_id);
 CREATE INDEX idx_exercise_records_user_id ON exercise_records(user_id);
-CREATE INDEX idx_sleep_records_user_id ON sleep_records(user_id);
-CREATE INDEX idx_step_records_user_id ON step_records(user_id);
-CREATE INDEX idx_step_records_record_date ON step_records(record_date);
 CREATE INDEX idx_step_goals_user_id ON step_goals(user_id);
 CREATE INDEX idx_step_statistics_user_id ON step_statistics(user_id);
 CREATE INDEX idx_step_statistics_period ON step_statistics(statistic_type, year, period);
 CREATE INDEX idx_health_metrics_user_id ON health_metrics(user_id);
+-- 按用户查询某天/未来/过期的提醒：用户等值，提醒时间范围；按天查询不限完成状态，完成状态只在索引中过滤
+CREATE INDEX idx_health_reminders_user_time ON health_reminders(user_id, reminder_time, is_completed);
+-- 按(提醒时间, ID)游标分页列出用户的全部提醒
+CREATE INDEX idx_health_reminders_user_list ON health_reminders(user_id, reminder_time, id);
+-- 提醒调度跨用户扫描即将到期的提醒
+CREATE INDEX idx_health_reminders_due ON health_reminders(is_completed, next_occurrence_time);
+-- 按用户和提醒类型筛选
+CREATE INDEX idx_health_reminders_user_type ON health_reminders(user_id, reminder_type);
+-- 按(结束日期, ID)游标分页列出用户的全部目标
+CREATE INDEX idx_health_goals_user_list ON health_goals(user_id, end_date, id);
+-- 按用户和目标类型筛选
+CREATE INDEX idx_health_goals_user_type ON health_goals(user_id, goal_type);
@@ -0,0 +1,9 @@
+-- 健康目标记录当前值对应的测量时间，补录的更早体重/睡眠记录不再覆盖当前值
+-- 部署新版本服务前执行
+
+-- 1. 当前值对应的测量时间
+ALTER TABLE health_goals
+    ADD COLUMN progress_recorded_at DATETIME NULL COMMENT '当前值对应的测量时间(体重/睡眠目标)' AFTER is_completed;
+
+-- 2. 已有目标的当前值按最后一次更新的时间回填（目标类型编码：1减重/2增重/5睡眠时长）
+UPDATE health_goals SET progress_recorded_at = updated_at WHERE goal_type IN (1, 2, 5);
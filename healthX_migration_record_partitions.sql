@@ -0,0 +1,86 @@
+-- 体重、步数、睡眠记录表改为(user_id, 记录时间)聚簇的主键，并按月分区
+-- 表结构与healthX_database_design.sql一致，执行后再执行healthX_partition_maintenance.sql
+-- 执行前请备份；分区会重建整张表，执行期间停止写入这三张表
+-- 2026年以前的数据都放在p_history中，需要时可以用REORGANIZE PARTITION p_history拆成按月分区
+
+-- 1. 检查外键名称，下面使用MySQL默认生成的名称，不一致时请替换
+SELECT TABLE_NAME, CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS
+WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME IN ('step_records', 'weight_records', 'sleep_records');
+
+-- 2. 体重记录
+ALTER TABLE weight_records DROP FOREIGN KEY weight_records_ibfk_1;
+ALTER TABLE weight_records
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (user_id, measurement_time, id),
+    ADD KEY idx_weight_records_id (id),
+    DROP INDEX idx_weight_records_user_id,
+    DROP INDEX idx_weight_records_measurement_time;
+ALTER TABLE weight_records
+PARTITION BY RANGE COLUMNS (measurement_time) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- 3. 步数记录，原来的唯一键(user_id, record_date)直接作为主键
+ALTER TABLE step_records DROP FOREIGN KEY step_records_ibfk_1;
+ALTER TABLE step_records
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (user_id, record_date),
+    ADD KEY idx_step_records_id (id),
+    DROP INDEX uk_user_date,
+    DROP INDEX idx_step_records_user_id,
+    DROP INDEX idx_step_records_record_date;
+ALTER TABLE step_records
+PARTITION BY RANGE COLUMNS (record_date) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- 4. 睡眠记录
+ALTER TABLE sleep_records DROP FOREIGN KEY sleep_records_ibfk_1;
+ALTER TABLE sleep_records
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (user_id, start_time, id),
+    ADD KEY idx_sleep_records_id (id),
+    DROP INDEX idx_sleep_records_user_id;
+ALTER TABLE sleep_records
+PARTITION BY RANGE COLUMNS (start_time) (
+    PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
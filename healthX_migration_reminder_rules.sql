@@ -0,0 +1,42 @@
+-- 重复提醒由逐次生成新行改为只保存一条规则行、按需展开，完成和跳过的那一次记录在health_reminder_occurrences中
+-- 部署新版本服务前执行；执行前请备份，执行期间停止写入health_reminders
+-- 旧版本完成重复提醒时会把这一行标记为完成并插入下一次，已完成的行保留为历史，未完成的那一行成为规则行
+
+-- 1. 规则列和下一次提醒时间
+ALTER TABLE health_reminders
+    ADD COLUMN repeat_interval INT NOT NULL DEFAULT 1 COMMENT '每隔几个周期重复一次' AFTER repeat_pattern,
+    ADD COLUMN repeat_until DATETIME NULL COMMENT '重复截止时间(null表示一直重复)' AFTER repeat_interval,
+    ADD COLUMN next_occurrence_time DATETIME NULL COMMENT '下一次需要发送的提醒时间' AFTER repeat_until;
+
+-- 2. 没有可计算规则的重复模式（CUSTOM或为空）按一次性提醒处理，与服务保存提醒时的规则一致；
+--    否则这些行既不会被一次性提醒的完成和过期处理，也没有下一次可以推进，永远无法完成
+SELECT id, repeat_pattern FROM health_reminders
+WHERE is_repeating = TRUE AND (repeat_pattern IS NULL OR repeat_pattern NOT IN ('DAILY', 'WEEKLY', 'MONTHLY'));
+UPDATE health_reminders SET is_repeating = FALSE
+WHERE is_repeating = TRUE AND (repeat_pattern IS NULL OR repeat_pattern NOT IN ('DAILY', 'WEEKLY', 'MONTHLY'));
+
+-- 3. 回填未完成提醒的下一次提醒时间，已完成的保持NULL
+UPDATE health_reminders SET next_occurrence_time = reminder_time WHERE is_completed = FALSE;
+
+-- 4. 调度启动时只回看7天（与OverdueReminderSweeper的过期期限一致），更早的一次性提醒由它标记过期；
+--    更早的重复规则直接推进到当前时间之后的第一次，错过的各次不补发。迁移出的规则repeat_interval都是1
+UPDATE health_reminders SET next_occurrence_time = CASE repeat_pattern
+    WHEN 'DAILY' THEN DATE_ADD(reminder_time, INTERVAL TIMESTAMPDIFF(DAY, reminder_time, NOW()) + 1 DAY)
+    WHEN 'WEEKLY' THEN DATE_ADD(reminder_time, INTERVAL TIMESTAMPDIFF(WEEK, reminder_time, NOW()) + 1 WEEK)
+    WHEN 'MONTHLY' THEN DATE_ADD(reminder_time, INTERVAL TIMESTAMPDIFF(MONTH, reminder_time, NOW()) + 1 MONTH)
+END
+WHERE is_completed = FALSE AND is_repeating = TRUE AND reminder_time < NOW() - INTERVAL 7 DAY;
+
+-- 5. 重复提醒的完成/跳过记录
+CREATE TABLE health_reminder_occurrences (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '主键ID',
+    reminder_id BIGINT NOT NULL COMMENT '提醒ID',
+    occurrence_time DATETIME NOT NULL COMMENT '按规则计算的这一次的提醒时间',
+    status VARCHAR(20) NOT NULL COMMENT '状态(COMPLETED/SKIPPED)',
+    created_at DATETIME NOT NULL COMMENT '创建时间',
+    FOREIGN KEY (reminder_id) REFERENCES health_reminders(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_reminder_occurrence (reminder_id, occurrence_time) COMMENT '每次提醒最多一条记录'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='重复提醒完成记录表';
+
+-- 6. 提醒调度按下一次提醒时间跨用户扫描未完成的提醒
+CREATE INDEX idx_health_reminders_due ON health_reminders(is_completed, next_occurrence_time);
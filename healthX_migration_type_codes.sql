@@ -0,0 +1,43 @@
+-- 提醒类型、目标类型由字符串改为SMALLINT编码
+-- 编码与HealthReminder.ReminderType、HealthGoal.GoalType中的code一致，部署新版本服务前执行
+-- 执行前请备份，执行期间停止写入health_reminders和health_goals
+
+-- 1. 检查无法识别的类型，这些记录会被归为自定义类型
+SELECT id, reminder_type FROM health_reminders
+WHERE reminder_type NOT IN ('MEDICATION', 'EXERCISE', 'MEAL', 'MEASUREMENT', 'APPOINTMENT', 'CUSTOM');
+SELECT id, goal_type FROM health_goals
+WHERE goal_type NOT IN ('WEIGHT_LOSS', 'WEIGHT_GAIN', 'STEPS', 'EXERCISE_FREQUENCY',
+                        'SLEEP_DURATION', 'CALORIE_CONTROL', 'CUSTOM');
+
+-- 2. 健康提醒
+ALTER TABLE health_reminders ADD COLUMN reminder_type_code SMALLINT NULL AFTER reminder_type;
+UPDATE health_reminders SET reminder_type_code = CASE reminder_type
+    WHEN 'MEDICATION' THEN 1
+    WHEN 'EXERCISE' THEN 2
+    WHEN 'MEAL' THEN 3
+    WHEN 'MEASUREMENT' THEN 4
+    WHEN 'APPOINTMENT' THEN 5
+    ELSE 6
+END;
+ALTER TABLE health_reminders
+    DROP COLUMN reminder_type,
+    CHANGE COLUMN reminder_type_code reminder_type SMALLINT NOT NULL
+        COMMENT '提醒类型编码(1服药/2运动/3进餐/4测量/5预约/6自定义)';
+CREATE INDEX idx_health_reminders_user_type ON health_reminders(user_id, reminder_type);
+
+-- 3. 健康目标
+ALTER TABLE health_goals ADD COLUMN goal_type_code SMALLINT NULL AFTER goal_type;
+UPDATE health_goals SET goal_type_code = CASE goal_type
+    WHEN 'WEIGHT_LOSS' THEN 1
+    WHEN 'WEIGHT_GAIN' THEN 2
+    WHEN 'STEPS' THEN 3
+    WHEN 'EXERCISE_FREQUENCY' THEN 4
+    WHEN 'SLEEP_DURATION' THEN 5
+    WHEN 'CALORIE_CONTROL' THEN 6
+    ELSE 7
+END;
+ALTER TABLE health_goals
+    DROP COLUMN goal_type,
+    CHANGE COLUMN goal_type_code goal_type SMALLINT NOT NULL
+        COMMENT '目标类型编码(1减重/2增重/3步数/4运动频率/5睡眠时长/6卡路里控制/7自定义)';
+CREATE INDEX idx_health_goals_user_type ON health_goals(user_id, goal_type);
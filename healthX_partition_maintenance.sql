@@ -0,0 +1,93 @@
+-- 记录表按月分区的维护
+-- step_records、weight_records、sleep_records的分区命名为pYYYYMM(该月的数据)，另有p_history(更早的数据)和pmax(兜底)
+-- 定时事件每天为未来几个月预建分区，保证新数据不会落入pmax；需要开启event_scheduler
+-- 过期分区默认不删除，需要清理时先归档：
+--   CREATE TABLE step_records_202601 LIKE step_records; ALTER TABLE step_records_202601 REMOVE PARTITIONING;
+--   ALTER TABLE step_records EXCHANGE PARTITION p202601 WITH TABLE step_records_202601;
+-- 交换只修改元数据，之后再用drop_expired_partitions删除空分区
+
+DELIMITER $$
+
+-- 拆分pmax，补齐到当前月份之后p_months_ahead个月的按月分区；pmax通常为空，拆分不需要搬移数据
+DROP PROCEDURE IF EXISTS add_monthly_partitions$$
+CREATE PROCEDURE add_monthly_partitions(IN p_table VARCHAR(64), IN p_months_ahead INT)
+BEGIN
+    DECLARE v_month DATE;
+    DECLARE v_target DATE;
+
+    SELECT MAX(STR_TO_DATE(CONCAT(SUBSTRING(PARTITION_NAME, 2), '01'), '%Y%m%d')) + INTERVAL 1 MONTH
+      INTO v_month
+      FROM information_schema.PARTITIONS
+     WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = p_table
+       AND PARTITION_NAME REGEXP '^p[0-9]{6}$';
+    IF v_month IS NULL THEN
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = '表没有按月分区';
+    END IF;
+
+    SET v_target = DATE_FORMAT(CURDATE(), '%Y-%m-01') + INTERVAL p_months_ahead MONTH;
+    WHILE v_month <= v_target DO
+        SET @ddl = CONCAT('ALTER TABLE `', p_table, '` REORGANIZE PARTITION pmax INTO (',
+                          'PARTITION p', DATE_FORMAT(v_month, '%Y%m'),
+                          ' VALUES LESS THAN (''', v_month + INTERVAL 1 MONTH, '''), ',
+                          'PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+        SET v_month = v_month + INTERVAL 1 MONTH;
+    END WHILE;
+END$$
+
+-- 删除早于当前月份p_retain_months个月的按月分区，分区中的数据一并删除，不会逐行删除
+DROP PROCEDURE IF EXISTS drop_expired_partitions$$
+CREATE PROCEDURE drop_expired_partitions(IN p_table VARCHAR(64), IN p_retain_months INT)
+BEGIN
+    DECLARE v_done BOOLEAN DEFAULT FALSE;
+    DECLARE v_partition VARCHAR(64);
+    DECLARE v_expired CURSOR FOR
+        SELECT PARTITION_NAME
+          FROM information_schema.PARTITIONS
+         WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = p_table
+           AND PARTITION_NAME REGEXP '^p[0-9]{6}$'
+           AND STR_TO_DATE(CONCAT(SUBSTRING(PARTITION_NAME, 2), '01'), '%Y%m%d')
+               < DATE_FORMAT(CURDATE(), '%Y-%m-01') - INTERVAL p_retain_months MONTH;
+    DECLARE CONTINUE HANDLER FOR NOT FOUND SET v_done = TRUE;
+
+    IF p_retain_months IS NULL OR p_retain_months < 1 THEN
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = '保留月数必须大于0';
+    END IF;
+
+    OPEN v_expired;
+    drop_loop: LOOP
+        FETCH v_expired INTO v_partition;
+        IF v_done THEN
+            LEAVE drop_loop;
+        END IF;
+        SET @ddl = CONCAT('ALTER TABLE `', p_table, '` DROP PARTITION ', v_partition);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END LOOP;
+    CLOSE v_expired;
+END$$
+
+-- 每天预建未来3个月的分区
+DROP EVENT IF EXISTS ev_maintain_record_partitions$$
+CREATE EVENT ev_maintain_record_partitions
+    ON SCHEDULE EVERY 1 DAY STARTS CURRENT_DATE + INTERVAL 1 DAY + INTERVAL 3 HOUR
+    DO
+BEGIN
+    CALL add_monthly_partitions('step_records', 3);
+    CALL add_monthly_partitions('weight_records', 3);
+    CALL add_monthly_partitions('sleep_records', 3);
+    -- 确定保留期限后再开启，例如只保留最近36个月：
+    -- CALL drop_expired_partitions('step_records', 36);
+END$$
+
+DELIMITER ;
+
+SET GLOBAL event_scheduler = ON;
+
+-- 首次执行时立即补齐分区
+CALL add_monthly_partitions('step_records', 3);
+CALL add_monthly_partitions('weight_records', 3);
+CALL add_monthly_partitions('sleep_records', 3);
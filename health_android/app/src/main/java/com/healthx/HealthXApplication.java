@@ -3,12 +3,18 @@ package com.healthx;
 import android.app.Application;
 import android.util.Log;
 
-import com.healthx.database.AppDatabase;
-import com.healthx.network.TokenManager;
-import com.jakewharton.threetenabp.AndroidThreeTen;
+import com.healthx.metrics.Metrics;
+import com.healthx.startup.DatabaseInitializer;
+import com.healthx.startup.StartupPipeline;
+import com.healthx.startup.StepTrackerInitializer;
+import com.healthx.startup.TimeZoneInitializer;
+import com.healthx.startup.TokenManagerInitializer;
 
 /**
  * 自定义Application类，用于全局初始化
+ * 初始化项由StartupPipeline按依赖关系执行，只有首帧前必需的项在主线程执行，
+ * 数据库保持懒加载，只在首帧之后于后台线程预热。日期时间统一使用java.time（低版本通过core library desugaring），
+ * 时区数据由系统提供，只在后台构建日期转换用的偏移表。
  */
 public class HealthXApplication extends Application {
     
@@ -17,27 +23,19 @@ public class HealthXApplication extends Application {
     @Override
     public void onCreate() {
         super.onCreate();
+        Metrics.Timer timer = Metrics.get().startTimer("startup.Application.onCreate");
         
         // 临时代码：重置数据库（仅开发环境使用，发布前移除！）
         // AppDatabase.resetDatabase(this); // 注释此行以避免每次启动清除数据
         
-        // 确保数据库实例已初始化
-        AppDatabase.getInstance(this);
-        Log.d(TAG, "数据库已初始化");
+        StartupPipeline.trackFirstFrame(this);
+        new StartupPipeline()
+                .add(new TokenManagerInitializer())
+                .add(new TimeZoneInitializer())
+                .add(new DatabaseInitializer())
+                .add(new StepTrackerInitializer())
+                .start(this);
         
-        // 初始化TokenManager
-        try {
-            TokenManager.getInstance().init(this);
-            Log.d(TAG, "TokenManager initialized");
-        } catch (Exception e) {
-            Log.e(TAG, "Error initializing TokenManager: " + e.getMessage());
-        }
-        
-        // 初始化ThreeTenABP，提供Java 8日期时间API的向后兼容性
-        AndroidThreeTen.init(this);
-        Log.d(TAG, "AndroidThreeTen initialized");
-        
-        // 其他全局初始化
-        Log.d(TAG, "Application initialized");
+        Log.d(TAG, String.format("Application initialized, 主线程耗时 %.1fms", timer.stop() / 1e6));
     }
-} 
\ No newline at end of file
+}
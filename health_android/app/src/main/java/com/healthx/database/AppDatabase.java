@@ -12,23 +12,29 @@ import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.healthx.database.converter.DateTimeConverter;
+import com.healthx.database.dao.DaySnapshotDao;
 import com.healthx.database.dao.DietDao;
 import com.healthx.database.dao.ExerciseDao;
 import com.healthx.database.dao.SleepRecordDao;
+import com.healthx.database.dao.StepBucketDao;
+import com.healthx.database.dao.StepCounterStateDao;
 import com.healthx.database.dao.StepGoalDao;
 import com.healthx.database.dao.StepRecordDao;
 import com.healthx.database.dao.UserDao;
 import com.healthx.database.dao.WeightRecordDao;
+import com.healthx.metrics.SlowQueryLogger;
 import com.healthx.model.Diet;
 import com.healthx.model.Exercise;
 import com.healthx.model.SleepRecord;
+import com.healthx.model.StepBucket;
+import com.healthx.model.StepCounterState;
 import com.healthx.model.StepGoal;
 import com.healthx.model.StepRecord;
 import com.healthx.model.User;
 import com.healthx.model.WeightRecord;
 
 
-@Database(entities = {User.class, Diet.class, Exercise.class, SleepRecord.class, WeightRecord.class, StepRecord.class, StepGoal.class}, version = 13, exportSchema = false)
+@Database(entities = {User.class, Diet.class, Exercise.class, SleepRecord.class, WeightRecord.class, StepRecord.class, StepGoal.class, StepBucket.class, StepCounterState.class}, version = 17, exportSchema = false)
 @TypeConverters({DateTimeConverter.class})
 public abstract class AppDatabase extends RoomDatabase {
     
@@ -419,6 +425,73 @@ public abstract class AppDatabase extends RoomDatabase {
         }
     };
     
+    // 版本13到版本14的迁移，睡眠记录改为由(userId, sleepDay)唯一索引保证每天一条
+    private static final Migration MIGRATION_13_14 = new Migration(13, 14) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            // 添加睡眠日期列，按startTime（毫秒时间戳）换算为本地日期零点的时间戳，与DateTimeConverter保持一致
+            database.execSQL("ALTER TABLE sleep_records ADD COLUMN sleepDay INTEGER");
+            database.execSQL("UPDATE sleep_records SET sleepDay = " +
+                    "strftime('%s', date(startTime / 1000, 'unixepoch', 'localtime'), 'utc') * 1000");
+            
+            // 一条语句删除重复记录：每个(userId, sleepDay)保留remoteId最大的记录，都没有remoteId时保留id最大的
+            database.execSQL("DELETE FROM sleep_records WHERE id != (" +
+                    "SELECT k.id FROM sleep_records k " +
+                    "WHERE k.userId = sleep_records.userId AND k.sleepDay = sleep_records.sleepDay " +
+                    "ORDER BY k.remoteId IS NULL, k.remoteId DESC, k.id DESC LIMIT 1)");
+            
+            // userId单列索引已被复合唯一索引的前缀覆盖
+            database.execSQL("DROP INDEX IF EXISTS index_sleep_records_userId");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS index_sleep_records_userId_sleepDay " +
+                    "ON sleep_records (userId, sleepDay)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_sleep_records_startTime " +
+                    "ON sleep_records (startTime)");
+        }
+    };
+    
+    // 版本14到版本15的迁移，LocalDate列由本地零点的毫秒时间戳改为epochDay，不再依赖时区
+    private static final Migration MIGRATION_14_15 = new Migration(14, 15) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            // julianday('yyyy-MM-dd')比对应的epochDay多2440587.5
+            String toEpochDay = "CAST(julianday(date(%1$s / 1000, 'unixepoch', 'localtime')) - 2440587.5 AS INTEGER)";
+            database.execSQL("UPDATE sleep_records SET sleepDay = "
+                    + String.format(toEpochDay, "sleepDay") + " WHERE sleepDay IS NOT NULL");
+            database.execSQL("UPDATE step_records SET record_date = " + String.format(toEpochDay, "record_date"));
+            database.execSQL("UPDATE step_goals SET start_date = " + String.format(toEpochDay, "start_date"));
+            database.execSQL("UPDATE step_goals SET end_date = "
+                    + String.format(toEpochDay, "end_date") + " WHERE end_date IS NOT NULL");
+        }
+    };
+    
+    // 版本15到版本16的迁移，添加分钟和小时级的步数时间桶表
+    private static final Migration MIGRATION_15_16 = new Migration(15, 16) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            // 主键(user_id, granularity, bucket_start)同时用于按时间范围查询和清理
+            database.execSQL("CREATE TABLE IF NOT EXISTS step_buckets (" +
+                    "user_id INTEGER NOT NULL, " +
+                    "granularity INTEGER NOT NULL, " +
+                    "bucket_start INTEGER NOT NULL, " +
+                    "steps INTEGER NOT NULL, " +
+                    "distance REAL NOT NULL, " +
+                    "calories REAL NOT NULL, " +
+                    "PRIMARY KEY(user_id, granularity, bucket_start))");
+        }
+    };
+    
+    // 版本16到版本17的迁移，计步计数器基线由SharedPreferences移到数据库，与步数在同一事务中写入
+    private static final Migration MIGRATION_16_17 = new Migration(16, 17) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS step_counter_state (" +
+                    "user_id INTEGER NOT NULL, " +
+                    "counter INTEGER NOT NULL, " +
+                    "boot_time INTEGER NOT NULL, " +
+                    "PRIMARY KEY(user_id))");
+        }
+    };
+    
     // DAOs
     public abstract UserDao userDao();
     public abstract DietDao dietDao();
@@ -427,20 +500,33 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract WeightRecordDao weightRecordDao();
     public abstract StepRecordDao stepRecordDao();
     public abstract StepGoalDao stepGoalDao();
+    public abstract StepBucketDao stepBucketDao();
+    public abstract StepCounterStateDao stepCounterStateDao();
+    public abstract DaySnapshotDao daySnapshotDao();
     
     /**
      * 获取AppDatabase实例
      */
     public static synchronized AppDatabase getInstance(Context context) {
         if (instance == null) {
-            instance = Room.databaseBuilder(context.getApplicationContext(),
+            RoomDatabase.Builder<AppDatabase> builder = Room.databaseBuilder(context.getApplicationContext(),
                     AppDatabase.class, DATABASE_NAME)
                     .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, 
                             MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10,
-                            MIGRATION_10_11, MIGRATION_11_12, MIGRATION_12_13)
+                            MIGRATION_10_11, MIGRATION_11_12, MIGRATION_12_13, MIGRATION_13_14,
+                            MIGRATION_14_15, MIGRATION_15_16, MIGRATION_16_17)
                     .fallbackToDestructiveMigration() // 升级数据库时，如果没有提供Migration，直接删除重建
-                    .addCallback(new MigrationCallback()) // 添加迁移回调
-                    .build();
+                    .addCallback(new MigrationCallback()); // 添加迁移回调
+            
+            // 可调试构建或打开诊断开关时记录慢查询
+            boolean diagnostics = SlowQueryLogger.isEnabled(context);
+            if (diagnostics) {
+                SlowQueryLogger.get().install(context, builder);
+            }
+            instance = builder.build();
+            if (diagnostics) {
+                SlowQueryLogger.get().attach(instance);
+            }
             
             Log.d(TAG, "数据库实例已创建");
         }
@@ -2,34 +2,93 @@ package com.healthx.database.converter;
 
 import androidx.room.TypeConverter;
 
-import org.threeten.bp.Instant;
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.ZoneId;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 
+/**
+ * Room日期时间转换器，全部实体共用
+ * LocalDateTime存为本地时区的毫秒时间戳，LocalDate存为epochDay（自1970-01-01起的天数），与时区无关
+ * 每读写一行的每个日期列都会调用一次，因此缓存当前时区的偏移表，直接按毫秒数计算本地时间，
+ * 不再每次调用ZoneId.systemDefault()和创建Instant/ZonedDateTime。系统时区变化时需要调用{@link #onTimeZoneChanged()}。
+ */
 public class DateTimeConverter {
-    
+
+    // 偏移表覆盖1970年到当前时间之后30年，范围外按时区规则计算
+    private static final long TABLE_YEARS_AHEAD = 30;
+    private static final long SECONDS_PER_YEAR = 365L * 24 * 60 * 60;
+
+    private static volatile ZoneOffsetTable zoneTable;
+
     @TypeConverter
     public static LocalDateTime fromTimestamp(Long timestamp) {
-        return timestamp == null ? null : 
-               LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+        return timestamp == null ? null : toLocalDateTime(timestamp);
     }
-    
+
     @TypeConverter
     public static Long dateTimeToTimestamp(LocalDateTime dateTime) {
-        return dateTime == null ? null : 
-               dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return dateTime == null ? null : toEpochMilli(dateTime);
     }
-    
+
     @TypeConverter
-    public static LocalDate fromDayTimestamp(Long timestamp) {
-        return timestamp == null ? null :
-               Instant.ofEpochMilli(timestamp).atZone(ZoneId.systemDefault()).toLocalDate();
+    public static LocalDate fromEpochDay(Long epochDay) {
+        return epochDay == null ? null : LocalDate.ofEpochDay(epochDay);
     }
-    
+
     @TypeConverter
-    public static Long dateToTimestamp(LocalDate date) {
-        return date == null ? null :
-               date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    public static Long dateToEpochDay(LocalDate date) {
+        return date == null ? null : date.toEpochDay();
+    }
+
+    /**
+     * 毫秒时间戳转换为当前时区的本地时间
+     */
+    public static LocalDateTime toLocalDateTime(long epochMilli) {
+        long epochSecond = Math.floorDiv(epochMilli, 1000L);
+        int nanos = (int) Math.floorMod(epochMilli, 1000L) * 1_000_000;
+        ZoneOffsetTable table = zoneTable();
+        ZoneOffset offset = table.offsetAtEpochSecond(epochSecond);
+        if (offset == null) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), table.getZone());
+        }
+        return LocalDateTime.ofEpochSecond(epochSecond, nanos, offset);
+    }
+
+    /**
+     * 当前时区的本地时间转换为毫秒时间戳
+     * 夏令时间隙和重叠处的本地时间按ZonedDateTime的规则处理
+     */
+    public static long toEpochMilli(LocalDateTime dateTime) {
+        long localSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+        ZoneOffsetTable table = zoneTable();
+        ZoneOffset offset = table.offsetAtLocalSecond(localSecond);
+        if (offset == null) {
+            return dateTime.atZone(table.getZone()).toInstant().toEpochMilli();
+        }
+        return (localSecond - offset.getTotalSeconds()) * 1000L + dateTime.getNano() / 1_000_000;
+    }
+
+    /**
+     * 系统时区变化后重建偏移表，由时区变化广播触发
+     */
+    public static void onTimeZoneChanged() {
+        zoneTable = buildTable(ZoneId.systemDefault());
+    }
+
+    private static ZoneOffsetTable zoneTable() {
+        ZoneOffsetTable table = zoneTable;
+        if (table == null) {
+            // 并发首次访问时可能重复构建，结果相同，无需加锁
+            table = buildTable(ZoneId.systemDefault());
+            zoneTable = table;
+        }
+        return table;
+    }
+
+    private static ZoneOffsetTable buildTable(ZoneId zone) {
+        long now = System.currentTimeMillis() / 1000L;
+        return ZoneOffsetTable.build(zone, 0L, now + TABLE_YEARS_AHEAD * SECONDS_PER_YEAR);
     }
-} 
\ No newline at end of file
+}
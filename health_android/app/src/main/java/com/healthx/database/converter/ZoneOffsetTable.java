@@ -0,0 +1,133 @@
+package com.healthx.database.converter;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 时区偏移表，把时区规则在[from, to)时间范围内展开为按时间排序的偏移区间
+ * 查询只做二分查找，不创建Instant/ZonedDateTime等中间对象。
+ * 固定偏移的时区直接返回同一个偏移；范围外或本地时间落在夏令时间隙/重叠处时返回null，由调用方按时区规则计算。
+ * 实例不可变，可以在多个线程间共享。
+ */
+public final class ZoneOffsetTable {
+
+    private final ZoneId zone;
+    private final ZoneOffset fixedOffset;
+    private final long fromEpochSecond;
+    private final long toEpochSecond;
+    // transitions[i]为第i个切换时刻（epoch秒），offsets[i]适用于transitions[i-1]到transitions[i]之间
+    private final long[] transitions;
+    private final ZoneOffset[] offsets;
+    // 第i个区间中能唯一确定偏移的本地时间范围[localStarts[i], localEnds[i])（本地秒数）
+    private final long[] localStarts;
+    private final long[] localEnds;
+
+    private ZoneOffsetTable(ZoneId zone, ZoneOffset fixedOffset, long fromEpochSecond, long toEpochSecond,
+                            long[] transitions, ZoneOffset[] offsets, long[] localStarts, long[] localEnds) {
+        this.zone = zone;
+        this.fixedOffset = fixedOffset;
+        this.fromEpochSecond = fromEpochSecond;
+        this.toEpochSecond = toEpochSecond;
+        this.transitions = transitions;
+        this.offsets = offsets;
+        this.localStarts = localStarts;
+        this.localEnds = localEnds;
+    }
+
+    /**
+     * 展开时区规则
+     *
+     * @param fromEpochSecond 起始时刻（含）
+     * @param toEpochSecond   结束时刻（不含）
+     */
+    public static ZoneOffsetTable build(ZoneId zone, long fromEpochSecond, long toEpochSecond) {
+        ZoneRules rules = zone.getRules();
+        if (rules.isFixedOffset()) {
+            ZoneOffset offset = rules.getOffset(Instant.EPOCH);
+            return new ZoneOffsetTable(zone, offset, Long.MIN_VALUE, Long.MAX_VALUE, null, null, null, null);
+        }
+
+        List<ZoneOffsetTransition> list = new ArrayList<>();
+        ZoneOffsetTransition next = rules.nextTransition(Instant.ofEpochSecond(fromEpochSecond));
+        while (next != null && next.toEpochSecond() < toEpochSecond) {
+            list.add(next);
+            next = rules.nextTransition(next.getInstant());
+        }
+
+        int n = list.size();
+        long[] transitions = new long[n];
+        ZoneOffset[] offsets = new ZoneOffset[n + 1];
+        offsets[0] = rules.getOffset(Instant.ofEpochSecond(fromEpochSecond));
+        for (int i = 0; i < n; i++) {
+            transitions[i] = list.get(i).toEpochSecond();
+            offsets[i + 1] = list.get(i).getOffsetAfter();
+        }
+
+        // 区间i的本地时间下界要避开与上一区间重叠的部分，上界要避开与下一区间重叠的部分
+        long[] localStarts = new long[n + 1];
+        long[] localEnds = new long[n + 1];
+        for (int i = 0; i <= n; i++) {
+            int offset = offsets[i].getTotalSeconds();
+            localStarts[i] = i == 0
+                    ? fromEpochSecond + offset
+                    : transitions[i - 1] + Math.max(offsets[i - 1].getTotalSeconds(), offset);
+            localEnds[i] = i == n
+                    ? toEpochSecond + offset
+                    : transitions[i] + Math.min(offset, offsets[i + 1].getTotalSeconds());
+        }
+        if (n == 0) {
+            // 范围内没有切换（例如Asia/Shanghai），按固定偏移处理
+            return new ZoneOffsetTable(zone, offsets[0], fromEpochSecond, toEpochSecond,
+                    transitions, offsets, localStarts, localEnds);
+        }
+        return new ZoneOffsetTable(zone, null, fromEpochSecond, toEpochSecond,
+                transitions, offsets, localStarts, localEnds);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 获取某一时刻的偏移
+     *
+     * @return 偏移，超出表范围时返回null
+     */
+    public ZoneOffset offsetAtEpochSecond(long epochSecond) {
+        if (epochSecond < fromEpochSecond || epochSecond >= toEpochSecond) {
+            return null;
+        }
+        if (fixedOffset != null) {
+            return fixedOffset;
+        }
+        int index = Arrays.binarySearch(transitions, epochSecond);
+        // 恰好在切换时刻时使用切换后的偏移
+        return offsets[index >= 0 ? index + 1 : -index - 1];
+    }
+
+    /**
+     * 获取本地时间（按UTC换算的本地秒数）对应的偏移
+     *
+     * @return 偏移，超出表范围或本地时间不存在/有两个偏移时返回null
+     */
+    public ZoneOffset offsetAtLocalSecond(long localSecond) {
+        if (fixedOffset != null) {
+            long epochSecond = localSecond - fixedOffset.getTotalSeconds();
+            return epochSecond >= fromEpochSecond && epochSecond < toEpochSecond ? fixedOffset : null;
+        }
+        int index = Arrays.binarySearch(localStarts, localSecond);
+        if (index < 0) {
+            index = -index - 2;
+            if (index < 0) {
+                return null;
+            }
+        }
+        return localSecond < localEnds[index] ? offsets[index] : null;
+    }
+}
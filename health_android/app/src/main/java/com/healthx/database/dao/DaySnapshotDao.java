@@ -0,0 +1,46 @@
+package com.healthx.database.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.healthx.model.DaySnapshot;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 单日健康数据汇总的数据访问对象
+ */
+@Dao
+public interface DaySnapshotDao {
+    
+    /**
+     * 一次查询得到某天的饮食、运动、步数、睡眠和体重数据
+     * 每个子查询都走(userId, 时间)的索引范围；五张表中任何一张变化都会重新查询，
+     * 调用方用distinctUntilChanged过滤掉数值没有变化的结果。
+     * 睡眠取在当天结束的最近一次（入睡日期为前一天或当天），体重取截至当天结束前最近一次测量。
+     * @param userId 用户ID
+     * @param dayStart 当天开始时间（含）
+     * @param dayEnd 次日开始时间（不含）
+     * @param yesterday 前一天
+     * @param day 当天
+     * @return 单日汇总LiveData
+     */
+    @Transaction
+    @Query("SELECT " +
+           "(SELECT IFNULL(SUM(calories), 0) FROM diets " +
+           "    WHERE userId = :userId AND eatenAt >= :dayStart AND eatenAt < :dayEnd) AS caloriesIn, " +
+           "(SELECT IFNULL(SUM(caloriesBurned), 0) FROM exercises " +
+           "    WHERE userId = :userId AND exercisedAt >= :dayStart AND exercisedAt < :dayEnd) AS caloriesBurned, " +
+           "(SELECT IFNULL(SUM(step_count), 0) FROM step_records " +
+           "    WHERE user_id = :userId AND record_date = :day) AS steps, " +
+           "(SELECT duration FROM sleep_records " +
+           "    WHERE userId = :userId AND sleepDay BETWEEN :yesterday AND :day " +
+           "    AND endTime >= :dayStart AND endTime < :dayEnd ORDER BY endTime DESC LIMIT 1) AS sleepMinutes, " +
+           "(SELECT weight FROM weight_records " +
+           "    WHERE userId = :userId AND measurementTime < :dayEnd ORDER BY measurementTime DESC LIMIT 1) AS weight")
+    LiveData<DaySnapshot> observeDaySnapshot(long userId, LocalDateTime dayStart, LocalDateTime dayEnd,
+                                             LocalDate yesterday, LocalDate day);
+}
@@ -10,7 +10,7 @@ import androidx.room.Update;
 
 import com.healthx.model.Diet;
 
-import org.threeten.bp.LocalDateTime;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Dao
@@ -28,6 +28,9 @@ public interface DietDao {
     @Query("SELECT * FROM diets WHERE id = :id")
     Diet getDietById(long id);
     
+    @Query("SELECT * FROM diets WHERE id = :id")
+    LiveData<Diet> observeDietById(long id);
+    
     @Query("SELECT * FROM diets WHERE remoteId = :remoteId")
     Diet getDietByRemoteId(long remoteId);
     
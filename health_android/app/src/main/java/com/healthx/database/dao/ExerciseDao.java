@@ -10,7 +10,7 @@ import androidx.room.Update;
 
 import com.healthx.model.Exercise;
 
-import org.threeten.bp.LocalDateTime;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Dao
@@ -28,6 +28,9 @@ public interface ExerciseDao {
     @Query("SELECT * FROM exercises WHERE id = :id")
     Exercise getExerciseById(long id);
     
+    @Query("SELECT * FROM exercises WHERE id = :id")
+    LiveData<Exercise> observeExerciseById(long id);
+    
     @Query("SELECT * FROM exercises WHERE remoteId = :remoteId")
     Exercise getExerciseByRemoteId(long remoteId);
     
@@ -6,13 +6,13 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
 import com.healthx.model.SleepRecord;
 
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.LocalDate;
-
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Dao
@@ -21,9 +21,17 @@ public interface SleepRecordDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     long insert(SleepRecord sleepRecord);
     
+    // 同一用户同一天已有记录时不插入，返回-1
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insertIfAbsent(SleepRecord sleepRecord);
+    
     @Update
     void update(SleepRecord sleepRecord);
     
+    // 修改后的日期与其他记录冲突时不更新，返回0
+    @Update(onConflict = OnConflictStrategy.IGNORE)
+    int updateIfNoConflict(SleepRecord sleepRecord);
+    
     @Delete
     void delete(SleepRecord sleepRecord);
     
@@ -42,14 +50,11 @@ public interface SleepRecordDao {
     @Query("SELECT * FROM sleep_records WHERE userId = :userId ORDER BY startTime DESC")
     List<SleepRecord> getAllByUserIdSync(long userId);
     
-    @Query("SELECT * FROM sleep_records WHERE userId = :userId AND date(startTime) = date(:date) LIMIT 1")
-    LiveData<SleepRecord> getByUserIdAndDate(long userId, LocalDateTime date);
-    
-    @Query("SELECT * FROM sleep_records WHERE userId = :userId AND date(startTime) = :date")
-    List<SleepRecord> getByUserIdAndDateSync(long userId, String date);
+    @Query("SELECT * FROM sleep_records WHERE userId = :userId AND sleepDay = :day")
+    LiveData<SleepRecord> getByUserIdAndDay(long userId, LocalDate day);
     
-    @Query("DELETE FROM sleep_records WHERE userId = :userId AND date(startTime) = :date AND id != :exceptId")
-    void deleteByDateExcept(long userId, String date, long exceptId);
+    @Query("SELECT * FROM sleep_records WHERE userId = :userId AND sleepDay = :day")
+    SleepRecord getByUserIdAndDaySync(long userId, LocalDate day);
     
     @Query("SELECT * FROM sleep_records WHERE userId = :userId AND startTime >= :startDate AND startTime <= :endDate ORDER BY startTime DESC")
     LiveData<List<SleepRecord>> getByDateRange(long userId, LocalDateTime startDate, LocalDateTime endDate);
@@ -63,4 +68,49 @@ public interface SleepRecordDao {
     
     @Query("UPDATE sleep_records SET remoteId = :remoteId, syncStatus = :syncStatus WHERE id = :id")
     void updateSyncStatus(long id, Long remoteId, int syncStatus);
+    
+    // 用服务器数据覆盖当天记录：本地待更新/待删除(2/3)的记录优先，remoteId较大的服务器记录优先
+    @Query("UPDATE sleep_records SET remoteId = :remoteId, startTime = :startTime, endTime = :endTime, " +
+            "duration = :duration, syncStatus = 1 " +
+            "WHERE userId = :userId AND sleepDay = :day AND syncStatus IN (0, 1) " +
+            "AND (remoteId IS NULL OR remoteId <= :remoteId)")
+    int updateDayFromRemote(long userId, LocalDate day, Long remoteId,
+                            LocalDateTime startTime, LocalDateTime endTime, int duration);
+    
+    @Query("SELECT * FROM sleep_records WHERE userId = :userId AND remoteId = :remoteId LIMIT 1")
+    SleepRecord getByRemoteIdSync(long userId, long remoteId);
+    
+    // 服务器记录改了日期时移动本地对应的行；新日期已有其他记录时不更新，返回0
+    @Query("UPDATE OR IGNORE sleep_records SET sleepDay = :day, startTime = :startTime, endTime = :endTime, " +
+            "duration = :duration, syncStatus = 1 WHERE id = :id")
+    int updateFromRemoteById(long id, LocalDate day, LocalDateTime startTime, LocalDateTime endTime, int duration);
+    
+    // 合并服务器返回的记录，整批在一个事务内完成：
+    // 先按remoteId找本地对应的行，找不到或无法移动到新日期时再按(userId, sleepDay)合并
+    @Transaction
+    default void upsertRemoteRecords(List<SleepRecord> records) {
+        for (SleepRecord record : records) {
+            if (record.getStartTime() == null) {
+                continue;
+            }
+            SleepRecord existing = record.getRemoteId() == null ? null
+                    : getByRemoteIdSync(record.getUserId(), record.getRemoteId());
+            if (existing != null) {
+                // 本地待更新/待删除(2/3)的记录优先
+                if (existing.getSyncStatus() >= 2) {
+                    continue;
+                }
+                if (updateFromRemoteById(existing.getId(), record.getSleepDay(), record.getStartTime(),
+                        record.getEndTime(), record.getDuration()) > 0) {
+                    continue;
+                }
+                // 新日期已有其他记录，删除旧日期的行，按新日期合并，避免同一remoteId出现两行
+                deleteById(existing.getId());
+            }
+            if (insertIfAbsent(record) == -1) {
+                updateDayFromRemote(record.getUserId(), record.getSleepDay(), record.getRemoteId(),
+                        record.getStartTime(), record.getEndTime(), record.getDuration());
+            }
+        }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.healthx.database.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.healthx.model.StepBucket;
+
+import java.util.List;
+
+/**
+ * 步数时间桶数据访问对象
+ */
+@Dao
+public interface StepBucketDao {
+    
+    /**
+     * 插入时间桶，已存在时忽略
+     * @param bucket 时间桶
+     * @return 插入的行ID，已存在时返回-1
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insertIfAbsent(StepBucket bucket);
+    
+    /**
+     * 在已有时间桶上累加步数
+     * minSdk的SQLite不支持UPSERT，先累加，返回0时再插入
+     * @return 更新的行数
+     */
+    @Query("UPDATE step_buckets SET steps = steps + :steps, distance = distance + :distance, calories = calories + :calories " +
+           "WHERE user_id = :userId AND granularity = :granularity AND bucket_start = :bucketStart")
+    int addSteps(long userId, int granularity, long bucketStart, int steps, double distance, double calories);
+    
+    /**
+     * 获取时间范围[from, to)内的时间桶，按时间排序
+     * @param userId 用户ID
+     * @param granularity 粒度
+     * @param from 开始时间戳（含）
+     * @param to 结束时间戳（不含）
+     * @return 时间桶列表LiveData
+     */
+    @Query("SELECT * FROM step_buckets WHERE user_id = :userId AND granularity = :granularity " +
+           "AND bucket_start >= :from AND bucket_start < :to ORDER BY bucket_start")
+    LiveData<List<StepBucket>> observeBuckets(long userId, int granularity, long from, long to);
+    
+    /**
+     * 删除早于指定时间的时间桶
+     * @return 删除的行数
+     */
+    @Query("DELETE FROM step_buckets WHERE user_id = :userId AND granularity = :granularity AND bucket_start < :before")
+    int deleteBefore(long userId, int granularity, long before);
+}
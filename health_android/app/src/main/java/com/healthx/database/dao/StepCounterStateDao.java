@@ -0,0 +1,28 @@
+package com.healthx.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.healthx.model.StepCounterState;
+
+/**
+ * 计步计数器基线数据访问对象
+ */
+@Dao
+public interface StepCounterStateDao {
+    
+    /**
+     * 保存用户的计数器基线，已存在时覆盖
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void save(StepCounterState state);
+    
+    /**
+     * 获取用户的计数器基线
+     * @return 基线，没有时返回null
+     */
+    @Query("SELECT * FROM step_counter_state WHERE user_id = :userId")
+    StepCounterState get(long userId);
+}
@@ -35,6 +35,27 @@ public interface StepRecordDao {
     @Update
     int update(StepRecord stepRecord);
     
+    /**
+     * 上传成功后写回远程ID，只修改同步相关的列
+     * 只有上传的步数仍是当前步数时才标记为已同步，上传期间新写入的步数保持未同步，由下一次上传处理
+     * @param id 记录ID
+     * @param remoteId 服务器返回的ID
+     * @param sentSteps 上传时的步数
+     * @return 更新的行数
+     */
+    @Query("UPDATE step_records SET remote_id = :remoteId, " +
+            "sync_status = CASE WHEN step_count = :sentSteps THEN 1 ELSE sync_status END WHERE id = :id")
+    int markSynced(long id, Long remoteId, int sentSteps);
+    
+    /**
+     * 上传失败后标记为同步失败；上传期间步数已经变化的记录保持未同步
+     * @param id 记录ID
+     * @param sentSteps 上传时的步数
+     * @return 更新的行数
+     */
+    @Query("UPDATE step_records SET sync_status = 2 WHERE id = :id AND step_count = :sentSteps")
+    int markSyncFailed(long id, int sentSteps);
+    
     /**
      * 删除步数记录
      * @param stepRecord 步数记录
@@ -85,6 +106,14 @@ public interface StepRecordDao {
     @Query("SELECT * FROM step_records WHERE sync_status = 0")
     List<StepRecord> getUnsyncedStepRecords();
     
+    /**
+     * 获取用户未同步或同步失败的步数记录，用于重新上传
+     * @param userId 用户ID
+     * @return 步数记录列表
+     */
+    @Query("SELECT * FROM step_records WHERE user_id = :userId AND sync_status != 1")
+    List<StepRecord> getUnsyncedStepRecordsByUserId(long userId);
+    
     /**
      * 获取用户特定日期范围的步数总和
      * @param userId 用户ID
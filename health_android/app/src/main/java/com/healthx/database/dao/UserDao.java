@@ -3,10 +3,9 @@ package com.healthx.database.dao;
 import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
-import androidx.room.Insert;
-import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Update;
+import androidx.room.Upsert;
 
 import com.healthx.model.User;
 
@@ -15,8 +14,9 @@ import java.util.List;
 @Dao
 public interface UserDao {
     
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
-    long insertUser(User user);
+    // 已存在时原地更新，不能用REPLACE：REPLACE会先删除旧行，级联删除该用户的体重记录
+    @Upsert
+    long upsertUser(User user);
     
     @Update
     void updateUser(User user);
@@ -38,4 +38,7 @@ public interface UserDao {
     
     @Query("SELECT COUNT(*) FROM users")
     int getUserCount();
+    
+    @Query("DELETE FROM users")
+    void deleteAllUsers();
 } 
\ No newline at end of file
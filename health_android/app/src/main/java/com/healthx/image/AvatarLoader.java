@@ -0,0 +1,234 @@
+package com.healthx.image;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.annotation.Nullable;
+
+import com.healthx.metrics.Metrics;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+
+/**
+ * 头像加载管线
+ * 内存层：按字节计算容量的LruCache，键为"用户ID@宽x高"；
+ * 磁盘层：选择头像时把图片采样压缩为不超过512像素的JPEG保存在files/avatars下，之后显示和上传都只读这个文件。
+ * 解码、压缩和磁盘读写都在后台线程执行，主线程只做内存缓存查询和设置位图。
+ */
+public final class AvatarLoader {
+
+    private static final String TAG = "AvatarLoader";
+    // 磁盘层保存的最大边长，足够头像在各种屏幕上清晰显示
+    private static final int STORED_MAX_SIZE = 512;
+    private static final int JPEG_QUALITY = 85;
+    private static final int DEFAULT_VIEW_SIZE = 240;
+    private static final MediaType JPEG = MediaType.parse("image/jpeg");
+
+    private static volatile AvatarLoader instance;
+
+    private final Context appContext;
+    private final File avatarDir;
+    private final LruCache<String, Bitmap> memoryCache;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * 设置头像的结果回调，在主线程调用
+     */
+    public interface Callback {
+        void onComplete(boolean success);
+    }
+
+    private AvatarLoader(Context context) {
+        appContext = context.getApplicationContext();
+        avatarDir = new File(appContext.getFilesDir(), "avatars");
+        // 头像位图很小，使用可用内存的1/32即可
+        int maxKb = (int) (Runtime.getRuntime().maxMemory() / 1024 / 32);
+        memoryCache = new LruCache<String, Bitmap>(maxKb) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount() / 1024;
+            }
+        };
+    }
+
+    public static AvatarLoader get(Context context) {
+        if (instance == null) {
+            synchronized (AvatarLoader.class) {
+                if (instance == null) {
+                    instance = new AvatarLoader(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 在视图中显示用户头像，没有保存过头像时保持视图原有的占位图
+     */
+    public void load(long userId, ImageView view) {
+        int size = targetSize(view);
+        String key = cacheKey(userId, size);
+        view.setTag(key);
+
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            view.setImageBitmap(cached);
+            return;
+        }
+
+        File file = avatarFile(userId);
+        executor.execute(() -> {
+            if (!file.exists()) {
+                return;
+            }
+            Bitmap bitmap = decodeFile(file, size);
+            if (bitmap != null) {
+                memoryCache.put(key, bitmap);
+                postToView(view, key, bitmap);
+            }
+        });
+    }
+
+    /**
+     * 把选择的图片保存为用户头像并显示
+     * 原图只按采样率解码一次，压缩后写入磁盘层，原始大图不会进入内存缓存。
+     */
+    public void setAvatar(long userId, Uri source, ImageView view, @Nullable Callback callback) {
+        int size = targetSize(view);
+        String key = cacheKey(userId, size);
+        view.setTag(key);
+
+        executor.execute(() -> {
+            boolean success = false;
+            try {
+                saveToDisk(userId, source);
+                invalidate(userId);
+                Bitmap bitmap = decodeFile(avatarFile(userId), size);
+                if (bitmap != null) {
+                    memoryCache.put(key, bitmap);
+                    postToView(view, key, bitmap);
+                    success = true;
+                }
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "保存头像失败: " + source, e);
+            }
+            if (callback != null) {
+                boolean result = success;
+                mainHandler.post(() -> callback.onComplete(result));
+            }
+        });
+    }
+
+    /**
+     * 创建头像上传的multipart片段
+     * 直接从磁盘层的压缩文件流式写入请求体，上传过程中不需要在内存中持有位图或整个文件
+     *
+     * @return 片段，没有保存过头像时返回null
+     */
+    @Nullable
+    public MultipartBody.Part createUploadPart(long userId) {
+        File file = avatarFile(userId);
+        if (!file.exists()) {
+            return null;
+        }
+        return MultipartBody.Part.createFormData("file", file.getName(), RequestBody.create(file, JPEG));
+    }
+
+    private void invalidate(long userId) {
+        String prefix = userId + "@";
+        for (String key : memoryCache.snapshot().keySet()) {
+            if (key.startsWith(prefix)) {
+                memoryCache.remove(key);
+            }
+        }
+    }
+
+    private void saveToDisk(long userId, Uri source) throws IOException {
+        Metrics.Timer timer = Metrics.get().startTimer("image.avatar.save");
+        BitmapDecoder.StreamOpener opener = () -> appContext.getContentResolver().openInputStream(source);
+        Bitmap bitmap = BitmapDecoder.decodeSampled(opener, STORED_MAX_SIZE, STORED_MAX_SIZE);
+        if (bitmap == null) {
+            throw new IOException("无法解码图片");
+        }
+        bitmap = BitmapDecoder.rotate(bitmap, BitmapDecoder.readRotation(opener));
+
+        if (!avatarDir.exists() && !avatarDir.mkdirs()) {
+            bitmap.recycle();
+            throw new IOException("无法创建目录: " + avatarDir);
+        }
+        // 先写临时文件再重命名，避免读到写了一半的头像
+        File target = avatarFile(userId);
+        File temp = new File(avatarDir, target.getName() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+        } finally {
+            bitmap.recycle();
+        }
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            throw new IOException("无法保存头像文件: " + target);
+        }
+        timer.stop();
+    }
+
+    private Bitmap decodeFile(File file, int size) {
+        Metrics.Timer timer = Metrics.get().startTimer("image.avatar.decode");
+        try {
+            return BitmapDecoder.decodeSampled(() -> new FileInputStream(file), size, size);
+        } catch (IOException e) {
+            Log.e(TAG, "解码头像失败: " + file, e);
+            return null;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private void postToView(ImageView view, String key, Bitmap bitmap) {
+        mainHandler.post(() -> {
+            // 视图已经用于显示其他用户的头像时丢弃结果
+            if (key.equals(view.getTag())) {
+                view.setImageBitmap(bitmap);
+            }
+        });
+    }
+
+    private File avatarFile(long userId) {
+        return new File(avatarDir, userId + ".jpg");
+    }
+
+    private static String cacheKey(long userId, int size) {
+        return userId + "@" + size + "x" + size;
+    }
+
+    /**
+     * 视图尚未布局时使用布局参数中的固定尺寸
+     */
+    private static int targetSize(ImageView view) {
+        int size = Math.max(view.getWidth(), view.getHeight());
+        if (size <= 0) {
+            ViewGroup.LayoutParams params = view.getLayoutParams();
+            if (params != null) {
+                size = Math.max(params.width, params.height);
+            }
+        }
+        return size > 0 ? size : DEFAULT_VIEW_SIZE;
+    }
+}
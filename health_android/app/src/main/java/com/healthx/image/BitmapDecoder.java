@@ -0,0 +1,101 @@
+package com.healthx.image;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 按目标尺寸采样解码图片
+ * 先只读取尺寸，再按2的幂计算inSampleSize解码，解码出的位图不小于目标尺寸，最多是目标的两倍，
+ * 避免把几千像素的照片按原尺寸解码到内存中。
+ */
+public final class BitmapDecoder {
+
+    /**
+     * 每次解码都需要重新打开输入流
+     */
+    public interface StreamOpener {
+        InputStream open() throws IOException;
+    }
+
+    private BitmapDecoder() {
+    }
+
+    /**
+     * 解码并采样到不小于reqWidth x reqHeight
+     *
+     * @return 位图，无法解码时返回null
+     */
+    public static Bitmap decodeSampled(StreamOpener opener, int reqWidth, int reqHeight) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        try (InputStream in = opener.open()) {
+            BitmapFactory.decodeStream(in, null, options);
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, reqWidth, reqHeight);
+        options.inJustDecodeBounds = false;
+        try (InputStream in = opener.open()) {
+            return BitmapFactory.decodeStream(in, null, options);
+        }
+    }
+
+    /**
+     * 计算最大的2的幂采样率，使采样后的宽高仍不小于目标宽高
+     */
+    public static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+        if (reqWidth <= 0 || reqHeight <= 0) {
+            return inSampleSize;
+        }
+        while (width / (inSampleSize * 2) >= reqWidth && height / (inSampleSize * 2) >= reqHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    /**
+     * 读取EXIF方向，返回需要顺时针旋转的角度
+     */
+    public static int readRotation(StreamOpener opener) {
+        try (InputStream in = opener.open()) {
+            int orientation = new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+            switch (orientation) {
+                case ExifInterface.ORIENTATION_ROTATE_90:
+                    return 90;
+                case ExifInterface.ORIENTATION_ROTATE_180:
+                    return 180;
+                case ExifInterface.ORIENTATION_ROTATE_270:
+                    return 270;
+                default:
+                    return 0;
+            }
+        } catch (IOException | RuntimeException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 按角度旋转位图，旋转后回收原位图
+     */
+    public static Bitmap rotate(Bitmap bitmap, int degrees) {
+        if (degrees == 0) {
+            return bitmap;
+        }
+        Matrix matrix = new Matrix();
+        matrix.postRotate(degrees);
+        Bitmap rotated = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+        if (rotated != bitmap) {
+            bitmap.recycle();
+        }
+        return rotated;
+    }
+}
@@ -0,0 +1,36 @@
+package com.healthx.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁计数器，多线程并发累加时没有锁竞争
+ */
+public class Counter {
+    
+    private final String name;
+    private final LongAdder value = new LongAdder();
+    
+    Counter(String name) {
+        this.name = name;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void increment() {
+        value.increment();
+    }
+    
+    public void add(long delta) {
+        value.add(delta);
+    }
+    
+    public long getCount() {
+        return value.sum();
+    }
+    
+    void reset() {
+        value.reset();
+    }
+}
@@ -0,0 +1,58 @@
+package com.healthx.metrics;
+
+import androidx.lifecycle.LiveData;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * 为Room DAO接口加上计时
+ * 通过动态代理包装生成的DAO实现，每个方法的耗时记录到 dao.接口名.方法名，
+ * 抛出异常时累加 dao.接口名.方法名.errors。每次调用同时是慢查询记录器的一个计时帧。
+ * 返回LiveData的方法实际查询在观察时才执行，这里只统计调用次数。
+ */
+public final class DaoMetrics {
+    
+    private DaoMetrics() {
+    }
+    
+    @SuppressWarnings("unchecked")
+    public static <T> T instrument(Class<T> daoInterface, T dao) {
+        String prefix = "dao." + daoInterface.getSimpleName() + ".";
+        Metrics metrics = Metrics.get();
+        SlowQueryLogger slowQueryLogger = SlowQueryLogger.get();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(dao, args);
+            }
+            String name = prefix + method.getName();
+            if (LiveData.class.isAssignableFrom(method.getReturnType())) {
+                metrics.increment(name);
+                return invoke(dao, method, args);
+            }
+            Metrics.Timer timer = metrics.startTimer(name);
+            slowQueryLogger.beginFrame(name);
+            try {
+                return invoke(dao, method, args);
+            } catch (Throwable t) {
+                metrics.increment(name + ".errors");
+                throw t;
+            } finally {
+                slowQueryLogger.endFrame();
+                timer.stop();
+            }
+        };
+        return (T) Proxy.newProxyInstance(daoInterface.getClassLoader(), new Class<?>[]{daoInterface}, handler);
+    }
+    
+    // 解开反射异常，让调用方看到DAO原本抛出的异常
+    private static Object invoke(Object dao, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(dao, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.healthx.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁延迟直方图（以微秒为单位）
+ * 参考HdrHistogram的对数-线性分桶：每个2的幂区间再均分为32个子桶，
+ * 相对误差约3%，覆盖1微秒到约12天的范围，占用固定内存，记录时只有一次原子加法。
+ */
+public class LatencyHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // 最大可记录值为 2^40 微秒
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1000);
+    }
+    
+    public void recordMicros(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_VALUE));
+        buckets.incrementAndGet(bucketIndex(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        
+        long currentMax;
+        while (value > (currentMax = max.get())) {
+            if (max.compareAndSet(currentMax, value)) {
+                break;
+            }
+        }
+    }
+    
+    public long getCount() {
+        return count.get();
+    }
+    
+    public long getMaxMicros() {
+        return max.get();
+    }
+    
+    public double getMeanMicros() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+    
+    /**
+     * 计算百分位值，返回所在桶的中点
+     *
+     * @param percentile 0~100
+     */
+    public long getPercentileMicros(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(bucketMidpoint(i), max.get());
+            }
+        }
+        return max.get();
+    }
+    
+    void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+    
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) ((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+    
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+    }
+    
+    private static long bucketMidpoint(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            // 前两段每个桶只包含一个值
+            return bucketLowerBound(index);
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return bucketLowerBound(index) + (1L << shift) / 2;
+    }
+}
@@ -0,0 +1,161 @@
+package com.healthx.metrics;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 应用内性能指标注册表
+ * 按名称管理计数器和延迟直方图，名称约定为"类别.对象.操作"，例如
+ * dao.SleepRecordDao.getBySyncStatus、http.POST /api/sleep、sync.weight。
+ * 所有记录操作都是无锁的，可以在任意线程调用。
+ */
+public class Metrics {
+    
+    private static final Metrics INSTANCE = new Metrics();
+    private static final DateTimeFormatter REPORT_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss", Locale.US);
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss", Locale.US);
+    
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final long createdAt = System.currentTimeMillis();
+    
+    public static Metrics get() {
+        return INSTANCE;
+    }
+    
+    public Counter counter(String name) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(name, Counter::new);
+        }
+        return counter;
+    }
+    
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(name, LatencyHistogram::new);
+        }
+        return histogram;
+    }
+    
+    /**
+     * 开始计时，调用返回对象的stop()时记录到同名直方图
+     */
+    public Timer startTimer(String name) {
+        return new Timer(histogram(name));
+    }
+    
+    public void recordNanos(String name, long nanos) {
+        histogram(name).recordNanos(nanos);
+    }
+    
+    public void increment(String name) {
+        counter(name).increment();
+    }
+    
+    /**
+     * 清空所有指标
+     */
+    public void reset() {
+        for (Counter counter : counters.values()) {
+            counter.reset();
+        }
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+    
+    public List<LatencyHistogram> getHistograms() {
+        List<LatencyHistogram> list = new ArrayList<>(histograms.values());
+        Collections.sort(list, (a, b) -> a.getName().compareTo(b.getName()));
+        return list;
+    }
+    
+    public List<Counter> getCounters() {
+        List<Counter> list = new ArrayList<>(counters.values());
+        Collections.sort(list, (a, b) -> a.getName().compareTo(b.getName()));
+        return list;
+    }
+    
+    /**
+     * 生成文本报告，每个操作一行：次数、平均值、p50/p95/p99和最大值（毫秒）
+     */
+    public String formatReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("采集开始: ")
+                .append(REPORT_TIME.format(Instant.ofEpochMilli(createdAt).atZone(ZoneId.systemDefault())))
+                .append("  导出时间: ").append(REPORT_TIME.format(LocalDateTime.now())).append('\n');
+        
+        report.append("\n[延迟] 次数 平均 p50 p95 p99 最大 (ms)\n");
+        for (LatencyHistogram h : getHistograms()) {
+            if (h.getCount() == 0) {
+                continue;
+            }
+            report.append(String.format(Locale.US, "%s\n    %d  %.2f  %.2f  %.2f  %.2f  %.2f\n",
+                    h.getName(), h.getCount(), h.getMeanMicros() / 1000.0,
+                    h.getPercentileMicros(50) / 1000.0,
+                    h.getPercentileMicros(95) / 1000.0,
+                    h.getPercentileMicros(99) / 1000.0,
+                    h.getMaxMicros() / 1000.0));
+        }
+        
+        report.append("\n[计数]\n");
+        for (Counter c : getCounters()) {
+            report.append(c.getName()).append(" = ").append(c.getCount()).append('\n');
+        }
+        
+        report.append(SlowQueryLogger.get().formatReport());
+        return report.toString();
+    }
+    
+    /**
+     * 将报告写入目录下的 metrics-时间戳.txt
+     *
+     * @return 写入的文件
+     */
+    public File dumpToFile(File dir) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("无法创建目录: " + dir);
+        }
+        String stamp = FILE_STAMP.format(LocalDateTime.now());
+        File file = new File(dir, "metrics-" + stamp + ".txt");
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(formatReport());
+        }
+        return file;
+    }
+    
+    /**
+     * 计时器，不是线程安全的，每次计时单独创建
+     */
+    public static class Timer {
+        private final LatencyHistogram histogram;
+        private final long startNanos = System.nanoTime();
+        
+        Timer(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+        
+        /**
+         * @return 经过的纳秒数
+         */
+        public long stop() {
+            long elapsed = System.nanoTime() - startNanos;
+            histogram.recordNanos(elapsed);
+            return elapsed;
+        }
+    }
+}
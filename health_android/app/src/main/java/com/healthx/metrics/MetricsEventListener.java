@@ -0,0 +1,70 @@
+package com.healthx.metrics;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.regex.Pattern;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+import okhttp3.Request;
+
+/**
+ * OkHttp事件监听器，记录每个Retrofit请求的耗时和流量
+ * 请求按"http.方法 路径"归类，路径中的数字ID替换为{id}，例如 http.PUT /api/sleep/{id}。
+ * 同时统计失败次数、上传和下载字节数。
+ */
+public class MetricsEventListener extends EventListener {
+    
+    public static final EventListener.Factory FACTORY = call -> new MetricsEventListener();
+    
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    
+    private final Metrics metrics = Metrics.get();
+    private long callStartNanos;
+    private long connectStartNanos;
+    
+    @Override
+    public void callStart(Call call) {
+        callStartNanos = System.nanoTime();
+    }
+    
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStartNanos = System.nanoTime();
+    }
+    
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                           Protocol protocol) {
+        metrics.recordNanos("http.connect", System.nanoTime() - connectStartNanos);
+    }
+    
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        metrics.counter("http.bytes.sent").add(byteCount);
+    }
+    
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        metrics.counter("http.bytes.received").add(byteCount);
+    }
+    
+    @Override
+    public void callEnd(Call call) {
+        metrics.recordNanos(operationName(call.request()), System.nanoTime() - callStartNanos);
+    }
+    
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        String name = operationName(call.request());
+        metrics.recordNanos(name, System.nanoTime() - callStartNanos);
+        metrics.increment(name + ".errors");
+    }
+    
+    static String operationName(Request request) {
+        String path = NUMERIC_SEGMENT.matcher(request.url().encodedPath()).replaceAll("/{id}");
+        return "http." + request.method() + " " + path;
+    }
+}
@@ -0,0 +1,305 @@
+package com.healthx.metrics;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 基于Room QueryCallback的慢查询记录器
+ * QueryCallback在每条SQL执行前同步回调（使用直接执行的Executor），记录语句和绑定参数；
+ * 一次DAO调用或一次LiveData查询任务构成一个计时帧，帧内每条语句的耗时为它开始到下一条语句
+ * 开始（或帧结束）的时间，包含游标读取和对象映射。
+ * 超过阈值的语句会连同EXPLAIN QUERY PLAN写入日志，最近的N条保存在环形缓冲区中，
+ * 在性能指标页面中按耗时排序显示。
+ *
+ * 只在可调试构建或打开了诊断开关时启用，开关在重启后生效。
+ */
+public class SlowQueryLogger implements RoomDatabase.QueryCallback {
+    
+    private static final String TAG = "SlowQueryLogger";
+    private static final String PREFS_NAME = "diagnostics_prefs";
+    private static final String KEY_ENABLED = "slow_query_enabled";
+    private static final String KEY_THRESHOLD_MS = "slow_query_threshold_ms";
+    // 默认阈值为一帧的时间
+    private static final long DEFAULT_THRESHOLD_MS = 16;
+    private static final int RING_CAPACITY = 50;
+    
+    private static final SlowQueryLogger INSTANCE = new SlowQueryLogger();
+    
+    /**
+     * 一条慢语句
+     */
+    public static class SlowQuery {
+        public final String source;
+        public final String sql;
+        public final String args;
+        public final long durationMicros;
+        public final long timestamp;
+        public volatile String queryPlan;
+        
+        SlowQuery(String source, String sql, String args, long durationMicros) {
+            this.source = source;
+            this.sql = sql;
+            this.args = args;
+            this.durationMicros = durationMicros;
+            this.timestamp = System.currentTimeMillis();
+        }
+    }
+    
+    // 线程内的计时帧，支持嵌套（只在最外层结束时结算）
+    private static class Frame {
+        String source;
+        int depth;
+        String sql;
+        List<Object> args;
+        long statementStart;
+    }
+    
+    private final ThreadLocal<Frame> frames = ThreadLocal.withInitial(Frame::new);
+    private final SlowQuery[] ring = new SlowQuery[RING_CAPACITY];
+    private final Map<String, String> planCache = new ConcurrentHashMap<>();
+    private final ExecutorService explainExecutor = Executors.newSingleThreadExecutor();
+    private int ringNext;
+    private volatile boolean enabled;
+    private volatile long thresholdMicros = DEFAULT_THRESHOLD_MS * 1000;
+    private volatile RoomDatabase database;
+    
+    public static SlowQueryLogger get() {
+        return INSTANCE;
+    }
+    
+    /**
+     * 可调试构建默认启用，正式构建需要打开诊断开关
+     */
+    public static boolean isEnabled(Context context) {
+        boolean debuggable = (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        return debuggable || prefs(context).getBoolean(KEY_ENABLED, false);
+    }
+    
+    public static void setEnabled(Context context, boolean enabled) {
+        prefs(context).edit().putBoolean(KEY_ENABLED, enabled).apply();
+    }
+    
+    public static long getThresholdMillis(Context context) {
+        return prefs(context).getLong(KEY_THRESHOLD_MS, DEFAULT_THRESHOLD_MS);
+    }
+    
+    public void setThresholdMillis(Context context, long thresholdMillis) {
+        prefs(context).edit().putLong(KEY_THRESHOLD_MS, thresholdMillis).apply();
+        thresholdMicros = thresholdMillis * 1000;
+    }
+    
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+    
+    /**
+     * 在构建数据库前调用：注册QueryCallback，并包装LiveData查询使用的线程池
+     */
+    public <T extends RoomDatabase> void install(Context context, RoomDatabase.Builder<T> builder) {
+        thresholdMicros = getThresholdMillis(context) * 1000;
+        enabled = true;
+        ExecutorService queryExecutor = Executors.newFixedThreadPool(4);
+        builder.setQueryCallback(this, Runnable::run);
+        builder.setQueryExecutor(wrap(queryExecutor));
+    }
+    
+    /**
+     * 数据库构建完成后调用，用于执行EXPLAIN QUERY PLAN
+     */
+    public void attach(RoomDatabase database) {
+        this.database = database;
+    }
+    
+    public boolean isActive() {
+        return enabled;
+    }
+    
+    private Executor wrap(Executor executor) {
+        return command -> executor.execute(() -> {
+            beginFrame("LiveData");
+            try {
+                command.run();
+            } finally {
+                endFrame();
+            }
+        });
+    }
+    
+    public void beginFrame(String source) {
+        if (!enabled) {
+            return;
+        }
+        Frame frame = frames.get();
+        if (frame.depth++ == 0) {
+            frame.source = source;
+            frame.sql = null;
+        }
+    }
+    
+    public void endFrame() {
+        if (!enabled) {
+            return;
+        }
+        Frame frame = frames.get();
+        if (frame.depth > 0 && --frame.depth == 0) {
+            finishStatement(frame, System.nanoTime());
+            frame.source = null;
+        }
+    }
+    
+    @Override
+    public void onQuery(@NonNull String sqlQuery, @NonNull List<?> bindArgs) {
+        Frame frame = frames.get();
+        if (frame.depth == 0) {
+            // 不在任何计时帧内（如迁移、失效跟踪器或EXPLAIN本身），不计时
+            return;
+        }
+        long now = System.nanoTime();
+        finishStatement(frame, now);
+        frame.sql = sqlQuery;
+        frame.args = new ArrayList<>(bindArgs);
+        frame.statementStart = now;
+    }
+    
+    private void finishStatement(Frame frame, long now) {
+        if (frame.sql == null) {
+            return;
+        }
+        String sql = frame.sql;
+        frame.sql = null;
+        long micros = (now - frame.statementStart) / 1000;
+        if (micros < thresholdMicros || isTransactionControl(sql)) {
+            return;
+        }
+        
+        SlowQuery slow = new SlowQuery(frame.source, sql, String.valueOf(frame.args), micros);
+        synchronized (ring) {
+            ring[ringNext] = slow;
+            ringNext = (ringNext + 1) % RING_CAPACITY;
+        }
+        Metrics.get().increment("db.slowQueries");
+        explain(slow, frame.args.toArray());
+    }
+    
+    // 查询计划通常与参数取值无关，同一条SQL只分析一次
+    private void explain(SlowQuery slow, Object[] args) {
+        String cached = planCache.get(slow.sql);
+        if (cached != null) {
+            slow.queryPlan = cached;
+            log(slow);
+            return;
+        }
+        RoomDatabase db = database;
+        if (db == null) {
+            log(slow);
+            return;
+        }
+        explainExecutor.execute(() -> {
+            StringBuilder plan = new StringBuilder();
+            try (Cursor cursor = db.getOpenHelper().getReadableDatabase()
+                    .query("EXPLAIN QUERY PLAN " + slow.sql, args)) {
+                int detail = cursor.getColumnIndexOrThrow("detail");
+                while (cursor.moveToNext()) {
+                    if (plan.length() > 0) {
+                        plan.append(" | ");
+                    }
+                    plan.append(cursor.getString(detail));
+                }
+            } catch (Exception e) {
+                plan.append("无法分析: ").append(e.getMessage());
+            }
+            slow.queryPlan = plan.toString();
+            planCache.put(slow.sql, slow.queryPlan);
+            log(slow);
+        });
+    }
+    
+    private static void log(SlowQuery slow) {
+        String message = String.format(Locale.US, "慢查询 %.1fms [%s] %s 参数=%s 计划=%s",
+                slow.durationMicros / 1000.0, slow.source, slow.sql, slow.args, slow.queryPlan);
+        if (isFullScan(slow.queryPlan)) {
+            Log.w(TAG, "全表扫描! " + message);
+        } else {
+            Log.i(TAG, message);
+        }
+    }
+    
+    /**
+     * 计划中出现不带索引的SCAN即为全表扫描（新旧SQLite分别输出"SCAN t"和"SCAN TABLE t"）
+     */
+    static boolean isFullScan(String plan) {
+        if (plan == null) {
+            return false;
+        }
+        for (String step : plan.split(" \\| ")) {
+            String trimmed = step.trim();
+            if (trimmed.startsWith("SCAN ") && !trimmed.contains("USING")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean isTransactionControl(String sql) {
+        String upper = sql.trim().toUpperCase(Locale.US);
+        return upper.startsWith("BEGIN") || upper.startsWith("END")
+                || upper.startsWith("COMMIT") || upper.startsWith("ROLLBACK");
+    }
+    
+    /**
+     * 环形缓冲区中的慢语句，按耗时从高到低排列
+     */
+    public List<SlowQuery> getSlowQueries() {
+        List<SlowQuery> list = new ArrayList<>();
+        synchronized (ring) {
+            for (SlowQuery slow : ring) {
+                if (slow != null) {
+                    list.add(slow);
+                }
+            }
+        }
+        Collections.sort(list, (a, b) -> Long.compare(b.durationMicros, a.durationMicros));
+        return list;
+    }
+    
+    public void clear() {
+        synchronized (ring) {
+            for (int i = 0; i < RING_CAPACITY; i++) {
+                ring[i] = null;
+            }
+            ringNext = 0;
+        }
+    }
+    
+    public String formatReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("\n[慢查询] 阈值 ").append(thresholdMicros / 1000).append("ms，最近")
+                .append(RING_CAPACITY).append("条按耗时排序\n");
+        if (!enabled) {
+            report.append("未启用\n");
+            return report.toString();
+        }
+        for (SlowQuery slow : getSlowQueries()) {
+            report.append(String.format(Locale.US, "%.1fms [%s]%s\n    %s\n    参数: %s\n    计划: %s\n",
+                    slow.durationMicros / 1000.0, slow.source, isFullScan(slow.queryPlan) ? " 全表扫描" : "",
+                    slow.sql, slow.args, slow.queryPlan));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.healthx.model;
+
+import java.util.Objects;
+
+/**
+ * 首页卡片使用的单日健康数据汇总，由DaySnapshotDao一次查询得到
+ * equals/hashCode按内容比较，LiveData经过distinctUntilChanged后只在数值变化时通知界面。
+ */
+public class DaySnapshot {
+
+    private double caloriesIn; // 饮食摄入的卡路里
+    private double caloriesBurned; // 运动消耗的卡路里
+    private int steps;
+    private Integer sleepMinutes; // 当天结束的最近一次睡眠，没有记录时为null
+    private Float weight; // 截至当天最近一次测量的体重，没有记录时为null
+
+    public double getCaloriesIn() {
+        return caloriesIn;
+    }
+
+    public void setCaloriesIn(double caloriesIn) {
+        this.caloriesIn = caloriesIn;
+    }
+
+    public double getCaloriesBurned() {
+        return caloriesBurned;
+    }
+
+    public void setCaloriesBurned(double caloriesBurned) {
+        this.caloriesBurned = caloriesBurned;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    public void setSteps(int steps) {
+        this.steps = steps;
+    }
+
+    public Integer getSleepMinutes() {
+        return sleepMinutes;
+    }
+
+    public void setSleepMinutes(Integer sleepMinutes) {
+        this.sleepMinutes = sleepMinutes;
+    }
+
+    public Float getWeight() {
+        return weight;
+    }
+
+    public void setWeight(Float weight) {
+        this.weight = weight;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DaySnapshot that = (DaySnapshot) o;
+        return Double.compare(that.caloriesIn, caloriesIn) == 0
+                && Double.compare(that.caloriesBurned, caloriesBurned) == 0
+                && steps == that.steps
+                && Objects.equals(sleepMinutes, that.sleepMinutes)
+                && Objects.equals(weight, that.weight);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(caloriesIn, caloriesBurned, steps, sleepMinutes, weight);
+    }
+}
@@ -1,5 +1,8 @@
 package com.healthx.model;
 
+import android.os.Parcel;
+import android.os.Parcelable;
+
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
 import androidx.room.Ignore;
@@ -9,12 +12,11 @@ import androidx.room.TypeConverters;
 import com.google.gson.annotations.SerializedName;
 import com.healthx.database.converter.DateTimeConverter;
 
-import java.io.Serializable;
-import org.threeten.bp.LocalDateTime;
+import java.time.LocalDateTime;
 
 @Entity(tableName = "diets")
 @TypeConverters(DateTimeConverter.class)
-public class Diet implements Serializable {
+public class Diet implements Parcelable {
     
     @PrimaryKey(autoGenerate = true)
     private long id;
@@ -75,6 +77,41 @@ public class Diet implements Serializable {
         this.syncStatus = 0;
     }
     
+    /**
+     * 复制一条记录，编辑对话框修改副本，不影响列表和缓存中的实例
+     */
+    @Ignore
+    public Diet(@NonNull Diet other) {
+        this.id = other.id;
+        this.userId = other.userId;
+        this.foodName = other.foodName;
+        this.calories = other.calories;
+        this.protein = other.protein;
+        this.carbs = other.carbs;
+        this.fat = other.fat;
+        this.mealType = other.mealType;
+        this.eatenAt = other.eatenAt;
+        this.createdAt = other.createdAt;
+        this.remoteId = other.remoteId;
+        this.syncStatus = other.syncStatus;
+    }
+    
+    @Ignore
+    protected Diet(Parcel in) {
+        this.id = in.readLong();
+        this.userId = in.readLong();
+        this.foodName = in.readString();
+        this.calories = in.readDouble();
+        this.protein = in.readDouble();
+        this.carbs = in.readDouble();
+        this.fat = in.readDouble();
+        this.mealType = in.readString();
+        this.eatenAt = Parcels.readDateTime(in);
+        this.createdAt = Parcels.readDateTime(in);
+        this.remoteId = Parcels.readNullableLong(in);
+        this.syncStatus = in.readInt();
+    }
+    
     // Getters and Setters
     public long getId() {
         return id;
@@ -175,4 +212,37 @@ public class Diet implements Serializable {
     public void setSyncStatus(int syncStatus) {
         this.syncStatus = syncStatus;
     }
-} 
\ No newline at end of file
+    
+    @Override
+    public void writeToParcel(@NonNull Parcel dest, int flags) {
+        dest.writeLong(id);
+        dest.writeLong(userId);
+        dest.writeString(foodName);
+        dest.writeDouble(calories);
+        dest.writeDouble(protein);
+        dest.writeDouble(carbs);
+        dest.writeDouble(fat);
+        dest.writeString(mealType);
+        Parcels.writeDateTime(dest, eatenAt);
+        Parcels.writeDateTime(dest, createdAt);
+        Parcels.writeNullableLong(dest, remoteId);
+        dest.writeInt(syncStatus);
+    }
+    
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+    
+    public static final Creator<Diet> CREATOR = new Creator<Diet>() {
+        @Override
+        public Diet createFromParcel(Parcel in) {
+            return new Diet(in);
+        }
+        
+        @Override
+        public Diet[] newArray(int size) {
+            return new Diet[size];
+        }
+    };
+}
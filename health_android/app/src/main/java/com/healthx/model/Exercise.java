@@ -1,5 +1,8 @@
 package com.healthx.model;
 
+import android.os.Parcel;
+import android.os.Parcelable;
+
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
 import androidx.room.Ignore;
@@ -9,12 +12,11 @@ import androidx.room.TypeConverters;
 import com.google.gson.annotations.SerializedName;
 import com.healthx.database.converter.DateTimeConverter;
 
-import java.io.Serializable;
-import org.threeten.bp.LocalDateTime;
+import java.time.LocalDateTime;
 
 @Entity(tableName = "exercises")
 @TypeConverters(DateTimeConverter.class)
-public class Exercise implements Serializable {
+public class Exercise implements Parcelable {
     
     @PrimaryKey(autoGenerate = true)
     private long id;
@@ -71,6 +73,39 @@ public class Exercise implements Serializable {
         this.syncStatus = 0;
     }
     
+    /**
+     * 复制一条记录，编辑对话框修改副本，不影响列表和缓存中的实例
+     */
+    @Ignore
+    public Exercise(@NonNull Exercise other) {
+        this.id = other.id;
+        this.userId = other.userId;
+        this.exerciseName = other.exerciseName;
+        this.duration = other.duration;
+        this.caloriesBurned = other.caloriesBurned;
+        this.exerciseType = other.exerciseType;
+        this.intensity = other.intensity;
+        this.exercisedAt = other.exercisedAt;
+        this.createdAt = other.createdAt;
+        this.remoteId = other.remoteId;
+        this.syncStatus = other.syncStatus;
+    }
+    
+    @Ignore
+    protected Exercise(Parcel in) {
+        this.id = in.readLong();
+        this.userId = in.readLong();
+        this.exerciseName = in.readString();
+        this.duration = in.readInt();
+        this.caloriesBurned = in.readDouble();
+        this.exerciseType = in.readString();
+        this.intensity = in.readString();
+        this.exercisedAt = Parcels.readDateTime(in);
+        this.createdAt = Parcels.readDateTime(in);
+        this.remoteId = Parcels.readNullableLong(in);
+        this.syncStatus = in.readInt();
+    }
+    
     // Getters and Setters
     public long getId() {
         return id;
@@ -162,4 +197,36 @@ public class Exercise implements Serializable {
     public void setSyncStatus(int syncStatus) {
         this.syncStatus = syncStatus;
     }
-} 
\ No newline at end of file
+    
+    @Override
+    public void writeToParcel(@NonNull Parcel dest, int flags) {
+        dest.writeLong(id);
+        dest.writeLong(userId);
+        dest.writeString(exerciseName);
+        dest.writeInt(duration);
+        dest.writeDouble(caloriesBurned);
+        dest.writeString(exerciseType);
+        dest.writeString(intensity);
+        Parcels.writeDateTime(dest, exercisedAt);
+        Parcels.writeDateTime(dest, createdAt);
+        Parcels.writeNullableLong(dest, remoteId);
+        dest.writeInt(syncStatus);
+    }
+    
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+    
+    public static final Creator<Exercise> CREATOR = new Creator<Exercise>() {
+        @Override
+        public Exercise createFromParcel(Parcel in) {
+            return new Exercise(in);
+        }
+        
+        @Override
+        public Exercise[] newArray(int size) {
+            return new Exercise[size];
+        }
+    };
+}
@@ -0,0 +1,62 @@
+package com.healthx.model;
+
+import android.os.Parcel;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 实体写入Parcel时的日期和可空字段编码
+ * LocalDateTime按本地时间的秒数和纳秒写入，与时区无关；可空值先写一个标记字节。
+ */
+final class Parcels {
+
+    private Parcels() {
+    }
+
+    static void writeDateTime(Parcel dest, LocalDateTime value) {
+        if (value == null) {
+            dest.writeByte((byte) 0);
+            return;
+        }
+        dest.writeByte((byte) 1);
+        dest.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        dest.writeInt(value.getNano());
+    }
+
+    static LocalDateTime readDateTime(Parcel in) {
+        if (in.readByte() == 0) {
+            return null;
+        }
+        long localSecond = in.readLong();
+        int nano = in.readInt();
+        return LocalDateTime.ofEpochSecond(localSecond, nano, ZoneOffset.UTC);
+    }
+
+    static void writeDate(Parcel dest, LocalDate value) {
+        if (value == null) {
+            dest.writeByte((byte) 0);
+            return;
+        }
+        dest.writeByte((byte) 1);
+        dest.writeLong(value.toEpochDay());
+    }
+
+    static LocalDate readDate(Parcel in) {
+        return in.readByte() == 0 ? null : LocalDate.ofEpochDay(in.readLong());
+    }
+
+    static void writeNullableLong(Parcel dest, Long value) {
+        if (value == null) {
+            dest.writeByte((byte) 0);
+            return;
+        }
+        dest.writeByte((byte) 1);
+        dest.writeLong(value);
+    }
+
+    static Long readNullableLong(Parcel in) {
+        return in.readByte() == 0 ? null : in.readLong();
+    }
+}
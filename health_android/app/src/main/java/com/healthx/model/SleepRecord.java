@@ -1,22 +1,29 @@
 package com.healthx.model;
 
+import android.os.Parcel;
+import android.os.Parcelable;
+
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.room.TypeConverters;
 
 import com.google.gson.annotations.SerializedName;
 import com.healthx.database.converter.DateTimeConverter;
 
-import org.threeten.bp.Duration;
-import org.threeten.bp.LocalDateTime;
-
-import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 
-@Entity(tableName = "sleep_records")
+@Entity(tableName = "sleep_records",
+        indices = {
+                @Index(value = {"userId", "sleepDay"}, unique = true),
+                @Index(value = {"startTime"})
+        })
 @TypeConverters(DateTimeConverter.class)
-public class SleepRecord implements Serializable {
+public class SleepRecord implements Parcelable {
     
     @PrimaryKey(autoGenerate = true)
     @SerializedName("localId")
@@ -32,6 +39,9 @@ public class SleepRecord implements Serializable {
     @SerializedName("endTime")
     private LocalDateTime endTime; // 睡眠结束时间
     
+    // 睡眠归属日期（取startTime的本地日期），与userId组成唯一索引，保证每天只有一条记录
+    private LocalDate sleepDay;
+    
     @SerializedName("duration")
     private int duration; // 睡眠时长（分钟）
     
@@ -58,11 +68,39 @@ public class SleepRecord implements Serializable {
         this.userId = userId;
         this.startTime = startTime;
         this.endTime = endTime;
+        this.sleepDay = startTime.toLocalDate();
         this.calculateDuration();
         this.createdAt = LocalDateTime.now();
         this.syncStatus = 0;
     }
     
+    // 复制构造函数，编辑对话框修改副本，不影响列表和缓存中的实例
+    @Ignore
+    public SleepRecord(@NonNull SleepRecord other) {
+        this.id = other.id;
+        this.userId = other.userId;
+        this.startTime = other.startTime;
+        this.endTime = other.endTime;
+        this.sleepDay = other.sleepDay;
+        this.duration = other.duration;
+        this.createdAt = other.createdAt;
+        this.remoteId = other.remoteId;
+        this.syncStatus = other.syncStatus;
+    }
+    
+    @Ignore
+    protected SleepRecord(Parcel in) {
+        this.id = in.readLong();
+        this.userId = in.readLong();
+        this.startTime = Parcels.readDateTime(in);
+        this.endTime = Parcels.readDateTime(in);
+        this.sleepDay = Parcels.readDate(in);
+        this.duration = in.readInt();
+        this.createdAt = Parcels.readDateTime(in);
+        this.remoteId = Parcels.readNullableLong(in);
+        this.syncStatus = in.readInt();
+    }
+    
     // 计算睡眠时长（分钟）
     private void calculateDuration() {
         if (startTime != null && endTime != null) {
@@ -96,6 +134,7 @@ public class SleepRecord implements Serializable {
     
     public void setStartTime(@NonNull LocalDateTime startTime) {
         this.startTime = startTime;
+        this.sleepDay = startTime != null ? startTime.toLocalDate() : null;
         calculateDuration();
     }
     
@@ -109,6 +148,18 @@ public class SleepRecord implements Serializable {
         calculateDuration();
     }
     
+    public LocalDate getSleepDay() {
+        // 通过Gson直接反序列化的对象不会经过setStartTime，这里按startTime补齐
+        if (sleepDay == null && startTime != null) {
+            sleepDay = startTime.toLocalDate();
+        }
+        return sleepDay;
+    }
+    
+    public void setSleepDay(LocalDate sleepDay) {
+        this.sleepDay = sleepDay;
+    }
+    
     public int getDuration() {
         return duration;
     }
@@ -141,4 +192,34 @@ public class SleepRecord implements Serializable {
     public void setSyncStatus(int syncStatus) {
         this.syncStatus = syncStatus;
     }
-} 
\ No newline at end of file
+    
+    @Override
+    public void writeToParcel(@NonNull Parcel dest, int flags) {
+        dest.writeLong(id);
+        dest.writeLong(userId);
+        Parcels.writeDateTime(dest, startTime);
+        Parcels.writeDateTime(dest, endTime);
+        Parcels.writeDate(dest, sleepDay);
+        dest.writeInt(duration);
+        Parcels.writeDateTime(dest, createdAt);
+        Parcels.writeNullableLong(dest, remoteId);
+        dest.writeInt(syncStatus);
+    }
+    
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+    
+    public static final Creator<SleepRecord> CREATOR = new Creator<SleepRecord>() {
+        @Override
+        public SleepRecord createFromParcel(Parcel in) {
+            return new SleepRecord(in);
+        }
+        
+        @Override
+        public SleepRecord[] newArray(int size) {
+            return new SleepRecord[size];
+        }
+    };
+}
@@ -1,7 +1,8 @@
 package com.healthx.model;
 
 import com.google.gson.annotations.SerializedName;
-import org.threeten.bp.LocalDateTime;
+
+import java.time.LocalDateTime;
 
 /**
  * 用于与服务器通信的DTO类
@@ -0,0 +1,88 @@
+package com.healthx.model;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+/**
+ * 步数时间桶实体类
+ * 传感器采集的步数按分钟和小时两级保存，天级汇总仍是step_records中的记录。
+ * 分钟桶只保留最近几天，小时桶保留一年，表的大小有上限。
+ */
+@Entity(tableName = "step_buckets",
+        primaryKeys = {"user_id", "granularity", "bucket_start"})
+public class StepBucket {
+
+    // 桶的粒度，单位为分钟
+    public static final int MINUTE = 1;
+    public static final int HOUR = 60;
+
+    @ColumnInfo(name = "user_id")
+    private long userId;
+
+    @ColumnInfo(name = "granularity")
+    private int granularity;
+
+    // 桶的起点，本地时间整分钟或整点对应的毫秒时间戳
+    @ColumnInfo(name = "bucket_start")
+    private long bucketStart;
+
+    @ColumnInfo(name = "steps")
+    private int steps;
+
+    @ColumnInfo(name = "distance")
+    private double distance;
+
+    @ColumnInfo(name = "calories")
+    private double calories;
+
+    public StepBucket() {
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+    public int getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(int granularity) {
+        this.granularity = granularity;
+    }
+
+    public long getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(long bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    public void setSteps(int steps) {
+        this.steps = steps;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+
+    public double getCalories() {
+        return calories;
+    }
+
+    public void setCalories(double calories) {
+        this.calories = calories;
+    }
+}
@@ -0,0 +1,58 @@
+package com.healthx.model;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * 计步传感器的计数器基线
+ * 与对应的步数在同一事务中写入，进程在写入后任何时刻被杀，重启后都从与数据库一致的基线继续计算增量，同一段步数不会重复计入。
+ */
+@Entity(tableName = "step_counter_state")
+public class StepCounterState {
+
+    @PrimaryKey
+    @ColumnInfo(name = "user_id")
+    private long userId;
+
+    // 已计入数据库的计数器值
+    @ColumnInfo(name = "counter")
+    private long counter;
+
+    // 计数器对应的开机时间
+    @ColumnInfo(name = "boot_time")
+    private long bootTime;
+
+    public StepCounterState() {
+    }
+
+    public StepCounterState(long userId, long counter, long bootTime) {
+        this.userId = userId;
+        this.counter = counter;
+        this.bootTime = bootTime;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+    public long getCounter() {
+        return counter;
+    }
+
+    public void setCounter(long counter) {
+        this.counter = counter;
+    }
+
+    public long getBootTime() {
+        return bootTime;
+    }
+
+    public void setBootTime(long bootTime) {
+        this.bootTime = bootTime;
+    }
+}
@@ -4,13 +4,12 @@ import androidx.room.Entity;
 import androidx.room.PrimaryKey;
 import androidx.room.Ignore;
 import androidx.room.ColumnInfo;
-import java.io.Serializable;
 
 /**
  * 用户实体类
  */
 @Entity(tableName = "users")
-public class User implements Serializable {
+public class User {
 
     @PrimaryKey(autoGenerate = true)
     private Long id;
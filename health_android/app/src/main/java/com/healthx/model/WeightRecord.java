@@ -6,8 +6,6 @@ import androidx.room.ForeignKey;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-import java.io.Serializable;
-
 /**
  * 体重记录实体类
  */
@@ -22,7 +20,7 @@ import java.io.Serializable;
                 @Index("userId"),
                 @Index("measurementTime")
         })
-public class WeightRecord implements Serializable {
+public class WeightRecord {
     
     @PrimaryKey(autoGenerate = true)
     private long id;
@@ -0,0 +1,33 @@
+package com.healthx.model.dto;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * nextCursor原样作为下一页的after参数传回，为null表示没有下一页
+ */
+public class CursorPageDTO<T> {
+    
+    private List<T> items;
+    private String nextCursor;
+    
+    public CursorPageDTO() {
+    }
+    
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,114 @@
+package com.healthx.model.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 健康目标数据传输对象
+ */
+public class HealthGoalDTO {
+    
+    private Long id;
+    private Long userId;
+    private String goalType;
+    private Double targetValue;
+    private Double currentValue;
+    private String unit;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Boolean isCompleted;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    public HealthGoalDTO() {
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getGoalType() {
+        return goalType;
+    }
+    
+    public void setGoalType(String goalType) {
+        this.goalType = goalType;
+    }
+    
+    public Double getTargetValue() {
+        return targetValue;
+    }
+    
+    public void setTargetValue(Double targetValue) {
+        this.targetValue = targetValue;
+    }
+    
+    public Double getCurrentValue() {
+        return currentValue;
+    }
+    
+    public void setCurrentValue(Double currentValue) {
+        this.currentValue = currentValue;
+    }
+    
+    public String getUnit() {
+        return unit;
+    }
+    
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+    
+    public Boolean getIsCompleted() {
+        return isCompleted;
+    }
+    
+    public void setIsCompleted(Boolean isCompleted) {
+        this.isCompleted = isCompleted;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,141 @@
+package com.healthx.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 健康提醒数据传输对象
+ */
+public class HealthReminderDTO {
+    
+    private Long id;
+    private Long userId;
+    private String reminderType;
+    private String title;
+    private String description;
+    private LocalDateTime reminderTime;
+    private Boolean isRepeating;
+    private String repeatPattern;
+    private Integer repeatInterval;
+    private LocalDateTime repeatUntil;
+    // 重复提醒展开后的某一次，完成或跳过时原样传回
+    private LocalDateTime occurrenceTime;
+    private Boolean isCompleted;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    public HealthReminderDTO() {
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getReminderType() {
+        return reminderType;
+    }
+    
+    public void setReminderType(String reminderType) {
+        this.reminderType = reminderType;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public LocalDateTime getReminderTime() {
+        return reminderTime;
+    }
+    
+    public void setReminderTime(LocalDateTime reminderTime) {
+        this.reminderTime = reminderTime;
+    }
+    
+    public Boolean getIsRepeating() {
+        return isRepeating;
+    }
+    
+    public void setIsRepeating(Boolean isRepeating) {
+        this.isRepeating = isRepeating;
+    }
+    
+    public String getRepeatPattern() {
+        return repeatPattern;
+    }
+    
+    public void setRepeatPattern(String repeatPattern) {
+        this.repeatPattern = repeatPattern;
+    }
+    
+    public Integer getRepeatInterval() {
+        return repeatInterval;
+    }
+    
+    public void setRepeatInterval(Integer repeatInterval) {
+        this.repeatInterval = repeatInterval;
+    }
+    
+    public LocalDateTime getRepeatUntil() {
+        return repeatUntil;
+    }
+    
+    public void setRepeatUntil(LocalDateTime repeatUntil) {
+        this.repeatUntil = repeatUntil;
+    }
+    
+    public LocalDateTime getOccurrenceTime() {
+        return occurrenceTime;
+    }
+    
+    public void setOccurrenceTime(LocalDateTime occurrenceTime) {
+        this.occurrenceTime = occurrenceTime;
+    }
+    
+    public Boolean getIsCompleted() {
+        return isCompleted;
+    }
+    
+    public void setIsCompleted(Boolean isCompleted) {
+        this.isCompleted = isCompleted;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -2,6 +2,7 @@ package com.healthx.model.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.healthx.model.StepRecord;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -51,6 +52,19 @@ public class StepRecordDTO {
     public StepRecordDTO() {
     }
     
+    // 从StepRecord转换的构造函数
+    public StepRecordDTO(StepRecord record) {
+        this.id = record.getRemoteId();
+        this.userId = record.getUserId();
+        this.stepCount = record.getStepCount();
+        this.distance = record.getDistance();
+        this.caloriesBurned = record.getCaloriesBurned();
+        this.recordDate = record.getRecordDate();
+        this.source = record.getSource();
+        this.createdAt = record.getCreatedAt();
+        this.updatedAt = record.getUpdatedAt();
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -139,4 +153,20 @@ public class StepRecordDTO {
     public void setSyncStatus(Integer syncStatus) {
         this.syncStatus = syncStatus;
     }
-} 
\ No newline at end of file
+    
+    // 转换为实体对象
+    public StepRecord toEntity() {
+        StepRecord record = new StepRecord();
+        record.setRemoteId(this.id);
+        record.setUserId(this.userId);
+        record.setStepCount(this.stepCount);
+        record.setDistance(this.distance);
+        record.setCaloriesBurned(this.caloriesBurned);
+        record.setRecordDate(this.recordDate);
+        record.setSource(this.source);
+        record.setCreatedAt(this.createdAt != null ? this.createdAt : LocalDateTime.now());
+        record.setUpdatedAt(this.updatedAt != null ? this.updatedAt : LocalDateTime.now());
+        record.setSyncStatus(1); // 从服务器获取的数据标记为已同步
+        return record;
+    }
+}
@@ -10,13 +10,13 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
+import com.healthx.metrics.MetricsEventListener;
 import com.healthx.util.Constants;
 
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.format.DateTimeFormatter;
-
 import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.OkHttpClient;
@@ -57,7 +57,8 @@ public class ApiClient {
         OkHttpClient.Builder httpClientBuilder = new OkHttpClient.Builder()
                 .connectTimeout(CONNECT_TIMEOUT, TimeUnit.SECONDS)
                 .readTimeout(READ_TIMEOUT, TimeUnit.SECONDS)
-                .writeTimeout(WRITE_TIMEOUT, TimeUnit.SECONDS);
+                .writeTimeout(WRITE_TIMEOUT, TimeUnit.SECONDS)
+                .eventListenerFactory(MetricsEventListener.FACTORY);
         
         // 添加日志拦截器
         HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor(message -> 
@@ -176,6 +177,7 @@ public class ApiClient {
                 .connectTimeout(CONNECT_TIMEOUT, TimeUnit.SECONDS)
                 .readTimeout(READ_TIMEOUT, TimeUnit.SECONDS)
                 .writeTimeout(WRITE_TIMEOUT, TimeUnit.SECONDS)
+                .eventListenerFactory(MetricsEventListener.FACTORY)
                 .addInterceptor(new HttpLoggingInterceptor(message -> 
                     Log.d(TAG, "API日志: " + message)
                 ).setLevel(HttpLoggingInterceptor.Level.BODY))
@@ -0,0 +1,74 @@
+package com.healthx.network;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+import com.healthx.util.DateTimeUtils;
+
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * API交互使用的Gson实例，统一处理LocalDateTime/LocalDate的序列化和反序列化
+ */
+public class GsonFactory {
+    
+    private GsonFactory() {
+    }
+    
+    public static Gson create() {
+        return new GsonBuilder()
+                // LocalDateTime处理
+                .registerTypeAdapter(LocalDateTime.class, new JsonSerializer<LocalDateTime>() {
+                    @Override
+                    public JsonElement serialize(LocalDateTime src, Type typeOfSrc, JsonSerializationContext context) {
+                        return new JsonPrimitive(DateTimeUtils.formatDateTimeForApi(src));
+                    }
+                })
+                .registerTypeAdapter(LocalDateTime.class, new JsonDeserializer<LocalDateTime>() {
+                    @Override
+                    public LocalDateTime deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
+                        try {
+                            String dateString = json.getAsString();
+                            // 使用增强的灵活解析方法
+                            LocalDateTime result = DateTimeUtils.parseFlexibleDateTime(dateString);
+                            if (result == null) {
+                                throw new RuntimeException("无法解析日期时间: " + dateString);
+                            }
+                            return result;
+                        } catch (Exception e) {
+                            throw new RuntimeException("日期时间反序列化失败: " + e.getMessage(), e);
+                        }
+                    }
+                })
+                // LocalDate处理
+                .registerTypeAdapter(LocalDate.class, new JsonSerializer<LocalDate>() {
+                    @Override
+                    public JsonElement serialize(LocalDate src, Type typeOfSrc, JsonSerializationContext context) {
+                        return new JsonPrimitive(DateTimeUtils.formatDateForApi(src));
+                    }
+                })
+                .registerTypeAdapter(LocalDate.class, new JsonDeserializer<LocalDate>() {
+                    @Override
+                    public LocalDate deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
+                        try {
+                            String dateString = json.getAsString();
+                            LocalDate result = DateTimeUtils.parseDate(dateString);
+                            if (result == null) {
+                                throw new RuntimeException("无法解析日期: " + dateString);
+                            }
+                            return result;
+                        } catch (Exception e) {
+                            throw new RuntimeException("日期反序列化失败: " + e.getMessage(), e);
+                        }
+                    }
+                })
+                .create();
+    }
+}
@@ -0,0 +1,28 @@
+package com.healthx.network;
+
+import com.healthx.model.dto.CursorPageDTO;
+import com.healthx.model.dto.HealthGoalDTO;
+
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+
+/**
+ * 健康目标相关API服务接口
+ */
+public interface HealthGoalApiService {
+    
+    /**
+     * 按结束日期分页获取用户的健康目标
+     * @param userId 用户ID
+     * @param after 上一页返回的nextCursor，第一页传null
+     * @param limit 每页条数
+     * @return API响应
+     */
+    @GET("api/health-goals/user/{userId}/page")
+    Call<ApiResponse<CursorPageDTO<HealthGoalDTO>>> getUserGoalsPage(
+            @Path("userId") long userId,
+            @Query("after") String after,
+            @Query("limit") int limit);
+}
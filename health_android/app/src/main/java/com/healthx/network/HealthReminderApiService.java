@@ -0,0 +1,28 @@
+package com.healthx.network;
+
+import com.healthx.model.dto.CursorPageDTO;
+import com.healthx.model.dto.HealthReminderDTO;
+
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+
+/**
+ * 健康提醒相关API服务接口
+ */
+public interface HealthReminderApiService {
+    
+    /**
+     * 按提醒时间分页获取用户的健康提醒
+     * @param userId 用户ID
+     * @param after 上一页返回的nextCursor，第一页传null
+     * @param limit 每页条数
+     * @return API响应
+     */
+    @GET("api/health-reminders/user/{userId}/page")
+    Call<ApiResponse<CursorPageDTO<HealthReminderDTO>>> getUserRemindersPage(
+            @Path("userId") long userId,
+            @Query("after") String after,
+            @Query("limit") int limit);
+}
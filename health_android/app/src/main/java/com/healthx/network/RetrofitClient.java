@@ -3,22 +3,10 @@ package com.healthx.network;
 import android.content.Context;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.healthx.metrics.MetricsEventListener;
 import com.healthx.util.Constants;
-import com.healthx.util.DateTimeUtils;
-
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.format.DateTimeFormatter;
 
 import java.io.IOException;
-import java.lang.reflect.Type;
 import java.security.cert.CertificateException;
 import java.util.concurrent.TimeUnit;
 
@@ -48,6 +36,10 @@ public class RetrofitClient {
     private final ApiService apiService;
     
     private RetrofitClient() {
+        this(BASE_URL);
+    }
+    
+    private RetrofitClient(String baseUrl) {
         // 创建OkHttp客户端
         OkHttpClient.Builder httpClient = new OkHttpClient.Builder();
         
@@ -56,6 +48,9 @@ public class RetrofitClient {
         httpClient.readTimeout(60, TimeUnit.SECONDS);
         httpClient.writeTimeout(60, TimeUnit.SECONDS);
         
+        // 记录每个请求的耗时和流量
+        httpClient.eventListenerFactory(MetricsEventListener.FACTORY);
+        
         // 添加日志拦截器
         HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
         loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
@@ -123,57 +118,11 @@ public class RetrofitClient {
         });
         
         // 创建自定义的Gson实例以处理LocalDateTime
-        Gson gson = new GsonBuilder()
-                // LocalDateTime处理
-                .registerTypeAdapter(LocalDateTime.class, new JsonSerializer<LocalDateTime>() {
-                    @Override
-                    public JsonElement serialize(LocalDateTime src, Type typeOfSrc, JsonSerializationContext context) {
-                        return new JsonPrimitive(DateTimeUtils.formatDateTimeForApi(src));
-                    }
-                })
-                .registerTypeAdapter(LocalDateTime.class, new JsonDeserializer<LocalDateTime>() {
-                    @Override
-                    public LocalDateTime deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
-                        try {
-                            String dateString = json.getAsString();
-                            // 使用增强的灵活解析方法
-                            LocalDateTime result = DateTimeUtils.parseFlexibleDateTime(dateString);
-                            if (result == null) {
-                                throw new RuntimeException("无法解析日期时间: " + dateString);
-                            }
-                            return result;
-                        } catch (Exception e) {
-                            throw new RuntimeException("日期时间反序列化失败: " + e.getMessage(), e);
-                        }
-                    }
-                })
-                // LocalDate处理
-                .registerTypeAdapter(LocalDate.class, new JsonSerializer<LocalDate>() {
-                    @Override
-                    public JsonElement serialize(LocalDate src, Type typeOfSrc, JsonSerializationContext context) {
-                        return new JsonPrimitive(DateTimeUtils.formatDateForApi(src));
-                    }
-                })
-                .registerTypeAdapter(LocalDate.class, new JsonDeserializer<LocalDate>() {
-                    @Override
-                    public LocalDate deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
-                        try {
-                            String dateString = json.getAsString();
-                            LocalDate result = DateTimeUtils.parseDate(dateString);
-                            if (result == null) {
-                                throw new RuntimeException("无法解析日期: " + dateString);
-                            }
-                            return result;
-                        } catch (Exception e) {
-                            throw new RuntimeException("日期反序列化失败: " + e.getMessage(), e);
-                        }
-                    }
-                })
-                .create();
+        Gson gson = GsonFactory.create();
         
         // 创建Retrofit实例
         retrofit = new Retrofit.Builder()
-                .baseUrl(BASE_URL)
+                .baseUrl(baseUrl)
                 .addConverterFactory(GsonConverterFactory.create(gson))
                 .client(httpClient.build())
                 .build();
@@ -203,6 +152,18 @@ public class RetrofitClient {
         return instance;
     }
     
+    /**
+     * 使用新的基础URL重建实例（用于切换服务器或在测试中指向本地模拟服务器）
+     * 已经通过旧实例创建的服务接口不受影响
+     * 
+     * @param newBaseUrl 新的基础URL
+     * @return 重新创建的RetrofitClient实例
+     */
+    public static synchronized RetrofitClient resetInstance(String newBaseUrl) {
+        instance = new RetrofitClient(newBaseUrl);
+        return instance;
+    }
+    
     public ApiService getApiService() {
         return apiService;
     }
@@ -4,10 +4,14 @@ import com.healthx.model.User;
 import com.healthx.network.model.ApiResponse;
 import com.healthx.network.model.UserResponse;
 
+import okhttp3.MultipartBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
+import retrofit2.http.Multipart;
+import retrofit2.http.POST;
 import retrofit2.http.PUT;
+import retrofit2.http.Part;
 import retrofit2.http.Path;
 
 /**
@@ -62,4 +66,15 @@ public interface UserApiService {
      */
     @PUT("api/users/{id}/health-data")
     Call<ApiResponse<UserResponse>> updateUserHealthData(@Path("id") long id, @Body User user);
+    
+    /**
+     * 上传用户头像
+     *
+     * @param id 用户ID
+     * @param file 头像图片（JPEG），从本地文件流式上传
+     * @return 更新后的用户信息
+     */
+    @Multipart
+    @POST("api/users/{id}/avatar")
+    Call<ApiResponse<UserResponse>> uploadAvatar(@Path("id") long id, @Part MultipartBody.Part file);
 } 
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.healthx.repository;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
+
+import com.healthx.database.AppDatabase;
+import com.healthx.database.dao.DaySnapshotDao;
+import com.healthx.metrics.DaoMetrics;
+import com.healthx.model.DaySnapshot;
+
+import java.time.LocalDate;
+
+/**
+ * 首页单日汇总仓库，只读本地数据库
+ */
+public class DaySnapshotRepository {
+    
+    private final DaySnapshotDao daySnapshotDao;
+    
+    public DaySnapshotRepository(Context context) {
+        AppDatabase database = AppDatabase.getInstance(context);
+        daySnapshotDao = DaoMetrics.instrument(DaySnapshotDao.class, database.daySnapshotDao());
+    }
+    
+    /**
+     * 获取某天的汇总数据，只在数值变化时发出新值
+     * @param userId 用户ID
+     * @param date 日期
+     * @return 单日汇总LiveData
+     */
+    public LiveData<DaySnapshot> getDaySnapshot(long userId, LocalDate date) {
+        return Transformations.distinctUntilChanged(daySnapshotDao.observeDaySnapshot(userId,
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay(), date.minusDays(1), date));
+    }
+}
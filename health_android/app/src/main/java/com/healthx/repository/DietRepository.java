@@ -6,17 +6,20 @@ import android.util.Log;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 
 import com.healthx.database.AppDatabase;
 import com.healthx.database.dao.DietDao;
+import com.healthx.metrics.DaoMetrics;
+import com.healthx.metrics.Metrics;
 import com.healthx.model.Diet;
 import com.healthx.network.ApiClient;
 import com.healthx.network.DietApiService;
 
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.LocalTime;
-import org.threeten.bp.format.DateTimeFormatter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 
@@ -27,12 +30,15 @@ import retrofit2.Response;
 public class DietRepository {
     private static final String TAG = "DietRepository";
     
+    // 最近加载的饮食记录，所有DietRepository实例共享，供编辑对话框按ID读取
+    private static final RecordCache<Diet> dietCache = new RecordCache<>(128, Diet::getId);
+    
     private DietDao dietDao;
     private DietApiService dietApiService;
     
     public DietRepository(Application application) {
         AppDatabase db = AppDatabase.getInstance(application);
-        dietDao = db.dietDao();
+        dietDao = DaoMetrics.instrument(DietDao.class, db.dietDao());
         dietApiService = ApiClient.getClient().create(DietApiService.class);
     }
     
@@ -42,23 +48,39 @@ public class DietRepository {
     }
     
     public void update(Diet diet) {
+        dietCache.put(diet);
         new UpdateDietAsyncTask(dietDao).execute(diet);
     }
     
     public void delete(Diet diet) {
+        dietCache.remove(diet.getId());
         new DeleteDietAsyncTask(dietDao).execute(diet);
     }
     
+    /**
+     * 按本地ID获取饮食记录，缓存命中时立即返回，否则从数据库异步加载
+     */
+    public LiveData<Diet> getDietById(long id) {
+        Diet cached = dietCache.get(id);
+        if (cached != null) {
+            return new MutableLiveData<>(cached);
+        }
+        return Transformations.map(dietDao.observeDietById(id), diet -> {
+            dietCache.put(diet);
+            return diet;
+        });
+    }
+    
     public LiveData<List<Diet>> getDietsByUserId(long userId) {
-        return dietDao.getDietsByUserId(userId);
+        return Transformations.map(dietDao.getDietsByUserId(userId), dietCache::putAll);
     }
     
     public LiveData<List<Diet>> getDietsByUserIdAndDateRange(long userId, LocalDateTime startTime, LocalDateTime endTime) {
-        return dietDao.getDietsByUserIdAndDateRange(userId, startTime, endTime);
+        return Transformations.map(dietDao.getDietsByUserIdAndDateRange(userId, startTime, endTime), dietCache::putAll);
     }
     
     public LiveData<List<Diet>> getDietsByUserIdAndMealType(long userId, String mealType) {
-        return dietDao.getDietsByUserIdAndMealType(userId, mealType);
+        return Transformations.map(dietDao.getDietsByUserIdAndMealType(userId, mealType), dietCache::putAll);
     }
     
     public LiveData<Double> getTotalCaloriesByDateRange(long userId, LocalDateTime startTime, LocalDateTime endTime) {
@@ -287,6 +309,17 @@ public class DietRepository {
         
         @Override
         protected Void doInBackground(Void... voids) {
+            // 请求是异步发出的，这里只统计发起同步的耗时，请求本身由OkHttp监听器记录
+            Metrics.Timer timer = Metrics.get().startTimer("sync.diet");
+            try {
+                sync();
+            } finally {
+                timer.stop();
+            }
+            return null;
+        }
+        
+        private void sync() {
             try {
                 List<Diet> unsyncedDiets = dietDao.getUnsyncedDiets();
                 Log.d("DietRepository", "找到 " + unsyncedDiets.size() + " 条未同步的饮食记录");
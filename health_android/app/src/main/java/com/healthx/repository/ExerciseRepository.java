@@ -6,17 +6,19 @@ import android.util.Log;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 
 import com.healthx.database.AppDatabase;
 import com.healthx.database.dao.ExerciseDao;
+import com.healthx.metrics.DaoMetrics;
 import com.healthx.model.Exercise;
 import com.healthx.network.ApiClient;
 import com.healthx.network.ExerciseApiService;
 
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.LocalTime;
-import org.threeten.bp.format.DateTimeFormatter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 
@@ -27,12 +29,15 @@ import retrofit2.Response;
 public class ExerciseRepository {
     private static final String TAG = "ExerciseRepository";
     
+    // 最近加载的运动记录，所有ExerciseRepository实例共享，供编辑对话框按ID读取
+    private static final RecordCache<Exercise> exerciseCache = new RecordCache<>(128, Exercise::getId);
+    
     private ExerciseDao exerciseDao;
     private ExerciseApiService exerciseApiService;
     
     public ExerciseRepository(Application application) {
         AppDatabase db = AppDatabase.getInstance(application);
-        exerciseDao = db.exerciseDao();
+        exerciseDao = DaoMetrics.instrument(ExerciseDao.class, db.exerciseDao());
         exerciseApiService = ApiClient.getClient().create(ExerciseApiService.class);
     }
     
@@ -42,23 +47,39 @@ public class ExerciseRepository {
     }
     
     public void update(Exercise exercise) {
+        exerciseCache.put(exercise);
         new UpdateExerciseAsyncTask(exerciseDao).execute(exercise);
     }
     
     public void delete(Exercise exercise) {
+        exerciseCache.remove(exercise.getId());
         new DeleteExerciseAsyncTask(exerciseDao).execute(exercise);
     }
     
+    /**
+     * 按本地ID获取运动记录，缓存命中时立即返回，否则从数据库异步加载
+     */
+    public LiveData<Exercise> getExerciseById(long id) {
+        Exercise cached = exerciseCache.get(id);
+        if (cached != null) {
+            return new MutableLiveData<>(cached);
+        }
+        return Transformations.map(exerciseDao.observeExerciseById(id), exercise -> {
+            exerciseCache.put(exercise);
+            return exercise;
+        });
+    }
+    
     public LiveData<List<Exercise>> getExercisesByUserId(long userId) {
-        return exerciseDao.getExercisesByUserId(userId);
+        return Transformations.map(exerciseDao.getExercisesByUserId(userId), exerciseCache::putAll);
     }
     
     public LiveData<List<Exercise>> getExercisesByUserIdAndDateRange(long userId, LocalDateTime startTime, LocalDateTime endTime) {
-        return exerciseDao.getExercisesByUserIdAndDateRange(userId, startTime, endTime);
+        return Transformations.map(exerciseDao.getExercisesByUserIdAndDateRange(userId, startTime, endTime), exerciseCache::putAll);
     }
     
     public LiveData<List<Exercise>> getExercisesByUserIdAndType(long userId, String exerciseType) {
-        return exerciseDao.getExercisesByUserIdAndType(userId, exerciseType);
+        return Transformations.map(exerciseDao.getExercisesByUserIdAndType(userId, exerciseType), exerciseCache::putAll);
     }
     
     public LiveData<Double> getTotalCaloriesBurnedByDateRange(long userId, LocalDateTime startTime, LocalDateTime endTime) {
@@ -0,0 +1,38 @@
+package com.healthx.repository;
+
+import android.content.Context;
+
+import com.healthx.model.dto.HealthGoalDTO;
+import com.healthx.network.HealthGoalApiService;
+import com.healthx.network.RetrofitClient;
+import com.healthx.util.CursorPager;
+
+/**
+ * 健康目标数据仓库，目标只保存在服务器，列表按页加载
+ */
+public class HealthGoalRepository {
+    
+    private static final int PAGE_SIZE = 50;
+    
+    private static HealthGoalRepository instance;
+    private final HealthGoalApiService goalApiService;
+    
+    private HealthGoalRepository(Context context) {
+        goalApiService = RetrofitClient.getInstance(context).createService(HealthGoalApiService.class);
+    }
+    
+    public static synchronized HealthGoalRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new HealthGoalRepository(context);
+        }
+        return instance;
+    }
+    
+    /**
+     * 按结束日期分页加载用户的目标，调用方负责调用loadNextPage
+     */
+    public CursorPager<HealthGoalDTO> pageUserGoals(long userId) {
+        return new CursorPager<>((after, limit) -> goalApiService.getUserGoalsPage(userId, after, limit),
+                PAGE_SIZE);
+    }
+}
@@ -0,0 +1,38 @@
+package com.healthx.repository;
+
+import android.content.Context;
+
+import com.healthx.model.dto.HealthReminderDTO;
+import com.healthx.network.HealthReminderApiService;
+import com.healthx.network.RetrofitClient;
+import com.healthx.util.CursorPager;
+
+/**
+ * 健康提醒数据仓库，提醒只保存在服务器，列表按页加载
+ */
+public class HealthReminderRepository {
+    
+    private static final int PAGE_SIZE = 50;
+    
+    private static HealthReminderRepository instance;
+    private final HealthReminderApiService reminderApiService;
+    
+    private HealthReminderRepository(Context context) {
+        reminderApiService = RetrofitClient.getInstance(context).createService(HealthReminderApiService.class);
+    }
+    
+    public static synchronized HealthReminderRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new HealthReminderRepository(context);
+        }
+        return instance;
+    }
+    
+    /**
+     * 按提醒时间分页加载用户的提醒，调用方负责调用loadNextPage
+     */
+    public CursorPager<HealthReminderDTO> pageUserReminders(long userId) {
+        return new CursorPager<>((after, limit) -> reminderApiService.getUserRemindersPage(userId, after, limit),
+                PAGE_SIZE);
+    }
+}
@@ -0,0 +1,57 @@
+package com.healthx.repository;
+
+import android.util.LruCache;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * 按本地ID共享的记录缓存
+ * 列表查询结果经过Repository时写入缓存，编辑对话框的参数只带记录ID，打开时先从这里取，未命中再查数据库。
+ * 缓存中的对象与列表显示的是同一个实例，需要修改时先复制。
+ */
+public final class RecordCache<T> {
+
+    /**
+     * 取记录的本地ID
+     */
+    public interface IdGetter<T> {
+        long getId(T record);
+    }
+
+    private final LruCache<Long, T> cache;
+    private final IdGetter<T> idGetter;
+
+    public RecordCache(int maxSize, IdGetter<T> idGetter) {
+        this.cache = new LruCache<>(maxSize);
+        this.idGetter = idGetter;
+    }
+
+    @Nullable
+    public T get(long id) {
+        return cache.get(id);
+    }
+
+    public void put(@Nullable T record) {
+        if (record != null) {
+            cache.put(idGetter.getId(record), record);
+        }
+    }
+
+    /**
+     * 放入一组记录并原样返回，便于直接用在LiveData的map转换中
+     */
+    public List<T> putAll(@Nullable List<T> records) {
+        if (records != null) {
+            for (T record : records) {
+                put(record);
+            }
+        }
+        return records;
+    }
+
+    public void remove(long id) {
+        cache.remove(id);
+    }
+}
@@ -4,9 +4,12 @@ import android.content.Context;
 import android.os.AsyncTask;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 
 import com.healthx.database.AppDatabase;
 import com.healthx.database.dao.SleepRecordDao;
+import com.healthx.metrics.DaoMetrics;
+import com.healthx.metrics.Metrics;
 import com.healthx.model.SleepRecord;
 import com.healthx.model.SleepRecordDTO;
 import com.healthx.network.ApiResponse;
@@ -15,17 +18,11 @@ import com.healthx.network.SleepApiService;
 import com.healthx.util.NetworkUtils;
 import com.healthx.util.DateTimeUtils;
 
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.LocalTime;
-
-import java.util.List;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.Collections;
-import java.util.Map;
-import java.util.HashMap;
+import java.util.List;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -34,13 +31,15 @@ import retrofit2.Response;
 public class SleepRepository {
     
     private static SleepRepository instance;
+    // 最近加载的睡眠记录，供编辑对话框按ID读取
+    private final RecordCache<SleepRecord> recordCache = new RecordCache<>(64, SleepRecord::getId);
     private final SleepRecordDao sleepRecordDao;
     private final SleepApiService sleepApiService;
     private final Context context;
     
     private SleepRepository(Context context) {
         AppDatabase database = AppDatabase.getInstance(context);
-        sleepRecordDao = database.sleepRecordDao();
+        sleepRecordDao = DaoMetrics.instrument(SleepRecordDao.class, database.sleepRecordDao());
         sleepApiService = RetrofitClient.getInstance(context).createService(SleepApiService.class);
         this.context = context;
     }
@@ -57,101 +56,82 @@ public class SleepRepository {
         MutableLiveData<Resource<SleepRecord>> result = new MutableLiveData<>();
         result.setValue(Resource.loading(null));
         
-        // 创建异步任务来检查是否存在重复记录并执行插入
-        new AsyncTask<Void, Void, Boolean>() {
-            @Override
-            protected Boolean doInBackground(Void... voids) {
-                // 先检查该日期是否已有记录（同步方式）
-                if (sleepRecord.getStartTime() != null) {
-                    String dateStr = sleepRecord.getStartTime().toLocalDate().toString();
-                    List<SleepRecord> existingRecords = sleepRecordDao.getByUserIdAndDateSync(
-                            sleepRecord.getUserId(), dateStr);
-                    
-                    if (existingRecords != null && !existingRecords.isEmpty()) {
-                        // 如果已有记录，返回false表示有重复
-                        return false;
-                    }
-                }
-                return true; // 没有重复记录
+        // 由(userId, sleepDay)唯一索引保证每天只有一条记录，冲突时insertIfAbsent返回-1
+        new InsertAsyncTask(sleepRecordDao, newId -> {
+            if (newId == -1) {
+                result.setValue(Resource.error("该日期已有睡眠记录，不能重复添加", null));
+                return;
             }
+            sleepRecord.setId(newId);
             
-            @Override
-            protected void onPostExecute(Boolean canInsert) {
-                if (!canInsert) {
-                    // 有重复记录，返回错误
-                    result.setValue(Resource.error("该日期已有睡眠记录，不能重复添加", null));
-                    return;
-                }
+            // 检查网络连接
+            if (NetworkUtils.isNetworkConnected(context)) {
+                // 创建DTO对象
+                SleepRecordDTO dto = new SleepRecordDTO(sleepRecord);
                 
-                // 没有重复记录，继续插入操作
-                // 先存储到本地数据库
-                new InsertAsyncTask(sleepRecordDao, newId -> {
-                    sleepRecord.setId(newId);
+                // 发送到服务器
+                sleepApiService.addSleepRecord(dto).enqueue(new Callback<SleepRecordDTO>() {
+                    @Override
+                    public void onResponse(Call<SleepRecordDTO> call, Response<SleepRecordDTO> response) {
+                        if (response.isSuccessful() && response.body() != null) {
+                            SleepRecordDTO remoteDto = response.body();
+                            sleepRecord.setRemoteId(remoteDto.getId());
+                            sleepRecord.setSyncStatus(1); // 已同步
+                            new UpdateAsyncTask(sleepRecordDao).execute(sleepRecord);
+                            result.setValue(Resource.success(sleepRecord));
+                        } else {
+                            result.setValue(Resource.error("服务器响应错误", sleepRecord));
+                        }
+                    }
                     
-                    // 检查网络连接
-                    if (NetworkUtils.isNetworkConnected(context)) {
-                        // 创建DTO对象
-                        SleepRecordDTO dto = new SleepRecordDTO(sleepRecord);
-                        
-                        // 发送到服务器
-                        sleepApiService.addSleepRecord(dto).enqueue(new Callback<SleepRecordDTO>() {
-                            @Override
-                            public void onResponse(Call<SleepRecordDTO> call, Response<SleepRecordDTO> response) {
-                                if (response.isSuccessful() && response.body() != null) {
-                                    SleepRecordDTO remoteDto = response.body();
-                                    sleepRecord.setRemoteId(remoteDto.getId());
-                                    sleepRecord.setSyncStatus(1); // 已同步
-                                    new UpdateAsyncTask(sleepRecordDao).execute(sleepRecord);
-                                    result.setValue(Resource.success(sleepRecord));
-                                } else {
-                                    result.setValue(Resource.error("服务器响应错误", sleepRecord));
-                                }
-                            }
-                            
-                            @Override
-                            public void onFailure(Call<SleepRecordDTO> call, Throwable t) {
-                                result.setValue(Resource.error("网络请求失败: " + t.getMessage(), sleepRecord));
-                            }
-                        });
-                    } else {
-                        // 无网络连接，仅保存本地
-                        result.setValue(Resource.success(sleepRecord));
+                    @Override
+                    public void onFailure(Call<SleepRecordDTO> call, Throwable t) {
+                        result.setValue(Resource.error("网络请求失败: " + t.getMessage(), sleepRecord));
                     }
-                }).execute(sleepRecord);
+                });
+            } else {
+                // 无网络连接，仅保存本地
+                result.setValue(Resource.success(sleepRecord));
             }
-        }.execute();
+        }).execute(sleepRecord);
         
         return result;
     }
     
-    // 获取睡眠记录（通过ID）
+    // 获取睡眠记录（通过ID），缓存命中时立即返回
     public LiveData<SleepRecord> getSleepRecordById(long id) {
-        return sleepRecordDao.getById(id);
+        SleepRecord cached = recordCache.get(id);
+        if (cached != null) {
+            return new MutableLiveData<>(cached);
+        }
+        return Transformations.map(sleepRecordDao.getById(id), record -> {
+            recordCache.put(record);
+            return record;
+        });
     }
     
     // 获取用户所有睡眠记录
     public LiveData<List<SleepRecord>> getUserSleepRecords(long userId) {
         refreshSleepRecords(userId);
-        return sleepRecordDao.getAllByUserId(userId);
+        return Transformations.map(sleepRecordDao.getAllByUserId(userId), recordCache::putAll);
     }
     
     // 获取用户指定日期的睡眠记录
     public LiveData<SleepRecord> getUserSleepRecordForDate(long userId, LocalDate date) {
-        LocalDateTime dateTime = LocalDateTime.of(date, LocalTime.MIDNIGHT);
-        return sleepRecordDao.getByUserIdAndDate(userId, dateTime);
+        return sleepRecordDao.getByUserIdAndDay(userId, date);
     }
     
     // 获取用户指定日期范围的睡眠记录
     public LiveData<List<SleepRecord>> getUserSleepRecordsByDateRange(long userId, LocalDate startDate, LocalDate endDate) {
         LocalDateTime startDateTime = LocalDateTime.of(startDate, LocalTime.MIDNIGHT);
         LocalDateTime endDateTime = LocalDateTime.of(endDate, LocalTime.MAX);
-        return sleepRecordDao.getByDateRange(userId, startDateTime, endDateTime);
+        return Transformations.map(sleepRecordDao.getByDateRange(userId, startDateTime, endDateTime), recordCache::putAll);
     }
     
     // 获取用户最近7天的睡眠记录
     public LiveData<List<SleepRecord>> getUserLast7DaysSleepRecords(long userId) {
         LocalDateTime sevenDaysAgo = LocalDateTime.of(LocalDate.now().minusDays(7), LocalTime.MIDNIGHT);
-        return sleepRecordDao.getLast7Days(userId, sevenDaysAgo);
+        return Transformations.map(sleepRecordDao.getLast7Days(userId, sevenDaysAgo), recordCache::putAll);
     }
     
     // 更新睡眠记录
@@ -159,33 +139,14 @@ public class SleepRepository {
         MutableLiveData<Resource<SleepRecord>> result = new MutableLiveData<>();
         result.setValue(Resource.loading(null));
         
-        // 创建异步任务来检查是否存在重复记录并执行更新
+        // 先更新本地数据库，新日期与其他记录冲突时updateIfNoConflict返回0
+        sleepRecord.setSyncStatus(2); // 需要更新
+        // 更新结果以数据库为准，列表重新查询时再放回缓存
+        recordCache.remove(sleepRecord.getId());
         new AsyncTask<Void, Void, Boolean>() {
             @Override
             protected Boolean doInBackground(Void... voids) {
-                // 检查是否修改了日期，如果修改了需要确保新日期没有重复记录
-                if (sleepRecord.getStartTime() != null && sleepRecord.getId() > 0) {
-                    // 获取原记录
-                    SleepRecord originalRecord = sleepRecordDao.getByIdSync(sleepRecord.getId());
-                    
-                    if (originalRecord != null && originalRecord.getStartTime() != null) {
-                        LocalDate originalDate = originalRecord.getStartTime().toLocalDate();
-                        LocalDate newDate = sleepRecord.getStartTime().toLocalDate();
-                        
-                        // 如果日期发生变化，检查新日期是否已有记录
-                        if (!originalDate.equals(newDate)) {
-                            String dateStr = newDate.toString();
-                            List<SleepRecord> existingRecords = sleepRecordDao.getByUserIdAndDateSync(
-                                    sleepRecord.getUserId(), dateStr);
-                            
-                            if (existingRecords != null && !existingRecords.isEmpty()) {
-                                // 如果已有记录，表示不能更新
-                                return false;
-                            }
-                        }
-                    }
-                }
-                return true; // 允许更新
+                return sleepRecordDao.updateIfNoConflict(sleepRecord) > 0;
             }
             
             @Override
@@ -196,10 +157,6 @@ public class SleepRepository {
                     return;
                 }
                 
-                // 先更新本地数据库
-                sleepRecord.setSyncStatus(2); // 需要更新
-                new UpdateAsyncTask(sleepRecordDao).execute(sleepRecord);
-                
                 // 检查网络连接
                 if (NetworkUtils.isNetworkConnected(context)) {
                     // 创建DTO对象
@@ -261,6 +218,7 @@ public class SleepRepository {
     public LiveData<Resource<Boolean>> deleteSleepRecord(SleepRecord sleepRecord) {
         MutableLiveData<Resource<Boolean>> result = new MutableLiveData<>();
         result.setValue(Resource.loading(null));
+        recordCache.remove(sleepRecord.getId());
         
         if (sleepRecord.getRemoteId() != null && NetworkUtils.isNetworkConnected(context)) {
             // 如果有远程ID且网络连接正常，从服务器删除
@@ -312,7 +270,7 @@ public class SleepRepository {
                         for (SleepRecordDTO dto : response.body()) {
                             records.add(dto.toEntity());
                         }
-                        new InsertAllAsyncTask(sleepRecordDao, userId).execute(records);
+                        new InsertAllAsyncTask(sleepRecordDao).execute(records);
                     }
                 }
                 
@@ -338,81 +296,6 @@ public class SleepRepository {
         return result;
     }
     
-    // 清理重复的睡眠记录（确保每天每个用户只有一条记录）
-    public LiveData<Resource<Boolean>> cleanupDuplicateRecords(long userId) {
-        MutableLiveData<Resource<Boolean>> result = new MutableLiveData<>();
-        result.setValue(Resource.loading(null));
-        
-        new AsyncTask<Void, Void, Boolean>() {
-            @Override
-            protected Boolean doInBackground(Void... voids) {
-                try {
-                    // 获取用户所有记录
-                    List<SleepRecord> allRecords = sleepRecordDao.getAllByUserIdSync(userId);
-                    
-                    // 按日期分组，保留每个日期最新的一条记录
-                    Map<String, List<SleepRecord>> recordsByDate = new HashMap<>();
-                    
-                    // 按日期分组
-                    for (SleepRecord record : allRecords) {
-                        if (record.getStartTime() != null) {
-                            String dateKey = record.getStartTime().toLocalDate().toString();
-                            if (!recordsByDate.containsKey(dateKey)) {
-                                recordsByDate.put(dateKey, new ArrayList<>());
-                            }
-                            recordsByDate.get(dateKey).add(record);
-                        }
-                    }
-                    
-                    // 对于每个日期，保留最新的一条记录（根据ID或远程ID）
-                    int cleanedCount = 0;
-                    for (String dateKey : recordsByDate.keySet()) {
-                        List<SleepRecord> recordsForDate = recordsByDate.get(dateKey);
-                        if (recordsForDate.size() > 1) {
-                            // 按照ID或远程ID排序，找出最新的记录
-                            SleepRecord newestRecord = recordsForDate.get(0);
-                            for (SleepRecord record : recordsForDate) {
-                                if (record.getRemoteId() != null) {
-                                    if (newestRecord.getRemoteId() == null || 
-                                        record.getRemoteId() > newestRecord.getRemoteId()) {
-                                        newestRecord = record;
-                                    }
-                                } else if (newestRecord.getRemoteId() == null && 
-                                           record.getId() > newestRecord.getId()) {
-                                    newestRecord = record;
-                                }
-                            }
-                            
-                            // 删除其他记录
-                            for (SleepRecord record : recordsForDate) {
-                                if (!record.equals(newestRecord)) {
-                                    sleepRecordDao.delete(record);
-                                    cleanedCount++;
-                                }
-                            }
-                        }
-                    }
-                    
-                    return cleanedCount > 0;
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    return false;
-                }
-            }
-            
-            @Override
-            protected void onPostExecute(Boolean success) {
-                if (success) {
-                    result.setValue(Resource.success(true));
-                } else {
-                    result.setValue(Resource.success(false));
-                }
-            }
-        }.execute();
-        
-        return result;
-    }
-    
     // 异步任务类
     
     // 插入操作
@@ -431,7 +314,7 @@ public class SleepRepository {
         
         @Override
         protected Long doInBackground(SleepRecord... sleepRecords) {
-            return dao.insert(sleepRecords[0]);
+            return dao.insertIfAbsent(sleepRecords[0]);
         }
         
         @Override
@@ -440,58 +323,19 @@ public class SleepRepository {
         }
     }
     
-    // 批量插入操作
+    // 批量插入操作，按(userId, sleepDay)合并服务器记录
     private static class InsertAllAsyncTask extends AsyncTask<List<SleepRecord>, Void, Void> {
         private final SleepRecordDao dao;
-        private final long userId;
         
-        InsertAllAsyncTask(SleepRecordDao dao, long userId) {
+        InsertAllAsyncTask(SleepRecordDao dao) {
             this.dao = dao;
-            this.userId = userId;
         }
         
         @SafeVarargs
         @Override
         protected final Void doInBackground(List<SleepRecord>... lists) {
             if (lists.length > 0 && lists[0] != null) {
-                // 获取现有记录
-                List<SleepRecord> existingRecords = dao.getAllByUserIdSync(userId);
-                
-                // 新记录按日期分组，确保每天只有一条记录
-                List<SleepRecord> uniqueRecords = new ArrayList<>();
-                
-                // 记录已处理的日期
-                Set<String> processedDates = new HashSet<>();
-                
-                // 从远程获取的记录，按照ID倒序排序（确保最新的记录优先）
-                List<SleepRecord> remoteRecords = new ArrayList<>(lists[0]);
-                Collections.sort(remoteRecords, (a, b) -> Long.compare(b.getRemoteId() != null ? b.getRemoteId() : 0,
-                                                                     a.getRemoteId() != null ? a.getRemoteId() : 0));
-                
-                // 仅保留每天最新的一条记录
-                for (SleepRecord record : remoteRecords) {
-                    if (record.getStartTime() != null) {
-                        String dateKey = record.getStartTime().toLocalDate().toString();
-                        if (!processedDates.contains(dateKey)) {
-                            uniqueRecords.add(record);
-                            processedDates.add(dateKey);
-                        }
-                    }
-                }
-                
-                // 删除本地已有的与远程同步的相同日期的记录
-                for (SleepRecord existingRecord : existingRecords) {
-                    if (existingRecord.getStartTime() != null && 
-                        existingRecord.getRemoteId() != null && 
-                        processedDates.contains(existingRecord.getStartTime().toLocalDate().toString())) {
-                        dao.delete(existingRecord);
-                    }
-                }
-                
-                // 插入唯一的记录
-                for (SleepRecord record : uniqueRecords) {
-                    dao.insert(record);
-                }
+                dao.upsertRemoteRecords(lists[0]);
             }
             return null;
         }
@@ -542,6 +386,19 @@ public class SleepRepository {
         
         @Override
         protected Boolean doInBackground(Long... userIds) {
+            Metrics.Timer timer = Metrics.get().startTimer("sync.sleep");
+            try {
+                Boolean success = sync(userIds);
+                if (!Boolean.TRUE.equals(success)) {
+                    Metrics.get().increment("sync.sleep.failures");
+                }
+                return success;
+            } finally {
+                timer.stop();
+            }
+        }
+        
+        private Boolean sync(Long... userIds) {
             try {
                 long userId = userIds[0];
                 // 获取未同步的记录
@@ -1,15 +1,26 @@
 package com.healthx.repository;
 
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.os.AsyncTask;
 import android.util.Log;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.healthx.database.AppDatabase;
+import com.healthx.database.converter.DateTimeConverter;
+import com.healthx.database.dao.StepBucketDao;
+import com.healthx.database.dao.StepCounterStateDao;
 import com.healthx.database.dao.StepGoalDao;
 import com.healthx.database.dao.StepRecordDao;
+import com.healthx.metrics.DaoMetrics;
+import com.healthx.metrics.Metrics;
+import com.healthx.model.StepBucket;
+import com.healthx.model.StepCounterState;
 import com.healthx.model.StepGoal;
 import com.healthx.model.StepRecord;
 import com.healthx.model.dto.StepGoalDTO;
@@ -18,18 +29,22 @@ import com.healthx.model.dto.StepStatisticsDTO;
 import com.healthx.network.ApiResponse;
 import com.healthx.network.RetrofitClient;
 import com.healthx.network.StepApiService;
+import com.healthx.step.StepRollup;
 import com.healthx.util.DateTimeUtils;
 import com.healthx.util.PreferenceManager;
 
 import java.math.BigDecimal;
+import java.io.File;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -41,63 +56,263 @@ import retrofit2.Response;
 public class StepRepository {
     private static final String TAG = "StepRepository";
     
+    // 传感器采集写入的记录来源
+    public static final String SOURCE_SENSOR = "sensor";
+    // 分钟桶保留7天，小时桶保留一年
+    private static final int MINUTE_BUCKET_RETENTION_DAYS = 7;
+    private static final int HOUR_BUCKET_RETENTION_DAYS = 366;
+    // 手动录入的步数合并3秒后写入数据库，同一天最多30秒上传一次
+    private static final long WRITE_DELAY_MS = 3_000L;
+    private static final long SYNC_WINDOW_MS = 30_000L;
+    private static final int MAX_PENDING_DAYS = 16;
+    private static final String WRITE_JOURNAL = "step_writes.journal";
+    
+    private static StepRepository instance;
+    
+    private final AppDatabase database;
     private final StepRecordDao stepRecordDao;
+    private final StepBucketDao stepBucketDao;
+    private final StepCounterStateDao stepCounterStateDao;
     private final StepGoalDao stepGoalDao;
     private final StepApiService stepApiService;
     private final Executor executor;
-    private final PreferenceManager preferenceManager;
+    private final Context context;
+    // 同一天的修改无论来自哪个页面都经过这一个缓冲合并
+    private final StepWriteBuffer writeBuffer;
+    // 上次清理过期时间桶的日期，每天最多清理一次
+    private LocalDate lastPruneDate;
     
+    /**
+     * 应用中使用getInstance，整个进程共用一个仓库和写回缓冲；
+     * 测试可以直接创建实例，得到独立的缓冲和上传窗口
+     */
+    @VisibleForTesting(otherwise = VisibleForTesting.PRIVATE)
     public StepRepository(Context context) {
-        AppDatabase db = AppDatabase.getInstance(context);
-        stepRecordDao = db.stepRecordDao();
-        stepGoalDao = db.stepGoalDao();
+        database = AppDatabase.getInstance(context);
+        stepRecordDao = DaoMetrics.instrument(StepRecordDao.class, database.stepRecordDao());
+        stepGoalDao = DaoMetrics.instrument(StepGoalDao.class, database.stepGoalDao());
+        stepBucketDao = DaoMetrics.instrument(StepBucketDao.class, database.stepBucketDao());
+        stepCounterStateDao = DaoMetrics.instrument(StepCounterStateDao.class, database.stepCounterStateDao());
         stepApiService = RetrofitClient.getInstance(context).create(StepApiService.class);
         executor = Executors.newFixedThreadPool(2);
-        preferenceManager = PreferenceManager.getInstance(context);
+        this.context = context.getApplicationContext();
+        writeBuffer = createWriteBuffer();
+    }
+    
+    public static synchronized StepRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new StepRepository(context);
+        }
+        return instance;
+    }
+    
+    private StepWriteBuffer createWriteBuffer() {
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "step-write-buffer");
+            thread.setDaemon(true);
+            return thread;
+        };
+        StepWriteBuffer buffer = new StepWriteBuffer(new File(context.getFilesDir(), WRITE_JOURNAL),
+                new StepWriteBuffer.Sink() {
+                    @Override
+                    public void save(StepRecord record) {
+                        saveStepRecord(record);
+                    }
+                    
+                    @Override
+                    public void sync(long userId, LocalDate date) {
+                        StepRecord record = stepRecordDao.getStepRecordByDate(userId, date);
+                        if (record != null) {
+                            syncStepRecordToServer(record, null);
+                        }
+                    }
+                },
+                Executors.newSingleThreadScheduledExecutor(threadFactory),
+                WRITE_DELAY_MS, SYNC_WINDOW_MS, MAX_PENDING_DAYS);
+        
+        // 界面全部不可见时立即写入，不等定时器
+        context.registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                if (level >= TRIM_MEMORY_UI_HIDDEN) {
+                    buffer.flush();
+                }
+            }
+            
+            @Override
+            public void onConfigurationChanged(@NonNull Configuration newConfig) {
+            }
+            
+            @Override
+            public void onLowMemory() {
+                buffer.flush();
+            }
+        });
+        return buffer;
     }
     
     // 步数记录相关方法
     
     /**
      * 添加步数记录
+     * 记录先进入写回缓冲，短时间内对同一天的多次修改只写一次数据库、上传一次服务器。
+     * 回调在缓冲线程上、记录追加到日志后调用，表示修改已经不会丢失（进程被杀后从日志恢复），
+     * 此时数据库中还是旧值，约WRITE_DELAY_MS后才写入；需要读取时使用getStepRecordByDate，它优先返回缓冲中的记录。
      * @param stepRecord 步数记录
-     * @param callback 回调
+     * @param callback 回调，传入的就是stepRecord
      */
     public void addStepRecord(StepRecord stepRecord, final DataCallback<StepRecord> callback) {
-        executor.execute(() -> {
-            try {
-                // 检查是否已存在当日记录
-                StepRecord existingRecord = stepRecordDao.getStepRecordByDate(
-                        stepRecord.getUserId(), stepRecord.getRecordDate());
-                
-                if (existingRecord != null) {
-                    // 更新已有记录
-                    existingRecord.setStepCount(stepRecord.getStepCount());
-                    existingRecord.setDistance(stepRecord.getDistance());
-                    existingRecord.setCaloriesBurned(stepRecord.getCaloriesBurned());
-                    existingRecord.setSource(stepRecord.getSource());
-                    existingRecord.setUpdatedAt(LocalDateTime.now());
-                    existingRecord.setSyncStatus(0); // 设置为未同步
-                    
-                    stepRecordDao.update(existingRecord);
-                    
-                    // 同步到服务器
-                    syncStepRecordToServer(existingRecord, callback);
-                } else {
-                    // 保存新记录
-                    long id = stepRecordDao.insert(stepRecord);
-                    stepRecord.setId(id);
-                    
-                    // 同步到服务器
-                    syncStepRecordToServer(stepRecord, callback);
+        writeBuffer.put(stepRecord, callback == null ? null : () -> callback.onSuccess(stepRecord));
+    }
+    
+    /**
+     * 立即写入缓冲中的步数记录，例如退出登录前
+     */
+    public void flushPendingWrites() {
+        writeBuffer.flush();
+    }
+    
+    /**
+     * 把合并后的每日记录写入数据库，由写回缓冲调用
+     */
+    private void saveStepRecord(StepRecord stepRecord) {
+        // 从日志恢复的记录只有步数，距离和卡路里按步数重新计算
+        int steps = stepRecord.getStepCount();
+        StepRecord existingRecord = stepRecordDao.getStepRecordByDate(
+                stepRecord.getUserId(), stepRecord.getRecordDate());
+        
+        if (existingRecord != null) {
+            // 更新已有记录
+            existingRecord.setStepCount(steps);
+            existingRecord.setDistance(calculateDistance(steps));
+            existingRecord.setCaloriesBurned(calculateCalories(steps));
+            existingRecord.setSource(stepRecord.getSource());
+            existingRecord.setUpdatedAt(LocalDateTime.now());
+            existingRecord.setSyncStatus(0); // 设置为未同步
+            stepRecordDao.update(existingRecord);
+        } else {
+            // 保存新记录
+            stepRecord.setDistance(calculateDistance(steps));
+            stepRecord.setCaloriesBurned(calculateCalories(steps));
+            stepRecordDao.insert(stepRecord);
+        }
+    }
+    
+    /**
+     * 把传感器采集的分钟步数写入时间桶，并逐级汇总到小时桶和每天的步数记录，在调用线程同步执行
+     * 一批数据和计数器基线在一个事务中完成，每天只读写一次step_records；记录标记为未同步，
+     * 提交后交给写回缓冲按上传窗口上传，每天每个窗口最多上传一次。
+     *
+     * @param userId 用户ID
+     * @param minuteSteps 分钟起点（毫秒时间戳）到该分钟的步数，可以为空，此时只保存基线
+     * @param counter 这批数据对应的计数器值
+     * @param bootTimeMillis 计数器对应的开机时间
+     */
+    public void addSensorSteps(long userId, SortedMap<Long, Integer> minuteSteps, long counter, long bootTimeMillis) {
+        StepCounterState state = new StepCounterState(userId, counter, bootTimeMillis);
+        if (minuteSteps.isEmpty()) {
+            stepCounterStateDao.save(state);
+            return;
+        }
+        StepRollup rollup = new StepRollup(minuteSteps);
+        
+        database.runInTransaction(() -> {
+            stepCounterStateDao.save(state);
+            addToBuckets(userId, StepBucket.MINUTE, rollup.getMinutes());
+            addToBuckets(userId, StepBucket.HOUR, rollup.getHours());
+            
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<LocalDate, Integer> entry : rollup.getDays().entrySet()) {
+                StepRecord record = stepRecordDao.getStepRecordByDate(userId, entry.getKey());
+                boolean isNew = record == null;
+                if (isNew) {
+                    record = new StepRecord();
+                    record.setUserId(userId);
+                    record.setRecordDate(entry.getKey());
                 }
-            } catch (Exception e) {
-                Log.e(TAG, "Error adding step record", e);
-                if (callback != null) {
-                    callback.onError(e.getMessage());
+                int steps = record.getStepCount() + entry.getValue();
+                record.setStepCount(steps);
+                record.setDistance(calculateDistance(steps));
+                record.setCaloriesBurned(calculateCalories(steps));
+                record.setSource(SOURCE_SENSOR);
+                record.setUpdatedAt(now);
+                record.setSyncStatus(0);
+                if (isNew) {
+                    stepRecordDao.insert(record);
+                } else {
+                    stepRecordDao.update(record);
                 }
             }
+            
+            pruneBuckets(userId, now.toLocalDate());
         });
+        for (LocalDate date : rollup.getDays().keySet()) {
+            writeBuffer.requestSync(userId, date);
+        }
+    }
+    
+    /**
+     * 重新上传用户未同步或上次同步失败的记录，在后台线程调用，例如登录后开始计步时
+     */
+    public void syncUnsyncedRecords(long userId) {
+        for (StepRecord record : stepRecordDao.getUnsyncedStepRecordsByUserId(userId)) {
+            writeBuffer.requestSync(userId, record.getRecordDate());
+        }
+    }
+    
+    /**
+     * 获取已计入数据库的计数器基线，在后台线程调用
+     * @return 基线，没有时返回null
+     */
+    public StepCounterState getSensorBaseline(long userId) {
+        return stepCounterStateDao.get(userId);
+    }
+    
+    private void addToBuckets(long userId, int granularity, SortedMap<Long, Integer> stepsByStart) {
+        for (Map.Entry<Long, Integer> entry : stepsByStart.entrySet()) {
+            int steps = entry.getValue();
+            double distance = calculateDistance(steps).doubleValue();
+            double calories = calculateCalories(steps).doubleValue();
+            if (stepBucketDao.addSteps(userId, granularity, entry.getKey(), steps, distance, calories) == 0) {
+                StepBucket bucket = new StepBucket();
+                bucket.setUserId(userId);
+                bucket.setGranularity(granularity);
+                bucket.setBucketStart(entry.getKey());
+                bucket.setSteps(steps);
+                bucket.setDistance(distance);
+                bucket.setCalories(calories);
+                stepBucketDao.insertIfAbsent(bucket);
+            }
+        }
+    }
+    
+    /**
+     * 删除超过保留期的时间桶，天级数据在step_records中长期保留
+     */
+    private void pruneBuckets(long userId, LocalDate today) {
+        if (today.equals(lastPruneDate)) {
+            return;
+        }
+        stepBucketDao.deleteBefore(userId, StepBucket.MINUTE,
+                startOfDayMillis(today.minusDays(MINUTE_BUCKET_RETENTION_DAYS)));
+        stepBucketDao.deleteBefore(userId, StepBucket.HOUR,
+                startOfDayMillis(today.minusDays(HOUR_BUCKET_RETENTION_DAYS)));
+        lastPruneDate = today;
+    }
+    
+    /**
+     * 获取用户某天每小时的步数，用于小时图表
+     * @param userId 用户ID
+     * @param date 日期
+     * @return 按时间排序的小时桶LiveData，没有步数的小时不返回
+     */
+    public LiveData<List<StepBucket>> getHourlySteps(long userId, LocalDate date) {
+        return stepBucketDao.observeBuckets(userId, StepBucket.HOUR,
+                startOfDayMillis(date), startOfDayMillis(date.plusDays(1)));
+    }
+    
+    private static long startOfDayMillis(LocalDate date) {
+        return DateTimeConverter.toEpochMilli(date.atStartOfDay());
     }
     
     /**
@@ -107,17 +322,19 @@ public class StepRepository {
      */
     private void syncStepRecordToServer(StepRecord stepRecord, final DataCallback<StepRecord> callback) {
         // 如果未登录，直接返回本地数据
-        if (!preferenceManager.isLoggedIn()) {
+        if (!PreferenceManager.isLoggedIn(context)) {
             if (callback != null) {
                 callback.onSuccess(stepRecord);
             }
             return;
         }
         
-        // 转换为DTO
-        StepRecordDTO dto = convertToStepRecordDTO(stepRecord);
+        // 转换为DTO，记下上传的步数，写回同步状态时用来判断记录在上传期间是否又有变化
+        StepRecordDTO dto = new StepRecordDTO(stepRecord);
+        int sentSteps = stepRecord.getStepCount();
         
-        // 发送到服务器
+        // 发送到服务器，计时到收到响应为止
+        Metrics.Timer timer = Metrics.get().startTimer("sync.step");
         Call<ApiResponse<StepRecordDTO>> call;
         if (stepRecord.getRemoteId() != null) {
             call = stepApiService.updateStepRecord(stepRecord.getRemoteId(), dto);
@@ -128,14 +345,16 @@ public class StepRepository {
         call.enqueue(new Callback<ApiResponse<StepRecordDTO>>() {
             @Override
             public void onResponse(Call<ApiResponse<StepRecordDTO>> call, Response<ApiResponse<StepRecordDTO>> response) {
+                timer.stop();
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
                     executor.execute(() -> {
                         try {
                             // 更新本地记录的远程ID和同步状态
                             StepRecordDTO serverDTO = response.body().getData();
+                            // 只写同步相关的列，不能用上传前读到的整行覆盖期间写入的传感器步数
                             stepRecord.setRemoteId(serverDTO.getId());
                             stepRecord.setSyncStatus(1); // 设置为已同步
-                            stepRecordDao.update(stepRecord);
+                            stepRecordDao.markSynced(stepRecord.getId(), serverDTO.getId(), sentSteps);
                             
                             if (callback != null) {
                                 callback.onSuccess(stepRecord);
@@ -149,9 +368,10 @@ public class StepRepository {
                     });
                 } else {
                     // 标记同步失败
+                    Metrics.get().increment("sync.step.failures");
                     executor.execute(() -> {
                         stepRecord.setSyncStatus(2); // 设置为同步失败
-                        stepRecordDao.update(stepRecord);
+                        stepRecordDao.markSyncFailed(stepRecord.getId(), sentSteps);
                         
                         if (callback != null) {
                             callback.onSuccess(stepRecord); // 仍然返回本地数据
@@ -163,11 +383,13 @@ public class StepRepository {
             @Override
             public void onFailure(Call<ApiResponse<StepRecordDTO>> call, Throwable t) {
                 Log.e(TAG, "Error syncing step record to server", t);
+                timer.stop();
+                Metrics.get().increment("sync.step.failures");
                 
                 // 标记同步失败
                 executor.execute(() -> {
                     stepRecord.setSyncStatus(2); // 设置为同步失败
-                    stepRecordDao.update(stepRecord);
+                    stepRecordDao.markSyncFailed(stepRecord.getId(), sentSteps);
                     
                     if (callback != null) {
                         callback.onSuccess(stepRecord); // 仍然返回本地数据
@@ -195,6 +417,19 @@ public class StepRepository {
      */
     public void getStepRecordByDate(long userId, LocalDate date, boolean forceRefresh, final DataCallback<StepRecord> callback) {
         executor.execute(() -> {
+            // 还在写回缓冲中的修改比数据库中的新
+            StepRecord buffered = writeBuffer.peek(userId, date);
+            if (buffered != null && !forceRefresh) {
+                if (buffered.getDistance() == null) {
+                    buffered.setDistance(calculateDistance(buffered.getStepCount()));
+                    buffered.setCaloriesBurned(calculateCalories(buffered.getStepCount()));
+                }
+                if (callback != null) {
+                    callback.onSuccess(buffered);
+                }
+                return;
+            }
+            
             // 先从本地获取
             StepRecord localRecord = stepRecordDao.getStepRecordByDate(userId, date);
             
@@ -207,7 +442,7 @@ public class StepRepository {
             }
             
             // 如果未登录或需要强制刷新，尝试从网络获取
-            if (preferenceManager.isLoggedIn()) {
+            if (PreferenceManager.isLoggedIn(context)) {
                 fetchStepRecordByDateFromServer(userId, date, localRecord, callback);
             } else if (callback != null) {
                 // 未登录，返回本地数据
@@ -232,7 +467,7 @@ public class StepRepository {
                     executor.execute(() -> {
                         try {
                             // 转换为实体
-                            StepRecord record = convertToStepRecord(response.body().getData());
+                            StepRecord record = response.body().getData().toEntity();
                             
                             // 保存到本地数据库
                             if (localRecord != null) {
@@ -272,37 +507,6 @@ public class StepRepository {
         });
     }
     
-    // 工具方法：将StepRecord实体转换为DTO
-    private StepRecordDTO convertToStepRecordDTO(StepRecord record) {
-        StepRecordDTO dto = new StepRecordDTO();
-        dto.setId(record.getRemoteId());
-        dto.setUserId(record.getUserId());
-        dto.setStepCount(record.getStepCount());
-        dto.setDistance(record.getDistance());
-        dto.setCaloriesBurned(record.getCaloriesBurned());
-        dto.setRecordDate(record.getRecordDate());
-        dto.setSource(record.getSource());
-        dto.setCreatedAt(record.getCreatedAt());
-        dto.setUpdatedAt(record.getUpdatedAt());
-        return dto;
-    }
-    
-    // 工具方法：将DTO转换为StepRecord实体
-    private StepRecord convertToStepRecord(StepRecordDTO dto) {
-        StepRecord record = new StepRecord();
-        record.setRemoteId(dto.getId());
-        record.setUserId(dto.getUserId());
-        record.setStepCount(dto.getStepCount());
-        record.setDistance(dto.getDistance());
-        record.setCaloriesBurned(dto.getCaloriesBurned());
-        record.setRecordDate(dto.getRecordDate());
-        record.setSource(dto.getSource());
-        record.setCreatedAt(dto.getCreatedAt() != null ? dto.getCreatedAt() : LocalDateTime.now());
-        record.setUpdatedAt(dto.getUpdatedAt() != null ? dto.getUpdatedAt() : LocalDateTime.now());
-        record.setSyncStatus(1); // 从服务器获取的数据标记为已同步
-        return record;
-    }
-    
     // 根据步数计算消耗的卡路里（简单估算）
     public BigDecimal calculateCalories(int steps) {
         // 每1000步消耗约40卡路里（简化估算）
@@ -0,0 +1,275 @@
+package com.healthx.repository;
+
+import android.util.Log;
+
+import com.healthx.metrics.Metrics;
+import com.healthx.model.StepRecord;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每日步数记录的写回缓冲
+ * 同一(用户, 日期)的多次修改在内存中合并，只保留最后的步数，按以下条件写入数据库：
+ * 距第一次未写入的修改超过flushDelayMillis、待写入的键达到maxPendingKeys，或界面切到后台时调用flush()。
+ * 每次修改先追加到日志文件，进程被杀后重新创建缓冲时从日志恢复；日志记录的是步数的绝对值，重放多次结果相同。
+ * 写入数据库后按键上传服务器，每个键在syncWindowMillis内最多上传一次，窗口内的后续修改在窗口结束时一起上传。
+ * 不经过缓冲直接写入数据库的记录（传感器采集、上次未上传成功的记录）通过requestSync()使用同样的上传窗口。
+ * 所有操作都在传入的单线程executor上执行。
+ */
+public final class StepWriteBuffer {
+
+    private static final String TAG = "StepWriteBuffer";
+
+    /**
+     * 实际的写入操作，在缓冲的线程上调用
+     */
+    public interface Sink {
+        /**
+         * 把合并后的记录写入数据库
+         */
+        void save(StepRecord record) throws Exception;
+
+        /**
+         * 把数据库中该日期的记录上传服务器
+         */
+        void sync(long userId, LocalDate date);
+    }
+
+    private final File journal;
+    private final Sink sink;
+    private final ScheduledExecutorService executor;
+    private final long flushDelayMillis;
+    private final long syncWindowNanos;
+    private final int maxPendingKeys;
+
+    // 只在executor线程修改，peek可以在其他线程读取
+    private final Map<String, StepRecord> pending = new ConcurrentHashMap<>();
+    // 以下字段只在executor线程访问
+    private final Map<String, StepRecord> unsynced = new LinkedHashMap<>();
+    private final Map<String, Long> lastSyncNanos = new HashMap<>();
+    private boolean flushScheduled;
+    private boolean syncScheduled;
+
+    public StepWriteBuffer(File journal, Sink sink, ScheduledExecutorService executor,
+                           long flushDelayMillis, long syncWindowMillis, int maxPendingKeys) {
+        this.journal = journal;
+        this.sink = sink;
+        this.executor = executor;
+        this.flushDelayMillis = flushDelayMillis;
+        this.syncWindowNanos = TimeUnit.MILLISECONDS.toNanos(syncWindowMillis);
+        this.maxPendingKeys = maxPendingKeys;
+        executor.execute(this::recover);
+    }
+
+    /**
+     * 放入一条每日记录，覆盖同一(用户, 日期)尚未写入的修改
+     *
+     * @param onBuffered 记录写入日志后在缓冲线程回调，可以为null
+     */
+    public void put(StepRecord record, Runnable onBuffered) {
+        executor.execute(() -> {
+            pending.put(key(record.getUserId(), record.getRecordDate()), record);
+            appendToJournal(record);
+            Metrics.get().increment("step.buffer.put");
+            if (onBuffered != null) {
+                onBuffered.run();
+            }
+            if (pending.size() >= maxPendingKeys) {
+                flushPending();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                executor.schedule(this::flushPending, flushDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    /**
+     * 请求上传已经写入数据库的记录，与缓冲写入的记录共用上传窗口
+     */
+    public void requestSync(long userId, LocalDate date) {
+        executor.execute(() -> {
+            StepRecord record = new StepRecord();
+            record.setUserId(userId);
+            record.setRecordDate(date);
+            unsynced.put(key(userId, date), record);
+            syncDue();
+        });
+    }
+
+    /**
+     * 获取尚未写入数据库的记录，读取当天记录时优先使用，避免显示旧的步数
+     *
+     * @return 未写入的记录，没有时返回null
+     */
+    public StepRecord peek(long userId, LocalDate date) {
+        return pending.get(key(userId, date));
+    }
+
+    /**
+     * 立即写入所有未写入的修改，用于界面切到后台或退出登录时
+     */
+    public void flush() {
+        executor.execute(this::flushPending);
+    }
+
+    private void flushPending() {
+        flushScheduled = false;
+        if (pending.isEmpty()) {
+            return;
+        }
+        Metrics.Timer timer = Metrics.get().startTimer("step.buffer.flush");
+        List<String> written = new ArrayList<>();
+        for (Map.Entry<String, StepRecord> entry : pending.entrySet()) {
+            try {
+                sink.save(entry.getValue());
+                written.add(entry.getKey());
+                unsynced.put(entry.getKey(), entry.getValue());
+            } catch (Exception e) {
+                // 保留在缓冲区和日志中，下次写入时重试
+                Log.e(TAG, "写入步数记录失败: " + entry.getKey(), e);
+                Metrics.get().increment("step.buffer.flush.failures");
+            }
+        }
+        for (String key : written) {
+            pending.remove(key);
+        }
+        rewriteJournal();
+        timer.stop();
+
+        if (!pending.isEmpty() && !flushScheduled) {
+            flushScheduled = true;
+            executor.schedule(this::flushPending, flushDelayMillis, TimeUnit.MILLISECONDS);
+        }
+        syncDue();
+    }
+
+    /**
+     * 上传窗口已经结束的键，其余的在最早结束的窗口到期时再处理
+     */
+    private void syncDue() {
+        syncScheduled = false;
+        long now = System.nanoTime();
+        long nextDue = Long.MAX_VALUE;
+        List<String> synced = new ArrayList<>();
+        for (Map.Entry<String, StepRecord> entry : unsynced.entrySet()) {
+            Long last = lastSyncNanos.get(entry.getKey());
+            long due = last == null ? now : last + syncWindowNanos;
+            if (due <= now) {
+                StepRecord record = entry.getValue();
+                lastSyncNanos.put(entry.getKey(), now);
+                synced.add(entry.getKey());
+                sink.sync(record.getUserId(), record.getRecordDate());
+            } else {
+                nextDue = Math.min(nextDue, due);
+            }
+        }
+        for (String key : synced) {
+            unsynced.remove(key);
+        }
+        if (nextDue != Long.MAX_VALUE && !syncScheduled) {
+            syncScheduled = true;
+            executor.schedule(this::syncDue, nextDue - now, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recover() {
+        if (!journal.exists()) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(journal), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                StepRecord record = parse(line);
+                // 最后一行可能只写了一半，跳过无法解析的行
+                if (record != null) {
+                    pending.put(key(record.getUserId(), record.getRecordDate()), record);
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "读取步数日志失败", e);
+        }
+        if (!pending.isEmpty()) {
+            Log.d(TAG, "从日志恢复未写入的步数记录: " + pending.size());
+            Metrics.get().increment("step.buffer.recovered");
+            flushPending();
+        }
+    }
+
+    private void appendToJournal(StepRecord record) {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(journal, true), StandardCharsets.UTF_8)) {
+            writer.write(format(record));
+        } catch (IOException e) {
+            Log.e(TAG, "写入步数日志失败", e);
+        }
+    }
+
+    /**
+     * 只保留仍未写入数据库的记录，全部写入后删除日志
+     */
+    private void rewriteJournal() {
+        if (pending.isEmpty()) {
+            if (journal.exists() && !journal.delete()) {
+                Log.w(TAG, "删除步数日志失败: " + journal);
+            }
+            return;
+        }
+        File temp = new File(journal.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+            for (StepRecord record : pending.values()) {
+                writer.write(format(record));
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "重写步数日志失败", e);
+            return;
+        }
+        if (!temp.renameTo(journal)) {
+            Log.w(TAG, "替换步数日志失败: " + journal);
+        }
+    }
+
+    private static String key(long userId, LocalDate date) {
+        return userId + ":" + date.toEpochDay();
+    }
+
+    // 每行: 用户ID,epochDay,步数,来源
+    static String format(StepRecord record) {
+        String source = record.getSource() == null ? "" : record.getSource().replace('\n', ' ');
+        return record.getUserId() + "," + record.getRecordDate().toEpochDay() + ","
+                + record.getStepCount() + "," + source + "\n";
+    }
+
+    static StepRecord parse(String line) {
+        String[] parts = line.split(",", 4);
+        if (parts.length < 4) {
+            return null;
+        }
+        try {
+            StepRecord record = new StepRecord();
+            record.setUserId(Long.parseLong(parts[0]));
+            record.setRecordDate(LocalDate.ofEpochDay(Long.parseLong(parts[1])));
+            record.setStepCount(Integer.parseInt(parts[2]));
+            record.setSource(parts[3].isEmpty() ? null : parts[3]);
+            return record;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.healthx.repository;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Looper;
 import android.util.Log;
+import android.util.LruCache;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
@@ -10,6 +12,9 @@ import androidx.lifecycle.MutableLiveData;
 
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import com.healthx.database.AppDatabase;
+import com.healthx.database.dao.UserDao;
+import com.healthx.metrics.DaoMetrics;
 import com.healthx.model.User;
 import com.healthx.network.ApiService;
 import com.healthx.network.RetrofitClient;
@@ -19,14 +24,18 @@ import com.healthx.network.model.JwtResponse;
 import com.healthx.network.model.LoginRequest;
 import com.healthx.network.model.RegisterRequest;
 import com.healthx.network.model.UserResponse;
+import com.healthx.step.StepTracker;
+import com.healthx.util.PreferenceManager;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.net.ConnectException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -38,55 +47,101 @@ import retrofit2.Response;
 public class UserRepository {
     
     private static final String TAG = "UserRepository";
+    // 同时使用的用户通常只有当前登录用户一个，保留少量即可
+    private static final int CACHE_SIZE = 16;
+    // 旧版本把整个用户缓存序列化为JSON存在这里，首次启动时导入数据库后删除
+    private static final String PREF_USER_CACHE = "user_cache";
+    
+    // 所有UserRepository实例共享的内存缓存，写入时同步写数据库
+    private static final LruCache<Long, User> userCache = new LruCache<>(CACHE_SIZE);
+    // 单线程保证同一用户的多次保存按顺序落库
+    private static final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private static final AtomicBoolean legacyCacheMigrated = new AtomicBoolean(false);
+    
+    private final Context appContext;
     private final ApiService apiService;
     private final TokenManager tokenManager;
     private final SharedPreferences sharedPreferences;
-    private final Gson gson;
-    
-    // 本地缓存的用户数据
-    private final Map<Long, User> userCache = new HashMap<>();
-    private static final String PREF_USER_CACHE = "user_cache";
+    private final UserDao userDao;
     
     public UserRepository(Context context) {
+        appContext = context.getApplicationContext();
         apiService = RetrofitClient.getInstance().getApiService();
         tokenManager = TokenManager.getInstance();
         sharedPreferences = context.getSharedPreferences("health_prefs", Context.MODE_PRIVATE);
-        gson = new Gson();
+        AppDatabase db = AppDatabase.getInstance(context);
+        userDao = DaoMetrics.instrument(UserDao.class, db.userDao());
         
-        // 从SharedPreferences加载缓存
-        loadCache();
+        if (legacyCacheMigrated.compareAndSet(false, true)) {
+            diskExecutor.execute(this::migrateLegacyCache);
+        }
+        // 提前在后台加载当前登录用户，页面在主线程读取时可以直接命中缓存
+        long userId = sharedPreferences.getLong("user_id", -1);
+        if (userId != -1 && userCache.get(userId) == null) {
+            diskExecutor.execute(() -> loadFromDatabase(userId));
+        }
     }
     
-    private void loadCache() {
+    /**
+     * 把旧版本SharedPreferences中的JSON用户缓存导入users表
+     */
+    private void migrateLegacyCache() {
         String userCacheJson = sharedPreferences.getString(PREF_USER_CACHE, null);
-        if (userCacheJson != null) {
+        if (userCacheJson == null) {
+            return;
+        }
+        try {
             Type type = new TypeToken<Map<Long, User>>(){}.getType();
-            Map<Long, User> loadedCache = gson.fromJson(userCacheJson, type);
-            if (loadedCache != null) {
-                userCache.putAll(loadedCache);
+            Map<Long, User> legacyCache = new Gson().fromJson(userCacheJson, type);
+            if (legacyCache != null) {
+                for (User user : legacyCache.values()) {
+                    if (user != null && user.getId() != null && userDao.getUserById(user.getId()) == null) {
+                        userDao.upsertUser(user);
+                    }
+                }
             }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "导入旧用户缓存失败", e);
         }
-    }
-    
-    private void saveCache() {
-        String userCacheJson = gson.toJson(userCache);
-        sharedPreferences.edit().putString(PREF_USER_CACHE, userCacheJson).apply();
+        sharedPreferences.edit().remove(PREF_USER_CACHE).apply();
     }
     
     /**
-     * 从本地缓存获取用户
+     * 获取本地用户
+     * 先查内存缓存；未命中时在后台线程直接查数据库，在主线程返回null并在后台预热缓存
      */
     public User getUserById(long userId) {
-        return userCache.get(userId);
+        User user = userCache.get(userId);
+        if (user != null) {
+            return user;
+        }
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            diskExecutor.execute(() -> loadFromDatabase(userId));
+            return null;
+        }
+        return loadFromDatabase(userId);
+    }
+    
+    private User loadFromDatabase(long userId) {
+        User user = userDao.getUserById(userId);
+        if (user != null) {
+            // 后台加载期间可能已经有更新的数据写入缓存，以缓存中的为准
+            User cached = userCache.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+            userCache.put(userId, user);
+        }
+        return user;
     }
     
     /**
-     * 保存用户到本地缓存
+     * 保存用户：立即更新内存缓存，异步写入一行数据库记录
      */
     public void saveUser(User user) {
         if (user != null && user.getId() != null) {
             userCache.put(user.getId(), user);
-            saveCache();
+            diskExecutor.execute(() -> userDao.upsertUser(user));
         }
     }
     
@@ -196,6 +251,9 @@ public class UserRepository {
                     
                     // 保存用户ID到SharedPreferences
                     sharedPreferences.edit().putLong("user_id", jwtResponse.getId()).apply();
+                    PreferenceManager.setLoggedIn(appContext, true);
+                    // 按新登录的用户重新开始计步，并上传该用户尚未同步的记录
+                    StepTracker.get(appContext).start();
                     
                     User user = new User(
                             jwtResponse.getId(),
@@ -364,46 +422,30 @@ public class UserRepository {
      * 退出登录
      */
     public void logout() {
+        // 先停止计步并写入缓冲中的步数，剩余步数仍记在当前用户名下，下次登录时上传
+        StepTracker.get(appContext).stop();
+        StepRepository.getInstance(appContext).flushPendingWrites();
+        PreferenceManager.setLoggedIn(appContext, false);
+        
         // 清除Token
         tokenManager.clearUserInfo();
         
         // 清除SharedPreferences中的用户ID
         sharedPreferences.edit().remove("user_id").apply();
         
-        // 清除缓存
-        userCache.clear();
-        saveCache();
+        // 只清除登录状态和内存缓存；users表中的行保留，删除会级联删除该用户的记录，包括尚未同步的
+        userCache.evictAll();
     }
     
     /**
-     * 获取默认用户信息
-     * 实际应用中应该从SharedPreferences或数据库获取当前登录用户
-     * 这里为了演示，返回一个默认用户
+     * 获取当前登录用户
+     * 未登录或本地没有该用户时返回null；在主线程缓存未命中时也返回null，并在后台加载
      */
     public User getDefaultUser() {
-        // 尝试从SharedPreferences获取当前用户ID
-        long userId = sharedPreferences.getLong("user_id", 1); // 默认用户ID为1
-        
-        // 尝试从缓存获取用户
-        User user = getUserById(userId);
-        if (user != null) {
-            return user;
+        long userId = sharedPreferences.getLong("user_id", -1);
+        if (userId == -1) {
+            return null;
         }
-        
-        // 如果缓存中没有，创建一个默认用户
-        User defaultUser = new User();
-        defaultUser.setId(userId);
-        defaultUser.setUsername("default_user");
-        defaultUser.setEmail("default@example.com");
-        defaultUser.setNickname("默认用户");
-        defaultUser.setGender("男");
-        defaultUser.setAge(25);
-        defaultUser.setHeight(175.0);
-        defaultUser.setWeight(70.0);
-        
-        // 保存到缓存
-        saveUser(defaultUser);
-        
-        return defaultUser;
+        return getUserById(userId);
     }
 } 
\ No newline at end of file
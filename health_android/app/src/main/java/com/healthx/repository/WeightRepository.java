@@ -10,18 +10,19 @@ import androidx.lifecycle.MutableLiveData;
 
 import com.healthx.database.AppDatabase;
 import com.healthx.database.dao.WeightRecordDao;
+import com.healthx.metrics.DaoMetrics;
+import com.healthx.metrics.Metrics;
 import com.healthx.model.WeightRecord;
 import com.healthx.model.dto.WeightRecordDTO;
 import com.healthx.network.ApiClient;
 import com.healthx.network.ApiResponse;
 import com.healthx.network.WeightApi;
+import com.healthx.util.BmiUtils;
 import com.healthx.util.DateTimeUtils;
 import com.healthx.util.NetworkUtils;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Locale;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -39,11 +40,10 @@ public class WeightRepository {
     private final WeightApi weightApi;
     private final ExecutorService executorService;
     private final Context context;
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
     
     public WeightRepository(Context context) {
         AppDatabase db = AppDatabase.getInstance(context);
-        weightRecordDao = db.weightRecordDao();
+        weightRecordDao = DaoMetrics.instrument(WeightRecordDao.class, db.weightRecordDao());
         weightApi = ApiClient.getInstance().create(WeightApi.class);
         executorService = Executors.newFixedThreadPool(4);
         this.context = context;
@@ -60,8 +60,7 @@ public class WeightRepository {
         new AsyncTask<Void, Void, Boolean>() {
             @Override
             protected Boolean doInBackground(Void... voids) {
-                Date date = new Date(record.getMeasurementTime());
-                return !hasRecordForDayInternal(record.getUserId(), date);
+                return !hasRecordForDayInternal(record.getUserId(), record.getMeasurementTime());
             }
             
             @Override
@@ -342,17 +341,17 @@ public class WeightRepository {
     /**
      * 获取用户指定日期的体重记录
      */
-    public List<WeightRecord> getByUserIdAndDate(long userId, Date date) {
-        long timestamp = date.getTime();
+    public List<WeightRecord> getByUserIdAndDate(long userId, LocalDate date) {
+        long timestamp = DateTimeUtils.toTimestamp(date.atStartOfDay());
         return weightRecordDao.getByUserIdAndDate(userId, timestamp);
     }
     
     /**
      * 获取用户指定日期范围的体重记录
      */
-    public LiveData<List<WeightRecord>> getByUserIdAndDateRange(long userId, Date startDate, Date endDate) {
-        long startTime = startDate.getTime();
-        long endTime = endDate.getTime();
+    public LiveData<List<WeightRecord>> getByUserIdAndDateRange(long userId, LocalDate startDate, LocalDate endDate) {
+        long startTime = DateTimeUtils.toTimestamp(startDate.atStartOfDay());
+        long endTime = DateTimeUtils.toTimestamp(endDate.plusDays(1).atStartOfDay()) - 1;
         return weightRecordDao.getByUserIdAndDateRange(userId, startTime, endTime);
     }
     
@@ -360,7 +359,7 @@ public class WeightRepository {
      * 获取用户最近30天的体重记录
      */
     public LiveData<List<WeightRecord>> getLast30DaysByUserId(long userId) {
-        long startTime = DateTimeUtils.getDateBefore(30).getTime();
+        long startTime = DateTimeUtils.getTimestampBefore(30);
         return weightRecordDao.getLast30DaysByUserId(userId, startTime);
     }
     
@@ -368,15 +367,15 @@ public class WeightRepository {
      * 检查用户当天是否已有体重记录
      */
     public boolean hasRecordForToday(long userId) {
-        long today = DateTimeUtils.startOfDay(new Date()).getTime();
+        long today = DateTimeUtils.startOfDay(System.currentTimeMillis());
         return weightRecordDao.countByUserIdAndDate(userId, today) > 0;
     }
     
     /**
      * 检查用户指定日期是否已有体重记录 (内部使用)
      */
-    private boolean hasRecordForDayInternal(long userId, Date date) {
-        long dayStart = DateTimeUtils.startOfDay(date).getTime();
+    private boolean hasRecordForDayInternal(long userId, long timestamp) {
+        long dayStart = DateTimeUtils.startOfDay(timestamp);
         return weightRecordDao.countByUserIdAndDate(userId, dayStart) > 0;
     }
     
@@ -392,41 +391,21 @@ public class WeightRepository {
      * BMI = 体重(kg) / (身高(m) * 身高(m))
      */
     public static float calculateBMI(float weight, float heightInCm) {
-        if (heightInCm <= 0 || weight <= 0) {
-            return 0;
-        }
-        float heightInM = heightInCm / 100f;
-        return weight / (heightInM * heightInM);
+        return BmiUtils.calculateBMI(weight, heightInCm);
     }
     
     /**
      * 计算BMI (支持Double类型参数)
-     * BMI = 体重(kg) / (身高(m) * 身高(m))
      */
     public static float calculateBMI(Double weight, Double heightInCm) {
-        if (heightInCm == null || weight == null || heightInCm <= 0 || weight <= 0) {
-            return 0;
-        }
-        float weightF = weight.floatValue();
-        float heightInCmF = heightInCm.floatValue();
-        return calculateBMI(weightF, heightInCmF);
+        return BmiUtils.calculateBMI(weight, heightInCm);
     }
     
     /**
      * 获取BMI状态描述
      */
     public static String getBmiStatus(float bmi) {
-        if (bmi <= 0) {
-            return "未知";
-        } else if (bmi < 18.5) {
-            return "偏瘦";
-        } else if (bmi < 24) {
-            return "正常";
-        } else if (bmi < 28) {
-            return "超重";
-        } else {
-            return "肥胖";
-        }
+        return BmiUtils.getBmiStatus(bmi);
     }
     
     /**
@@ -448,6 +427,19 @@ public class WeightRepository {
         
         @Override
         protected Boolean doInBackground(Long... userIds) {
+            Metrics.Timer timer = Metrics.get().startTimer("sync.weight");
+            try {
+                Boolean success = sync(userIds);
+                if (!Boolean.TRUE.equals(success)) {
+                    Metrics.get().increment("sync.weight.failures");
+                }
+                return success;
+            } finally {
+                timer.stop();
+            }
+        }
+        
+        private Boolean sync(Long... userIds) {
             if (userIds.length == 0) return false;
             long userId = userIds[0];
             boolean success = true;
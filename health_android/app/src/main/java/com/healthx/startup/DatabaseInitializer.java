@@ -0,0 +1,24 @@
+package com.healthx.startup;
+
+import android.content.Context;
+
+import com.healthx.database.AppDatabase;
+
+/**
+ * 首帧之后在后台线程预热数据库
+ * Room在第一次访问时才真正打开数据库并执行迁移，数据库本身保持懒加载；
+ * 这里等首帧绘制之后再在后台触发打开，不占用启动关键路径，
+ * 之后页面发出的查询通常不必再等待打开和迁移。
+ */
+public class DatabaseInitializer implements Initializer {
+    
+    @Override
+    public boolean runsAfterFirstFrame() {
+        return true;
+    }
+    
+    @Override
+    public void initialize(Context context) {
+        AppDatabase.getInstance(context).getOpenHelper().getWritableDatabase();
+    }
+}
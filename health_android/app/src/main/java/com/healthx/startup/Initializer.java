@@ -0,0 +1,37 @@
+package com.healthx.startup;
+
+import android.content.Context;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 启动初始化项
+ * 没有依赖关系的初始化项在后台线程并行执行；只有首帧之前必须完成的才放在主线程。
+ */
+public interface Initializer {
+    
+    /**
+     * 在主线程执行，会阻塞Application.onCreate，应尽量少用
+     */
+    default boolean runsOnMainThread() {
+        return false;
+    }
+    
+    /**
+     * 推迟到第一个Activity首帧绘制之后再在后台执行，用于可以延后的预热工作，
+     * 依赖它的初始化项也会随之推迟
+     */
+    default boolean runsAfterFirstFrame() {
+        return false;
+    }
+    
+    /**
+     * 必须先完成的初始化项
+     */
+    default List<Class<? extends Initializer>> dependencies() {
+        return Collections.emptyList();
+    }
+    
+    void initialize(Context context) throws Exception;
+}
@@ -0,0 +1,209 @@
+package com.healthx.startup;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.healthx.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 冷启动初始化流水线
+ * 按依赖关系执行初始化项：主线程项在start()中依次执行，其余项在后台线程池中并行执行，
+ * 依赖完成后才开始。每项耗时记录到 startup.类名，并记录从进程启动到首帧绘制的时间
+ * startup.timeToFirstFrame，可以在性能指标页面查看。
+ * runsAfterFirstFrame()的项等首帧绘制之后才开始，不与首帧争抢CPU和磁盘。
+ */
+public class StartupPipeline {
+    
+    private static final String TAG = "StartupPipeline";
+    
+    // 首帧绘制后完成，由trackFirstFrame注册的回调触发
+    private static final CompletableFuture<Void> FIRST_FRAME = new CompletableFuture<>();
+    
+    private final List<Initializer> initializers = new ArrayList<>();
+    private final Map<Class<? extends Initializer>, CompletableFuture<Void>> futures = new HashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)), runnable -> {
+                Thread thread = new Thread(runnable, "startup");
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+    
+    public StartupPipeline add(Initializer initializer) {
+        initializers.add(initializer);
+        return this;
+    }
+    
+    /**
+     * 执行全部初始化项，返回时主线程项已完成，后台项仍在执行
+     */
+    public void start(Context context) {
+        Context appContext = context.getApplicationContext();
+        
+        for (Initializer initializer : initializers) {
+            if (initializer.runsOnMainThread()) {
+                for (Class<? extends Initializer> dependency : initializer.dependencies()) {
+                    CompletableFuture<Void> done = futures.get(dependency);
+                    if (done == null || !done.isDone()) {
+                        throw new IllegalStateException(name(initializer) + " 在主线程执行，不能依赖后台项 " + dependency.getSimpleName());
+                    }
+                }
+                run(initializer, appContext);
+                futures.put(initializer.getClass(), CompletableFuture.completedFuture(null));
+            }
+        }
+        
+        for (Initializer initializer : initializers) {
+            if (!initializer.runsOnMainThread()) {
+                schedule(initializer, appContext);
+            }
+        }
+        
+        CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
+                .whenComplete((result, error) -> executor.shutdown());
+    }
+    
+    private CompletableFuture<Void> schedule(Initializer initializer, Context context) {
+        CompletableFuture<Void> existing = futures.get(initializer.getClass());
+        if (existing != null) {
+            return existing;
+        }
+        
+        List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+        for (Class<? extends Initializer> dependency : initializer.dependencies()) {
+            Initializer registered = find(dependency);
+            if (registered == null) {
+                throw new IllegalStateException(name(initializer) + " 依赖的 " + dependency.getSimpleName() + " 未注册");
+            }
+            dependencies.add(schedule(registered, context));
+        }
+        
+        if (initializer.runsAfterFirstFrame()) {
+            dependencies.add(FIRST_FRAME);
+        }
+        
+        // 依赖失败时仍然执行，由初始化项自己决定如何降级
+        CompletableFuture<Void> future = CompletableFuture
+                .allOf(dependencies.toArray(new CompletableFuture[0]))
+                .handle((result, error) -> null)
+                .thenRunAsync(() -> run(initializer, context), executor);
+        futures.put(initializer.getClass(), future);
+        return future;
+    }
+    
+    private Initializer find(Class<? extends Initializer> type) {
+        for (Initializer initializer : initializers) {
+            if (initializer.getClass() == type) {
+                return initializer;
+            }
+        }
+        return null;
+    }
+    
+    private static void run(Initializer initializer, Context context) {
+        Metrics.Timer timer = Metrics.get().startTimer("startup." + name(initializer));
+        try {
+            initializer.initialize(context);
+        } catch (Exception e) {
+            Metrics.get().increment("startup." + name(initializer) + ".errors");
+            Log.e(TAG, name(initializer) + " 初始化失败: " + e.getMessage(), e);
+        } finally {
+            long nanos = timer.stop();
+            Log.d(TAG, String.format("%s 完成，耗时 %.1fms，线程 %s",
+                    name(initializer), nanos / 1e6, Thread.currentThread().getName()));
+        }
+    }
+    
+    private static String name(Initializer initializer) {
+        return initializer.getClass().getSimpleName();
+    }
+    
+    /**
+     * 记录从进程启动到第一个Activity首帧绘制的时间（只记录一次）
+     */
+    public static void trackFirstFrame(Application application) {
+        application.registerActivityLifecycleCallbacks(new FirstFrameTracker(application));
+    }
+    
+    private static class FirstFrameTracker implements Application.ActivityLifecycleCallbacks {
+        private final Application application;
+        private boolean recorded;
+        
+        FirstFrameTracker(Application application) {
+            this.application = application;
+        }
+        
+        @Override
+        public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+            if (recorded) {
+                return;
+            }
+            // 已登录时LoginActivity会直接跳转，首帧以第一个真正绘制的Activity为准
+            View decorView = activity.getWindow().getDecorView();
+            decorView.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+                @Override
+                public void onDraw() {
+                    // 不能在onDraw中移除监听器，推迟到下一个消息
+                    new Handler(Looper.getMainLooper()).post(() -> {
+                        if (decorView.getViewTreeObserver().isAlive()) {
+                            decorView.getViewTreeObserver().removeOnDrawListener(this);
+                        }
+                    });
+                    if (recorded) {
+                        return;
+                    }
+                    recorded = true;
+                    long millis = SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+                    Metrics.get().recordNanos("startup.timeToFirstFrame", TimeUnit.MILLISECONDS.toNanos(millis));
+                    Log.d(TAG, "首帧绘制: " + activity.getClass().getSimpleName() + "，距进程启动 " + millis + "ms");
+                    application.unregisterActivityLifecycleCallbacks(FirstFrameTracker.this);
+                    FIRST_FRAME.complete(null);
+                }
+            });
+        }
+        
+        @Override
+        public void onActivityStarted(@NonNull Activity activity) {
+        }
+        
+        @Override
+        public void onActivityResumed(@NonNull Activity activity) {
+        }
+        
+        @Override
+        public void onActivityPaused(@NonNull Activity activity) {
+        }
+        
+        @Override
+        public void onActivityStopped(@NonNull Activity activity) {
+        }
+        
+        @Override
+        public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+        }
+        
+        @Override
+        public void onActivityDestroyed(@NonNull Activity activity) {
+        }
+    }
+}
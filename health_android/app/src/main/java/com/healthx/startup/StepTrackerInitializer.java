@@ -0,0 +1,24 @@
+package com.healthx.startup;
+
+import android.content.Context;
+
+import com.healthx.step.StepTracker;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 已授权时启动计步采集，排在数据库预热之后（即首帧之后），避免启动时与首帧争抢数据库打开
+ */
+public class StepTrackerInitializer implements Initializer {
+
+    @Override
+    public List<Class<? extends Initializer>> dependencies() {
+        return Collections.singletonList(DatabaseInitializer.class);
+    }
+
+    @Override
+    public void initialize(Context context) {
+        StepTracker.get(context).start();
+    }
+}
@@ -0,0 +1,26 @@
+package com.healthx.startup;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+
+import com.healthx.database.converter.DateTimeConverter;
+
+/**
+ * 在后台线程构建日期转换用的时区偏移表，并监听系统时区变化
+ * 时区变化后重建偏移表，之后读写的日期时间按新时区换算。
+ */
+public class TimeZoneInitializer implements Initializer {
+
+    @Override
+    public void initialize(Context context) {
+        DateTimeConverter.onTimeZoneChanged();
+        context.getApplicationContext().registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                DateTimeConverter.onTimeZoneChanged();
+            }
+        }, new IntentFilter(Intent.ACTION_TIMEZONE_CHANGED));
+    }
+}
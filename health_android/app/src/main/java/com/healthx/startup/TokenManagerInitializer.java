@@ -0,0 +1,23 @@
+package com.healthx.startup;
+
+import android.content.Context;
+
+import com.healthx.network.TokenManager;
+
+/**
+ * TokenManager初始化
+ * LoginActivity.onCreate要立即判断登录状态，所以在主线程执行；
+ * 这里只获取SharedPreferences对象，文件由系统在后台线程加载，耗时很短。
+ */
+public class TokenManagerInitializer implements Initializer {
+    
+    @Override
+    public boolean runsOnMainThread() {
+        return true;
+    }
+    
+    @Override
+    public void initialize(Context context) {
+        TokenManager.getInstance().init(context);
+    }
+}
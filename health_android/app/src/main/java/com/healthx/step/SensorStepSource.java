@@ -0,0 +1,78 @@
+package com.healthx.step;
+
+import android.Manifest;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.core.content.ContextCompat;
+
+/**
+ * 基于Sensor.TYPE_STEP_COUNTER的步数来源
+ * 注册时指定maxReportLatency，传感器在硬件FIFO中积攒事件后批量上报，屏幕关闭时应用处理器不必为每一步唤醒。
+ * 计数器是开机以来的累计值，停止监听期间的步数不会丢失，重新注册后的第一个事件就包含了这部分增量。
+ */
+public class SensorStepSource implements StepSource, SensorEventListener {
+
+    private static final String TAG = "SensorStepSource";
+
+    private final Context context;
+    private final SensorManager sensorManager;
+    private final Sensor sensor;
+    private final int maxReportLatencyUs;
+    private volatile Listener listener;
+
+    public SensorStepSource(Context context, int maxReportLatencyUs) {
+        this.context = context.getApplicationContext();
+        this.sensorManager = (SensorManager) this.context.getSystemService(Context.SENSOR_SERVICE);
+        this.sensor = sensorManager != null ? sensorManager.getDefaultSensor(Sensor.TYPE_STEP_COUNTER) : null;
+        this.maxReportLatencyUs = maxReportLatencyUs;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        if (sensor == null) {
+            return false;
+        }
+        // Android 10起读取计步传感器需要运行时权限
+        return Build.VERSION.SDK_INT < Build.VERSION_CODES.Q
+                || ContextCompat.checkSelfPermission(context, Manifest.permission.ACTIVITY_RECOGNITION)
+                == PackageManager.PERMISSION_GRANTED;
+    }
+
+    @Override
+    public void start(Listener listener) {
+        this.listener = listener;
+        boolean registered = sensorManager.registerListener(
+                this, sensor, SensorManager.SENSOR_DELAY_NORMAL, maxReportLatencyUs);
+        Log.d(TAG, "注册计步传感器: " + registered + ", FIFO容量: " + sensor.getFifoMaxEventCount());
+    }
+
+    @Override
+    public void stop() {
+        sensorManager.unregisterListener(this);
+        listener = null;
+    }
+
+    @Override
+    public void onSensorChanged(SensorEvent event) {
+        Listener current = listener;
+        if (current == null) {
+            return;
+        }
+        // event.timestamp使用elapsedRealtimeNanos时基，换算成墙上时间，批量上报的事件按各自发生的时间分桶
+        long bootTimeMillis = System.currentTimeMillis() - SystemClock.elapsedRealtime();
+        long timestampMillis = bootTimeMillis + event.timestamp / 1_000_000L;
+        current.onStepCounter(timestampMillis, (long) event.values[0], bootTimeMillis);
+    }
+
+    @Override
+    public void onAccuracyChanged(Sensor sensor, int accuracy) {
+    }
+}
@@ -0,0 +1,142 @@
+package com.healthx.step;
+
+import com.healthx.metrics.Metrics;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 计步数据管线：计数值 -> 增量 -> 内存中的分钟桶 -> 批量写入
+ * 每个事件按自己的时间戳计入所在分钟，批量上报的事件也能落到正确的分钟；
+ * 计数器变小或开机时间变化时视为重置，重置后的计数全部是新步数。
+ * 写入在单独的线程执行，两次写入至少间隔minFlushIntervalMillis，传感器上报再频繁也不会增加数据库写入次数。
+ */
+public class StepIngestor implements StepSource.Listener {
+
+    public interface Sink {
+        /**
+         * 写入一批分钟桶，在后台线程调用；抛出异常时这批数据并回缓冲区，下次写入时重试
+         *
+         * @param minuteSteps 分钟起点（毫秒时间戳）到该分钟的步数，按时间排序
+         * @param counter 这批数据对应的计数器值，需要与这批数据在同一事务中保存，作为下次启动的基线
+         * @param bootTimeMillis 计数器对应的开机时间
+         */
+        void write(SortedMap<Long, Integer> minuteSteps, long counter, long bootTimeMillis) throws Exception;
+    }
+
+    public static final long MINUTE_MILLIS = 60_000L;
+    // 开机时间由墙上时间换算得到，有毫秒级误差，用户调整系统时间也会让它变化
+    private static final long BOOT_TIME_TOLERANCE_MS = 60_000L;
+    // 缓冲超过一天的分钟数据时不再等待，尽快写入
+    private static final int MAX_PENDING_MINUTES = 24 * 60;
+
+    private final Sink sink;
+    private final long minFlushIntervalNanos;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "step-ingestor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final TreeMap<Long, Integer> pending = new TreeMap<>();
+    private long lastCounter;
+    private long lastBootTime;
+    private boolean flushScheduled;
+    private long lastFlushNanos;
+
+    /**
+     * @param baselineCounter 上次写入成功时的计数器值，没有基线时传-1，第一个事件只作为基线不计步
+     * @param baselineBootTime 基线对应的开机时间
+     */
+    public StepIngestor(Sink sink, long minFlushIntervalMillis, long baselineCounter, long baselineBootTime) {
+        this.sink = sink;
+        this.minFlushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minFlushIntervalMillis);
+        this.lastCounter = baselineCounter;
+        this.lastBootTime = baselineBootTime;
+        this.lastFlushNanos = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void onStepCounter(long timestampMillis, long counter, long bootTimeMillis) {
+        long delta;
+        if (lastCounter < 0) {
+            delta = 0;
+        } else if (counter < lastCounter || Math.abs(bootTimeMillis - lastBootTime) > BOOT_TIME_TOLERANCE_MS) {
+            delta = counter;
+            Metrics.get().increment("step.counter.reset");
+        } else {
+            delta = counter - lastCounter;
+        }
+        lastCounter = counter;
+        lastBootTime = bootTimeMillis;
+
+        if (delta > 0) {
+            long minute = Math.floorDiv(timestampMillis, MINUTE_MILLIS) * MINUTE_MILLIS;
+            pending.merge(minute, (int) Math.min(delta, Integer.MAX_VALUE), Integer::sum);
+        }
+        // 没有新步数时也推进基线，保证计数器值最终写入
+        scheduleFlush();
+    }
+
+    /**
+     * 立即写入缓冲区中的数据，用于停止采集时
+     */
+    public Future<?> flushNow() {
+        return executor.submit(this::flush);
+    }
+
+    /**
+     * 写入剩余数据并停止后台线程
+     */
+    public void close() {
+        flushNow();
+        executor.shutdown();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled) {
+            return;
+        }
+        flushScheduled = true;
+        long delay = pending.size() >= MAX_PENDING_MINUTES ? 0
+                : Math.max(0, lastFlushNanos + minFlushIntervalNanos - System.nanoTime());
+        executor.schedule(this::flush, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private void flush() {
+        TreeMap<Long, Integer> batch;
+        long counter;
+        long bootTime;
+        synchronized (this) {
+            flushScheduled = false;
+            if (lastCounter < 0) {
+                return;
+            }
+            batch = new TreeMap<>(pending);
+            pending.clear();
+            counter = lastCounter;
+            bootTime = lastBootTime;
+            lastFlushNanos = System.nanoTime();
+        }
+
+        Metrics.Timer timer = Metrics.get().startTimer("step.flush");
+        try {
+            sink.write(batch, counter, bootTime);
+        } catch (Exception e) {
+            Metrics.get().increment("step.flush.failures");
+            synchronized (this) {
+                for (Map.Entry<Long, Integer> entry : batch.entrySet()) {
+                    pending.merge(entry.getKey(), entry.getValue(), Integer::sum);
+                }
+                scheduleFlush();
+            }
+        } finally {
+            timer.stop();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.healthx.step;
+
+import com.healthx.database.converter.DateTimeConverter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * 把一批分钟步数逐级汇总为小时和天
+ * 汇总的是本批的增量，写入时累加到已有的桶上，不需要从分钟桶重新计算，分钟桶被清理后小时和天的数据仍然完整。
+ * 小时按本地时间的整点划分，半小时时区和夏令时切换时也与界面显示的小时一致。
+ */
+public final class StepRollup {
+
+    private final SortedMap<Long, Integer> minutes;
+    private final TreeMap<Long, Integer> hours = new TreeMap<>();
+    private final TreeMap<LocalDate, Integer> days = new TreeMap<>();
+
+    /**
+     * @param minuteSteps 分钟起点（毫秒时间戳）到该分钟的步数
+     */
+    public StepRollup(SortedMap<Long, Integer> minuteSteps) {
+        this.minutes = minuteSteps;
+        for (Map.Entry<Long, Integer> entry : minuteSteps.entrySet()) {
+            LocalDateTime local = DateTimeConverter.toLocalDateTime(entry.getKey());
+            long hourStart = DateTimeConverter.toEpochMilli(local.truncatedTo(ChronoUnit.HOURS));
+            hours.merge(hourStart, entry.getValue(), Integer::sum);
+            days.merge(local.toLocalDate(), entry.getValue(), Integer::sum);
+        }
+    }
+
+    public SortedMap<Long, Integer> getMinutes() {
+        return minutes;
+    }
+
+    public SortedMap<Long, Integer> getHours() {
+        return hours;
+    }
+
+    public SortedMap<LocalDate, Integer> getDays() {
+        return days;
+    }
+}
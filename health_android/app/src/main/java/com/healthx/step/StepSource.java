@@ -0,0 +1,27 @@
+package com.healthx.step;
+
+/**
+ * 步数数据来源
+ * 上报累计计数器的值（与Sensor.TYPE_STEP_COUNTER一致），增量计算、重置检测和按分钟分桶都由{@link StepIngestor}处理，
+ * 来源只负责把计数值原样交出来。
+ */
+public interface StepSource {
+
+    interface Listener {
+        /**
+         * @param timestampMillis 计数值产生的时间（墙上时间）；批量上报时每个事件保留各自的时间
+         * @param counter 自bootTimeMillis以来的累计步数
+         * @param bootTimeMillis 计数器从0开始计数的时刻，变化说明计数器已重置
+         */
+        void onStepCounter(long timestampMillis, long counter, long bootTimeMillis);
+    }
+
+    /**
+     * 设备是否支持该来源且已获得所需权限
+     */
+    boolean isAvailable();
+
+    void start(Listener listener);
+
+    void stop();
+}
@@ -0,0 +1,112 @@
+package com.healthx.step;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.healthx.model.StepCounterState;
+import com.healthx.repository.StepRepository;
+import com.healthx.util.PreferenceManager;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * 计步采集入口，把计步传感器、StepIngestor和StepRepository连接起来
+ * 传感器最多延迟MAX_REPORT_LATENCY_US批量上报，StepIngestor在内存中按分钟累计，
+ * 每MIN_FLUSH_INTERVAL_MS最多写一次当天的step_records记录。计数器基线与步数在同一事务中写入数据库，进程重启后从基线继续计算增量。
+ * 启动和停止都在后台线程按调用顺序执行，启动时需要读数据库。
+ */
+public final class StepTracker {
+
+    private static final String TAG = "StepTracker";
+    // 旧版本保存在SharedPreferences中的基线，数据库中还没有基线时使用一次
+    private static final String KEY_COUNTER = "step_counter_baseline";
+    private static final String KEY_BOOT_TIME = "step_counter_boot_time";
+    // 传感器批量上报的最大延迟，期间应用处理器可以保持休眠
+    private static final int MAX_REPORT_LATENCY_US = 5 * 60 * 1_000_000;
+    private static final long MIN_FLUSH_INTERVAL_MS = 60_000L;
+
+    private static volatile StepTracker instance;
+
+    private final Context appContext;
+    private final StepSource source;
+    private final Executor lifecycleExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "step-tracker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // 只在lifecycleExecutor线程访问
+    private StepIngestor ingestor;
+
+    private StepTracker(Context context, StepSource source) {
+        this.appContext = context.getApplicationContext();
+        this.source = source;
+    }
+
+    public static StepTracker get(Context context) {
+        if (instance == null) {
+            synchronized (StepTracker.class) {
+                if (instance == null) {
+                    instance = new StepTracker(context, new SensorStepSource(context, MAX_REPORT_LATENCY_US));
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isAvailable() {
+        return source.isAvailable();
+    }
+
+    /**
+     * 开始采集，并重新上传该用户尚未同步的步数记录；未登录时不做任何事，设备没有计步传感器或未授权时只上传
+     */
+    public void start() {
+        lifecycleExecutor.execute(this::startInBackground);
+    }
+    
+    private void startInBackground() {
+        if (ingestor != null) {
+            return;
+        }
+        if (!PreferenceManager.isLoggedIn(appContext)) {
+            Log.d(TAG, "未登录，跳过计步采集");
+            return;
+        }
+        long userId = PreferenceManager.getUserId(appContext);
+        StepRepository repository = StepRepository.getInstance(appContext);
+        // 上次没有上传成功的记录（包括没有计步传感器时手动录入的）先排队上传
+        repository.syncUnsyncedRecords(userId);
+        if (!source.isAvailable()) {
+            Log.d(TAG, "计步采集不可用，跳过");
+            return;
+        }
+        StepCounterState baseline = repository.getSensorBaseline(userId);
+        long baselineCounter = baseline != null ? baseline.getCounter()
+                : PreferenceManager.getLong(appContext, KEY_COUNTER, -1);
+        long baselineBootTime = baseline != null ? baseline.getBootTime()
+                : PreferenceManager.getLong(appContext, KEY_BOOT_TIME, 0);
+
+        ingestor = new StepIngestor((minuteSteps, counter, bootTimeMillis) ->
+                repository.addSensorSteps(userId, minuteSteps, counter, bootTimeMillis),
+                MIN_FLUSH_INTERVAL_MS, baselineCounter, baselineBootTime);
+        source.start(ingestor);
+        Log.d(TAG, "开始计步采集, userId: " + userId);
+    }
+
+    /**
+     * 停止采集并写入缓冲区中剩余的步数，例如退出登录时
+     */
+    public void stop() {
+        lifecycleExecutor.execute(this::stopInBackground);
+    }
+    
+    private void stopInBackground() {
+        if (ingestor == null) {
+            return;
+        }
+        source.stop();
+        ingestor.close();
+        ingestor = null;
+    }
+}
@@ -4,7 +4,9 @@ import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
 import androidx.viewpager2.adapter.FragmentStateAdapter;
 
+import com.healthx.ui.fragment.HealthGoalFragment;
 import com.healthx.ui.fragment.HealthPlanFragment;
+import com.healthx.ui.fragment.HealthReminderFragment;
 import com.healthx.ui.fragment.VisualizationFragment;
 
 public class AnalysisPagerAdapter extends FragmentStateAdapter {
@@ -21,6 +23,10 @@ public class AnalysisPagerAdapter extends FragmentStateAdapter {
                 return new VisualizationFragment();
             case 1:
                 return new HealthPlanFragment();
+            case 2:
+                return new HealthGoalFragment();
+            case 3:
+                return new HealthReminderFragment();
             default:
                 return new VisualizationFragment();
         }
@@ -28,6 +34,6 @@ public class AnalysisPagerAdapter extends FragmentStateAdapter {
 
     @Override
     public int getItemCount() {
-        return 2;
+        return 4;
     }
 } 
\ No newline at end of file
@@ -14,7 +14,7 @@ import com.healthx.R;
 import com.healthx.model.Diet;
 import com.healthx.util.DateTimeUtils;
 
-import org.threeten.bp.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatter;
 
 public class DietAdapter extends ListAdapter<Diet, DietAdapter.DietViewHolder> {
     
@@ -14,7 +14,7 @@ import com.healthx.R;
 import com.healthx.model.Exercise;
 import com.healthx.util.DateTimeUtils;
 
-import org.threeten.bp.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatter;
 
 public class ExerciseAdapter extends ListAdapter<Exercise, ExerciseAdapter.ExerciseViewHolder> {
     
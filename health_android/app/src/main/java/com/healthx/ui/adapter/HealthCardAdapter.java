@@ -29,6 +29,22 @@ public class HealthCardAdapter extends RecyclerView.Adapter<HealthCardAdapter.He
         this.listener = listener;
     }
 
+    /**
+     * 替换卡片内容，卡片的数量和顺序固定，只刷新摘要发生变化的卡片
+     */
+    public void setHealthCards(List<HealthCard> cards) {
+        for (int i = 0; i < cards.size(); i++) {
+            HealthCard card = cards.get(i);
+            if (i >= healthCards.size()) {
+                healthCards.add(card);
+                notifyItemInserted(i);
+            } else if (!card.getSummary().equals(healthCards.get(i).getSummary())) {
+                healthCards.set(i, card);
+                notifyItemChanged(i);
+            }
+        }
+    }
+
     @NonNull
     @Override
     public HealthCardViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -0,0 +1,112 @@
+package com.healthx.ui.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.healthx.R;
+import com.healthx.model.dto.HealthGoalDTO;
+import com.healthx.util.DateTimeUtils;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 健康目标适配器，显示目标类型、进度和起止日期
+ */
+public class HealthGoalAdapter extends RecyclerView.Adapter<HealthGoalAdapter.ViewHolder> {
+    
+    private final List<HealthGoalDTO> goals = new ArrayList<>();
+    private final DecimalFormat valueFormat = new DecimalFormat("#,##0.#");
+    
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_health_goal, parent, false);
+        return new ViewHolder(view);
+    }
+    
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        HealthGoalDTO goal = goals.get(position);
+        
+        holder.typeText.setText(goalTypeName(goal.getGoalType()));
+        
+        double current = goal.getCurrentValue() != null ? goal.getCurrentValue() : 0;
+        double target = goal.getTargetValue() != null ? goal.getTargetValue() : 0;
+        String unit = goal.getUnit() != null ? goal.getUnit() : "";
+        holder.progressText.setText(String.format("%s / %s %s",
+                valueFormat.format(current), valueFormat.format(target), unit));
+        holder.progressBar.setProgress(target > 0 ? (int) Math.min(100, current * 100 / target) : 0);
+        
+        holder.dateText.setText(String.format("%s ~ %s",
+                DateTimeUtils.formatDate(goal.getStartDate()), DateTimeUtils.formatDate(goal.getEndDate())));
+        holder.statusText.setText(Boolean.TRUE.equals(goal.getIsCompleted()) ? "已完成" : "进行中");
+    }
+    
+    @Override
+    public int getItemCount() {
+        return goals.size();
+    }
+    
+    /**
+     * 更新数据，分页加载时传入已加载的全部目标
+     * @param newGoals 目标列表
+     */
+    public void updateData(List<HealthGoalDTO> newGoals) {
+        goals.clear();
+        if (newGoals != null) {
+            goals.addAll(newGoals);
+        }
+        notifyDataSetChanged();
+    }
+    
+    private static String goalTypeName(String goalType) {
+        if (goalType == null) {
+            return "自定义";
+        }
+        switch (goalType) {
+            case "WEIGHT_LOSS":
+                return "减重";
+            case "WEIGHT_GAIN":
+                return "增重";
+            case "STEPS":
+                return "步数";
+            case "EXERCISE_FREQUENCY":
+                return "运动频率";
+            case "SLEEP_DURATION":
+                return "睡眠时长";
+            case "CALORIE_CONTROL":
+                return "卡路里控制";
+            default:
+                return "自定义";
+        }
+    }
+    
+    /**
+     * ViewHolder类
+     */
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        
+        final TextView typeText;
+        final TextView progressText;
+        final ProgressBar progressBar;
+        final TextView dateText;
+        final TextView statusText;
+        
+        ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            typeText = itemView.findViewById(R.id.text_goal_type);
+            progressText = itemView.findViewById(R.id.text_goal_progress);
+            progressBar = itemView.findViewById(R.id.progress_goal);
+            dateText = itemView.findViewById(R.id.text_goal_dates);
+            statusText = itemView.findViewById(R.id.text_goal_status);
+        }
+    }
+}
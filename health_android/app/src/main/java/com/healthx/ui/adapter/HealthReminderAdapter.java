@@ -0,0 +1,125 @@
+package com.healthx.ui.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.healthx.R;
+import com.healthx.model.dto.HealthReminderDTO;
+import com.healthx.util.DateTimeUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 健康提醒适配器，显示提醒标题、时间和重复方式
+ */
+public class HealthReminderAdapter extends RecyclerView.Adapter<HealthReminderAdapter.ViewHolder> {
+    
+    private final List<HealthReminderDTO> reminders = new ArrayList<>();
+    
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_health_reminder, parent, false);
+        return new ViewHolder(view);
+    }
+    
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        HealthReminderDTO reminder = reminders.get(position);
+        
+        holder.titleText.setText(reminder.getTitle());
+        holder.typeText.setText(reminderTypeName(reminder.getReminderType()));
+        
+        // 重复提醒展开后的这一次带occurrenceTime，列表中的规则行只有首次提醒时间
+        LocalDateTime time = reminder.getOccurrenceTime() != null
+                ? reminder.getOccurrenceTime() : reminder.getReminderTime();
+        holder.timeText.setText(DateTimeUtils.formatDateTime(time));
+        
+        if (Boolean.TRUE.equals(reminder.getIsRepeating())) {
+            holder.repeatText.setText(repeatText(reminder.getRepeatPattern(), reminder.getRepeatInterval()));
+        } else {
+            holder.repeatText.setText("不重复");
+        }
+        holder.statusText.setText(Boolean.TRUE.equals(reminder.getIsCompleted()) ? "已完成" : "");
+    }
+    
+    @Override
+    public int getItemCount() {
+        return reminders.size();
+    }
+    
+    /**
+     * 更新数据，分页加载时传入已加载的全部提醒
+     * @param newReminders 提醒列表
+     */
+    public void updateData(List<HealthReminderDTO> newReminders) {
+        reminders.clear();
+        if (newReminders != null) {
+            reminders.addAll(newReminders);
+        }
+        notifyDataSetChanged();
+    }
+    
+    private static String reminderTypeName(String reminderType) {
+        if (reminderType == null) {
+            return "自定义提醒";
+        }
+        switch (reminderType) {
+            case "MEDICATION":
+                return "服药提醒";
+            case "EXERCISE":
+                return "运动提醒";
+            case "MEAL":
+                return "进餐提醒";
+            case "MEASUREMENT":
+                return "测量提醒";
+            case "APPOINTMENT":
+                return "预约提醒";
+            default:
+                return "自定义提醒";
+        }
+    }
+    
+    private static String repeatText(String repeatPattern, Integer repeatInterval) {
+        int interval = repeatInterval != null && repeatInterval > 1 ? repeatInterval : 1;
+        String unit;
+        if ("DAILY".equals(repeatPattern)) {
+            unit = "天";
+        } else if ("WEEKLY".equals(repeatPattern)) {
+            unit = "周";
+        } else if ("MONTHLY".equals(repeatPattern)) {
+            unit = "月";
+        } else {
+            return "自定义";
+        }
+        return interval == 1 ? "每" + unit : "每" + interval + unit;
+    }
+    
+    /**
+     * ViewHolder类
+     */
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        
+        final TextView titleText;
+        final TextView typeText;
+        final TextView timeText;
+        final TextView repeatText;
+        final TextView statusText;
+        
+        ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            titleText = itemView.findViewById(R.id.text_reminder_title);
+            typeText = itemView.findViewById(R.id.text_reminder_type);
+            timeText = itemView.findViewById(R.id.text_reminder_time);
+            repeatText = itemView.findViewById(R.id.text_reminder_repeat);
+            statusText = itemView.findViewById(R.id.text_reminder_status);
+        }
+    }
+}
@@ -14,7 +14,7 @@ import com.healthx.R;
 import com.healthx.model.SleepRecord;
 import com.healthx.util.DateTimeUtils;
 
-import org.threeten.bp.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatter;
 
 public class SleepRecordAdapter extends ListAdapter<SleepRecord, SleepRecordAdapter.SleepRecordViewHolder> {
     
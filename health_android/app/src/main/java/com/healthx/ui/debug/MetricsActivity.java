@@ -0,0 +1,82 @@
+package com.healthx.ui.debug;
+
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.CheckBox;
+import android.widget.EditText;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.healthx.R;
+import com.healthx.metrics.Metrics;
+import com.healthx.metrics.SlowQueryLogger;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 隐藏的性能指标调试页面（在"我的"页面长按"关于我们"进入）
+ * 显示每个操作的p50/p95/p99耗时、各项计数和最近的慢查询，可以导出到应用的外部文件目录，
+ * 之后通过 adb pull /sdcard/Android/data/com.healthx/files/metrics/ 取回。
+ */
+public class MetricsActivity extends AppCompatActivity {
+    
+    private TextView reportText;
+    
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_metrics);
+        setTitle("性能指标");
+        
+        reportText = findViewById(R.id.text_metrics_report);
+        Button refreshButton = findViewById(R.id.button_metrics_refresh);
+        Button dumpButton = findViewById(R.id.button_metrics_dump);
+        Button resetButton = findViewById(R.id.button_metrics_reset);
+        
+        refreshButton.setOnClickListener(v -> refresh());
+        dumpButton.setOnClickListener(v -> dump());
+        resetButton.setOnClickListener(v -> {
+            Metrics.get().reset();
+            SlowQueryLogger.get().clear();
+            refresh();
+        });
+        
+        // 慢查询诊断开关和阈值，重启应用后生效
+        CheckBox diagnosticsCheck = findViewById(R.id.check_slow_query);
+        EditText thresholdEdit = findViewById(R.id.edit_slow_query_threshold);
+        Button saveButton = findViewById(R.id.button_slow_query_save);
+        diagnosticsCheck.setChecked(SlowQueryLogger.isEnabled(this));
+        thresholdEdit.setText(String.valueOf(SlowQueryLogger.getThresholdMillis(this)));
+        saveButton.setOnClickListener(v -> {
+            SlowQueryLogger.setEnabled(this, diagnosticsCheck.isChecked());
+            try {
+                SlowQueryLogger.get().setThresholdMillis(this, Long.parseLong(thresholdEdit.getText().toString()));
+                Toast.makeText(this, "已保存，重启应用后生效", Toast.LENGTH_SHORT).show();
+            } catch (NumberFormatException e) {
+                thresholdEdit.setError("请输入毫秒数");
+            }
+        });
+        
+        refresh();
+    }
+    
+    private void refresh() {
+        reportText.setText(Metrics.get().formatReport());
+    }
+    
+    private void dump() {
+        File dir = getExternalFilesDir("metrics");
+        if (dir == null) {
+            dir = new File(getFilesDir(), "metrics");
+        }
+        try {
+            File file = Metrics.get().dumpToFile(dir);
+            Toast.makeText(this, "已导出: " + file.getAbsolutePath(), Toast.LENGTH_LONG).show();
+        } catch (IOException e) {
+            Toast.makeText(this, "导出失败: " + e.getMessage(), Toast.LENGTH_LONG).show();
+        }
+    }
+}
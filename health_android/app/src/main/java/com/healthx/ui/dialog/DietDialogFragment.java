@@ -18,20 +18,22 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.DialogFragment;
+import androidx.lifecycle.ViewModelProvider;
 
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.healthx.R;
 import com.healthx.model.Diet;
+import com.healthx.viewmodel.DietViewModel;
 
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.LocalTime;
-import org.threeten.bp.format.DateTimeFormatter;
-import java.util.Calendar;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 
 public class DietDialogFragment extends DialogFragment {
     
-    private static final String ARG_DIET = "diet";
+    private static final String ARG_DIET_ID = "diet_id";
+    private static final long NO_ID = -1;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
     
@@ -49,13 +51,17 @@ public class DietDialogFragment extends DialogFragment {
     private LocalDate selectedDate = LocalDate.now();
     private LocalTime selectedTime = LocalTime.now();
     
+    private long dietId = NO_ID;
     private Diet diet;
     private OnDietSavedListener listener;
     
+    /**
+     * @param diet 要编辑的记录，新增时传null；参数中只保存记录ID
+     */
     public static DietDialogFragment newInstance(Diet diet) {
         DietDialogFragment fragment = new DietDialogFragment();
         Bundle args = new Bundle();
-        args.putSerializable(ARG_DIET, diet);
+        args.putLong(ARG_DIET_ID, diet != null ? diet.getId() : NO_ID);
         fragment.setArguments(args);
         return fragment;
     }
@@ -64,7 +70,7 @@ public class DietDialogFragment extends DialogFragment {
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         if (getArguments() != null) {
-            diet = (Diet) getArguments().getSerializable(ARG_DIET);
+            dietId = getArguments().getLong(ARG_DIET_ID, NO_ID);
         }
         // 使用Material主题
         setStyle(DialogFragment.STYLE_NORMAL, com.google.android.material.R.style.ThemeOverlay_Material3_Dialog_Alert);
@@ -79,14 +85,25 @@ public class DietDialogFragment extends DialogFragment {
         setupMealTypeSpinner();
         setupListeners();
         
-        if (diet != null) {
-            // 编辑模式，填充现有数据
-            fillData();
-        }
-        
         return view;
     }
     
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        if (dietId != NO_ID) {
+            // 编辑模式，按ID从共享缓存或数据库加载后填充现有数据
+            DietViewModel viewModel = new ViewModelProvider(requireParentFragment()).get(DietViewModel.class);
+            viewModel.getDietById(dietId).observe(getViewLifecycleOwner(), loaded -> {
+                // 只在第一次拿到记录时填充，修改的是副本，之后的数据库变化不覆盖正在编辑的内容
+                if (diet == null && loaded != null) {
+                    diet = new Diet(loaded);
+                    fillData();
+                }
+            });
+        }
+    }
+    
     @Override
     public void onStart() {
         super.onStart();
@@ -181,6 +198,11 @@ public class DietDialogFragment extends DialogFragment {
     }
     
     private void saveDiet() {
+        // 编辑模式下记录尚未加载完成
+        if (dietId != NO_ID && diet == null) {
+            return;
+        }
+        
         // 获取输入的数据
         String foodName = etFoodName.getText().toString().trim();
         double calories = Double.parseDouble(etCalories.getText().toString().trim());
@@ -245,36 +267,29 @@ public class DietDialogFragment extends DialogFragment {
     }
     
     private void showDatePicker() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(selectedDate.getYear(), selectedDate.getMonthValue() - 1, selectedDate.getDayOfMonth());
-        
         DatePickerDialog datePickerDialog = new DatePickerDialog(
                 requireContext(),
                 (view, year, month, dayOfMonth) -> {
                     selectedDate = LocalDate.of(year, month + 1, dayOfMonth);
                     tvDate.setText(selectedDate.format(DATE_FORMATTER));
                 },
-                calendar.get(Calendar.YEAR),
-                calendar.get(Calendar.MONTH),
-                calendar.get(Calendar.DAY_OF_MONTH)
+                selectedDate.getYear(),
+                selectedDate.getMonthValue() - 1,
+                selectedDate.getDayOfMonth()
         );
         
         datePickerDialog.show();
     }
     
     private void showTimePicker() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.HOUR_OF_DAY, selectedTime.getHour());
-        calendar.set(Calendar.MINUTE, selectedTime.getMinute());
-        
         TimePickerDialog timePickerDialog = new TimePickerDialog(
                 requireContext(),
                 (view, hourOfDay, minute) -> {
                     selectedTime = LocalTime.of(hourOfDay, minute);
                     tvTime.setText(selectedTime.format(TIME_FORMATTER));
                 },
-                calendar.get(Calendar.HOUR_OF_DAY),
-                calendar.get(Calendar.MINUTE),
+                selectedTime.getHour(),
+                selectedTime.getMinute(),
                 true
         );
         
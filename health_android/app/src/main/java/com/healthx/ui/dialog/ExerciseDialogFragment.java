@@ -21,25 +21,27 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.DialogFragment;
+import androidx.lifecycle.ViewModelProvider;
 
 import com.google.android.material.textfield.TextInputEditText;
 import com.healthx.R;
 import com.healthx.model.Exercise;
 import com.healthx.util.ExerciseConstants;
+import com.healthx.viewmodel.ExerciseViewModel;
 
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.LocalTime;
-import org.threeten.bp.format.DateTimeFormatter;
-
-import java.util.Calendar;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 
 public class ExerciseDialogFragment extends DialogFragment {
     
-    private static final String ARG_EXERCISE = "arg_exercise";
+    private static final String ARG_EXERCISE_ID = "arg_exercise_id";
+    private static final long NO_ID = -1;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
     
+    private long exerciseId = NO_ID;
     private Exercise exercise;
     private OnExerciseSavedListener listener;
     
@@ -62,10 +64,13 @@ public class ExerciseDialogFragment extends DialogFragment {
     private String currentExerciseType;
     private String currentIntensity;
     
+    /**
+     * @param exercise 要编辑的记录，新增时传null；参数中只保存记录ID
+     */
     public static ExerciseDialogFragment newInstance(@Nullable Exercise exercise) {
         ExerciseDialogFragment fragment = new ExerciseDialogFragment();
         Bundle args = new Bundle();
-        args.putSerializable(ARG_EXERCISE, exercise);
+        args.putLong(ARG_EXERCISE_ID, exercise != null ? exercise.getId() : NO_ID);
         fragment.setArguments(args);
         return fragment;
     }
@@ -76,7 +81,7 @@ public class ExerciseDialogFragment extends DialogFragment {
         setStyle(DialogFragment.STYLE_NORMAL, com.google.android.material.R.style.ThemeOverlay_Material3_Dialog_Alert);
         
         if (getArguments() != null) {
-            exercise = (Exercise) getArguments().getSerializable(ARG_EXERCISE);
+            exerciseId = getArguments().getLong(ARG_EXERCISE_ID, NO_ID);
         }
     }
     
@@ -94,9 +99,16 @@ public class ExerciseDialogFragment extends DialogFragment {
         setupSpinners();
         setupListeners();
         
-        // 如果是编辑模式，则填充数据
-        if (exercise != null) {
-            fillData();
+        // 如果是编辑模式，按ID从共享缓存或数据库加载后填充数据
+        if (exerciseId != NO_ID) {
+            ExerciseViewModel viewModel = new ViewModelProvider(requireParentFragment()).get(ExerciseViewModel.class);
+            viewModel.getExerciseById(exerciseId).observe(getViewLifecycleOwner(), loaded -> {
+                // 只在第一次拿到记录时填充，修改的是副本，之后的数据库变化不覆盖正在编辑的内容
+                if (exercise == null && loaded != null) {
+                    exercise = new Exercise(loaded);
+                    fillData();
+                }
+            });
         } else {
             // 如果是新增模式，则初始化为当前日期和时间
             selectedDate = LocalDate.now();
@@ -292,10 +304,7 @@ public class ExerciseDialogFragment extends DialogFragment {
     }
     
     private void showDatePicker() {
-        Calendar calendar = Calendar.getInstance();
-        if (selectedDate != null) {
-            calendar.set(selectedDate.getYear(), selectedDate.getMonthValue() - 1, selectedDate.getDayOfMonth());
-        }
+        LocalDate initialDate = selectedDate != null ? selectedDate : LocalDate.now();
         
         DatePickerDialog datePickerDialog = new DatePickerDialog(
                 requireContext(),
@@ -303,20 +312,16 @@ public class ExerciseDialogFragment extends DialogFragment {
                     selectedDate = LocalDate.of(year, month + 1, dayOfMonth);
                     updateDateButton();
                 },
-                calendar.get(Calendar.YEAR),
-                calendar.get(Calendar.MONTH),
-                calendar.get(Calendar.DAY_OF_MONTH)
+                initialDate.getYear(),
+                initialDate.getMonthValue() - 1,
+                initialDate.getDayOfMonth()
         );
         
         datePickerDialog.show();
     }
     
     private void showTimePicker() {
-        Calendar calendar = Calendar.getInstance();
-        if (selectedTime != null) {
-            calendar.set(Calendar.HOUR_OF_DAY, selectedTime.getHour());
-            calendar.set(Calendar.MINUTE, selectedTime.getMinute());
-        }
+        LocalTime initialTime = selectedTime != null ? selectedTime : LocalTime.now();
         
         TimePickerDialog timePickerDialog = new TimePickerDialog(
                 requireContext(),
@@ -324,8 +329,8 @@ public class ExerciseDialogFragment extends DialogFragment {
                     selectedTime = LocalTime.of(hourOfDay, minute);
                     updateTimeButton();
                 },
-                calendar.get(Calendar.HOUR_OF_DAY),
-                calendar.get(Calendar.MINUTE),
+                initialTime.getHour(),
+                initialTime.getMinute(),
                 true
         );
         
@@ -345,6 +350,11 @@ public class ExerciseDialogFragment extends DialogFragment {
     }
     
     private void saveExercise() {
+        // 编辑模式下记录尚未加载完成
+        if (exerciseId != NO_ID && exercise == null) {
+            return;
+        }
+        
         // 表单验证
         String exerciseName = etExerciseName.getText() != null ? etExerciseName.getText().toString().trim() : "";
         String durationStr = etDuration.getText() != null ? etDuration.getText().toString().trim() : "";
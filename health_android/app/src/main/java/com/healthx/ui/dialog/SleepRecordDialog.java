@@ -21,15 +21,16 @@ import com.healthx.model.SleepRecord;
 import com.healthx.util.PreferenceManager;
 import com.healthx.viewmodel.SleepViewModel;
 
-import org.threeten.bp.Duration;
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.LocalTime;
-import org.threeten.bp.format.DateTimeFormatter;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 
 public class SleepRecordDialog extends DialogFragment {
     
-    private static final String ARG_SLEEP_RECORD = "arg_sleep_record";
+    private static final String ARG_SLEEP_RECORD_ID = "arg_sleep_record_id";
+    private static final long NO_ID = -1;
     
     private TextView tvStartTime;
     private TextView tvEndTime;
@@ -39,6 +40,7 @@ public class SleepRecordDialog extends DialogFragment {
     
     private LocalDateTime startTime;
     private LocalDateTime endTime;
+    private long recordId = NO_ID;
     private SleepRecord existingRecord;
     
     private SleepRecordDialogListener listener;
@@ -51,10 +53,13 @@ public class SleepRecordDialog extends DialogFragment {
         void onSleepRecordDeleted(SleepRecord sleepRecord);
     }
     
+    /**
+     * @param sleepRecord 要编辑的记录，参数中只保存记录ID，打开时再按ID加载
+     */
     public static SleepRecordDialog newInstance(SleepRecord sleepRecord) {
         SleepRecordDialog dialog = new SleepRecordDialog();
         Bundle args = new Bundle();
-        args.putSerializable(ARG_SLEEP_RECORD, sleepRecord);
+        args.putLong(ARG_SLEEP_RECORD_ID, sleepRecord.getId());
         dialog.setArguments(args);
         return dialog;
     }
@@ -75,16 +80,14 @@ public class SleepRecordDialog extends DialogFragment {
         long userId = PreferenceManager.getUserId(requireContext());
         viewModel.setUserId(userId);
         
-        if (getArguments() != null && getArguments().containsKey(ARG_SLEEP_RECORD)) {
-            existingRecord = (SleepRecord) getArguments().getSerializable(ARG_SLEEP_RECORD);
-            startTime = existingRecord.getStartTime();
-            endTime = existingRecord.getEndTime();
-        } else {
-            // 默认设置为昨晚22:00到今早6:00
-            LocalDate yesterday = LocalDate.now().minusDays(1);
-            startTime = LocalDateTime.of(yesterday, LocalTime.of(22, 0));
-            endTime = LocalDateTime.of(LocalDate.now(), LocalTime.of(6, 0));
+        if (getArguments() != null) {
+            recordId = getArguments().getLong(ARG_SLEEP_RECORD_ID, NO_ID);
         }
+        
+        // 默认设置为昨晚22:00到今早6:00，编辑时加载记录后替换
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        startTime = LocalDateTime.of(yesterday, LocalTime.of(22, 0));
+        endTime = LocalDateTime.of(LocalDate.now(), LocalTime.of(6, 0));
     }
     
     @Nullable
@@ -113,12 +116,21 @@ public class SleepRecordDialog extends DialogFragment {
         btnSave.setOnClickListener(v -> saveSleepRecord());
         btnCancel.setOnClickListener(v -> dismiss());
         
-        // 仅当编辑现有记录时才显示删除按钮
-        if (existingRecord != null) {
-            btnDelete.setVisibility(View.VISIBLE);
-            btnDelete.setOnClickListener(v -> deleteSleepRecord());
-        } else {
-            btnDelete.setVisibility(View.GONE);
+        // 仅当编辑现有记录时才显示删除按钮，记录加载完成后显示
+        btnDelete.setVisibility(View.GONE);
+        btnDelete.setOnClickListener(v -> deleteSleepRecord());
+        
+        if (recordId != NO_ID) {
+            viewModel.getSleepRecordById(recordId).observe(getViewLifecycleOwner(), loaded -> {
+                // 只在第一次拿到记录时填充，修改的是副本，之后的数据库变化不覆盖正在编辑的时间
+                if (existingRecord == null && loaded != null) {
+                    existingRecord = new SleepRecord(loaded);
+                    startTime = existingRecord.getStartTime();
+                    endTime = existingRecord.getEndTime();
+                    updateTimeDisplay();
+                    btnDelete.setVisibility(View.VISIBLE);
+                }
+            });
         }
     }
     
@@ -167,6 +179,11 @@ public class SleepRecordDialog extends DialogFragment {
     }
     
     private void saveSleepRecord() {
+        // 编辑模式下记录尚未加载完成
+        if (recordId != NO_ID && existingRecord == null) {
+            return;
+        }
+        
         // 验证时间
         if (endTime.isBefore(startTime)) {
             Toast.makeText(getContext(), "结束时间不能早于开始时间", Toast.LENGTH_SHORT).show();
@@ -51,6 +51,12 @@ public class AnalysisFragment extends Fragment {
                 case 1:
                     tab.setText(R.string.health_plan);
                     break;
+                case 2:
+                    tab.setText(R.string.health_goals);
+                    break;
+                case 3:
+                    tab.setText(R.string.health_reminders);
+                    break;
             }
         }).attach();
     }
@@ -27,11 +27,10 @@ import com.healthx.ui.adapter.DietAdapter;
 import com.healthx.ui.dialog.DietDialogFragment;
 import com.healthx.viewmodel.DietViewModel;
 
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.LocalTime;
-import org.threeten.bp.format.DateTimeFormatter;
-import java.util.Calendar;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 public class DietFragment extends Fragment implements DietAdapter.OnDietClickListener {
@@ -265,18 +264,15 @@ public class DietFragment extends Fragment implements DietAdapter.OnDietClickLis
             currentDate = LocalDate.now();
         }
         
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(currentDate.getYear(), currentDate.getMonthValue() - 1, currentDate.getDayOfMonth());
-        
         DatePickerDialog datePickerDialog = new DatePickerDialog(
                 requireContext(),
                 (view, year, month, dayOfMonth) -> {
                     LocalDate selectedDate = LocalDate.of(year, month + 1, dayOfMonth);
                     viewModel.loadDietsForDate(1, selectedDate);
                 },
-                calendar.get(Calendar.YEAR),
-                calendar.get(Calendar.MONTH),
-                calendar.get(Calendar.DAY_OF_MONTH)
+                currentDate.getYear(),
+                currentDate.getMonthValue() - 1,
+                currentDate.getDayOfMonth()
         );
         
         datePickerDialog.show();
@@ -28,9 +28,8 @@ import com.healthx.ui.adapter.ExerciseAdapter;
 import com.healthx.ui.dialog.ExerciseDialogFragment;
 import com.healthx.viewmodel.ExerciseViewModel;
 
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.format.DateTimeFormatter;
-import java.util.Calendar;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 public class ExerciseFragment extends Fragment implements ExerciseAdapter.OnExerciseClickListener {
@@ -240,18 +239,15 @@ public class ExerciseFragment extends Fragment implements ExerciseAdapter.OnExer
             currentDate = LocalDate.now();
         }
         
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(currentDate.getYear(), currentDate.getMonthValue() - 1, currentDate.getDayOfMonth());
-        
         DatePickerDialog datePickerDialog = new DatePickerDialog(
                 requireContext(),
                 (view, year, month, dayOfMonth) -> {
                     LocalDate selectedDate = LocalDate.of(year, month + 1, dayOfMonth);
                     viewModel.loadExercisesForDate(1, selectedDate);
                 },
-                calendar.get(Calendar.YEAR),
-                calendar.get(Calendar.MONTH),
-                calendar.get(Calendar.DAY_OF_MONTH)
+                currentDate.getYear(),
+                currentDate.getMonthValue() - 1,
+                currentDate.getDayOfMonth()
         );
         
         datePickerDialog.show();
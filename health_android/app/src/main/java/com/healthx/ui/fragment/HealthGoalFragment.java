@@ -0,0 +1,90 @@
+package com.healthx.ui.fragment;
+
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
+
+import com.healthx.R;
+import com.healthx.model.dto.HealthGoalDTO;
+import com.healthx.repository.Resource;
+import com.healthx.ui.adapter.HealthGoalAdapter;
+import com.healthx.util.PreferenceManager;
+import com.healthx.viewmodel.HealthGoalViewModel;
+import com.healthx.viewmodel.ViewModelFactory;
+
+import java.util.List;
+
+/**
+ * 健康目标列表，按结束日期分页加载，滚动到接近底部时加载下一页
+ */
+public class HealthGoalFragment extends Fragment {
+    
+    // 距离列表底部还剩几条时加载下一页
+    private static final int LOAD_MORE_THRESHOLD = 5;
+    
+    private HealthGoalViewModel viewModel;
+    private HealthGoalAdapter adapter;
+    private SwipeRefreshLayout swipeRefreshLayout;
+    private TextView emptyView;
+    
+    @Override
+    public void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        ViewModelFactory factory = new ViewModelFactory(requireContext());
+        viewModel = new ViewModelProvider(this, factory).get(HealthGoalViewModel.class);
+    }
+    
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.fragment_health_goal, container, false);
+    }
+    
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        swipeRefreshLayout = view.findViewById(R.id.swipe_refresh_goals);
+        emptyView = view.findViewById(R.id.text_no_goals);
+        RecyclerView recyclerView = view.findViewById(R.id.recycler_goals);
+        
+        LinearLayoutManager layoutManager = new LinearLayoutManager(requireContext());
+        recyclerView.setLayoutManager(layoutManager);
+        adapter = new HealthGoalAdapter();
+        recyclerView.setAdapter(adapter);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0 && layoutManager.findLastVisibleItemPosition()
+                        >= adapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    viewModel.loadMore();
+                }
+            }
+        });
+        swipeRefreshLayout.setOnRefreshListener(() -> viewModel.refresh());
+        
+        viewModel.getGoals().observe(getViewLifecycleOwner(), this::showGoals);
+        viewModel.setUserId(PreferenceManager.getUserId(requireContext()));
+    }
+    
+    private void showGoals(Resource<List<HealthGoalDTO>> resource) {
+        List<HealthGoalDTO> goals = resource.getData();
+        adapter.updateData(goals);
+        swipeRefreshLayout.setRefreshing(resource.isLoading() && (goals == null || goals.isEmpty()));
+        emptyView.setVisibility(!resource.isLoading() && (goals == null || goals.isEmpty())
+                ? View.VISIBLE : View.GONE);
+        if (resource.isError()) {
+            Toast.makeText(requireContext(), resource.getMessage(), Toast.LENGTH_SHORT).show();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.healthx.ui.fragment;
+
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
+
+import com.healthx.R;
+import com.healthx.model.dto.HealthReminderDTO;
+import com.healthx.repository.Resource;
+import com.healthx.ui.adapter.HealthReminderAdapter;
+import com.healthx.util.PreferenceManager;
+import com.healthx.viewmodel.HealthReminderViewModel;
+import com.healthx.viewmodel.ViewModelFactory;
+
+import java.util.List;
+
+/**
+ * 健康提醒列表，按提醒时间分页加载，滚动到接近底部时加载下一页
+ */
+public class HealthReminderFragment extends Fragment {
+    
+    // 距离列表底部还剩几条时加载下一页
+    private static final int LOAD_MORE_THRESHOLD = 5;
+    
+    private HealthReminderViewModel viewModel;
+    private HealthReminderAdapter adapter;
+    private SwipeRefreshLayout swipeRefreshLayout;
+    private TextView emptyView;
+    
+    @Override
+    public void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        ViewModelFactory factory = new ViewModelFactory(requireContext());
+        viewModel = new ViewModelProvider(this, factory).get(HealthReminderViewModel.class);
+    }
+    
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.fragment_health_reminder, container, false);
+    }
+    
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        swipeRefreshLayout = view.findViewById(R.id.swipe_refresh_reminders);
+        emptyView = view.findViewById(R.id.text_no_reminders);
+        RecyclerView recyclerView = view.findViewById(R.id.recycler_reminders);
+        
+        LinearLayoutManager layoutManager = new LinearLayoutManager(requireContext());
+        recyclerView.setLayoutManager(layoutManager);
+        adapter = new HealthReminderAdapter();
+        recyclerView.setAdapter(adapter);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0 && layoutManager.findLastVisibleItemPosition()
+                        >= adapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    viewModel.loadMore();
+                }
+            }
+        });
+        swipeRefreshLayout.setOnRefreshListener(() -> viewModel.refresh());
+        
+        viewModel.getReminders().observe(getViewLifecycleOwner(), this::showReminders);
+        viewModel.setUserId(PreferenceManager.getUserId(requireContext()));
+    }
+    
+    private void showReminders(Resource<List<HealthReminderDTO>> resource) {
+        List<HealthReminderDTO> reminders = resource.getData();
+        adapter.updateData(reminders);
+        swipeRefreshLayout.setRefreshing(resource.isLoading() && (reminders == null || reminders.isEmpty()));
+        emptyView.setVisibility(!resource.isLoading() && (reminders == null || reminders.isEmpty())
+                ? View.VISIBLE : View.GONE);
+        if (resource.isError()) {
+            Toast.makeText(requireContext(), resource.getMessage(), Toast.LENGTH_SHORT).show();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.healthx.ui.fragment;
 
 import android.content.Context;
+import android.content.Intent;
 import android.content.SharedPreferences;
+import android.net.Uri;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -12,6 +14,8 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
@@ -22,7 +26,9 @@ import com.google.android.material.progressindicator.LinearProgressIndicator;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 import com.healthx.R;
+import com.healthx.image.AvatarLoader;
 import com.healthx.model.User;
+import com.healthx.ui.debug.MetricsActivity;
 import com.healthx.viewmodel.UserViewModel;
 import com.healthx.viewmodel.ViewModelFactory;
 
@@ -58,6 +64,10 @@ public class ProfileFragment extends Fragment {
     private SharedPreferences sharedPreferences;
     private User currentUser;
     
+    // 从相册选择头像
+    private final ActivityResultLauncher<String> pickAvatarLauncher =
+            registerForActivityResult(new ActivityResultContracts.GetContent(), this::onAvatarPicked);
+    
     private static final DecimalFormat df = new DecimalFormat("0.0");
 
     @Override
@@ -285,6 +295,27 @@ public class ProfileFragment extends Fragment {
             double bmi = calculateBMI(height, weight);
             updateBMIDisplay(bmi);
         }
+        
+        if (user.getId() != null && avatarImage != null) {
+            AvatarLoader.get(requireContext()).load(user.getId(), avatarImage);
+        }
+    }
+    
+    /**
+     * 选择图片后在后台采样压缩保存为头像，保存成功后上传
+     */
+    private void onAvatarPicked(@Nullable Uri uri) {
+        if (uri == null || currentUser == null || currentUser.getId() == null || avatarImage == null) {
+            return;
+        }
+        long userId = currentUser.getId();
+        AvatarLoader.get(requireContext()).setAvatar(userId, uri, avatarImage, success -> {
+            if (success) {
+                userViewModel.uploadAvatar(userId);
+            } else if (isAdded()) {
+                Toast.makeText(requireContext(), "头像保存失败", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
     
     private double calculateBMI(double heightInMeters, double weightInKg) {
@@ -328,6 +359,10 @@ public class ProfileFragment extends Fragment {
             editProfileButton.setOnClickListener(v -> showEditProfileDialog());
         }
         
+        if (avatarImage != null) {
+            avatarImage.setOnClickListener(v -> pickAvatarLauncher.launch("image/*"));
+        }
+        
         if (updateHealthDataButton != null) {
             updateHealthDataButton.setOnClickListener(v -> showHealthDataUpdateDialog());
         }
@@ -348,11 +383,17 @@ public class ProfileFragment extends Fragment {
             aboutText.setOnClickListener(v ->
                 Toast.makeText(requireContext(), "关于我们", Toast.LENGTH_SHORT).show()
             );
+            // 长按进入隐藏的性能指标页面
+            aboutText.setOnLongClickListener(v -> {
+                startActivity(new Intent(requireContext(), MetricsActivity.class));
+                return true;
+            });
         }
         
         if (logoutText != null) {
             logoutText.setOnClickListener(v -> {
-                // 清除登录状态
+                // 停止计步、写入未保存的步数并清除登录状态
+                userViewModel.logout();
                 if (sharedPreferences != null) {
                     sharedPreferences.edit().clear().apply();
                 }
@@ -10,12 +10,14 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentTransaction;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.healthx.R;
+import com.healthx.model.DaySnapshot;
 import com.healthx.model.HealthCard;
 import com.healthx.ui.adapter.HealthCardAdapter;
 import com.healthx.ui.fragment.DietFragment;
@@ -24,15 +26,19 @@ import com.healthx.ui.fragment.SleepDetailFragment;
 import com.healthx.ui.fragment.SleepFragment;
 import com.healthx.ui.fragment.StepFragment;
 import com.healthx.ui.weight.WeightFragment;
+import com.healthx.util.DateTimeUtils;
+import com.healthx.viewmodel.DashboardViewModel;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 public class RecordFragment extends Fragment implements HealthCardAdapter.OnItemClickListener {
 
     private RecyclerView recyclerView;
     private HealthCardAdapter adapter;
     private FloatingActionButton fabAddRecord;
+    private DashboardViewModel viewModel;
 
     @Nullable
     @Override
@@ -47,6 +53,7 @@ public class RecordFragment extends Fragment implements HealthCardAdapter.OnItem
         setupRecyclerView();
         setupListeners();
         setupBackStackListener();
+        observeSnapshot();
     }
 
     private void initViews(View view) {
@@ -55,12 +62,22 @@ public class RecordFragment extends Fragment implements HealthCardAdapter.OnItem
     }
 
     private void setupRecyclerView() {
-        adapter = new HealthCardAdapter(getHealthCards());
+        adapter = new HealthCardAdapter(getHealthCards(new DaySnapshot()));
         adapter.setOnItemClickListener(this);
         recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
         recyclerView.setAdapter(adapter);
     }
 
+    private void observeSnapshot() {
+        // 五张卡片共用一次查询，数值没有变化时不会重新绑定
+        viewModel = new ViewModelProvider(this).get(DashboardViewModel.class);
+        viewModel.getTodaySnapshot().observe(getViewLifecycleOwner(), snapshot -> {
+            if (snapshot != null) {
+                adapter.setHealthCards(getHealthCards(snapshot));
+            }
+        });
+    }
+
     private void setupListeners() {
         fabAddRecord.setOnClickListener(v -> 
             Toast.makeText(requireContext(), "添加记录", Toast.LENGTH_SHORT).show()
@@ -87,14 +104,22 @@ public class RecordFragment extends Fragment implements HealthCardAdapter.OnItem
         });
     }
 
-    private List<HealthCard> getHealthCards() {
-        // 模拟数据，实际应从ViewModel获取
+    private List<HealthCard> getHealthCards(DaySnapshot snapshot) {
+        String sleep = snapshot.getSleepMinutes() == null ? "暂无睡眠记录"
+                : "昨晚睡眠" + DateTimeUtils.formatMinutesToHoursAndMinutes(snapshot.getSleepMinutes());
+        String weight = snapshot.getWeight() == null ? "暂无体重记录"
+                : String.format(Locale.getDefault(), "体重：%.1fkg", snapshot.getWeight());
         List<HealthCard> cards = new ArrayList<>();
-        cards.add(new HealthCard(R.string.diet_record, "今天摄入了1800千卡", android.R.drawable.ic_menu_edit));
-        cards.add(new HealthCard(R.string.exercise_record, "今天运动消耗了300千卡", android.R.drawable.ic_menu_compass));
-        cards.add(new HealthCard(R.string.sleep_record, "昨晚睡眠7小时30分钟", android.R.drawable.ic_menu_recent_history));
-        cards.add(new HealthCard(R.string.weight_record, "体重：65kg", android.R.drawable.ic_menu_report_image));
-        cards.add(new HealthCard(R.string.step_record, "今日步数：8500步", android.R.drawable.ic_menu_directions));
+        cards.add(new HealthCard(R.string.diet_record,
+                String.format(Locale.getDefault(), "今天摄入了%.0f千卡", snapshot.getCaloriesIn()),
+                android.R.drawable.ic_menu_edit));
+        cards.add(new HealthCard(R.string.exercise_record,
+                String.format(Locale.getDefault(), "今天运动消耗了%.0f千卡", snapshot.getCaloriesBurned()),
+                android.R.drawable.ic_menu_compass));
+        cards.add(new HealthCard(R.string.sleep_record, sleep, android.R.drawable.ic_menu_recent_history));
+        cards.add(new HealthCard(R.string.weight_record, weight, android.R.drawable.ic_menu_report_image));
+        cards.add(new HealthCard(R.string.step_record, "今日步数：" + snapshot.getSteps() + "步",
+                android.R.drawable.ic_menu_directions));
         return cards;
     }
     
@@ -32,11 +32,10 @@ import com.healthx.util.DateTimeUtils;
 import com.healthx.util.PreferenceManager;
 import com.healthx.viewmodel.SleepViewModel;
 
-import org.threeten.bp.Duration;
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.format.DateTimeFormatter;
-
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
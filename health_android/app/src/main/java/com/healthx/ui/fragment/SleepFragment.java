@@ -39,16 +39,12 @@ import com.healthx.util.DateTimeUtils;
 import com.healthx.util.PreferenceManager;
 import com.healthx.viewmodel.SleepViewModel;
 
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.LocalTime;
-import org.threeten.bp.format.DateTimeFormatter;
-
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class SleepFragment extends Fragment implements SleepRecordDialog.SleepRecordDialogListener {
     
@@ -158,10 +154,9 @@ public class SleepFragment extends Fragment implements SleepRecordDialog.SleepRe
                 tvNoSleepData.setVisibility(View.GONE);
                 sleepChart.setVisibility(View.VISIBLE);
                 
-                // 处理重复记录的问题，确保每天只显示一条记录
-                List<SleepRecord> uniqueRecords = deduplicateSleepRecords(sleepRecords);
-                adapter.submitList(uniqueRecords);
-                updateChart(uniqueRecords);
+                // (userId, sleepDay)唯一索引已保证每天只有一条记录
+                adapter.submitList(sleepRecords);
+                updateChart(sleepRecords);
                 
                 // 更新平均睡眠时长
                 tvAverageSleepDuration.setText(viewModel.getAverageSleepDurationText());
@@ -187,41 +182,6 @@ public class SleepFragment extends Fragment implements SleepRecordDialog.SleepRe
         });
     }
     
-    /**
-     * 去除重复的睡眠记录，确保每天只显示一条记录
-     * @param records 原始记录列表
-     * @return 去重后的记录列表
-     */
-    private List<SleepRecord> deduplicateSleepRecords(List<SleepRecord> records) {
-        if (records == null || records.isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        Map<String, SleepRecord> recordMap = new HashMap<>();
-        
-        // 按日期分组，保留每天最新的记录
-        for (SleepRecord record : records) {
-            if (record.getStartTime() != null) {
-                String dateKey = record.getStartTime().toLocalDate().toString();
-                
-                // 如果该日期没有记录，或当前记录的ID比已有记录大（说明更新），则更新
-                if (!recordMap.containsKey(dateKey) || 
-                    (record.getRemoteId() != null && 
-                     recordMap.get(dateKey).getRemoteId() != null && 
-                     record.getRemoteId() > recordMap.get(dateKey).getRemoteId())) {
-                    recordMap.put(dateKey, record);
-                }
-            }
-        }
-        
-        // 将Map转换回List并按日期排序
-        List<SleepRecord> uniqueRecords = new ArrayList<>(recordMap.values());
-        Collections.sort(uniqueRecords, (a, b) -> 
-            b.getStartTime().toLocalDate().compareTo(a.getStartTime().toLocalDate()));
-        
-        return uniqueRecords;
-    }
-    
     @Override
     public void onResume() {
         super.onResume();
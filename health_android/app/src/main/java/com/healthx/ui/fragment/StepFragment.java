@@ -1,5 +1,8 @@
 package com.healthx.ui.fragment;
 
+import android.Manifest;
+import android.content.pm.PackageManager;
+import android.os.Build;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -9,8 +12,11 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -20,6 +26,7 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.healthx.R;
 import com.healthx.model.StepRecord;
+import com.healthx.step.StepTracker;
 import com.healthx.ui.adapter.StepRecordAdapter;
 import com.healthx.ui.dialog.StepInputDialog;
 import com.healthx.util.PreferenceManager;
@@ -48,6 +55,14 @@ public class StepFragment extends Fragment implements StepRecordAdapter.OnItemCl
     private DecimalFormat distanceFormat = new DecimalFormat("#,##0.0");
     private DecimalFormat caloriesFormat = new DecimalFormat("#,##0.0");
     
+    // 请求计步权限，授权后开始传感器采集
+    private final ActivityResultLauncher<String> activityRecognitionLauncher =
+            registerForActivityResult(new ActivityResultContracts.RequestPermission(), granted -> {
+                if (granted) {
+                    StepTracker.get(requireContext()).start();
+                }
+            });
+    
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -77,6 +92,19 @@ public class StepFragment extends Fragment implements StepRecordAdapter.OnItemCl
         
         // 加载数据
         loadData(false);
+        
+        // 开始传感器计步
+        startStepTracking();
+    }
+    
+    private void startStepTracking() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+                && ContextCompat.checkSelfPermission(requireContext(), Manifest.permission.ACTIVITY_RECOGNITION)
+                != PackageManager.PERMISSION_GRANTED) {
+            activityRecognitionLauncher.launch(Manifest.permission.ACTIVITY_RECOGNITION);
+            return;
+        }
+        StepTracker.get(requireContext()).start();
     }
     
     private void initViews(View view) {
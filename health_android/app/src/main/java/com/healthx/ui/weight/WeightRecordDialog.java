@@ -17,11 +17,9 @@ import androidx.fragment.app.DialogFragment;
 
 import com.healthx.R;
 import com.healthx.model.WeightRecord;
+import com.healthx.util.DateTimeUtils;
 
 import java.text.DecimalFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
 
 /**
  * 体重记录对话框，用于添加和编辑体重记录
@@ -40,7 +38,6 @@ public class WeightRecordDialog extends DialogFragment {
     
     // 格式化器
     private final DecimalFormat weightFormat = new DecimalFormat("#0.0");
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
     
     /**
      * 默认构造函数，用于添加新记录
@@ -67,12 +64,12 @@ public class WeightRecordDialog extends DialogFragment {
         // 如果是编辑现有记录，填充数据
         if (existingRecord != null) {
             tvTitle.setText(R.string.edit_weight_record);
-            tvDate.setText(dateFormat.format(new Date(existingRecord.getMeasurementTime())));
+            tvDate.setText(DateTimeUtils.formatDateTime(existingRecord.getMeasurementTime()));
             etWeight.setText(weightFormat.format(existingRecord.getWeight()));
             etNote.setText(existingRecord.getNote());
         } else {
             tvTitle.setText(R.string.add_weight_record);
-            tvDate.setText(dateFormat.format(new Date()));
+            tvDate.setText(DateTimeUtils.formatDateTime(System.currentTimeMillis()));
         }
         
         // 设置按钮点击事件
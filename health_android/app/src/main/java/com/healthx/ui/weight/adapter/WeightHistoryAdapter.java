@@ -13,7 +13,6 @@ import com.healthx.model.WeightRecord;
 import com.healthx.util.DateTimeUtils;
 
 import java.text.DecimalFormat;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -155,20 +154,18 @@ public class WeightHistoryAdapter extends RecyclerView.Adapter<WeightHistoryAdap
          * 格式化日期为友好显示文本
          */
         private String formatDate(long timestamp) {
-            Date date = new Date(timestamp);
-            
             // 如果是今天
-            if (DateTimeUtils.isToday(date)) {
-                return "今天 " + DateTimeUtils.formatTime(date);
+            if (DateTimeUtils.isToday(timestamp)) {
+                return "今天 " + DateTimeUtils.formatTime(timestamp);
             }
             
             // 如果是昨天
-            if (DateTimeUtils.isYesterday(date)) {
-                return "昨天 " + DateTimeUtils.formatTime(date);
+            if (DateTimeUtils.isYesterday(timestamp)) {
+                return "昨天 " + DateTimeUtils.formatTime(timestamp);
             }
             
             // 其他日期
-            return DateTimeUtils.formatDate(date) + " " + DateTimeUtils.formatTime(date);
+            return DateTimeUtils.formatDateTime(timestamp);
         }
     }
     
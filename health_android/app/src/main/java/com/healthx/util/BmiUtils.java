@@ -0,0 +1,47 @@
+package com.healthx.util;
+
+/**
+ * BMI计算工具类
+ */
+public class BmiUtils {
+    
+    /**
+     * 计算BMI
+     * BMI = 体重(kg) / (身高(m) * 身高(m))
+     */
+    public static float calculateBMI(float weight, float heightInCm) {
+        if (heightInCm <= 0 || weight <= 0) {
+            return 0;
+        }
+        float heightInM = heightInCm / 100f;
+        return weight / (heightInM * heightInM);
+    }
+    
+    /**
+     * 计算BMI (支持Double类型参数)
+     * BMI = 体重(kg) / (身高(m) * 身高(m))
+     */
+    public static float calculateBMI(Double weight, Double heightInCm) {
+        if (heightInCm == null || weight == null || heightInCm <= 0 || weight <= 0) {
+            return 0;
+        }
+        return calculateBMI(weight.floatValue(), heightInCm.floatValue());
+    }
+    
+    /**
+     * 获取BMI状态描述
+     */
+    public static String getBmiStatus(float bmi) {
+        if (bmi <= 0) {
+            return "未知";
+        } else if (bmi < 18.5) {
+            return "偏瘦";
+        } else if (bmi < 24) {
+            return "正常";
+        } else if (bmi < 28) {
+            return "超重";
+        } else {
+            return "肥胖";
+        }
+    }
+}
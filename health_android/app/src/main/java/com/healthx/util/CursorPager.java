@@ -0,0 +1,123 @@
+package com.healthx.util;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.healthx.model.dto.CursorPageDTO;
+import com.healthx.network.ApiResponse;
+import com.healthx.repository.Resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * 按游标逐页加载服务器列表
+ * 每次只请求一页，下一页用上一页返回的nextCursor继续，服务器和客户端每次请求的开销都与页大小成正比；
+ * 列表滚动到底部时调用loadNextPage，nextCursor为null后不再请求。
+ * 只在主线程调用。
+ */
+public final class CursorPager<T> {
+    
+    private static final String TAG = "CursorPager";
+    
+    /**
+     * 请求一页数据
+     */
+    public interface PageFetcher<T> {
+        Call<ApiResponse<CursorPageDTO<T>>> fetch(@Nullable String after, int limit);
+    }
+    
+    private final PageFetcher<T> fetcher;
+    private final int pageSize;
+    private final MutableLiveData<Resource<List<T>>> items = new MutableLiveData<>();
+    private final List<T> loaded = new ArrayList<>();
+    private String nextCursor;
+    private boolean endReached;
+    private Call<ApiResponse<CursorPageDTO<T>>> inFlight;
+    
+    public CursorPager(PageFetcher<T> fetcher, int pageSize) {
+        this.fetcher = fetcher;
+        this.pageSize = pageSize;
+    }
+    
+    /**
+     * 已加载的全部数据，每加载一页更新一次
+     */
+    public LiveData<Resource<List<T>>> getItems() {
+        return items;
+    }
+    
+    public boolean hasMore() {
+        return !endReached;
+    }
+    
+    /**
+     * 加载下一页；正在加载或已经没有下一页时忽略
+     */
+    public void loadNextPage() {
+        if (inFlight != null || endReached) {
+            return;
+        }
+        items.setValue(Resource.loading(snapshot()));
+        Call<ApiResponse<CursorPageDTO<T>>> call = fetcher.fetch(nextCursor, pageSize);
+        inFlight = call;
+        call.enqueue(new Callback<ApiResponse<CursorPageDTO<T>>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<CursorPageDTO<T>>> call,
+                                   Response<ApiResponse<CursorPageDTO<T>>> response) {
+                if (call != inFlight) {
+                    return;
+                }
+                inFlight = null;
+                ApiResponse<CursorPageDTO<T>> body = response.body();
+                if (!response.isSuccessful() || body == null || body.getData() == null) {
+                    items.setValue(Resource.error("加载失败: " + response.code(), snapshot()));
+                    return;
+                }
+                CursorPageDTO<T> page = body.getData();
+                if (page.getItems() != null) {
+                    loaded.addAll(page.getItems());
+                }
+                nextCursor = page.getNextCursor();
+                endReached = nextCursor == null;
+                items.setValue(Resource.success(snapshot()));
+            }
+            
+            @Override
+            public void onFailure(Call<ApiResponse<CursorPageDTO<T>>> call, Throwable t) {
+                if (call != inFlight) {
+                    return;
+                }
+                inFlight = null;
+                Log.e(TAG, "加载分页数据失败", t);
+                items.setValue(Resource.error(t.getMessage(), snapshot()));
+            }
+        });
+    }
+    
+    /**
+     * 丢弃已加载的数据并从第一页重新加载
+     */
+    public void refresh() {
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+        loaded.clear();
+        nextCursor = null;
+        endReached = false;
+        loadNextPage();
+    }
+    
+    private List<T> snapshot() {
+        return Collections.unmodifiableList(new ArrayList<>(loaded));
+    }
+}
@@ -2,20 +2,15 @@ package com.healthx.util;
 
 import android.util.Log;
 
-import org.threeten.bp.Duration;
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.LocalTime;
-import org.threeten.bp.ZoneId;
-import org.threeten.bp.format.DateTimeFormatter;
-import org.threeten.bp.format.DateTimeParseException;
+import com.healthx.database.converter.DateTimeConverter;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.Locale;
-import java.util.TimeZone;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 /**
  * 日期时间工具类，提供日期时间相关的工具方法
@@ -45,27 +40,6 @@ public class DateTimeUtils {
     private static final DateTimeFormatter STANDARD_WITH_SECONDS = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final DateTimeFormatter STANDARD_WITHOUT_SECONDS = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
     
-    // java.util.Date 格式化器
-    private static final SimpleDateFormat DATE_SDF = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-    private static final SimpleDateFormat TIME_SDF = new SimpleDateFormat("HH:mm", Locale.getDefault());
-    private static final SimpleDateFormat DATETIME_SDF = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
-    
-    // ISO格式化器
-    private static final SimpleDateFormat ISO_DATE_SDF = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-    private static final SimpleDateFormat ISO_DATETIME_SDF = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS", Locale.getDefault());
-    private static final SimpleDateFormat ISO_DATETIME_NO_MS_SDF = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault());
-    
-    static {
-        // 设置时区为UTC，用于API交互
-        DATE_SDF.setTimeZone(TimeZone.getTimeZone("UTC"));
-        TIME_SDF.setTimeZone(TimeZone.getTimeZone("UTC"));
-        DATETIME_SDF.setTimeZone(TimeZone.getTimeZone("UTC"));
-        ISO_DATE_SDF.setTimeZone(TimeZone.getTimeZone("UTC"));
-        ISO_DATETIME_SDF.setTimeZone(TimeZone.getTimeZone("UTC"));
-        ISO_DATETIME_NO_MS_SDF.setTimeZone(TimeZone.getTimeZone("UTC"));
-        // UI展示用本地时区
-    }
-    
     /**
      * 将LocalDate格式化为字符串 (API格式)
      */
@@ -346,105 +320,79 @@ public class DateTimeUtils {
     }
     
     /**
-     * 获取指定天数之前的日期
+     * 将毫秒时间戳转换为本地日期时间，与数据库读取使用同一份缓存的时区偏移
+     */
+    public static LocalDateTime toLocalDateTime(long timestamp) {
+        return DateTimeConverter.toLocalDateTime(timestamp);
+    }
+    
+    /**
+     * 将本地日期时间转换为毫秒时间戳
+     */
+    public static long toTimestamp(LocalDateTime dateTime) {
+        return DateTimeConverter.toEpochMilli(dateTime);
+    }
+    
+    /**
+     * 将毫秒时间戳转换为本地日期
+     */
+    public static LocalDate toLocalDate(long timestamp) {
+        return DateTimeConverter.toLocalDateTime(timestamp).toLocalDate();
+    }
+    
+    /**
+     * 获取指定天数之前的时间戳
      * @param days 天数
-     * @return 指定天数之前的日期
+     * @return 指定天数之前同一时刻的毫秒时间戳
      */
-    public static Date getDateBefore(int days) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.add(Calendar.DAY_OF_MONTH, -days);
-        return calendar.getTime();
+    public static long getTimestampBefore(int days) {
+        return toTimestamp(LocalDateTime.now().minusDays(days));
     }
     
     /**
-     * 检查日期是否为今天
-     * @param date 要检查的日期
-     * @return 如果是今天则返回true
+     * 检查时间戳是否在今天
      */
-    public static boolean isToday(Date date) {
-        Calendar today = Calendar.getInstance();
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(date);
-        
-        return today.get(Calendar.YEAR) == calendar.get(Calendar.YEAR)
-                && today.get(Calendar.DAY_OF_YEAR) == calendar.get(Calendar.DAY_OF_YEAR);
+    public static boolean isToday(long timestamp) {
+        return toLocalDate(timestamp).equals(LocalDate.now());
     }
     
     /**
-     * 检查日期是否为昨天
-     * @param date 要检查的日期
-     * @return 如果是昨天则返回true
+     * 检查时间戳是否在昨天
      */
-    public static boolean isYesterday(Date date) {
-        Calendar yesterday = Calendar.getInstance();
-        yesterday.add(Calendar.DAY_OF_YEAR, -1);
-        
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(date);
-        
-        return yesterday.get(Calendar.YEAR) == calendar.get(Calendar.YEAR)
-                && yesterday.get(Calendar.DAY_OF_YEAR) == calendar.get(Calendar.DAY_OF_YEAR);
+    public static boolean isYesterday(long timestamp) {
+        return toLocalDate(timestamp).equals(LocalDate.now().minusDays(1));
     }
     
     /**
-     * 检查两个日期是否为同一天
-     * @param date1 第一个日期
-     * @param date2 第二个日期
-     * @return 如果是同一天则返回true
+     * 检查两个时间戳是否在同一天
      */
-    public static boolean isSameDay(Date date1, Date date2) {
-        if (date1 == null || date2 == null) {
-            return false;
-        }
-        
-        Calendar cal1 = Calendar.getInstance();
-        cal1.setTime(date1);
-        Calendar cal2 = Calendar.getInstance();
-        cal2.setTime(date2);
-        
-        return cal1.get(Calendar.YEAR) == cal2.get(Calendar.YEAR) &&
-                cal1.get(Calendar.MONTH) == cal2.get(Calendar.MONTH) &&
-                cal1.get(Calendar.DAY_OF_MONTH) == cal2.get(Calendar.DAY_OF_MONTH);
+    public static boolean isSameDay(long timestamp1, long timestamp2) {
+        return toLocalDate(timestamp1).equals(toLocalDate(timestamp2));
     }
     
     /**
-     * 格式化Date为日期字符串 (yyyy-MM-dd)
-     * @param date 日期
-     * @return 格式化后的日期字符串
+     * 格式化时间戳为日期字符串 (yyyy-MM-dd)
      */
-    public static String formatDate(Date date) {
-        if (date == null) {
-            return "";
-        }
-        return DATE_SDF.format(date);
+    public static String formatDate(long timestamp) {
+        return toLocalDateTime(timestamp).format(UI_DATE_FORMAT);
     }
     
     /**
-     * 格式化Date为时间字符串 (HH:mm)
-     * @param date 日期
-     * @return 格式化后的时间字符串
+     * 格式化时间戳为时间字符串 (HH:mm)
      */
-    public static String formatTime(Date date) {
-        if (date == null) {
-            return "";
-        }
-        return TIME_SDF.format(date);
+    public static String formatTime(long timestamp) {
+        return toLocalDateTime(timestamp).format(UI_TIME_FORMAT);
     }
     
     /**
-     * 格式化Date为日期时间字符串 (yyyy-MM-dd HH:mm)
-     * @param date 日期
-     * @return 格式化后的日期时间字符串
+     * 格式化时间戳为日期时间字符串 (yyyy-MM-dd HH:mm)
      */
-    public static String formatDateTime(Date date) {
-        if (date == null) {
-            return "";
-        }
-        return DATETIME_SDF.format(date);
+    public static String formatDateTime(long timestamp) {
+        return toLocalDateTime(timestamp).format(UI_DATETIME_FORMAT);
     }
     
     /**
-     * 将时间戳转换为ISO格式字符串，用于与后端API交互
+     * 将时间戳转换为ISO格式字符串（UTC），用于与后端API交互
      * 遵循规范：yyyy-MM-dd'T'HH:mm:ss
      * 注意：不使用毫秒，因为后端LocalDateTime无法解析带毫秒的格式
      */
@@ -452,10 +400,8 @@ public class DateTimeUtils {
         if (timestamp <= 0) {
             return null;
         }
-        
-        synchronized (ISO_DATETIME_NO_MS_SDF) {
-            return ISO_DATETIME_NO_MS_SDF.format(new Date(timestamp));
-        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(timestamp, 1000L), 0, ZoneOffset.UTC)
+                .format(ISO_WITHOUT_MS);
     }
     
     /**
@@ -468,73 +414,26 @@ public class DateTimeUtils {
         }
         
         try {
+            LocalDateTime dateTime;
             // 根据字符串特征选择合适的解析格式
             if (isoString.contains("T")) {
-                // ISO格式
-                if (isoString.contains(".")) {
-                    // 带毫秒
-                    synchronized (ISO_DATETIME_SDF) {
-                        return ISO_DATETIME_SDF.parse(isoString).getTime();
-                    }
-                } else {
-                    // 不带毫秒
-                    synchronized (ISO_DATETIME_NO_MS_SDF) {
-                        return ISO_DATETIME_NO_MS_SDF.parse(isoString).getTime();
-                    }
-                }
+                // ISO格式，带或不带毫秒
+                dateTime = LocalDateTime.parse(isoString, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
             } else if (isoString.contains(" ")) {
-                // 普通日期时间格式 (yyyy-MM-dd HH:mm:ss)
-                synchronized (DATETIME_SDF) {
-                    return DATETIME_SDF.parse(isoString).getTime();
-                }
+                // 普通日期时间格式 (yyyy-MM-dd HH:mm:ss 或 yyyy-MM-dd HH:mm)
+                dateTime = LocalDateTime.parse(isoString,
+                        isoString.length() > 16 ? STANDARD_WITH_SECONDS : STANDARD_WITHOUT_SECONDS);
             } else {
                 // 纯日期格式 (yyyy-MM-dd)
-                synchronized (ISO_DATE_SDF) {
-                    return ISO_DATE_SDF.parse(isoString).getTime();
-                }
+                dateTime = LocalDate.parse(isoString, API_DATE_FORMAT).atStartOfDay();
             }
-        } catch (ParseException e) {
+            return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (DateTimeParseException e) {
             Log.e(TAG, "解析ISO日期时间字符串失败: " + isoString, e);
             return 0;
         }
     }
     
-    /**
-     * 格式化日期为UI显示格式
-     */
-    public static String formatDateForUI(Date date) {
-        if (date == null) {
-            return "";
-        }
-        synchronized (DATE_SDF) {
-            return DATE_SDF.format(date);
-        }
-    }
-    
-    /**
-     * 格式化时间为UI显示格式
-     */
-    public static String formatTimeForUI(Date date) {
-        if (date == null) {
-            return "";
-        }
-        synchronized (TIME_SDF) {
-            return TIME_SDF.format(date);
-        }
-    }
-    
-    /**
-     * 格式化日期时间为UI显示格式
-     */
-    public static String formatDateTimeForUI(Date date) {
-        if (date == null) {
-            return "";
-        }
-        synchronized (DATETIME_SDF) {
-            return DATETIME_SDF.format(date);
-        }
-    }
-    
     /**
      * 将时间戳格式化为UI显示格式
      */
@@ -542,72 +441,34 @@ public class DateTimeUtils {
         if (timestamp <= 0) {
             return "";
         }
-        return formatDateTimeForUI(new Date(timestamp));
+        return formatDateTime(timestamp);
     }
     
     /**
-     * 获取日期的开始时间（0点0分0秒）
+     * 获取时间戳所在日期的开始时间（0点0分0秒）
      */
-    public static Date startOfDay(Date date) {
-        if (date == null) {
-            return null;
-        }
-        
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE, 0);
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
-        
-        return cal.getTime();
+    public static long startOfDay(long timestamp) {
+        return toTimestamp(toLocalDate(timestamp).atStartOfDay());
     }
     
     /**
-     * 获取日期的结束时间（23点59分59秒999毫秒）
+     * 获取时间戳所在日期的结束时间（23点59分59秒999毫秒）
      */
-    public static Date endOfDay(Date date) {
-        if (date == null) {
-            return null;
-        }
-        
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        cal.set(Calendar.HOUR_OF_DAY, 23);
-        cal.set(Calendar.MINUTE, 59);
-        cal.set(Calendar.SECOND, 59);
-        cal.set(Calendar.MILLISECOND, 999);
-        
-        return cal.getTime();
+    public static long endOfDay(long timestamp) {
+        return toTimestamp(toLocalDate(timestamp).plusDays(1).atStartOfDay()) - 1;
     }
     
     /**
      * 增加或减少天数
      */
-    public static Date addDays(Date date, int days) {
-        if (date == null) {
-            return null;
-        }
-        
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        cal.add(Calendar.DAY_OF_MONTH, days);
-        
-        return cal.getTime();
+    public static long addDays(long timestamp, int days) {
+        return toTimestamp(toLocalDateTime(timestamp).plusDays(days));
     }
     
     /**
      * 增加或减少月份
      */
-    public static Date addMonths(Date date, int months) {
-        if (date == null) {
-            return null;
-        }
-        
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        cal.add(Calendar.MONTH, months);
-        
-        return cal.getTime();
+    public static long addMonths(long timestamp, int months) {
+        return toTimestamp(toLocalDateTime(timestamp).plusMonths(months));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package com.healthx.util;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+
+import androidx.lifecycle.LiveData;
+
+import java.time.LocalDate;
+
+/**
+ * 当前日期，跨过零点或用户修改时间、时区后更新
+ * 只在有活跃观察者时监听系统广播；重新变为活跃时再检查一次，覆盖在后台期间跨过零点的情况。
+ */
+public class TodayLiveData extends LiveData<LocalDate> {
+
+    private final Context appContext;
+    private final BroadcastReceiver receiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            refresh();
+        }
+    };
+
+    public TodayLiveData(Context context) {
+        super(LocalDate.now());
+        appContext = context.getApplicationContext();
+    }
+
+    @Override
+    protected void onActive() {
+        IntentFilter filter = new IntentFilter(Intent.ACTION_DATE_CHANGED);
+        filter.addAction(Intent.ACTION_TIME_CHANGED);
+        filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        appContext.registerReceiver(receiver, filter);
+        refresh();
+    }
+
+    @Override
+    protected void onInactive() {
+        appContext.unregisterReceiver(receiver);
+    }
+
+    // 广播在主线程回调，日期没有变化时不通知观察者
+    private void refresh() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(getValue())) {
+            setValue(today);
+        }
+    }
+}
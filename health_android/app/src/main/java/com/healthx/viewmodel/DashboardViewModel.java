@@ -0,0 +1,36 @@
+package com.healthx.viewmodel;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
+
+import com.healthx.model.DaySnapshot;
+import com.healthx.repository.DaySnapshotRepository;
+import com.healthx.util.PreferenceManager;
+import com.healthx.util.TodayLiveData;
+
+/**
+ * 首页ViewModel，提供今天的饮食、运动、步数、睡眠和体重汇总
+ */
+public class DashboardViewModel extends AndroidViewModel {
+    
+    private final LiveData<DaySnapshot> todaySnapshot;
+    
+    public DashboardViewModel(@NonNull Application application) {
+        super(application);
+        DaySnapshotRepository repository = new DaySnapshotRepository(application);
+        // 日期变化时切换到新一天的查询，页面一直打开跨过零点也会刷新
+        todaySnapshot = Transformations.switchMap(new TodayLiveData(application),
+                date -> repository.getDaySnapshot(PreferenceManager.getUserId(getApplication()), date));
+    }
+    
+    /**
+     * 获取今天的汇总数据，跨过零点后自动切换到新的一天
+     */
+    public LiveData<DaySnapshot> getTodaySnapshot() {
+        return todaySnapshot;
+    }
+}
@@ -12,9 +12,9 @@ import androidx.lifecycle.MutableLiveData;
 import com.healthx.model.Diet;
 import com.healthx.repository.DietRepository;
 
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.LocalTime;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 
 public class DietViewModel extends AndroidViewModel {
@@ -103,6 +103,11 @@ public class DietViewModel extends AndroidViewModel {
         });
     }
     
+    // 按ID获取饮食记录，供编辑对话框使用
+    public LiveData<Diet> getDietById(long id) {
+        return repository.getDietById(id);
+    }
+    
     // 从服务器刷新数据
     public void refreshDietsFromServer(long userId) {
         repository.fetchUserDietsFromServer(userId);
@@ -12,9 +12,9 @@ import androidx.lifecycle.Transformations;
 import com.healthx.model.Exercise;
 import com.healthx.repository.ExerciseRepository;
 
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.LocalTime;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 
 public class ExerciseViewModel extends AndroidViewModel {
@@ -98,6 +98,11 @@ public class ExerciseViewModel extends AndroidViewModel {
         }
     }
     
+    // 按ID获取运动记录，供编辑对话框使用
+    public LiveData<Exercise> getExerciseById(long id) {
+        return repository.getExerciseById(id);
+    }
+    
     // 添加新的运动记录
     public void addExercise(Exercise exercise) {
         try {
@@ -0,0 +1,63 @@
+package com.healthx.viewmodel;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.ViewModel;
+
+import com.healthx.model.dto.HealthGoalDTO;
+import com.healthx.repository.HealthGoalRepository;
+import com.healthx.repository.Resource;
+import com.healthx.util.CursorPager;
+
+import java.util.List;
+
+/**
+ * 健康目标列表ViewModel，按页加载用户的目标
+ * 分页器保存在ViewModel中，配置变更后已加载的页和游标保留，不重新请求。
+ */
+public class HealthGoalViewModel extends ViewModel {
+    
+    private final HealthGoalRepository repository;
+    private final MediatorLiveData<Resource<List<HealthGoalDTO>>> goals = new MediatorLiveData<>();
+    private CursorPager<HealthGoalDTO> pager;
+    private long userId;
+    
+    public HealthGoalViewModel(HealthGoalRepository repository) {
+        this.repository = repository;
+    }
+    
+    /**
+     * 设置用户ID，首次设置或用户变化时从第一页开始加载
+     */
+    public void setUserId(long id) {
+        if (pager != null && userId == id) {
+            return;
+        }
+        if (pager != null) {
+            goals.removeSource(pager.getItems());
+        }
+        userId = id;
+        pager = repository.pageUserGoals(id);
+        goals.addSource(pager.getItems(), goals::setValue);
+        pager.loadNextPage();
+    }
+    
+    public LiveData<Resource<List<HealthGoalDTO>>> getGoals() {
+        return goals;
+    }
+    
+    /**
+     * 列表滚动到底部时加载下一页
+     */
+    public void loadMore() {
+        if (pager != null && pager.hasMore()) {
+            pager.loadNextPage();
+        }
+    }
+    
+    public void refresh() {
+        if (pager != null) {
+            pager.refresh();
+        }
+    }
+}
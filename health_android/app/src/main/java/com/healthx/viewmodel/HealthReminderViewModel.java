@@ -0,0 +1,63 @@
+package com.healthx.viewmodel;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.ViewModel;
+
+import com.healthx.model.dto.HealthReminderDTO;
+import com.healthx.repository.HealthReminderRepository;
+import com.healthx.repository.Resource;
+import com.healthx.util.CursorPager;
+
+import java.util.List;
+
+/**
+ * 健康提醒列表ViewModel，按页加载用户的提醒
+ * 分页器保存在ViewModel中，配置变更后已加载的页和游标保留，不重新请求。
+ */
+public class HealthReminderViewModel extends ViewModel {
+    
+    private final HealthReminderRepository repository;
+    private final MediatorLiveData<Resource<List<HealthReminderDTO>>> reminders = new MediatorLiveData<>();
+    private CursorPager<HealthReminderDTO> pager;
+    private long userId;
+    
+    public HealthReminderViewModel(HealthReminderRepository repository) {
+        this.repository = repository;
+    }
+    
+    /**
+     * 设置用户ID，首次设置或用户变化时从第一页开始加载
+     */
+    public void setUserId(long id) {
+        if (pager != null && userId == id) {
+            return;
+        }
+        if (pager != null) {
+            reminders.removeSource(pager.getItems());
+        }
+        userId = id;
+        pager = repository.pageUserReminders(id);
+        reminders.addSource(pager.getItems(), reminders::setValue);
+        pager.loadNextPage();
+    }
+    
+    public LiveData<Resource<List<HealthReminderDTO>>> getReminders() {
+        return reminders;
+    }
+    
+    /**
+     * 列表滚动到底部时加载下一页
+     */
+    public void loadMore() {
+        if (pager != null && pager.hasMore()) {
+            pager.loadNextPage();
+        }
+    }
+    
+    public void refresh() {
+        if (pager != null) {
+            pager.refresh();
+        }
+    }
+}
@@ -14,12 +14,11 @@ import com.healthx.repository.Resource;
 import com.healthx.repository.SleepRepository;
 import com.healthx.util.DateTimeUtils;
 
-import org.threeten.bp.Duration;
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.LocalTime;
-import org.threeten.bp.format.DateTimeFormatter;
-
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -105,6 +104,11 @@ public class SleepViewModel extends AndroidViewModel {
         return sleepRepository.addSleepRecord(sleepRecord);
     }
     
+    // 按ID获取睡眠记录，供编辑对话框使用
+    public LiveData<SleepRecord> getSleepRecordById(long id) {
+        return sleepRepository.getSleepRecordById(id);
+    }
+    
     // 更新睡眠记录
     public LiveData<Resource<SleepRecord>> updateSleepRecord(SleepRecord sleepRecord) {
         currentSleepRecord = sleepRecord;
@@ -137,17 +141,6 @@ public class SleepViewModel extends AndroidViewModel {
         }
     }
     
-    // 清除本地重复数据
-    public LiveData<Resource<Boolean>> cleanupDuplicateRecords() {
-        if (userId.getValue() == null) {
-            MutableLiveData<Resource<Boolean>> result = new MutableLiveData<>();
-            result.setValue(Resource.error("用户ID未设置", false));
-            return result;
-        }
-        
-        return sleepRepository.cleanupDuplicateRecords(userId.getValue());
-    }
-    
     // 获取睡眠时长（小时和分钟格式）
     public String formatDuration(int durationMinutes) {
         int hours = durationMinutes / 60;
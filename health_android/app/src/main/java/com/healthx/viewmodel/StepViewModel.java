@@ -4,6 +4,7 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
+import com.healthx.model.StepBucket;
 import com.healthx.model.StepRecord;
 import com.healthx.repository.StepRepository;
 import com.healthx.util.PreferenceManager;
@@ -132,6 +133,16 @@ public class StepViewModel extends ViewModel {
         }
     }
     
+    /**
+     * 获取用户某天每小时的步数
+     * @param userId 用户ID
+     * @param date 日期
+     * @return 小时桶LiveData
+     */
+    public LiveData<List<StepBucket>> getHourlySteps(long userId, LocalDate date) {
+        return repository.getHourlySteps(userId, date);
+    }
+    
     // Getters
     public LiveData<StepRecord> getCurrentStepRecord() {
         return currentStepRecord;
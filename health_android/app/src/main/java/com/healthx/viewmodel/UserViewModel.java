@@ -9,6 +9,7 @@ import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import com.healthx.image.AvatarLoader;
 import com.healthx.model.User;
 import com.healthx.network.ApiClient;
 import com.healthx.network.model.ApiResponse;
@@ -17,6 +18,8 @@ import com.healthx.network.UserApiService;
 import com.healthx.repository.UserRepository;
 import com.healthx.util.Constants;
 
+import okhttp3.MultipartBody;
+
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -129,6 +132,33 @@ public class UserViewModel extends AndroidViewModel {
             (failedUser) -> tryAlternateServerAddressesForHealthUpdate(failedUser)));
     }
 
+    /**
+     * 退出登录
+     */
+    public void logout() {
+        userRepository.logout();
+    }
+
+    /**
+     * 上传已保存到本地的头像
+     * 请求体直接从AvatarLoader磁盘层的压缩文件流式读取
+     *
+     * @param userId 用户ID
+     */
+    public void uploadAvatar(long userId) {
+        MultipartBody.Part part = AvatarLoader.get(getApplication()).createUploadPart(userId);
+        if (part == null) {
+            errorLiveData.setValue("头像文件不存在");
+            return;
+        }
+
+        Log.d(TAG, "尝试上传用户头像, userId: " + userId);
+        loadingLiveData.setValue(true);
+
+        // 头像文件已保存在本地，上传失败时不切换服务器重试，下次修改资料时可重新上传
+        userApiService.uploadAvatar(userId, part).enqueue(createUpdateCallback(null, "上传头像失败", failedUser -> { }));
+    }
+
     /**
      * 创建获取用户数据的回调
      */
@@ -8,6 +8,8 @@ import androidx.lifecycle.ViewModelProvider;
 
 import com.healthx.repository.DietRepository;
 import com.healthx.repository.ExerciseRepository;
+import com.healthx.repository.HealthGoalRepository;
+import com.healthx.repository.HealthReminderRepository;
 import com.healthx.repository.SleepRepository;
 import com.healthx.repository.StepRepository;
 import com.healthx.repository.UserRepository;
@@ -39,7 +41,11 @@ public class ViewModelFactory implements ViewModelProvider.Factory {
         } else if (modelClass.isAssignableFrom(SleepViewModel.class)) {
             return (T) new SleepViewModel(new SleepRepository(context));
         } else if (modelClass.isAssignableFrom(StepViewModel.class)) {
-            return (T) new StepViewModel(new StepRepository(context));
+            return (T) new StepViewModel(StepRepository.getInstance(context));
+        } else if (modelClass.isAssignableFrom(HealthGoalViewModel.class)) {
+            return (T) new HealthGoalViewModel(HealthGoalRepository.getInstance(context));
+        } else if (modelClass.isAssignableFrom(HealthReminderViewModel.class)) {
+            return (T) new HealthReminderViewModel(HealthReminderRepository.getInstance(context));
         }
         
         throw new IllegalArgumentException("Unknown ViewModel class: " + modelClass.getName());
@@ -15,7 +15,7 @@ import com.healthx.repository.UserRepository;
 import com.healthx.repository.WeightRepository;
 import com.healthx.util.DateTimeUtils;
 
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -219,7 +219,7 @@ public class WeightViewModel extends AndroidViewModel {
         
         isLoading.setValue(true);
         
-        boolean isToday = DateTimeUtils.isSameDay(new Date(record.getMeasurementTime()), new Date());
+        boolean isToday = DateTimeUtils.isToday(record.getMeasurementTime());
         boolean isLatest = isLatestRecord(record);
         
         executorService.execute(() -> {
@@ -310,7 +310,7 @@ public class WeightViewModel extends AndroidViewModel {
     /**
      * 获取用户指定日期范围的体重记录
      */
-    public LiveData<List<WeightRecord>> getWeightRecordsByDateRange(Date startDate, Date endDate) {
+    public LiveData<List<WeightRecord>> getWeightRecordsByDateRange(LocalDate startDate, LocalDate endDate) {
         if (currentUser == null) return new MutableLiveData<>();
         return weightRepository.getByUserIdAndDateRange(currentUser.getId(), startDate, endDate);
     }
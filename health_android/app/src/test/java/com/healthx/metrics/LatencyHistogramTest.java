@@ -0,0 +1,55 @@
+package com.healthx.metrics;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 延迟直方图的单元测试
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketBoundsContainValue() {
+        for (long value = 0; value < 5_000_000; value += value < 1000 ? 1 : 997) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.bucketLowerBound(index) <= value);
+            assertTrue(LatencyHistogram.bucketLowerBound(index + 1) > value);
+        }
+    }
+
+    @Test
+    public void testPercentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        Random random = new Random(1);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextGaussian() * 1.5 + 7);
+            histogram.recordMicros(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[]{50, 95, 99}) {
+            long exact = values[(int) Math.ceil(values.length * percentile / 100) - 1];
+            assertEquals(exact, histogram.getPercentileMicros(percentile), exact * 0.04);
+        }
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[values.length - 1], histogram.getMaxMicros());
+    }
+
+    @Test
+    public void testEmptyAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        assertEquals(0, histogram.getPercentileMicros(99));
+
+        histogram.recordNanos(5_000_000);
+        assertEquals(5000, histogram.getPercentileMicros(50), 5000 * 0.04);
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxMicros());
+    }
+}
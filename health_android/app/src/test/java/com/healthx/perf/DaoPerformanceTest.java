@@ -0,0 +1,386 @@
+package com.healthx.perf;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.healthx.database.AppDatabase;
+import com.healthx.database.dao.SleepRecordDao;
+import com.healthx.database.dao.StepRecordDao;
+import com.healthx.database.dao.UserDao;
+import com.healthx.database.dao.WeightRecordDao;
+import com.healthx.model.SleepRecord;
+import com.healthx.model.StepRecord;
+import com.healthx.model.WeightRecord;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 步数、睡眠、体重DAO在不同数据规模下的性能测试
+ * 使用磁盘上的数据库文件（而不是内存数据库），对每个查询和写入路径计时，
+ * 并通过QueryCallback捕获DAO实际执行的SQL，用EXPLAIN QUERY PLAN检查按用户查询的语句没有退化为全表扫描。
+ * 结果写入 build/reports/dao-perf 下的CSV/JSON文件。
+ *
+ * 运行方式：./gradlew :app:testDebugUnitTest -PdaoPerf [-Pdao.perf.scales=1000,10000]
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+@Config(application = Application.class, sdk = 34)
+public class DaoPerformanceTest {
+    
+    // 每个用户生成约三年的数据，规模更大时增加用户数
+    private static final int DAYS_PER_USER = 3 * 365;
+    private static final long TARGET_USER_ID = 1;
+    private static final int QUERY_WARMUP = 3;
+    private static final int QUERY_ITERATIONS = 25;
+    private static final int WRITE_ITERATIONS = 200;
+    private static final LocalDate END_DATE = LocalDate.of(2025, 6, 30);
+    
+    private static final PerfReport REPORT = new PerfReport();
+    
+    @ParameterizedRobolectricTestRunner.Parameters(name = "rows={0}")
+    public static Collection<Object[]> scales() {
+        List<Object[]> scales = new ArrayList<>();
+        for (String scale : System.getProperty("dao.perf.scales", "1000,10000").split(",")) {
+            scales.add(new Object[]{Integer.parseInt(scale.trim())});
+        }
+        return scales;
+    }
+    
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+    
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    
+    private final int scale;
+    private AppDatabase database;
+    private SyntheticDataGenerator generator;
+    private final List<CapturedQuery> capturedQueries = new ArrayList<>();
+    
+    public DaoPerformanceTest(int scale) {
+        this.scale = scale;
+    }
+    
+    @Before
+    public void setUp() throws IOException {
+        Context context = ApplicationProvider.getApplicationContext();
+        
+        File dbFile = new File(temporaryFolder.newFolder(), "perf_" + scale + ".db");
+        database = Room.databaseBuilder(context, AppDatabase.class, dbFile.getAbsolutePath())
+                .allowMainThreadQueries()
+                // 同步执行LiveData查询，便于计时
+                .setQueryExecutor(Runnable::run)
+                .setTransactionExecutor(Runnable::run)
+                // 记录DAO实际执行的SQL，供EXPLAIN QUERY PLAN使用
+                .setQueryCallback(this::capture, Runnable::run)
+                .build();
+        generator = new SyntheticDataGenerator(42L + scale, END_DATE);
+        
+        UserDao userDao = database.userDao();
+        database.runInTransaction(() -> {
+            for (long userId = 1; userId <= userCount(); userId++) {
+                userDao.upsertUser(generator.user(userId));
+            }
+        });
+    }
+    
+    @After
+    public void tearDown() {
+        database.close();
+    }
+    
+    @AfterClass
+    public static void writeReport() throws IOException {
+        if (!REPORT.isEmpty()) {
+            REPORT.write(new File(System.getProperty("dao.perf.outputDir", "build/reports/dao-perf")));
+        }
+    }
+    
+    @Test
+    public void stepRecordDao() {
+        StepRecordDao dao = database.stepRecordDao();
+        List<StepRecord> seed = new ArrayList<>();
+        for (long userId = 1; userId <= userCount(); userId++) {
+            seed.addAll(generator.stepRecords(userId, daysPerUser()));
+        }
+        measureBulkInsert("step", seed, dao::insert);
+        
+        LocalDate fromDate = END_DATE.minusDays(29);
+        StepRecord existing = dao.getStepRecordByDate(TARGET_USER_ID, END_DATE.minusDays(10));
+        assertNotNull(existing);
+        
+        query("step", "getStepRecordById", true,
+                () -> dao.getStepRecordById(existing.getId()));
+        query("step", "getStepRecordsByUserId", true,
+                () -> LiveDataTestUtil.getValue(dao.getStepRecordsByUserId(TARGET_USER_ID)));
+        query("step", "getStepRecordByDate", true,
+                () -> dao.getStepRecordByDate(TARGET_USER_ID, END_DATE.minusDays(10)));
+        query("step", "getStepRecordsByDateRange", true,
+                () -> dao.getStepRecordsByDateRange(TARGET_USER_ID, fromDate, END_DATE));
+        query("step", "getUnsyncedStepRecords", false,
+                dao::getUnsyncedStepRecords);
+        query("step", "getTotalStepsByDateRange", true,
+                () -> dao.getTotalStepsByDateRange(TARGET_USER_ID, fromDate, END_DATE));
+        query("step", "getAverageStepsByDateRange", true,
+                () -> dao.getAverageStepsByDateRange(TARGET_USER_ID, fromDate, END_DATE));
+        query("step", "getMaxStepsByDateRange", true,
+                () -> dao.getMaxStepsByDateRange(TARGET_USER_ID, fromDate, END_DATE));
+        query("step", "getMinStepsByDateRange", true,
+                () -> dao.getMinStepsByDateRange(TARGET_USER_ID, fromDate, END_DATE));
+        
+        // 写入路径：逐条插入未来日期、更新、删除
+        List<StepRecord> extra = new SyntheticDataGenerator(7L, END_DATE.plusDays(WRITE_ITERATIONS))
+                .stepRecords(TARGET_USER_ID, WRITE_ITERATIONS);
+        write("step", "insert", extra, dao::insert);
+        write("step", "update", extra, record -> {
+            record.setStepCount(record.getStepCount() + 100);
+            dao.update(record);
+        });
+        write("step", "delete", extra, dao::delete);
+    }
+    
+    @Test
+    public void sleepRecordDao() {
+        SleepRecordDao dao = database.sleepRecordDao();
+        List<SleepRecord> seed = new ArrayList<>();
+        for (long userId = 1; userId <= userCount(); userId++) {
+            seed.addAll(generator.sleepRecords(userId, daysPerUser()));
+        }
+        measureBulkInsert("sleep", seed, dao::insert);
+        
+        LocalDate day = END_DATE.minusDays(10);
+        LocalDateTime rangeStart = END_DATE.minusDays(29).atStartOfDay();
+        LocalDateTime rangeEnd = END_DATE.atTime(23, 59, 59);
+        LocalDateTime sevenDaysAgo = END_DATE.minusDays(7).atStartOfDay();
+        SleepRecord existing = dao.getByUserIdAndDaySync(TARGET_USER_ID, day);
+        assertNotNull(existing);
+        
+        query("sleep", "getByIdSync", true,
+                () -> dao.getByIdSync(existing.getId()));
+        query("sleep", "getById", true,
+                () -> LiveDataTestUtil.getValue(dao.getById(existing.getId())));
+        query("sleep", "getAllByUserId", true,
+                () -> LiveDataTestUtil.getValue(dao.getAllByUserId(TARGET_USER_ID)));
+        query("sleep", "getAllByUserIdSync", true,
+                () -> dao.getAllByUserIdSync(TARGET_USER_ID));
+        query("sleep", "getByUserIdAndDay", true,
+                () -> LiveDataTestUtil.getValue(dao.getByUserIdAndDay(TARGET_USER_ID, day)));
+        query("sleep", "getByUserIdAndDaySync", true,
+                () -> dao.getByUserIdAndDaySync(TARGET_USER_ID, day));
+        query("sleep", "getByDateRange", true,
+                () -> LiveDataTestUtil.getValue(dao.getByDateRange(TARGET_USER_ID, rangeStart, rangeEnd)));
+        query("sleep", "getLast7Days", true,
+                () -> LiveDataTestUtil.getValue(dao.getLast7Days(TARGET_USER_ID, sevenDaysAgo)));
+        query("sleep", "getBySyncStatus", true,
+                () -> dao.getBySyncStatus(0, TARGET_USER_ID));
+        
+        // 写入路径
+        List<SleepRecord> extra = new SyntheticDataGenerator(7L, END_DATE.plusDays(WRITE_ITERATIONS))
+                .sleepRecords(TARGET_USER_ID, WRITE_ITERATIONS);
+        write("sleep", "insertIfAbsent", extra, record -> record.setId(dao.insertIfAbsent(record)));
+        write("sleep", "insertIfAbsent(conflict)", extra, record -> {
+            SleepRecord duplicate = new SleepRecord(record.getUserId(), record.getStartTime(), record.getEndTime());
+            assertTrue(dao.insertIfAbsent(duplicate) == -1);
+        });
+        write("sleep", "updateIfNoConflict", extra, record -> {
+            record.setEndTime(record.getEndTime().plusMinutes(5));
+            dao.updateIfNoConflict(record);
+        });
+        write("sleep", "updateSyncStatus", extra,
+                record -> dao.updateSyncStatus(record.getId(), record.getId() + 1_000_000, 1));
+        List<SleepRecord> remote = generator.sleepRecords(TARGET_USER_ID, 30);
+        long[] upsertNanos = new long[QUERY_ITERATIONS];
+        for (int i = 0; i < upsertNanos.length; i++) {
+            long start = System.nanoTime();
+            dao.upsertRemoteRecords(remote);
+            upsertNanos[i] = System.nanoTime() - start;
+        }
+        REPORT.add("sleep", "upsertRemoteRecords(30)", scale, upsertNanos, null);
+        write("sleep", "delete", extra, dao::delete);
+    }
+    
+    @Test
+    public void weightRecordDao() {
+        WeightRecordDao dao = database.weightRecordDao();
+        List<WeightRecord> seed = new ArrayList<>();
+        for (long userId = 1; userId <= userCount(); userId++) {
+            seed.addAll(generator.weightRecords(userId, daysPerUser()));
+        }
+        measureBulkInsert("weight", seed, dao::insert);
+        
+        WeightRecord latest = dao.getLatestByUserId(TARGET_USER_ID);
+        assertNotNull(latest);
+        long day = latest.getMeasurementTime();
+        long rangeStart = epochDayMillis(END_DATE.minusDays(29));
+        long rangeEnd = epochDayMillis(END_DATE.plusDays(1)) - 1;
+        
+        query("weight", "getById", true,
+                () -> dao.getById(latest.getId()));
+        query("weight", "getByRemoteId", false,
+                () -> dao.getByRemoteId(latest.getRemoteId()));
+        query("weight", "getByUserId", true,
+                () -> LiveDataTestUtil.getValue(dao.getByUserId(TARGET_USER_ID)));
+        query("weight", "getLatestByUserId", true,
+                () -> dao.getLatestByUserId(TARGET_USER_ID));
+        query("weight", "getByUserIdAndDate", true,
+                () -> dao.getByUserIdAndDate(TARGET_USER_ID, day));
+        query("weight", "getByUserIdAndDateRange", true,
+                () -> LiveDataTestUtil.getValue(dao.getByUserIdAndDateRange(TARGET_USER_ID, rangeStart, rangeEnd)));
+        query("weight", "getLast30DaysByUserId", true,
+                () -> LiveDataTestUtil.getValue(dao.getLast30DaysByUserId(TARGET_USER_ID, rangeStart)));
+        query("weight", "countByUserIdAndDate", true,
+                () -> dao.countByUserIdAndDate(TARGET_USER_ID, day));
+        query("weight", "getWeightStats", true,
+                () -> dao.getWeightStats(TARGET_USER_ID));
+        query("weight", "getBySyncStatus", false,
+                () -> dao.getBySyncStatus(0));
+        query("weight", "getByUserIdAndSyncStatus", true,
+                () -> dao.getByUserIdAndSyncStatus(TARGET_USER_ID, 0));
+        
+        // 写入路径
+        List<WeightRecord> extra = new SyntheticDataGenerator(7L, END_DATE.plusDays(WRITE_ITERATIONS))
+                .weightRecords(TARGET_USER_ID, WRITE_ITERATIONS);
+        write("weight", "insert", extra, record -> record.setId(dao.insert(record)));
+        write("weight", "update", extra, record -> {
+            record.setWeight(record.getWeight() + 0.1f);
+            dao.update(record);
+        });
+        write("weight", "delete", extra, dao::delete);
+    }
+    
+    private int daysPerUser() {
+        return Math.min(scale, DAYS_PER_USER);
+    }
+    
+    private int userCount() {
+        return Math.max(1, scale / daysPerUser());
+    }
+    
+    private static long epochDayMillis(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private interface Writer<T> {
+        void apply(T record);
+    }
+    
+    // 在一个事务中插入全部种子数据，按行计时
+    private <T> void measureBulkInsert(String domain, List<T> records, Writer<T> insert) {
+        long start = System.nanoTime();
+        database.runInTransaction(() -> {
+            for (T record : records) {
+                insert.apply(record);
+            }
+        });
+        long perRow = (System.nanoTime() - start) / Math.max(1, records.size());
+        REPORT.add(domain, "bulkInsert(per row, " + records.size() + " rows)", scale, new long[]{perRow}, null);
+    }
+    
+    // 逐条执行写入，每条各自一个隐式事务，对应应用中的单条写入路径
+    private <T> void write(String domain, String operation, List<T> records, Writer<T> writer) {
+        long[] nanos = new long[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            long start = System.nanoTime();
+            writer.apply(records.get(i));
+            nanos[i] = System.nanoTime() - start;
+        }
+        REPORT.add(domain, operation, scale, nanos, null);
+    }
+    
+    private void query(String domain, String operation, boolean expectIndexed, Supplier<?> query) {
+        // 先执行一次DAO方法，EXPLAIN Room实际发出的语句和绑定参数，而不是手抄的SQL
+        List<CapturedQuery> statements;
+        synchronized (capturedQueries) {
+            capturedQueries.clear();
+        }
+        query.get();
+        synchronized (capturedQueries) {
+            statements = new ArrayList<>(capturedQueries);
+        }
+        assertFalse(domain + "." + operation + " 没有捕获到查询语句", statements.isEmpty());
+        StringBuilder plans = new StringBuilder();
+        for (CapturedQuery statement : statements) {
+            String plan = explain(statement.sql, statement.args);
+            if (expectIndexed) {
+                assertFalse(domain + "." + operation + " 退化为全表扫描: " + statement.sql + " -> " + plan,
+                        isFullScan(plan));
+            }
+            if (plans.length() > 0) {
+                plans.append(" || ");
+            }
+            plans.append(plan);
+        }
+        
+        for (int i = 0; i < QUERY_WARMUP; i++) {
+            query.get();
+        }
+        long[] nanos = new long[QUERY_ITERATIONS];
+        for (int i = 0; i < QUERY_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        REPORT.add(domain, operation, scale, nanos, plans.toString());
+    }
+    
+    private static class CapturedQuery {
+        final String sql;
+        final Object[] args;
+        
+        CapturedQuery(String sql, Object[] args) {
+            this.sql = sql;
+            this.args = args;
+        }
+    }
+    
+    // 只保留业务查询，跳过事务控制语句和Room失效跟踪器自己的查询
+    private void capture(String sql, List<?> bindArgs) {
+        String upper = sql.trim().toUpperCase(Locale.US);
+        if (!(upper.startsWith("SELECT") || upper.startsWith("WITH")) || upper.contains("ROOM_TABLE_MODIFICATION_LOG")) {
+            return;
+        }
+        synchronized (capturedQueries) {
+            capturedQueries.add(new CapturedQuery(sql, bindArgs.toArray()));
+        }
+    }
+    
+    // 新旧版本SQLite的输出分别为"SCAN TABLE t"和"SCAN t"，带索引的扫描不算全表扫描
+    private static final Pattern FULL_SCAN = Pattern.compile("^SCAN (TABLE )?\\w+");
+    
+    static boolean isFullScan(String plan) {
+        for (String step : plan.split(" \\| ")) {
+            if (FULL_SCAN.matcher(step.trim()).find() && !step.contains("USING")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,21 @@
+package com.healthx.perf;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+
+/**
+ * 同步读取LiveData的值
+ * 需要配合InstantTaskExecutorRule以及使用同步查询执行器的Room数据库，查询在observeForever时直接完成
+ */
+public class LiveDataTestUtil {
+    
+    public static <T> T getValue(LiveData<T> liveData) {
+        Object[] holder = new Object[1];
+        Observer<T> observer = value -> holder[0] = value;
+        liveData.observeForever(observer);
+        liveData.removeObserver(observer);
+        @SuppressWarnings("unchecked")
+        T value = (T) holder[0];
+        return value;
+    }
+}
@@ -0,0 +1,86 @@
+package com.healthx.perf;
+
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 收集性能测试结果，并输出为CSV和JSON，便于在版本之间比较趋势
+ */
+public class PerfReport {
+    
+    public static class Entry {
+        final String domain;
+        final String operation;
+        final int scale;
+        final int iterations;
+        final double medianMicros;
+        final double p95Micros;
+        final double maxMicros;
+        final String queryPlan;
+        
+        Entry(String domain, String operation, int scale, long[] nanos, String queryPlan) {
+            long[] sorted = nanos.clone();
+            Arrays.sort(sorted);
+            this.domain = domain;
+            this.operation = operation;
+            this.scale = scale;
+            this.iterations = sorted.length;
+            this.medianMicros = sorted[sorted.length / 2] / 1000.0;
+            this.p95Micros = sorted[(int) Math.ceil(sorted.length * 0.95) - 1] / 1000.0;
+            this.maxMicros = sorted[sorted.length - 1] / 1000.0;
+            this.queryPlan = queryPlan;
+        }
+    }
+    
+    private final List<Entry> entries = new ArrayList<>();
+    
+    public synchronized void add(String domain, String operation, int scale, long[] nanos, String queryPlan) {
+        entries.add(new Entry(domain, operation, scale, nanos, queryPlan));
+    }
+    
+    public synchronized boolean isEmpty() {
+        return entries.isEmpty();
+    }
+    
+    /**
+     * 写入 dao-perf-时间戳.csv/.json，同时覆盖 dao-perf-latest.csv/.json
+     */
+    public synchronized void write(File outputDir) throws IOException {
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            throw new IOException("无法创建输出目录: " + outputDir);
+        }
+        String stamp = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss", Locale.US).format(LocalDateTime.now());
+        for (String name : new String[]{"dao-perf-" + stamp, "dao-perf-latest"}) {
+            writeCsv(new File(outputDir, name + ".csv"));
+            writeJson(new File(outputDir, name + ".json"));
+        }
+    }
+    
+    private void writeCsv(File file) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            writer.write("domain,operation,scale,iterations,median_us,p95_us,max_us,query_plan\n");
+            for (Entry e : entries) {
+                writer.write(String.format(Locale.US, "%s,%s,%d,%d,%.1f,%.1f,%.1f,\"%s\"\n",
+                        e.domain, e.operation, e.scale, e.iterations,
+                        e.medianMicros, e.p95Micros, e.maxMicros,
+                        e.queryPlan == null ? "" : e.queryPlan.replace("\"", "\"\"")));
+            }
+        }
+    }
+    
+    private void writeJson(File file) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(entries, writer);
+        }
+    }
+}
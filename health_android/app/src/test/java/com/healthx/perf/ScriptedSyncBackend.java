@@ -0,0 +1,184 @@
+package com.healthx.perf;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * 同步性能测试用的脚本化后端
+ * 按接口路径模拟睡眠、步数、体重、饮食四类记录的增删改查，服务端ID自增分配。
+ * 每个请求可以附加固定延迟、带宽限制（同时作用于上传和下载）和随机的503错误，
+ * 并按领域统计请求数、失败数和双向传输的字节数。
+ */
+public class ScriptedSyncBackend extends Dispatcher {
+    
+    /**
+     * 网络条件
+     */
+    public static class Scenario {
+        final String name;
+        final long latencyMillis;
+        final long bytesPerSecond;
+        final double errorRate;
+        
+        /**
+         * @param bytesPerSecond 0表示不限速
+         */
+        public Scenario(String name, long latencyMillis, long bytesPerSecond, double errorRate) {
+            this.name = name;
+            this.latencyMillis = latencyMillis;
+            this.bytesPerSecond = bytesPerSecond;
+            this.errorRate = errorRate;
+        }
+        
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+    
+    /**
+     * 单个领域的请求统计
+     */
+    public static class Stats {
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong bytesSent = new AtomicLong();
+        final AtomicLong bytesReceived = new AtomicLong();
+    }
+    
+    // 限速时每个周期的长度
+    private static final long THROTTLE_PERIOD_MILLIS = 50;
+    
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, JsonObject>> store = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1_000_000);
+    private volatile Scenario scenario = new Scenario("direct", 0, 0, 0);
+    private volatile Random random = new Random(0);
+    
+    /**
+     * 切换网络条件并清空统计和服务端数据
+     */
+    public synchronized void reset(Scenario scenario, long seed) {
+        this.scenario = scenario;
+        this.random = new Random(seed);
+        stats.clear();
+        store.clear();
+    }
+    
+    public Stats stats(String domain) {
+        return stats.computeIfAbsent(domain, key -> new Stats());
+    }
+    
+    /**
+     * MockWebServer读取请求体时按这里返回的响应限速，用来模拟上行带宽
+     */
+    @Override
+    public MockResponse peek() {
+        return throttle(new MockResponse());
+    }
+    
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        String path = request.getPath() == null ? "" : request.getPath();
+        int query = path.indexOf('?');
+        String[] segments = (query >= 0 ? path.substring(0, query) : path).replaceFirst("^/", "").split("/");
+        String domain = segments.length > 1 ? segments[1] : "unknown";
+        
+        Stats domainStats = stats(domain);
+        domainStats.requests.incrementAndGet();
+        domainStats.bytesSent.addAndGet(request.getBodySize() + request.getHeaders().byteCount());
+        
+        MockResponse response;
+        if (random.nextDouble() < scenario.errorRate) {
+            domainStats.failures.incrementAndGet();
+            response = new MockResponse().setResponseCode(503).setBody("{\"success\":false,\"message\":\"unavailable\"}");
+        } else {
+            response = route(domain, request.getMethod(), segments, request.getBody().readUtf8());
+        }
+        
+        domainStats.bytesReceived.addAndGet(response.getBody() == null ? 0 : response.getBody().size());
+        return throttle(response.setHeadersDelay(scenario.latencyMillis, TimeUnit.MILLISECONDS));
+    }
+    
+    private MockResponse throttle(MockResponse response) {
+        if (scenario.bytesPerSecond > 0) {
+            response.throttleBody(Math.max(1, scenario.bytesPerSecond * THROTTLE_PERIOD_MILLIS / 1000),
+                    THROTTLE_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+    
+    private MockResponse route(String domain, String method, String[] segments, String body) {
+        Map<Long, JsonObject> records = store.computeIfAbsent(domain, key -> new LinkedHashMap<>());
+        // 睡眠和饮食接口直接返回实体，步数和体重接口包装为ApiResponse
+        boolean wrapped = domain.equals("steps") || domain.equals("weights");
+        
+        switch (method) {
+            case "POST": {
+                JsonObject record = JsonParser.parseString(body).getAsJsonObject();
+                long id = nextId.getAndIncrement();
+                record.addProperty("id", id);
+                record.addProperty("remoteId", id);
+                synchronized (records) {
+                    records.put(id, record);
+                }
+                return json(wrapped, record);
+            }
+            case "PUT": {
+                JsonObject record = JsonParser.parseString(body).getAsJsonObject();
+                long id = Long.parseLong(segments[segments.length - 1]);
+                record.addProperty("id", id);
+                record.addProperty("remoteId", id);
+                synchronized (records) {
+                    records.put(id, record);
+                }
+                return json(wrapped, record);
+            }
+            case "DELETE": {
+                synchronized (records) {
+                    records.remove(Long.parseLong(segments[segments.length - 1]));
+                }
+                return wrapped ? json(true, JsonNull.INSTANCE) : new MockResponse().setResponseCode(204);
+            }
+            case "GET": {
+                JsonArray list = new JsonArray();
+                synchronized (records) {
+                    for (JsonObject record : records.values()) {
+                        list.add(record);
+                    }
+                }
+                return json(wrapped, list);
+            }
+            default:
+                return new MockResponse().setResponseCode(405);
+        }
+    }
+    
+    private static MockResponse json(boolean wrapped, JsonElement data) {
+        JsonElement payload = data;
+        if (wrapped) {
+            JsonObject response = new JsonObject();
+            response.addProperty("success", true);
+            response.addProperty("message", "ok");
+            response.add("data", data);
+            payload = response;
+        }
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody(payload.toString());
+    }
+}
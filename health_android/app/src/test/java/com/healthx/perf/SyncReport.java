@@ -0,0 +1,89 @@
+package com.healthx.perf;
+
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 收集同步吞吐量测试结果，输出为CSV和JSON
+ */
+public class SyncReport {
+    
+    public static class Entry {
+        final String domain;
+        final String scenario;
+        final int dirtyRecords;
+        final int syncedRecords;
+        final long requests;
+        final long failedRequests;
+        final long bytesSent;
+        final long bytesReceived;
+        final long wallMillis;
+        final double recordsPerSecond;
+        
+        Entry(String domain, String scenario, int dirtyRecords, int syncedRecords,
+              ScriptedSyncBackend.Stats stats, long wallMillis) {
+            this.domain = domain;
+            this.scenario = scenario;
+            this.dirtyRecords = dirtyRecords;
+            this.syncedRecords = syncedRecords;
+            this.requests = stats.requests.get();
+            this.failedRequests = stats.failures.get();
+            this.bytesSent = stats.bytesSent.get();
+            this.bytesReceived = stats.bytesReceived.get();
+            this.wallMillis = wallMillis;
+            this.recordsPerSecond = wallMillis == 0 ? 0 : syncedRecords * 1000.0 / wallMillis;
+        }
+    }
+    
+    private final List<Entry> entries = new ArrayList<>();
+    
+    public synchronized void add(String domain, String scenario, int dirtyRecords, int syncedRecords,
+                                 ScriptedSyncBackend.Stats stats, long wallMillis) {
+        entries.add(new Entry(domain, scenario, dirtyRecords, syncedRecords, stats, wallMillis));
+    }
+    
+    public synchronized boolean isEmpty() {
+        return entries.isEmpty();
+    }
+    
+    /**
+     * 写入 sync-perf-时间戳.csv/.json，同时覆盖 sync-perf-latest.csv/.json
+     */
+    public synchronized void write(File outputDir) throws IOException {
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            throw new IOException("无法创建输出目录: " + outputDir);
+        }
+        String stamp = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss", Locale.US).format(LocalDateTime.now());
+        for (String name : new String[]{"sync-perf-" + stamp, "sync-perf-latest"}) {
+            writeCsv(new File(outputDir, name + ".csv"));
+            writeJson(new File(outputDir, name + ".json"));
+        }
+    }
+    
+    private void writeCsv(File file) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            writer.write("domain,scenario,dirty_records,synced_records,requests,failed_requests,"
+                    + "bytes_sent,bytes_received,wall_ms,records_per_sec\n");
+            for (Entry e : entries) {
+                writer.write(String.format(Locale.US, "%s,%s,%d,%d,%d,%d,%d,%d,%d,%.2f\n",
+                        e.domain, e.scenario, e.dirtyRecords, e.syncedRecords, e.requests, e.failedRequests,
+                        e.bytesSent, e.bytesReceived, e.wallMillis, e.recordsPerSecond));
+            }
+        }
+    }
+    
+    private void writeJson(File file) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(entries, writer);
+        }
+    }
+}
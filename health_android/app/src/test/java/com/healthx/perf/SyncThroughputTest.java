@@ -0,0 +1,323 @@
+package com.healthx.perf;
+
+import android.app.Application;
+import android.content.Context;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.healthx.database.AppDatabase;
+import com.healthx.model.Diet;
+import com.healthx.model.SleepRecord;
+import com.healthx.model.StepRecord;
+import com.healthx.model.WeightRecord;
+import com.healthx.network.ApiClient;
+import com.healthx.network.RetrofitClient;
+import com.healthx.repository.DietRepository;
+import com.healthx.repository.Resource;
+import com.healthx.repository.SleepRepository;
+import com.healthx.repository.StepRepository;
+import com.healthx.repository.WeightRepository;
+import com.healthx.util.PreferenceManager;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * 端到端同步吞吐量测试
+ * 为每个领域（睡眠、步数、体重、饮食）写入N条未同步记录，在不同网络条件下对本地
+ * MockWebServer执行仓库现有的同步流程，记录同步条数、请求数、传输字节数和耗时。
+ * 结果写入 build/reports/sync-perf 下的CSV/JSON文件，用于客观比较不同的同步策略。
+ *
+ * 运行方式：./gradlew :app:testDebugUnitTest -PsyncPerf [-Psync.perf.records=100] [-Psync.perf.scenarios=lan,3g]
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class, sdk = 34)
+public class SyncThroughputTest {
+    
+    private static final long USER_ID = 1;
+    private static final LocalDate END_DATE = LocalDate.of(2025, 6, 30);
+    private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    
+    private static final List<ScriptedSyncBackend.Scenario> SCENARIOS = Arrays.asList(
+            new ScriptedSyncBackend.Scenario("lan", 2, 0, 0),
+            new ScriptedSyncBackend.Scenario("wifi", 20, 2_000_000, 0.01),
+            new ScriptedSyncBackend.Scenario("3g", 150, 50_000, 0.02),
+            new ScriptedSyncBackend.Scenario("flaky", 80, 250_000, 0.15));
+    
+    private static final SyncReport REPORT = new SyncReport();
+    
+    private final ExecutorService dbExecutor = Executors.newSingleThreadExecutor();
+    private final ScriptedSyncBackend backend = new ScriptedSyncBackend();
+    private MockWebServer server;
+    private Context context;
+    private AppDatabase database;
+    private int records;
+    
+    @Before
+    public void setUp() throws IOException {
+        context = ApplicationProvider.getApplicationContext();
+        PreferenceManager.saveUserId(context, USER_ID);
+        PreferenceManager.setLoggedIn(context, true);
+        records = Integer.parseInt(System.getProperty("sync.perf.records", "100"));
+        
+        server = new MockWebServer();
+        server.setDispatcher(backend);
+        server.start();
+        
+        // 仓库在构造时从单例客户端取服务接口，必须先切换客户端再创建仓库
+        String baseUrl = server.url("/").toString();
+        ApiClient.resetInstance(baseUrl);
+        RetrofitClient.resetInstance(baseUrl);
+        
+        AppDatabase.resetDatabase(context);
+        database = AppDatabase.getInstance(context);
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        dbExecutor.shutdownNow();
+        AppDatabase.resetDatabase(context);
+    }
+    
+    @AfterClass
+    public static void writeReport() throws IOException {
+        if (!REPORT.isEmpty()) {
+            REPORT.write(new File(System.getProperty("sync.perf.outputDir", "build/reports/sync-perf")));
+        }
+    }
+    
+    @Test
+    public void syncThroughput() throws Exception {
+        SleepRepository sleepRepository = SleepRepository.getInstance(context);
+        WeightRepository weightRepository = new WeightRepository(context);
+        DietRepository dietRepository = new DietRepository((Application) context);
+        
+        for (ScriptedSyncBackend.Scenario scenario : selectedScenarios()) {
+            syncSleep(scenario, sleepRepository);
+            // 每个场景使用独立的仓库，写回缓冲的上传窗口不受上一个场景影响
+            syncSteps(scenario, new StepRepository(context));
+            syncWeight(scenario, weightRepository);
+            syncDiets(scenario, dietRepository);
+        }
+    }
+    
+    private void syncSleep(ScriptedSyncBackend.Scenario scenario, SleepRepository repository) throws Exception {
+        List<SleepRecord> seed = generator().sleepRecords(USER_ID, records);
+        for (SleepRecord record : seed) {
+            record.setRemoteId(null);
+            record.setSyncStatus(0);
+        }
+        reset(scenario);
+        onDb(() -> {
+            database.runInTransaction(() -> {
+                for (SleepRecord record : seed) {
+                    database.sleepRecordDao().insert(record);
+                }
+            });
+            return null;
+        });
+        
+        long start = System.nanoTime();
+        LiveData<Resource<Boolean>> result = repository.syncData(USER_ID);
+        awaitResource("sleep", result);
+        long wallMillis = elapsedMillis(start);
+        
+        int synced = onDb(() -> database.sleepRecordDao().getBySyncStatus(1, USER_ID).size());
+        REPORT.add("sleep", scenario.name, records, synced, backend.stats("sleep"), wallMillis);
+    }
+    
+    private void syncSteps(ScriptedSyncBackend.Scenario scenario, StepRepository repository) throws Exception {
+        List<StepRecord> seed = generator().stepRecords(USER_ID, records);
+        for (StepRecord record : seed) {
+            record.setRemoteId(null);
+            record.setSyncStatus(0);
+        }
+        reset(scenario);
+        onDb(() -> {
+            database.runInTransaction(() -> {
+                for (StepRecord record : seed) {
+                    record.setId(database.stepRecordDao().insert(record));
+                }
+            });
+            return null;
+        });
+        
+        // 步数没有批量同步入口，逐条走addStepRecord -> 写回缓冲 -> syncStepRecordToServer
+        // 写回缓冲先返回再上传，以服务端收到全部请求、且本地没有待同步的记录作为完成条件
+        ScriptedSyncBackend.Stats stats = backend.stats("steps");
+        long start = System.nanoTime();
+        for (StepRecord record : seed) {
+            repository.addStepRecord(record, null);
+        }
+        repository.flushPendingWrites();
+        await("steps", () -> stats.requests.get() >= seed.size() && unsyncedSteps() == 0);
+        long wallMillis = elapsedMillis(start);
+        
+        int synced = onDb(() -> {
+            int count = 0;
+            for (StepRecord record : database.stepRecordDao()
+                    .getStepRecordsByDateRange(USER_ID, END_DATE.minusDays(records), END_DATE)) {
+                if (record.getSyncStatus() == 1) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        REPORT.add("steps", scenario.name, records, synced, backend.stats("steps"), wallMillis);
+    }
+    
+    private void syncWeight(ScriptedSyncBackend.Scenario scenario, WeightRepository repository) throws Exception {
+        // 约85%的天数有体重记录，多生成一些再取最近的N条
+        List<WeightRecord> generated = generator().weightRecords(USER_ID, records * 2);
+        List<WeightRecord> seed = new ArrayList<>(generated.subList(generated.size() - records, generated.size()));
+        for (WeightRecord record : seed) {
+            record.setRemoteId(null);
+            record.setSyncStatus(0);
+        }
+        reset(scenario);
+        onDb(() -> {
+            database.runInTransaction(() -> {
+                for (WeightRecord record : seed) {
+                    database.weightRecordDao().insert(record);
+                }
+            });
+            return null;
+        });
+        
+        long start = System.nanoTime();
+        LiveData<Resource<Boolean>> result = repository.syncData(USER_ID);
+        awaitResource("weights", result);
+        long wallMillis = elapsedMillis(start);
+        
+        int synced = onDb(() -> database.weightRecordDao().getByUserIdAndSyncStatus(USER_ID, 1).size());
+        REPORT.add("weights", scenario.name, records, synced, backend.stats("weights"), wallMillis);
+    }
+    
+    private void syncDiets(ScriptedSyncBackend.Scenario scenario, DietRepository repository) throws Exception {
+        List<Diet> generated = generator().diets(USER_ID, records / 3 + 1);
+        List<Diet> seed = new ArrayList<>(generated.subList(generated.size() - records, generated.size()));
+        for (Diet diet : seed) {
+            diet.setRemoteId(null);
+            diet.setSyncStatus(0);
+        }
+        reset(scenario);
+        onDb(() -> {
+            database.runInTransaction(() -> {
+                for (Diet diet : seed) {
+                    database.dietDao().insert(diet);
+                }
+            });
+            return null;
+        });
+        
+        // 饮食同步是发出请求后即返回，以服务端收到全部请求、且本地未同步条数等于失败请求数作为完成条件
+        ScriptedSyncBackend.Stats stats = backend.stats("diets");
+        long start = System.nanoTime();
+        repository.syncUnsyncedData();
+        await("diets", () -> stats.requests.get() >= seed.size()
+                && unsyncedDiets() == stats.failures.get());
+        long wallMillis = elapsedMillis(start);
+        
+        REPORT.add("diets", scenario.name, records, records - unsyncedDiets(), stats, wallMillis);
+    }
+    
+    private void reset(ScriptedSyncBackend.Scenario scenario) throws Exception {
+        backend.reset(scenario, 42L);
+        onDb(() -> {
+            database.clearAllTables();
+            database.userDao().upsertUser(generator().user(USER_ID));
+            return null;
+        });
+    }
+    
+    private List<ScriptedSyncBackend.Scenario> selectedScenarios() {
+        String names = System.getProperty("sync.perf.scenarios");
+        if (names == null || names.isEmpty()) {
+            return SCENARIOS;
+        }
+        List<String> wanted = Arrays.asList(names.split(","));
+        List<ScriptedSyncBackend.Scenario> selected = new ArrayList<>();
+        for (ScriptedSyncBackend.Scenario scenario : SCENARIOS) {
+            if (wanted.contains(scenario.name)) {
+                selected.add(scenario);
+            }
+        }
+        assertEquals("未知的网络场景: " + names, wanted.size(), selected.size());
+        return selected;
+    }
+    
+    private static SyntheticDataGenerator generator() {
+        return new SyntheticDataGenerator(42L, END_DATE);
+    }
+    
+    private int unsyncedSteps() {
+        try {
+            return onDb(() -> database.stepRecordDao().getUnsyncedStepRecords().size());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private int unsyncedDiets() {
+        try {
+            return onDb(() -> database.dietDao().getUnsyncedDiets().size());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    // Room禁止在主线程访问数据库，而Robolectric的测试线程就是主线程
+    private <T> T onDb(Callable<T> task) throws Exception {
+        return dbExecutor.submit(task).get();
+    }
+    
+    private void awaitResource(String domain, LiveData<Resource<Boolean>> result) throws InterruptedException {
+        await(domain, () -> result.getValue() != null
+                && result.getValue().getStatus() != Resource.Status.LOADING);
+    }
+    
+    // 轮询等待完成，期间不断执行主线程消息，让onPostExecute和LiveData回调得以运行
+    private static void await(String domain, BooleanSupplier done) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (true) {
+            shadowOf(Looper.getMainLooper()).idle();
+            if (done.getAsBoolean()) {
+                return;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                fail(domain + " 同步超时");
+            }
+            Thread.sleep(5);
+        }
+    }
+    
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
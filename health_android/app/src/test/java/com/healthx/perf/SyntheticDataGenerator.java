@@ -0,0 +1,187 @@
+package com.healthx.perf;
+
+import com.healthx.model.Diet;
+import com.healthx.model.SleepRecord;
+import com.healthx.model.StepRecord;
+import com.healthx.model.User;
+import com.healthx.model.WeightRecord;
+import com.healthx.util.BmiUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 性能测试用的合成数据生成器
+ * 按天为单个用户生成多年的步数、睡眠、体重记录，分布参考真实作息：
+ * 工作日与周末的步数和入睡时间不同，偶尔有休息日，体重按随机游走缓慢变化。
+ * 使用固定种子，保证每次运行生成的数据完全相同，结果可以跨版本比较。
+ */
+public class SyntheticDataGenerator {
+    
+    // 最近几天的记录保持未同步状态，模拟等待同步的数据
+    private static final int UNSYNCED_DAYS = 3;
+    private static final double HEIGHT_CM = 172.0;
+    
+    private final Random random;
+    private final LocalDate endDate;
+    private long nextRemoteId = 1;
+    
+    public SyntheticDataGenerator(long seed, LocalDate endDate) {
+        this.random = new Random(seed);
+        this.endDate = endDate;
+    }
+    
+    public User user(long userId) {
+        User user = new User(userId, "perf_user_" + userId, "perf" + userId + "@healthx.com",
+                "性能测试用户" + userId, null);
+        user.setHeight(HEIGHT_CM);
+        user.setWeight(70.0);
+        return user;
+    }
+    
+    /**
+     * 生成截止到endDate的连续days天步数记录，每天一条
+     */
+    public List<StepRecord> stepRecords(long userId, int days) {
+        List<StepRecord> records = new ArrayList<>(days);
+        for (int i = days - 1; i >= 0; i--) {
+            LocalDate date = endDate.minusDays(i);
+            boolean weekend = isWeekend(date);
+            int steps;
+            if (random.nextDouble() < 0.05) {
+                // 休息日，几乎不走动
+                steps = random.nextInt(1500);
+            } else {
+                double mean = weekend ? 6000 : 8000;
+                double sd = weekend ? 3500 : 2500;
+                steps = (int) Math.max(0, mean + random.nextGaussian() * sd);
+            }
+            
+            StepRecord record = new StepRecord();
+            record.setUserId(userId);
+            record.setStepCount(steps);
+            record.setDistance(BigDecimal.valueOf(steps * 0.7).setScale(2, RoundingMode.HALF_UP));
+            record.setCaloriesBurned(BigDecimal.valueOf(steps * 0.04).setScale(2, RoundingMode.HALF_UP));
+            record.setRecordDate(date);
+            record.setSource(random.nextDouble() < 0.8 ? "sensor" : "manual");
+            record.setCreatedAt(date.atTime(21, 0));
+            record.setUpdatedAt(date.atTime(23, 30));
+            markSync(record, i);
+            records.add(record);
+        }
+        return records;
+    }
+    
+    /**
+     * 生成截止到endDate的连续days天睡眠记录，入睡时间都落在当天，保证(userId, sleepDay)唯一
+     */
+    public List<SleepRecord> sleepRecords(long userId, int days) {
+        List<SleepRecord> records = new ArrayList<>(days);
+        for (int i = days - 1; i >= 0; i--) {
+            LocalDate date = endDate.minusDays(i);
+            
+            // 工作日21:30~23:30入睡，周末22:30~23:55
+            int startMinute = isWeekend(date)
+                    ? 22 * 60 + 30 + random.nextInt(85)
+                    : 21 * 60 + 30 + random.nextInt(120);
+            int durationMinutes = (int) Math.min(660, Math.max(240, 450 + random.nextGaussian() * 50));
+            
+            LocalDateTime start = date.atStartOfDay().plusMinutes(startMinute);
+            SleepRecord record = new SleepRecord(userId, start, start.plusMinutes(durationMinutes));
+            record.setCreatedAt(start.plusMinutes(durationMinutes + 15));
+            if (i >= UNSYNCED_DAYS) {
+                record.setRemoteId(nextRemoteId++);
+                record.setSyncStatus(1);
+            }
+            records.add(record);
+        }
+        return records;
+    }
+    
+    /**
+     * 生成截止到endDate的体重记录，约85%的天数有一次早晨测量
+     */
+    public List<WeightRecord> weightRecords(long userId, int days) {
+        List<WeightRecord> records = new ArrayList<>(days);
+        double weight = 72.0 + random.nextGaussian() * 5;
+        for (int i = days - 1; i >= 0; i--) {
+            weight = Math.min(120, Math.max(45, weight + random.nextGaussian() * 0.15));
+            if (random.nextDouble() >= 0.85) {
+                continue;
+            }
+            LocalDate date = endDate.minusDays(i);
+            long measurementTime = date.atTime(6, 30)
+                    .plusMinutes(random.nextInt(150))
+                    .atZone(ZoneId.systemDefault())
+                    .toInstant()
+                    .toEpochMilli();
+            float bmi = BmiUtils.calculateBMI((float) weight, (float) HEIGHT_CM);
+            
+            WeightRecord record = new WeightRecord();
+            record.setUserId(userId);
+            record.setWeight((float) weight);
+            record.setBmi(bmi);
+            record.setBmiStatus(BmiUtils.getBmiStatus(bmi));
+            if (random.nextDouble() < 0.4) {
+                record.setBodyFatPercentage((float) (18 + random.nextGaussian()));
+            }
+            record.setMeasurementTime(measurementTime);
+            record.setNote(random.nextDouble() < 0.1 ? "早餐前" : null);
+            record.setCreatedAt(measurementTime);
+            if (i >= UNSYNCED_DAYS) {
+                record.setRemoteId(nextRemoteId++);
+                record.setSyncStatus(1);
+            }
+            records.add(record);
+        }
+        return records;
+    }
+    
+    /**
+     * 生成截止到endDate的饮食记录，每天三餐，偶尔加一次零食
+     */
+    public List<Diet> diets(long userId, int days) {
+        String[] meals = {"早餐", "午餐", "晚餐"};
+        int[] hours = {7, 12, 18};
+        List<Diet> records = new ArrayList<>(days * 3);
+        for (int i = days - 1; i >= 0; i--) {
+            LocalDate date = endDate.minusDays(i);
+            for (int meal = 0; meal < meals.length + 1; meal++) {
+                boolean snack = meal == meals.length;
+                if (snack && random.nextDouble() >= 0.3) {
+                    continue;
+                }
+                double calories = snack ? 150 + random.nextInt(200) : 400 + random.nextGaussian() * 120;
+                Diet diet = new Diet(userId, snack ? "坚果" : "套餐" + (random.nextInt(40) + 1),
+                        Math.max(50, calories), calories * 0.04, calories * 0.13, calories * 0.03,
+                        snack ? "零食" : meals[meal],
+                        date.atTime(snack ? 15 : hours[meal], random.nextInt(60)));
+                if (i >= UNSYNCED_DAYS) {
+                    diet.setRemoteId(nextRemoteId++);
+                    diet.setSyncStatus(1);
+                }
+                records.add(diet);
+            }
+        }
+        return records;
+    }
+    
+    private void markSync(StepRecord record, int daysAgo) {
+        if (daysAgo >= UNSYNCED_DAYS) {
+            record.setRemoteId(nextRemoteId++);
+            record.setSyncStatus(1);
+        }
+    }
+    
+    private static boolean isWeekend(LocalDate date) {
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+    }
+}
@@ -0,0 +1,178 @@
+package com.healthx.repository;
+
+import android.app.Application;
+
+import com.healthx.model.StepRecord;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.Assert.*;
+
+/**
+ * 步数写回缓冲的单元测试：合并写入、日志恢复和上传窗口
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class, sdk = 34)
+public class StepWriteBufferTest {
+
+    private static final long USER_ID = 1;
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 15);
+    // 定时写入设得很长，测试中只通过flush写入
+    private static final long FLUSH_DELAY_MS = 60_000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<StepRecord> saved = new ArrayList<>();
+    private final List<LocalDate> synced = new ArrayList<>();
+    private ScheduledExecutorService executor;
+    private File journal;
+
+    private final StepWriteBuffer.Sink sink = new StepWriteBuffer.Sink() {
+        @Override
+        public void save(StepRecord record) {
+            saved.add(record);
+        }
+
+        @Override
+        public void sync(long userId, LocalDate date) {
+            synced.add(date);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        journal = new File(folder.getRoot(), "step_writes.journal");
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testUpdatesToSameDayAreCoalesced() throws Exception {
+        StepWriteBuffer buffer = new StepWriteBuffer(journal, sink, executor, FLUSH_DELAY_MS, 30_000L, 16);
+        for (int steps = 100; steps <= 5_000; steps += 100) {
+            buffer.put(record(DAY, steps), null);
+        }
+        drain();
+        assertEquals(5_000, buffer.peek(USER_ID, DAY).getStepCount());
+        assertTrue(journal.exists());
+
+        buffer.flush();
+        drain();
+
+        assertEquals(1, saved.size());
+        assertEquals(5_000, saved.get(0).getStepCount());
+        assertEquals(1, synced.size());
+        assertNull(buffer.peek(USER_ID, DAY));
+        assertFalse(journal.exists());
+    }
+
+    @Test
+    public void testReachingMaxPendingKeysFlushesImmediately() throws Exception {
+        StepWriteBuffer buffer = new StepWriteBuffer(journal, sink, executor, FLUSH_DELAY_MS, 30_000L, 3);
+        buffer.put(record(DAY, 10), null);
+        buffer.put(record(DAY.plusDays(1), 20), null);
+        drain();
+        assertEquals(0, saved.size());
+
+        buffer.put(record(DAY.plusDays(2), 30), null);
+        drain();
+        assertEquals(3, saved.size());
+    }
+
+    @Test
+    public void testPendingWritesAreRecoveredFromJournal() throws Exception {
+        // 上次进程在写入数据库前被杀，最后一行只写了一半
+        String lines = StepWriteBuffer.format(record(DAY, 1_000))
+                + StepWriteBuffer.format(record(DAY, 1_200))
+                + StepWriteBuffer.format(record(DAY.plusDays(1), 300))
+                + USER_ID + "," + DAY.plusDays(2).toEpochDay() + ",4";
+        try (OutputStream out = new FileOutputStream(journal)) {
+            out.write(lines.getBytes(StandardCharsets.UTF_8));
+        }
+
+        new StepWriteBuffer(journal, sink, executor, FLUSH_DELAY_MS, 30_000L, 16);
+        drain();
+
+        assertEquals(2, saved.size());
+        assertEquals(1_200, saved.get(0).getStepCount());
+        assertEquals(300, saved.get(1).getStepCount());
+        assertFalse(journal.exists());
+    }
+
+    @Test
+    public void testAtMostOneSyncPerDayWithinWindow() throws Exception {
+        StepWriteBuffer buffer = new StepWriteBuffer(journal, sink, executor, FLUSH_DELAY_MS, 300L, 16);
+        buffer.put(record(DAY, 100), null);
+        buffer.flush();
+        buffer.put(record(DAY, 200), null);
+        buffer.flush();
+        buffer.put(record(DAY, 300), null);
+        buffer.flush();
+        drain();
+
+        assertEquals(3, saved.size());
+        assertEquals(1, synced.size());
+
+        // 窗口结束后上传最后一次修改
+        Thread.sleep(500);
+        drain();
+        assertEquals(2, synced.size());
+    }
+
+    @Test
+    public void testRequestedSyncSharesWindowWithBufferedWrites() throws Exception {
+        StepWriteBuffer buffer = new StepWriteBuffer(journal, sink, executor, FLUSH_DELAY_MS, 300L, 16);
+        // 传感器每批写入数据库后请求上传，窗口内只上传一次
+        buffer.requestSync(USER_ID, DAY);
+        buffer.requestSync(USER_ID, DAY);
+        buffer.put(record(DAY, 100), null);
+        buffer.flush();
+        buffer.requestSync(USER_ID, DAY.plusDays(1));
+        drain();
+
+        assertEquals(1, saved.size());
+        assertEquals(2, synced.size());
+        assertEquals(DAY, synced.get(0));
+        assertEquals(DAY.plusDays(1), synced.get(1));
+
+        Thread.sleep(500);
+        drain();
+        assertEquals(3, synced.size());
+        assertEquals(DAY, synced.get(2));
+    }
+
+    private void drain() throws Exception {
+        executor.submit(() -> { }).get();
+    }
+
+    private static StepRecord record(LocalDate date, int steps) {
+        StepRecord record = new StepRecord();
+        record.setUserId(USER_ID);
+        record.setRecordDate(date);
+        record.setStepCount(steps);
+        record.setSource("手动录入");
+        return record;
+    }
+}
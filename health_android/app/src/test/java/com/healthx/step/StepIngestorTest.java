@@ -0,0 +1,121 @@
+package com.healthx.step;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * 计步管线的单元测试，使用合成步数来源
+ */
+public class StepIngestorTest {
+
+    private static final long BOOT = 1_736_900_000_000L;
+    private static final long MINUTE = StepIngestor.MINUTE_MILLIS;
+    private static final long HOUR_MS = 60 * MINUTE;
+
+    private static class RecordingSink implements StepIngestor.Sink {
+        final List<SortedMap<Long, Integer>> batches = new ArrayList<>();
+        long counter = -1;
+
+        @Override
+        public synchronized void write(SortedMap<Long, Integer> minuteSteps, long counter, long bootTimeMillis) {
+            batches.add(new TreeMap<>(minuteSteps));
+            this.counter = counter;
+        }
+
+        synchronized int total() {
+            int total = 0;
+            for (SortedMap<Long, Integer> batch : batches) {
+                for (int steps : batch.values()) {
+                    total += steps;
+                }
+            }
+            return total;
+        }
+    }
+
+    @Test
+    public void testBatchedEventsKeepTheirOwnMinute() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        StepIngestor ingestor = new StepIngestor(sink, HOUR_MS, 0, BOOT);
+        SyntheticStepSource source = new SyntheticStepSource(BOOT);
+        source.start(ingestor);
+
+        // 一次批量上报中包含三个不同分钟的事件
+        long start = (BOOT / MINUTE + 10) * MINUTE;
+        source.walk(start + 5_000, 30);
+        source.walk(start + 20_000, 40);
+        source.walk(start + MINUTE + 1_000, 50);
+        source.walk(start + 3 * MINUTE, 60);
+        ingestor.flushNow().get();
+
+        // 写入间隔为1小时，只有flushNow触发的一次写入
+        assertEquals(1, sink.batches.size());
+        SortedMap<Long, Integer> batch = sink.batches.get(0);
+        assertEquals(3, batch.size());
+        assertEquals(Integer.valueOf(70), batch.get(start));
+        assertEquals(Integer.valueOf(50), batch.get(start + MINUTE));
+        assertEquals(Integer.valueOf(60), batch.get(start + 3 * MINUTE));
+        assertEquals(180, sink.counter);
+    }
+
+    @Test
+    public void testCounterResetCountsStepsAfterReboot() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        StepIngestor ingestor = new StepIngestor(sink, HOUR_MS, 0, BOOT);
+        SyntheticStepSource source = new SyntheticStepSource(BOOT);
+        source.start(ingestor);
+
+        source.walk(BOOT + MINUTE, 500);
+        // 重启后计数器从0开始，开机时间变化
+        long newBoot = BOOT + 2 * HOUR_MS;
+        source.reboot(newBoot);
+        source.walk(newBoot + MINUTE, 120);
+        source.walk(newBoot + 2 * MINUTE, 80);
+        ingestor.flushNow().get();
+
+        assertEquals(700, sink.total());
+        assertEquals(200, sink.counter);
+    }
+
+    @Test
+    public void testFirstEventWithoutBaselineOnlySetsBaseline() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        StepIngestor ingestor = new StepIngestor(sink, HOUR_MS, -1, 0);
+
+        // 开机以来的累计值不属于本次采集
+        ingestor.onStepCounter(BOOT + HOUR_MS, 12_000, BOOT);
+        ingestor.onStepCounter(BOOT + HOUR_MS + MINUTE, 12_025, BOOT);
+        ingestor.flushNow().get();
+
+        assertEquals(25, sink.total());
+        assertEquals(12_025, sink.counter);
+    }
+
+    @Test
+    public void testFailedWriteIsRetried() throws Exception {
+        RecordingSink delegate = new RecordingSink();
+        boolean[] failNext = {true};
+        StepIngestor ingestor = new StepIngestor((minuteSteps, counter, bootTime) -> {
+            if (failNext[0]) {
+                failNext[0] = false;
+                throw new IllegalStateException("数据库不可用");
+            }
+            delegate.write(minuteSteps, counter, bootTime);
+        }, HOUR_MS, 0, BOOT);
+
+        ingestor.onStepCounter(BOOT + MINUTE, 40, BOOT);
+        ingestor.flushNow().get();
+        assertEquals(0, delegate.total());
+
+        ingestor.onStepCounter(BOOT + 2 * MINUTE, 50, BOOT);
+        ingestor.flushNow().get();
+        assertEquals(50, delegate.total());
+        assertEquals(2, delegate.batches.get(0).size());
+    }
+}
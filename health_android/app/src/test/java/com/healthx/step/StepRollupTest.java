@@ -0,0 +1,60 @@
+package com.healthx.step;
+
+import com.healthx.database.converter.DateTimeConverter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SortedMap;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * 分钟步数逐级汇总的单元测试
+ */
+public class StepRollupTest {
+
+    private TimeZone originalZone;
+
+    @Before
+    public void setUp() {
+        originalZone = TimeZone.getDefault();
+        // 半小时时区，本地整点不是UTC整点
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+        DateTimeConverter.onTimeZoneChanged();
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(originalZone);
+        DateTimeConverter.onTimeZoneChanged();
+    }
+
+    @Test
+    public void testRollupUsesLocalHoursAndDays() {
+        SortedMap<Long, Integer> minutes = new TreeMap<>();
+        minutes.put(millis(2025, 1, 15, 23, 0), 10);
+        minutes.put(millis(2025, 1, 15, 23, 59), 20);
+        minutes.put(millis(2025, 1, 16, 0, 0), 30);
+        minutes.put(millis(2025, 1, 16, 0, 30), 40);
+
+        StepRollup rollup = new StepRollup(minutes);
+
+        assertEquals(4, rollup.getMinutes().size());
+        assertEquals(2, rollup.getHours().size());
+        assertEquals(Integer.valueOf(30), rollup.getHours().get(millis(2025, 1, 15, 23, 0)));
+        assertEquals(Integer.valueOf(70), rollup.getHours().get(millis(2025, 1, 16, 0, 0)));
+        assertEquals(2, rollup.getDays().size());
+        assertEquals(Integer.valueOf(30), rollup.getDays().get(LocalDate.of(2025, 1, 15)));
+        assertEquals(Integer.valueOf(70), rollup.getDays().get(LocalDate.of(2025, 1, 16)));
+    }
+
+    private static long millis(int year, int month, int day, int hour, int minute) {
+        return DateTimeConverter.toEpochMilli(LocalDateTime.of(year, month, day, hour, minute));
+    }
+}
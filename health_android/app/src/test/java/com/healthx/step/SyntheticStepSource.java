@@ -0,0 +1,50 @@
+package com.healthx.step;
+
+/**
+ * 合成步数来源，用于单元测试
+ * 由调用方推送步数，可以模拟批量上报（连续推送多个较早时间的事件）和开机后计数器归零。
+ */
+public class SyntheticStepSource implements StepSource {
+
+    private volatile Listener listener;
+    private long bootTimeMillis;
+    private long counter;
+
+    public SyntheticStepSource(long bootTimeMillis) {
+        this.bootTimeMillis = bootTimeMillis;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public void start(Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void stop() {
+        listener = null;
+    }
+
+    /**
+     * 在指定时间走了若干步，计数器累加后上报
+     */
+    public synchronized void walk(long timestampMillis, int steps) {
+        counter += steps;
+        Listener current = listener;
+        if (current != null) {
+            current.onStepCounter(timestampMillis, counter, bootTimeMillis);
+        }
+    }
+
+    /**
+     * 模拟重启，计数器从0重新开始
+     */
+    public synchronized void reboot(long bootTimeMillis) {
+        this.bootTimeMillis = bootTimeMillis;
+        this.counter = 0;
+    }
+}
@@ -1,12 +1,13 @@
 package com.healthx.util;
 
 import org.junit.Test;
-import org.threeten.bp.LocalDate;
-import org.threeten.bp.LocalDateTime;
-import org.threeten.bp.LocalTime;
 
 import static org.junit.Assert.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
 /**
  * 日期时间工具类的单元测试
  */
@@ -104,6 +105,18 @@ public class DateTimeUtilsTest {
         assertEquals(123000000, result9.getNano()); // 应该只保留前3位毫秒
     }
 
+    @Test
+    public void testTimestampIsoStringRoundTrip() {
+        // 与后端交互的时间戳按UTC换算，且不带毫秒
+        assertEquals("2025-01-15T14:30:45", DateTimeUtils.timestampToIsoString(1736951445123L));
+        assertEquals(1736951445000L, DateTimeUtils.isoStringToTimestamp("2025-01-15T14:30:45"));
+        assertEquals(1736951445123L, DateTimeUtils.isoStringToTimestamp("2025-01-15T14:30:45.123"));
+        assertEquals(1736951445000L, DateTimeUtils.isoStringToTimestamp("2025-01-15 14:30:45"));
+        assertEquals(1736899200000L, DateTimeUtils.isoStringToTimestamp("2025-01-15"));
+        assertNull(DateTimeUtils.timestampToIsoString(0));
+        assertEquals(0, DateTimeUtils.isoStringToTimestamp(""));
+    }
+
     @Test
     public void testParseInvalidDateTime() {
         // 测试无效格式
@@ -0,0 +1,49 @@
+package com.healthx.benchmark;
+
+import com.healthx.util.BmiUtils;
+import com.healthx.util.ExerciseConstants;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 卡路里与BMI计算的基准测试
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CalculationBenchmark {
+    
+    public String exerciseName = "高强度间歇训练";
+    public String intensity = "高强度";
+    public float weight = 68.5f;
+    public float height = 172f;
+    public Double weightBoxed = 68.5;
+    public Double heightBoxed = 172.0;
+    
+    @Benchmark
+    public double calculateCaloriesBurned() {
+        return ExerciseConstants.calculateCaloriesBurned(exerciseName, 45, intensity);
+    }
+    
+    @Benchmark
+    public float calculateBmi() {
+        return BmiUtils.calculateBMI(weight, height);
+    }
+    
+    @Benchmark
+    public float calculateBmiBoxed() {
+        return BmiUtils.calculateBMI(weightBoxed, heightBoxed);
+    }
+    
+    @Benchmark
+    public String getBmiStatus() {
+        return BmiUtils.getBmiStatus(BmiUtils.calculateBMI(weight, height));
+    }
+}
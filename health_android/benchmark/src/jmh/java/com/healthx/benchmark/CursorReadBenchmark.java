@@ -0,0 +1,119 @@
+package com.healthx.benchmark;
+
+import com.healthx.database.converter.DateTimeConverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模拟Room从游标读取5万行睡眠记录时的日期列转换
+ * 每行4个日期列（startTime、endTime、createdAt、updatedAt），分数为每行耗时。
+ * legacy*为改造前的实现（每次调用ZoneId.systemDefault()并创建Instant/ZonedDateTime），用于对比；
+ * 加上 -Pjmh.includes=CursorRead 并在jmh配置中开启 -prof gc 可以看到每行分配的字节数。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CursorReadBenchmark {
+
+    private static final int ROWS = 50_000;
+    private static final int COLUMNS = 4;
+
+    @Param({"Asia/Shanghai", "America/New_York", "UTC"})
+    public String zone;
+
+    private TimeZone originalZone;
+    private long[] cursor;
+    private LocalDateTime[] values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        originalZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone(zone));
+        DateTimeConverter.onTimeZoneChanged();
+
+        // 最近两年的记录，跨越多个夏令时切换
+        Random random = new Random(42);
+        long end = 1736951445000L;
+        long span = 2L * 365 * 24 * 60 * 60 * 1000;
+        cursor = new long[ROWS * COLUMNS];
+        values = new LocalDateTime[ROWS * COLUMNS];
+        for (int row = 0; row < ROWS; row++) {
+            long start = end - (long) (random.nextDouble() * span);
+            long sleepEnd = start + (6 + random.nextInt(4)) * 3_600_000L;
+            int base = row * COLUMNS;
+            cursor[base] = start;
+            cursor[base + 1] = sleepEnd;
+            cursor[base + 2] = sleepEnd + 900_000L;
+            cursor[base + 3] = sleepEnd + 900_000L;
+        }
+        for (int i = 0; i < cursor.length; i++) {
+            values[i] = DateTimeConverter.fromTimestamp(cursor[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        TimeZone.setDefault(originalZone);
+        DateTimeConverter.onTimeZoneChanged();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void readRows(Blackhole blackhole) {
+        for (int i = 0; i < cursor.length; i++) {
+            blackhole.consume(DateTimeConverter.fromTimestamp(cursor[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void legacyReadRows(Blackhole blackhole) {
+        for (int i = 0; i < cursor.length; i++) {
+            blackhole.consume(legacyFromTimestamp(cursor[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void writeRows(Blackhole blackhole) {
+        for (int i = 0; i < values.length; i++) {
+            blackhole.consume(DateTimeConverter.dateTimeToTimestamp(values[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void legacyWriteRows(Blackhole blackhole) {
+        for (int i = 0; i < values.length; i++) {
+            blackhole.consume(legacyDateTimeToTimestamp(values[i]));
+        }
+    }
+
+    private static LocalDateTime legacyFromTimestamp(Long timestamp) {
+        return timestamp == null ? null :
+               LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+    }
+
+    private static Long legacyDateTimeToTimestamp(LocalDateTime dateTime) {
+        return dateTime == null ? null :
+               dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
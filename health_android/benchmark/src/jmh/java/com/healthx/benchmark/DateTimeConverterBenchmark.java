@@ -0,0 +1,48 @@
+package com.healthx.benchmark;
+
+import com.healthx.database.converter.DateTimeConverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Room类型转换器的基准测试，每读写一行记录的每个日期列都会调用一次
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class DateTimeConverterBenchmark {
+    
+    private final long timestamp = 1736951445000L;
+    private final LocalDateTime dateTime = LocalDateTime.of(2025, 1, 15, 14, 30, 45);
+    private final long epochDay = 20103L;
+    private final LocalDate date = LocalDate.of(2025, 1, 15);
+    
+    @Benchmark
+    public LocalDateTime fromTimestamp() {
+        return DateTimeConverter.fromTimestamp(timestamp);
+    }
+    
+    @Benchmark
+    public Long dateTimeToTimestamp() {
+        return DateTimeConverter.dateTimeToTimestamp(dateTime);
+    }
+    
+    @Benchmark
+    public LocalDate fromEpochDay() {
+        return DateTimeConverter.fromEpochDay(epochDay);
+    }
+    
+    @Benchmark
+    public Long dateToEpochDay() {
+        return DateTimeConverter.dateToEpochDay(date);
+    }
+}
@@ -0,0 +1,72 @@
+package com.healthx.benchmark;
+
+import com.healthx.util.DateTimeUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DateTimeUtils解析与格式化的基准测试
+ * 服务器返回的每个日期字段都会经过parseFlexibleDateTime，不同格式走不同的回退分支
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class DateTimeUtilsBenchmark {
+    
+    // 服务器实际出现过的日期时间格式
+    @State(Scope.Thread)
+    public static class FlexibleInput {
+        @Param({
+                "2025-05-04T15:02:36",
+                "2025-05-03T20:44:11.094",
+                "2025-05-03T20:44:11.12345",
+                "2025-01-15 14:30:45",
+                "2025-01-15 14:30",
+                "2025-01-15"
+        })
+        public String value;
+    }
+    
+    private final LocalDateTime dateTime = LocalDateTime.of(2025, 1, 15, 14, 30, 45);
+    private final LocalDate date = LocalDate.of(2025, 1, 15);
+    
+    @Benchmark
+    public LocalDateTime parseFlexibleDateTime(FlexibleInput input) {
+        return DateTimeUtils.parseFlexibleDateTime(input.value);
+    }
+    
+    @Benchmark
+    public String formatDateTimeForApi() {
+        return DateTimeUtils.formatDateTimeForApi(dateTime);
+    }
+    
+    @Benchmark
+    public String formatDateTime() {
+        return DateTimeUtils.formatDateTime(dateTime);
+    }
+    
+    @Benchmark
+    public String formatDate() {
+        return DateTimeUtils.formatDate(date);
+    }
+    
+    @Benchmark
+    public LocalDate parseDate() {
+        return DateTimeUtils.parseDate("2025-01-15");
+    }
+    
+    @Benchmark
+    public String timestampToIsoString() {
+        return DateTimeUtils.timestampToIsoString(1736951445000L);
+    }
+}
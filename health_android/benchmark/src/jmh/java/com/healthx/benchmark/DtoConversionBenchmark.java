@@ -0,0 +1,72 @@
+package com.healthx.benchmark;
+
+import com.healthx.model.SleepRecord;
+import com.healthx.model.SleepRecordDTO;
+import com.healthx.model.StepRecord;
+import com.healthx.model.dto.StepRecordDTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO与实体互相转换的基准测试，同步和刷新时每条记录都会转换一次
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class DtoConversionBenchmark {
+    
+    private SleepRecord sleepRecord;
+    private SleepRecordDTO sleepRecordDTO;
+    private StepRecord stepRecord;
+    private StepRecordDTO stepRecordDTO;
+    
+    @Setup
+    public void setUp() {
+        sleepRecord = new SleepRecord(1L,
+                LocalDateTime.of(2025, 1, 14, 23, 10),
+                LocalDateTime.of(2025, 1, 15, 7, 5));
+        sleepRecord.setRemoteId(1024L);
+        sleepRecordDTO = new SleepRecordDTO(sleepRecord);
+        
+        stepRecord = new StepRecord();
+        stepRecord.setUserId(1L);
+        stepRecord.setStepCount(8642);
+        stepRecord.setDistance(new BigDecimal("6.05"));
+        stepRecord.setCaloriesBurned(new BigDecimal("345.68"));
+        stepRecord.setRecordDate(LocalDate.of(2025, 1, 15));
+        stepRecord.setSource("manual");
+        stepRecord.setRemoteId(2048L);
+        stepRecordDTO = new StepRecordDTO(stepRecord);
+    }
+    
+    @Benchmark
+    public SleepRecord sleepDtoToEntity() {
+        return sleepRecordDTO.toEntity();
+    }
+    
+    @Benchmark
+    public SleepRecordDTO sleepEntityToDto() {
+        return new SleepRecordDTO(sleepRecord);
+    }
+    
+    @Benchmark
+    public StepRecordDTO stepEntityToDto() {
+        return new StepRecordDTO(stepRecord);
+    }
+    
+    @Benchmark
+    public StepRecord stepDtoToEntity() {
+        return stepRecordDTO.toEntity();
+    }
+}
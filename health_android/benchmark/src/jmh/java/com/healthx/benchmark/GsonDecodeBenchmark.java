@@ -0,0 +1,97 @@
+package com.healthx.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.healthx.model.SleepRecordDTO;
+import com.healthx.model.dto.WeightRecordDTO;
+import com.healthx.network.ApiResponse;
+import com.healthx.network.GsonFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 使用与RetrofitClient相同的Gson配置解码服务器响应的基准测试
+ * 响应体按后端实际返回的格式构造，条数对应一周、一个月和一年的记录
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class GsonDecodeBenchmark {
+    
+    private static final Type SLEEP_LIST_TYPE = new TypeToken<List<SleepRecordDTO>>() {}.getType();
+    private static final Type WEIGHT_RESPONSE_TYPE = new TypeToken<ApiResponse<List<WeightRecordDTO>>>() {}.getType();
+    
+    @Param({"7", "30", "365"})
+    public int records;
+    
+    private Gson gson;
+    private String sleepJson;
+    private String weightJson;
+    
+    @Setup
+    public void setUp() {
+        gson = GsonFactory.create();
+        sleepJson = buildSleepPayload(records);
+        weightJson = buildWeightPayload(records);
+    }
+    
+    @Benchmark
+    public List<SleepRecordDTO> decodeSleepRecords() {
+        return gson.fromJson(sleepJson, SLEEP_LIST_TYPE);
+    }
+    
+    @Benchmark
+    public ApiResponse<List<WeightRecordDTO>> decodeWeightRecords() {
+        return gson.fromJson(weightJson, WEIGHT_RESPONSE_TYPE);
+    }
+    
+    // 睡眠接口直接返回数组，时间字段带非定长毫秒
+    private static String buildSleepPayload(int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            int day = i % 28 + 1;
+            int month = i / 28 % 12 + 1;
+            sb.append(String.format(Locale.ROOT,
+                    "{\"id\":%d,\"userId\":1,\"startTime\":\"2024-%02d-%02dT23:%02d:11.094\"," +
+                    "\"endTime\":\"2024-%02d-%02dT07:%02d:36\",\"duration\":%d," +
+                    "\"createdAt\":\"2024-%02d-%02dT07:30:00.1\"}",
+                    1000 + i, month, day, i % 60, month, day, (i * 7) % 60, 420 + i % 90, month, day));
+        }
+        return sb.append(']').toString();
+    }
+    
+    // 体重接口使用ApiResponse包装，时间字段为字符串
+    private static String buildWeightPayload(int count) {
+        StringBuilder sb = new StringBuilder("{\"success\":true,\"message\":\"操作成功\",\"data\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            int day = i % 28 + 1;
+            int month = i / 28 % 12 + 1;
+            sb.append(String.format(Locale.ROOT,
+                    "{\"id\":%d,\"userId\":1,\"weight\":%.1f,\"bmi\":%.2f,\"bmiStatus\":\"正常\"," +
+                    "\"bodyFatPercentage\":%.1f,\"measurementTime\":\"2024-%02d-%02dT08:00:00.000\"," +
+                    "\"note\":\"早餐前\",\"createdAt\":\"2024-%02d-%02dT08:00:05.123\"," +
+                    "\"updatedAt\":\"2024-%02d-%02dT08:00:05.123\"}",
+                    2000 + i, 68.0 + (i % 10) * 0.1, 22.9 + (i % 10) * 0.03, 18.0 + (i % 5) * 0.2,
+                    month, day, month, day, month, day));
+        }
+        return sb.append("]}").toString();
+    }
+}
@@ -0,0 +1,117 @@
+package com.healthx.benchmark;
+
+import android.os.Parcel;
+
+import com.healthx.model.Diet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 编辑对话框在界面重建时保存和恢复参数的开销
+ * legacySerializable为改造前把整个Serializable实体放进Bundle（Java序列化写入再读出），
+ * parcelable为实体实现Parcelable后的读写，recordId为现在对话框参数中只保存的记录ID。
+ * Parcel使用benchmark模块中的JVM替身，比较的是相对开销。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class StateSaveBenchmark {
+
+    private Diet diet;
+    private LegacyDiet legacyDiet;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime eatenAt = LocalDateTime.of(2025, 1, 15, 12, 30);
+        diet = new Diet(1L, "番茄炒蛋盖饭", 650.0, 22.5, 85.0, 21.0, "LUNCH", eatenAt);
+        diet.setId(4096L);
+        diet.setRemoteId(1024L);
+        diet.setSyncStatus(1);
+        legacyDiet = new LegacyDiet(diet);
+    }
+
+    @Benchmark
+    public Object legacySerializable() throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(legacyDiet);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public Diet parcelable() {
+        Parcel parcel = Parcel.obtain();
+        try {
+            diet.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            return Diet.CREATOR.createFromParcel(parcel);
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    @Benchmark
+    public long recordId() {
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeLong(diet.getId());
+            parcel.setDataPosition(0);
+            return parcel.readLong();
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    /**
+     * 改造前的Diet：字段相同，实现Serializable
+     */
+    private static class LegacyDiet implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private final long id;
+        private final long userId;
+        private final String foodName;
+        private final double calories;
+        private final double protein;
+        private final double carbs;
+        private final double fat;
+        private final String mealType;
+        private final LocalDateTime eatenAt;
+        private final LocalDateTime createdAt;
+        private final Long remoteId;
+        private final int syncStatus;
+
+        LegacyDiet(Diet diet) {
+            id = diet.getId();
+            userId = diet.getUserId();
+            foodName = diet.getFoodName();
+            calories = diet.getCalories();
+            protein = diet.getProtein();
+            carbs = diet.getCarbs();
+            fat = diet.getFat();
+            mealType = diet.getMealType();
+            eatenAt = diet.getEatenAt();
+            createdAt = diet.getCreatedAt();
+            remoteId = diet.getRemoteId();
+            syncStatus = diet.getSyncStatus();
+        }
+    }
+}
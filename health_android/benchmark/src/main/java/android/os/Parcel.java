@@ -0,0 +1,136 @@
+package android.os;
+
+import java.util.Arrays;
+
+/**
+ * JVM基准测试用的android.os.Parcel替身
+ * 与框架实现一样把基本类型顺序写入一块连续缓冲区（小端、4字节对齐），字符串按UTF-16写入，
+ * 用于在JVM上比较Parcelable与Java序列化的相对开销，绝对数值与设备上的原生实现不同。
+ */
+public final class Parcel {
+
+    private byte[] data = new byte[256];
+    private int size;
+    private int position;
+
+    private Parcel() {
+    }
+
+    public static Parcel obtain() {
+        return new Parcel();
+    }
+
+    public void recycle() {
+        size = 0;
+        position = 0;
+    }
+
+    public int dataSize() {
+        return size;
+    }
+
+    public void setDataPosition(int pos) {
+        position = pos;
+    }
+
+    public byte[] marshall() {
+        return Arrays.copyOf(data, size);
+    }
+
+    public void unmarshall(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, data, 0, length);
+        size = length;
+        position = 0;
+    }
+
+    public void writeByte(byte val) {
+        writeInt(val);
+    }
+
+    public byte readByte() {
+        return (byte) readInt();
+    }
+
+    public void writeInt(int val) {
+        ensureCapacity(position + 4);
+        data[position] = (byte) val;
+        data[position + 1] = (byte) (val >>> 8);
+        data[position + 2] = (byte) (val >>> 16);
+        data[position + 3] = (byte) (val >>> 24);
+        advance(4);
+    }
+
+    public int readInt() {
+        int val = (data[position] & 0xff)
+                | (data[position + 1] & 0xff) << 8
+                | (data[position + 2] & 0xff) << 16
+                | (data[position + 3] & 0xff) << 24;
+        position += 4;
+        return val;
+    }
+
+    public void writeLong(long val) {
+        writeInt((int) val);
+        writeInt((int) (val >>> 32));
+    }
+
+    public long readLong() {
+        long low = readInt() & 0xffffffffL;
+        long high = readInt() & 0xffffffffL;
+        return high << 32 | low;
+    }
+
+    public void writeDouble(double val) {
+        writeLong(Double.doubleToRawLongBits(val));
+    }
+
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    public void writeString(String val) {
+        if (val == null) {
+            writeInt(-1);
+            return;
+        }
+        int length = val.length();
+        writeInt(length);
+        int bytes = (length + 1) * 2;
+        ensureCapacity(position + bytes + 3);
+        for (int i = 0; i < length; i++) {
+            char c = val.charAt(i);
+            data[position + i * 2] = (byte) c;
+            data[position + i * 2 + 1] = (byte) (c >>> 8);
+        }
+        data[position + length * 2] = 0;
+        data[position + length * 2 + 1] = 0;
+        advance((bytes + 3) & ~3);
+    }
+
+    public String readString() {
+        int length = readInt();
+        if (length < 0) {
+            return null;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ((data[position + i * 2] & 0xff) | (data[position + i * 2 + 1] & 0xff) << 8);
+        }
+        position += ((length + 1) * 2 + 3) & ~3;
+        return new String(chars);
+    }
+
+    private void advance(int bytes) {
+        position += bytes;
+        if (position > size) {
+            size = position;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > data.length) {
+            data = Arrays.copyOf(data, Math.max(capacity, data.length * 2));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package android.os;
+
+/**
+ * JVM基准测试用的android.os.Parcelable替身，接口与框架一致
+ */
+public interface Parcelable {
+
+    int describeContents();
+
+    void writeToParcel(Parcel dest, int flags);
+
+    interface Creator<T> {
+        T createFromParcel(Parcel source);
+
+        T[] newArray(int size);
+    }
+}
@@ -0,0 +1,34 @@
+package android.util;
+
+/**
+ * JVM基准测试用的android.util.Log替身，app中被测类的日志输出在这里直接丢弃
+ */
+public final class Log {
+    
+    private Log() {
+    }
+    
+    public static int d(String tag, String msg) {
+        return 0;
+    }
+    
+    public static int i(String tag, String msg) {
+        return 0;
+    }
+    
+    public static int w(String tag, String msg) {
+        return 0;
+    }
+    
+    public static int w(String tag, String msg, Throwable tr) {
+        return 0;
+    }
+    
+    public static int e(String tag, String msg) {
+        return 0;
+    }
+    
+    public static int e(String tag, String msg, Throwable tr) {
+        return 0;
+    }
+}
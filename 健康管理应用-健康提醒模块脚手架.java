@@ -1,6 +1,6 @@
 /**
  * 健康提醒/任务模块脚手架
- * 包含：实体类、DTO、Repository、Service、Controller
+ * 包含：实体类、DTO、Repository、Service、缓存、提醒调度、Controller、测试
  */
 
 /****************************
@@ -16,12 +16,24 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "health_reminders")
+@Table(name = "health_reminders", indexes = {
+        // 按用户查询某天、未来、过期的提醒：用户等值加提醒时间范围；按天查询不限完成状态，完成状态放在范围列之后，只在索引中过滤
+        @Index(name = "idx_health_reminders_user_time", columnList = "user_id, reminder_time, is_completed"),
+        // 按(提醒时间, ID)游标分页列出用户的全部提醒
+        @Index(name = "idx_health_reminders_user_list", columnList = "user_id, reminder_time, id"),
+        // 按用户和提醒类型筛选
+        @Index(name = "idx_health_reminders_user_type", columnList = "user_id, reminder_type"),
+        // 提醒调度按下一次提醒时间跨用户扫描未完成的提醒
+        @Index(name = "idx_health_reminders_due", columnList = "is_completed, next_occurrence_time")
+})
 public class HealthReminder {
     
     @Id
@@ -32,8 +44,9 @@ public class HealthReminder {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
+    // 以ReminderType.code保存，见ReminderTypeConverter
     @Column(name = "reminder_type", nullable = false)
-    private String reminderType;
+    private ReminderType reminderType;
     
     @Column(nullable = false)
     private String title;
@@ -47,36 +60,67 @@ public class HealthReminder {
     @Column(name = "is_repeating", nullable = false)
     private Boolean isRepeating = false;
     
+    // 重复规则：频率为repeatPattern，每repeatInterval个周期一次，到repeatUntil为止（含）；
+    // 重复提醒只保存这一行，每次的提醒时间按需计算，只有完成和跳过的那一次在health_reminder_occurrences中有记录
     @Column(name = "repeat_pattern")
     private String repeatPattern;
     
+    @Column(name = "repeat_interval", nullable = false)
+    private Integer repeatInterval = 1;
+    
+    @Column(name = "repeat_until")
+    private LocalDateTime repeatUntil;
+    
+    // 下一次需要发送的提醒时间；一次性提醒等于reminderTime，重复提醒在每次发送后由调度推进
+    @Column(name = "next_occurrence_time")
+    private LocalDateTime nextOccurrenceTime;
+    
     @Column(name = "is_completed", nullable = false)
     private Boolean isCompleted = false;
     
+    // 过期太久仍未完成的一次性提醒、已经结束的重复提醒由OverdueReminderSweeper标记为过期，不再出现在过期列表中
+    @Column(name = "is_expired", nullable = false)
+    private Boolean isExpired = false;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
-    // 提醒类型枚举
+    // 提醒类型枚举，code是数据库中保存的值，已有的code不能修改
     public enum ReminderType {
-        MEDICATION("服药提醒"),
-        EXERCISE("运动提醒"),
-        MEAL("进餐提醒"),
-        MEASUREMENT("测量提醒"),
-        APPOINTMENT("预约提醒"),
-        CUSTOM("自定义提醒");
+        MEDICATION(1, "服药提醒"),
+        EXERCISE(2, "运动提醒"),
+        MEAL(3, "进餐提醒"),
+        MEASUREMENT(4, "测量提醒"),
+        APPOINTMENT(5, "预约提醒"),
+        CUSTOM(6, "自定义提醒");
         
+        private final short code;
         private final String displayName;
         
-        ReminderType(String displayName) {
+        ReminderType(int code, String displayName) {
+            this.code = (short) code;
             this.displayName = displayName;
         }
         
+        public short getCode() {
+            return code;
+        }
+        
         public String getDisplayName() {
             return displayName;
         }
+        
+        public static ReminderType fromCode(short code) {
+            for (ReminderType type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown reminder type code: " + code);
+        }
     }
     
     // 重复模式枚举
@@ -98,7 +142,7 @@ public class HealthReminder {
     }
     
     // 构造函数
-    public HealthReminder(User user, String reminderType, String title, String description,
+    public HealthReminder(User user, ReminderType reminderType, String title, String description,
                          LocalDateTime reminderTime, Boolean isRepeating, String repeatPattern) {
         this.user = user;
         this.reminderType = reminderType;
@@ -107,48 +151,196 @@ public class HealthReminder {
         this.reminderTime = reminderTime;
         this.isRepeating = isRepeating;
         this.repeatPattern = repeatPattern;
+        this.repeatInterval = 1;
+        this.nextOccurrenceTime = reminderTime;
         this.isCompleted = false;
+        this.isExpired = false;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
     
-    // 完成提醒
+    // 完成提醒；重复提醒只完成其中一次，不调用此方法
     public void complete() {
         this.isCompleted = true;
         this.updatedAt = LocalDateTime.now();
     }
     
-    // 生成下一次提醒（对于重复提醒）
-    public HealthReminder generateNextReminder() {
-        if (!this.isRepeating || this.repeatPattern == null) {
+    // 创建或修改规则后重新计算下一次提醒时间；一次性提醒即使已经过去也保留，由调度立即发送
+    public void resetNextOccurrence(LocalDateTime now) {
+        this.nextOccurrenceTime = isRecurring() ? nextOccurrenceAfter(now) : reminderTime;
+    }
+    
+    // 是否按规则重复
+    public boolean isRecurring() {
+        return repeatUnit() != null;
+    }
+    
+    /**
+     * 计算[from, to)内的所有提醒时间，按时间排序
+     * 第k次提醒时间为reminderTime加上k * repeatInterval个周期，按月重复时不会因为月末日期被截断而逐月漂移
+     */
+    public List<LocalDateTime> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        ChronoUnit unit = repeatUnit();
+        if (unit == null) {
+            if (!reminderTime.isBefore(from) && reminderTime.isBefore(to)) {
+                occurrences.add(reminderTime);
+            }
+            return occurrences;
+        }
+        for (long k = firstIndexNear(from, unit); ; k++) {
+            LocalDateTime occurrence = occurrenceAt(k, unit);
+            if (!occurrence.isBefore(to) || (repeatUntil != null && occurrence.isAfter(repeatUntil))) {
+                break;
+            }
+            if (!occurrence.isBefore(from)) {
+                occurrences.add(occurrence);
+            }
+        }
+        return occurrences;
+    }
+    
+    /**
+     * 严格晚于time的第一次提醒时间，没有时返回null
+     */
+    public LocalDateTime nextOccurrenceAfter(LocalDateTime time) {
+        ChronoUnit unit = repeatUnit();
+        if (unit == null) {
+            return reminderTime.isAfter(time) ? reminderTime : null;
+        }
+        for (long k = firstIndexNear(time, unit); ; k++) {
+            LocalDateTime occurrence = occurrenceAt(k, unit);
+            if (repeatUntil != null && occurrence.isAfter(repeatUntil)) {
+                return null;
+            }
+            if (occurrence.isAfter(time)) {
+                return occurrence;
+            }
+        }
+    }
+    
+    /**
+     * 不晚于time的最后一次提醒时间，还没有开始时返回第一次提醒时间
+     */
+    public LocalDateTime latestOccurrenceUpTo(LocalDateTime time) {
+        ChronoUnit unit = repeatUnit();
+        if (unit == null || !reminderTime.isBefore(time)) {
+            return reminderTime;
+        }
+        LocalDateTime latest = reminderTime;
+        for (long k = firstIndexNear(time, unit); ; k++) {
+            LocalDateTime occurrence = occurrenceAt(k, unit);
+            if (occurrence.isAfter(time) || (repeatUntil != null && occurrence.isAfter(repeatUntil))) {
+                return latest;
+            }
+            latest = occurrence;
+        }
+    }
+    
+    private ChronoUnit repeatUnit() {
+        if (!Boolean.TRUE.equals(this.isRepeating) || this.repeatPattern == null) {
             return null;
         }
-        
-        HealthReminder nextReminder = new HealthReminder();
-        nextReminder.setUser(this.user);
-        nextReminder.setReminderType(this.reminderType);
-        nextReminder.setTitle(this.title);
-        nextReminder.setDescription(this.description);
-        nextReminder.setIsRepeating(this.isRepeating);
-        nextReminder.setRepeatPattern(this.repeatPattern);
-        
-        // 根据重复模式计算下一次提醒时间
         if (RepeatPattern.DAILY.name().equals(this.repeatPattern)) {
-            nextReminder.setReminderTime(this.reminderTime.plusDays(1));
+            return ChronoUnit.DAYS;
         } else if (RepeatPattern.WEEKLY.name().equals(this.repeatPattern)) {
-            nextReminder.setReminderTime(this.reminderTime.plusWeeks(1));
+            return ChronoUnit.WEEKS;
         } else if (RepeatPattern.MONTHLY.name().equals(this.repeatPattern)) {
-            nextReminder.setReminderTime(this.reminderTime.plusMonths(1));
-        } else {
-            // 自定义重复模式需要特殊处理
-            return null;
+            return ChronoUnit.MONTHS;
         }
-        
-        nextReminder.setCreatedAt(LocalDateTime.now());
-        nextReminder.setUpdatedAt(LocalDateTime.now());
-        nextReminder.setIsCompleted(false);
-        
-        return nextReminder;
+        // 自定义重复模式没有可计算的规则，按一次性提醒对待，保存时is_repeating也置为false
+        return null;
+    }
+    
+    private int interval() {
+        return repeatInterval == null || repeatInterval < 1 ? 1 : repeatInterval;
+    }
+    
+    // 直接跳到time之前的一两次，不从第一次逐次累加
+    private long firstIndexNear(LocalDateTime time, ChronoUnit unit) {
+        if (!time.isAfter(reminderTime)) {
+            return 0;
+        }
+        return Math.max(0, unit.between(reminderTime, time) / interval() - 1);
+    }
+    
+    private LocalDateTime occurrenceAt(long k, ChronoUnit unit) {
+        return reminderTime.plus(k * interval(), unit);
+    }
+}
+
+// 文件: src/main/java/com/health/health_demo/model/ReminderTypeConverter.java
+package com.health.health_demo.model;
+
+import com.health.health_demo.model.HealthReminder.ReminderType;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * 提醒类型在数据库中保存为SMALLINT编码，比字符串占用更少的索引空间，重命名枚举常量也不影响已有数据
+ */
+@Converter(autoApply = true)
+public class ReminderTypeConverter implements AttributeConverter<ReminderType, Short> {
+    
+    @Override
+    public Short convertToDatabaseColumn(ReminderType type) {
+        return type == null ? null : type.getCode();
+    }
+    
+    @Override
+    public ReminderType convertToEntityAttribute(Short code) {
+        return code == null ? null : ReminderType.fromCode(code);
+    }
+}
+
+// 文件: src/main/java/com/health/health_demo/model/HealthReminderOccurrence.java
+package com.health.health_demo.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 重复提醒某一次的完成或跳过记录，没有记录的那一次按规则计算且视为未完成
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "health_reminder_occurrences", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_reminder_occurrence", columnNames = {"reminder_id", "occurrence_time"})
+})
+public class HealthReminderOccurrence {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reminder_id", nullable = false)
+    private HealthReminder reminder;
+    
+    // 按规则计算出的这一次的提醒时间
+    @Column(name = "occurrence_time", nullable = false)
+    private LocalDateTime occurrenceTime;
+    
+    @Column(nullable = false)
+    private String status;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    public enum Status {
+        COMPLETED,
+        SKIPPED
+    }
+    
+    public HealthReminderOccurrence(HealthReminder reminder, LocalDateTime occurrenceTime, Status status) {
+        this.reminder = reminder;
+        this.occurrenceTime = occurrenceTime;
+        this.status = status.name();
+        this.createdAt = LocalDateTime.now();
     }
 }
 
@@ -160,6 +352,7 @@ public class HealthReminder {
 package com.health.health_demo.model.dto;
 
 import com.health.health_demo.model.HealthReminder;
+import com.health.health_demo.model.HealthReminder.ReminderType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -173,12 +366,17 @@ public class HealthReminderDTO {
     
     private Long id;
     private Long userId;
-    private String reminderType;
+    // JSON中仍为枚举名称
+    private ReminderType reminderType;
     private String title;
     private String description;
     private LocalDateTime reminderTime;
     private Boolean isRepeating;
     private String repeatPattern;
+    private Integer repeatInterval;
+    private LocalDateTime repeatUntil;
+    // 重复提醒展开后这一次按规则计算的时间，完成或跳过这一次时原样传回；一次性提醒为null
+    private LocalDateTime occurrenceTime;
     private Boolean isCompleted;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -193,10 +391,85 @@ public class HealthReminderDTO {
         this.reminderTime = healthReminder.getReminderTime();
         this.isRepeating = healthReminder.getIsRepeating();
         this.repeatPattern = healthReminder.getRepeatPattern();
+        this.repeatInterval = healthReminder.getRepeatInterval();
+        this.repeatUntil = healthReminder.getRepeatUntil();
         this.isCompleted = healthReminder.getIsCompleted();
         this.createdAt = healthReminder.getCreatedAt();
         this.updatedAt = healthReminder.getUpdatedAt();
     }
+    
+    // 供JPQL构造表达式直接投影，只读取health_reminders的列，不加载实体和用户
+    public HealthReminderDTO(Long id, Long userId, ReminderType reminderType, String title, String description,
+                             LocalDateTime reminderTime, Boolean isRepeating, String repeatPattern,
+                             Integer repeatInterval, LocalDateTime repeatUntil, Boolean isCompleted,
+                             LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.reminderType = reminderType;
+        this.title = title;
+        this.description = description;
+        this.reminderTime = reminderTime;
+        this.isRepeating = isRepeating;
+        this.repeatPattern = repeatPattern;
+        this.repeatInterval = repeatInterval;
+        this.repeatUntil = repeatUntil;
+        this.isCompleted = isCompleted;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
+    // 重复提醒的某一次，提醒时间和完成状态取这一次的
+    public static HealthReminderDTO forOccurrence(HealthReminder healthReminder, LocalDateTime occurrenceTime,
+                                                  boolean completed) {
+        HealthReminderDTO dto = new HealthReminderDTO(healthReminder);
+        dto.setReminderTime(occurrenceTime);
+        dto.setOccurrenceTime(occurrenceTime);
+        dto.setIsCompleted(completed);
+        return dto;
+    }
+}
+
+// 文件: src/main/java/com/health/health_demo/model/dto/CursorPage.java
+package com.health.health_demo.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * nextCursor为本页最后一条的"排序键,ID"，原样作为下一页的after参数传回；没有下一页时为null
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+    
+    private List<T> items;
+    private String nextCursor;
+    
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+    
+    /**
+     * 拆分"排序键,ID"形式的游标，返回[排序键, ID]
+     */
+    public static String[] splitCursor(String cursor) {
+        int comma = cursor.lastIndexOf(',');
+        if (comma <= 0 || comma == cursor.length() - 1) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return new String[]{cursor.substring(0, comma), cursor.substring(comma + 1)};
+    }
 }
 
 /****************************
@@ -207,14 +480,18 @@ public class HealthReminderDTO {
 package com.health.health_demo.repository;
 
 import com.health.health_demo.model.HealthReminder;
+import com.health.health_demo.model.HealthReminder.ReminderType;
 import com.health.health_demo.model.User;
+import com.health.health_demo.model.dto.HealthReminderDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -226,21 +503,55 @@ public interface HealthReminderRepository extends JpaRepository<HealthReminder,
     // 根据用户ID查询所有提醒，按提醒时间升序排序
     List<HealthReminder> findByUserIdOrderByReminderTimeAsc(Long userId);
     
-    // 根据用户ID和提醒类型查询提醒，按提醒时间升序排序
-    List<HealthReminder> findByUserIdAndReminderTypeOrderByReminderTimeAsc(Long userId, String reminderType);
+    // 按(提醒时间, ID)分页查询用户的提醒，直接投影为DTO；第一页用findFirstPage，之后从游标之后继续
+    // 走idx_health_reminders_user_list索引，每页的开销与页大小成正比，与翻到第几页无关
+    @Query("SELECT new com.health.health_demo.model.dto.HealthReminderDTO(hr.id, hr.user.id, hr.reminderType, " +
+           "hr.title, hr.description, hr.reminderTime, hr.isRepeating, hr.repeatPattern, hr.repeatInterval, " +
+           "hr.repeatUntil, hr.isCompleted, hr.createdAt, hr.updatedAt) FROM HealthReminder hr " +
+           "WHERE hr.user.id = :userId ORDER BY hr.reminderTime ASC, hr.id ASC")
+    List<HealthReminderDTO> findFirstPage(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT new com.health.health_demo.model.dto.HealthReminderDTO(hr.id, hr.user.id, hr.reminderType, " +
+           "hr.title, hr.description, hr.reminderTime, hr.isRepeating, hr.repeatPattern, hr.repeatInterval, " +
+           "hr.repeatUntil, hr.isCompleted, hr.createdAt, hr.updatedAt) FROM HealthReminder hr " +
+           "WHERE hr.user.id = :userId AND (hr.reminderTime > :afterTime " +
+           "OR (hr.reminderTime = :afterTime AND hr.id > :afterId)) " +
+           "ORDER BY hr.reminderTime ASC, hr.id ASC")
+    List<HealthReminderDTO> findPageAfter(
+            @Param("userId") Long userId,
+            @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
     
-    // 查询用户指定日期的提醒
-    @Query("SELECT hr FROM HealthReminder hr WHERE hr.user.id = :userId AND DATE(hr.reminderTime) = :date ORDER BY hr.reminderTime ASC")
-    List<HealthReminder> findByUserIdAndDate(@Param("userId") Long userId, @Param("date") LocalDate date);
+    // 根据用户ID和提醒类型查询提醒，按提醒时间升序排序；走idx_health_reminders_user_type索引
+    List<HealthReminder> findByUserIdAndReminderTypeOrderByReminderTimeAsc(Long userId, ReminderType reminderType);
     
-    // 查询用户未来的提醒
-    List<HealthReminder> findByUserIdAndReminderTimeGreaterThanEqualAndIsCompletedFalseOrderByReminderTimeAsc(
+    // 查询用户[from, to)内的一次性提醒，按天查询时传入当天和次日零点；重复提醒由findRecurringRules取出后展开
+    // 直接比较reminder_time而不是DATE(reminder_time)，才能使用idx_health_reminders_user_time做范围扫描
+    @Query("SELECT hr FROM HealthReminder hr WHERE hr.user.id = :userId AND hr.isRepeating = false " +
+           "AND hr.reminderTime >= :from AND hr.reminderTime < :to ORDER BY hr.reminderTime ASC")
+    List<HealthReminder> findByUserIdAndReminderTimeRange(
+            @Param("userId") Long userId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+    
+    // 查询用户未来的一次性提醒
+    List<HealthReminder> findByUserIdAndIsRepeatingFalseAndReminderTimeGreaterThanEqualAndIsCompletedFalseOrderByReminderTimeAsc(
             Long userId, LocalDateTime now);
     
-    // 查询用户过期且未完成的提醒
-    List<HealthReminder> findByUserIdAndReminderTimeLessThanAndIsCompletedFalseOrderByReminderTimeAsc(
+    // 查询用户过期且未完成的一次性提醒，不包括已被标记为过期的
+    List<HealthReminder> findByUserIdAndIsRepeatingFalseAndIsExpiredFalseAndReminderTimeLessThanAndIsCompletedFalseOrderByReminderTimeAsc(
             Long userId, LocalDateTime now);
     
+    // 查询用户在[from, to)内可能有提醒的重复规则，由调用方按规则展开
+    @Query("SELECT hr FROM HealthReminder hr WHERE hr.user.id = :userId AND hr.isRepeating = true " +
+           "AND hr.isCompleted = false AND hr.reminderTime < :to " +
+           "AND (hr.repeatUntil IS NULL OR hr.repeatUntil >= :from)")
+    List<HealthReminder> findRecurringRules(
+            @Param("userId") Long userId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+    
     // 查询用户将要到期的提醒（30分钟内）
     @Query("SELECT hr FROM HealthReminder hr WHERE hr.user.id = :userId " +
            "AND hr.reminderTime BETWEEN :now AND :plusMinutes " +
@@ -249,6 +560,92 @@ public interface HealthReminderRepository extends JpaRepository<HealthReminder,
             @Param("userId") Long userId, 
             @Param("now") LocalDateTime now, 
             @Param("plusMinutes") LocalDateTime plusMinutes);
+    
+    // 查询所有用户下一次提醒在[from, to)内的未完成提醒，只取调度需要的ID和时间，走idx_health_reminders_due索引
+    @Query("SELECT hr.id AS id, hr.nextOccurrenceTime AS reminderTime FROM HealthReminder hr " +
+           "WHERE hr.isCompleted = false AND hr.nextOccurrenceTime >= :from AND hr.nextOccurrenceTime < :to " +
+           "ORDER BY hr.nextOccurrenceTime ASC")
+    List<ReminderSchedule> findDueSchedules(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // 不早于since的最早一次未完成提醒时间，调度启动时从这里开始加载；走idx_health_reminders_due索引，只读一行
+    @Query("SELECT MIN(hr.nextOccurrenceTime) FROM HealthReminder hr " +
+           "WHERE hr.isCompleted = false AND hr.nextOccurrenceTime >= :since")
+    LocalDateTime findOldestPendingTime(@Param("since") LocalDateTime since);
+    
+    // 按ID批量加载到期的提醒，同时取出用户，避免逐条懒加载
+    @Query("SELECT hr FROM HealthReminder hr JOIN FETCH hr.user WHERE hr.id IN :ids")
+    List<HealthReminder> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // 一组提醒所属的用户，用于批量修改后失效缓存
+    @Query("SELECT DISTINCT hr.user.id FROM HealthReminder hr WHERE hr.id IN :ids")
+    List<Long> findUserIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // 一组提醒中的重复提醒
+    @Query("SELECT hr FROM HealthReminder hr WHERE hr.id IN :ids AND hr.isRepeating = true AND hr.isCompleted = false")
+    List<HealthReminder> findRecurringByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // 用一条UPDATE完成一组一次性提醒，返回实际修改的行数
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE HealthReminder hr SET hr.isCompleted = true, hr.updatedAt = :now " +
+           "WHERE hr.id IN :ids AND hr.isRepeating = false AND hr.isCompleted = false")
+    int completeOneOffByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    // 提醒时间早于cutoff仍未完成的一次性提醒，走idx_health_reminders_due索引；标记过期后next_occurrence_time为null，不会再被查出
+    @Query("SELECT hr.id FROM HealthReminder hr WHERE hr.isCompleted = false " +
+           "AND hr.nextOccurrenceTime < :cutoff AND hr.isRepeating = false")
+    List<Long> findStaleOneOffIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    // 截止时间早于cutoff的重复提醒
+    @Query("SELECT hr.id FROM HealthReminder hr WHERE hr.isCompleted = false AND hr.isExpired = false " +
+           "AND hr.isRepeating = true AND hr.repeatUntil < :cutoff")
+    List<Long> findEndedRuleIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    // 用一条UPDATE把一组提醒标记为过期
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE HealthReminder hr SET hr.isExpired = true, hr.nextOccurrenceTime = null, hr.updatedAt = :now " +
+           "WHERE hr.id IN :ids AND hr.isCompleted = false")
+    int expireByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    /**
+     * 调度用的投影，只包含ID和提醒时间
+     */
+    interface ReminderSchedule {
+        Long getId();
+        LocalDateTime getReminderTime();
+    }
+}
+
+// 文件: src/main/java/com/health/health_demo/repository/HealthReminderOccurrenceRepository.java
+package com.health.health_demo.repository;
+
+import com.health.health_demo.model.HealthReminderOccurrence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HealthReminderOccurrenceRepository extends JpaRepository<HealthReminderOccurrence, Long> {
+    
+    // 查询一组重复提醒在[from, to)内已完成或跳过的那几次
+    @Query("SELECT o FROM HealthReminderOccurrence o WHERE o.reminder.id IN :reminderIds " +
+           "AND o.occurrenceTime >= :from AND o.occurrenceTime < :to")
+    List<HealthReminderOccurrence> findByReminderIdsBetween(
+            @Param("reminderIds") Collection<Long> reminderIds,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+    
+    Optional<HealthReminderOccurrence> findByReminderIdAndOccurrenceTime(Long reminderId, LocalDateTime occurrenceTime);
+    
+    @Modifying
+    @Query("DELETE FROM HealthReminderOccurrence o WHERE o.reminder.id = :reminderId")
+    void deleteByReminderId(@Param("reminderId") Long reminderId);
 }
 
 /****************************
@@ -258,9 +655,12 @@ public interface HealthReminderRepository extends JpaRepository<HealthReminder,
 // 文件: src/main/java/com/health/health_demo/service/HealthReminderService.java
 package com.health.health_demo.service;
 
+import com.health.health_demo.model.HealthReminder.ReminderType;
+import com.health.health_demo.model.dto.CursorPage;
 import com.health.health_demo.model.dto.HealthReminderDTO;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface HealthReminderService {
@@ -289,6 +689,16 @@ public interface HealthReminderService {
      */
     List<HealthReminderDTO> getUserReminders(Long userId);
     
+    /**
+     * 按提醒时间分页获取用户的健康提醒
+     * 
+     * @param userId 用户ID
+     * @param after 上一页返回的nextCursor，第一页为null
+     * @param limit 每页条数
+     * @return 一页健康提醒DTO
+     */
+    CursorPage<HealthReminderDTO> getUserRemindersPage(Long userId, String after, Integer limit);
+    
     /**
      * 获取用户指定类型的健康提醒
      * 
@@ -296,7 +706,7 @@ public interface HealthReminderService {
      * @param reminderType 提醒类型
      * @return 健康提醒DTO列表
      */
-    List<HealthReminderDTO> getUserRemindersByType(Long userId, String reminderType);
+    List<HealthReminderDTO> getUserRemindersByType(Long userId, ReminderType reminderType);
     
     /**
      * 获取用户指定日期的提醒
@@ -324,12 +734,29 @@ public interface HealthReminderService {
     List<HealthReminderDTO> getUserOverdueReminders(Long userId);
     
     /**
-     * 完成健康提醒
+     * 完成健康提醒；重复提醒只完成其中一次
      * 
      * @param id 健康提醒ID
+     * @param occurrenceTime 重复提醒要完成的那一次，为null时取最近已到的一次；一次性提醒忽略
      * @return 更新后的健康提醒DTO
      */
-    HealthReminderDTO completeReminder(Long id);
+    HealthReminderDTO completeReminder(Long id, LocalDateTime occurrenceTime);
+    
+    /**
+     * 批量完成健康提醒；重复提醒完成最近已到的一次，还没到第一次的重复提醒、不存在或已完成的ID忽略
+     * 
+     * @param ids 健康提醒ID列表
+     * @return 完成的提醒数
+     */
+    int completeReminders(List<Long> ids);
+    
+    /**
+     * 跳过重复提醒的某一次，这一次不再展开和发送
+     * 
+     * @param id 健康提醒ID
+     * @param occurrenceTime 要跳过的那一次
+     */
+    void skipOccurrence(Long id, LocalDateTime occurrenceTime);
     
     /**
      * 更新健康提醒
@@ -353,30 +780,68 @@ package com.health.health_demo.service.impl;
 
 import com.health.health_demo.exception.ResourceNotFoundException;
 import com.health.health_demo.model.HealthReminder;
+import com.health.health_demo.model.HealthReminder.ReminderType;
+import com.health.health_demo.model.HealthReminderOccurrence;
 import com.health.health_demo.model.User;
+import com.health.health_demo.model.dto.CursorPage;
 import com.health.health_demo.model.dto.HealthReminderDTO;
+import com.health.health_demo.repository.HealthReminderOccurrenceRepository;
 import com.health.health_demo.repository.HealthReminderRepository;
 import com.health.health_demo.repository.UserRepository;
 import com.health.health_demo.service.HealthReminderService;
+import com.health.health_demo.service.cache.UpcomingReminderCache;
+import com.health.health_demo.service.reminder.ReminderDispatcher;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class HealthReminderServiceImpl implements HealthReminderService {
     
+    // 重复提醒在"未来"和"过期"列表中展开的天数
+    private static final int UPCOMING_DAYS = 7;
+    private static final int OVERDUE_DAYS = 7;
+    // 一次批量完成的最大ID数
+    private static final int MAX_BULK_IDS = 500;
+    private static final int INSERT_BATCH_SIZE = 100;
+    // 完成记录已存在时忽略；配合连接参数rewriteBatchedStatements=true，一批合并为一条多行INSERT
+    private static final String INSERT_OCCURRENCE_SQL = "INSERT IGNORE INTO health_reminder_occurrences " +
+            "(reminder_id, occurrence_time, status, created_at) VALUES (?, ?, ?, ?)";
+    
     private final HealthReminderRepository healthReminderRepository;
+    private final HealthReminderOccurrenceRepository occurrenceRepository;
     private final UserRepository userRepository;
+    private final ReminderDispatcher reminderDispatcher;
+    private final UpcomingReminderCache upcomingReminderCache;
+    private final JdbcTemplate jdbcTemplate;
     
     @Autowired
-    public HealthReminderServiceImpl(HealthReminderRepository healthReminderRepository, UserRepository userRepository) {
+    public HealthReminderServiceImpl(HealthReminderRepository healthReminderRepository,
+                                     HealthReminderOccurrenceRepository occurrenceRepository,
+                                     UserRepository userRepository, ReminderDispatcher reminderDispatcher,
+                                     UpcomingReminderCache upcomingReminderCache, JdbcTemplate jdbcTemplate) {
         this.healthReminderRepository = healthReminderRepository;
+        this.occurrenceRepository = occurrenceRepository;
         this.userRepository = userRepository;
+        this.reminderDispatcher = reminderDispatcher;
+        this.upcomingReminderCache = upcomingReminderCache;
+        this.jdbcTemplate = jdbcTemplate;
     }
     
     @Override
@@ -394,8 +859,11 @@ public class HealthReminderServiceImpl implements HealthReminderService {
                 healthReminderDTO.getIsRepeating(),
                 healthReminderDTO.getRepeatPattern()
         );
+        applyRule(healthReminder, healthReminderDTO);
         
         HealthReminder savedReminder = healthReminderRepository.save(healthReminder);
+        scheduleNext(savedReminder);
+        upcomingReminderCache.invalidate(user.getId());
         return new HealthReminderDTO(savedReminder);
     }
     
@@ -415,7 +883,33 @@ public class HealthReminderServiceImpl implements HealthReminderService {
     }
     
     @Override
-    public List<HealthReminderDTO> getUserRemindersByType(Long userId, String reminderType) {
+    @Transactional(readOnly = true)
+    public CursorPage<HealthReminderDTO> getUserRemindersPage(Long userId, String after, Integer limit) {
+        int pageSize = CursorPage.normalizeLimit(limit);
+        // 多取一条判断是否还有下一页
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        List<HealthReminderDTO> items;
+        if (after == null || after.isEmpty()) {
+            items = healthReminderRepository.findFirstPage(userId, pageRequest);
+        } else {
+            String[] cursor = CursorPage.splitCursor(after);
+            try {
+                items = healthReminderRepository.findPageAfter(
+                        userId, LocalDateTime.parse(cursor[0]), Long.parseLong(cursor[1]), pageRequest);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + after, e);
+            }
+        }
+        if (items.size() <= pageSize) {
+            return new CursorPage<>(items, null);
+        }
+        items = new ArrayList<>(items.subList(0, pageSize));
+        HealthReminderDTO last = items.get(pageSize - 1);
+        return new CursorPage<>(items, last.getReminderTime() + "," + last.getId());
+    }
+    
+    @Override
+    public List<HealthReminderDTO> getUserRemindersByType(Long userId, ReminderType reminderType) {
         List<HealthReminder> reminders = healthReminderRepository
                 .findByUserIdAndReminderTypeOrderByReminderTimeAsc(userId, reminderType);
         return reminders.stream()
@@ -425,50 +919,153 @@ public class HealthReminderServiceImpl implements HealthReminderService {
     
     @Override
     public List<HealthReminderDTO> getUserRemindersByDate(Long userId, LocalDate date) {
-        List<HealthReminder> reminders = healthReminderRepository.findByUserIdAndDate(userId, date);
-        return reminders.stream()
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+        List<HealthReminderDTO> result = healthReminderRepository.findByUserIdAndReminderTimeRange(userId, from, to).stream()
                 .map(HealthReminderDTO::new)
                 .collect(Collectors.toList());
+        result.addAll(expand(healthReminderRepository.findRecurringRules(userId, from, to), from, to, true));
+        result.sort(Comparator.comparing(HealthReminderDTO::getReminderTime));
+        return result;
     }
     
     @Override
     public List<HealthReminderDTO> getUserUpcomingReminders(Long userId) {
+        // 缓存的是加载时刻起的列表，返回时去掉之后已经过去的提醒
         LocalDateTime now = LocalDateTime.now();
-        List<HealthReminder> reminders = healthReminderRepository
-                .findByUserIdAndReminderTimeGreaterThanEqualAndIsCompletedFalseOrderByReminderTimeAsc(userId, now);
-        return reminders.stream()
+        return upcomingReminderCache.get(userId, this::loadUpcomingReminders).stream()
+                .filter(reminder -> !reminder.getReminderTime().isBefore(now))
+                .collect(Collectors.toList());
+    }
+    
+    private List<HealthReminderDTO> loadUpcomingReminders(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime to = now.plusDays(UPCOMING_DAYS);
+        List<HealthReminderDTO> result = healthReminderRepository
+                .findByUserIdAndIsRepeatingFalseAndReminderTimeGreaterThanEqualAndIsCompletedFalseOrderByReminderTimeAsc(userId, now)
+                .stream()
                 .map(HealthReminderDTO::new)
                 .collect(Collectors.toList());
+        result.addAll(expand(healthReminderRepository.findRecurringRules(userId, now, to), now, to, false));
+        result.sort(Comparator.comparing(HealthReminderDTO::getReminderTime));
+        return List.copyOf(result);
     }
     
     @Override
     public List<HealthReminderDTO> getUserOverdueReminders(Long userId) {
         LocalDateTime now = LocalDateTime.now();
-        List<HealthReminder> reminders = healthReminderRepository
-                .findByUserIdAndReminderTimeLessThanAndIsCompletedFalseOrderByReminderTimeAsc(userId, now);
-        return reminders.stream()
+        LocalDateTime from = now.minusDays(OVERDUE_DAYS);
+        List<HealthReminderDTO> result = healthReminderRepository
+                .findByUserIdAndIsRepeatingFalseAndIsExpiredFalseAndReminderTimeLessThanAndIsCompletedFalseOrderByReminderTimeAsc(userId, now)
+                .stream()
                 .map(HealthReminderDTO::new)
                 .collect(Collectors.toList());
+        result.addAll(expand(healthReminderRepository.findRecurringRules(userId, from, now), from, now, false));
+        result.sort(Comparator.comparing(HealthReminderDTO::getReminderTime));
+        return result;
     }
     
     @Override
     @Transactional
-    public HealthReminderDTO completeReminder(Long id) {
+    public HealthReminderDTO completeReminder(Long id, LocalDateTime occurrenceTime) {
         HealthReminder healthReminder = healthReminderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Health reminder not found with id: " + id));
         
-        healthReminder.complete();
-        HealthReminder updatedReminder = healthReminderRepository.save(healthReminder);
+        upcomingReminderCache.invalidate(healthReminder.getUser().getId());
+        if (!healthReminder.getIsRepeating()) {
+            healthReminder.complete();
+            HealthReminder updatedReminder = healthReminderRepository.save(healthReminder);
+            reminderDispatcher.cancel(id);
+            return new HealthReminderDTO(updatedReminder);
+        }
+        
+        // 重复提醒只记录完成的这一次，规则本身保持不变
+        LocalDateTime occurrence = occurrenceTime != null
+                ? occurrenceTime : healthReminder.latestOccurrenceUpTo(LocalDateTime.now());
+        markOccurrence(healthReminder, occurrence, HealthReminderOccurrence.Status.COMPLETED);
+        return HealthReminderDTO.forOccurrence(healthReminder, occurrence, true);
+    }
+    
+    @Override
+    @Transactional
+    public int completeReminders(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("Too many reminder ids: " + ids.size() + " > " + MAX_BULK_IDS);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> userIds = healthReminderRepository.findUserIdsByIdIn(ids);
+        
+        // 一次性提醒：一条UPDATE ... WHERE id IN (...)
+        int completed = healthReminderRepository.completeOneOffByIds(ids, now);
         
-        // 如果是重复提醒，创建下一次提醒
-        if (healthReminder.getIsRepeating() && healthReminder.getRepeatPattern() != null) {
-            HealthReminder nextReminder = healthReminder.generateNextReminder();
-            if (nextReminder != null) {
-                healthReminderRepository.save(nextReminder);
+        // 重复提醒：各自最近已到的一次写入完成记录，JDBC批量插入；还没到第一次的规则不处理
+        List<HealthReminder> rules = healthReminderRepository.findRecurringByIdIn(ids);
+        Set<Long> ruleIds = new HashSet<>();
+        Map<Long, LocalDateTime> dueOccurrences = new HashMap<>();
+        for (HealthReminder rule : rules) {
+            ruleIds.add(rule.getId());
+            LocalDateTime occurrence = rule.latestOccurrenceUpTo(now);
+            if (!occurrence.isAfter(now)) {
+                dueOccurrences.put(rule.getId(), occurrence);
             }
         }
+        completed += insertCompletedOccurrences(dueOccurrences, now);
         
-        return new HealthReminderDTO(updatedReminder);
+        for (Long id : ids) {
+            if (!ruleIds.contains(id)) {
+                reminderDispatcher.cancel(id);
+            }
+        }
+        userIds.forEach(upcomingReminderCache::invalidate);
+        return completed;
+    }
+    
+    // 跳过已有完成或跳过记录的那一次，返回实际插入的行数
+    private int insertCompletedOccurrences(Map<Long, LocalDateTime> occurrences, LocalDateTime now) {
+        if (occurrences.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime from = occurrences.values().stream().min(Comparator.naturalOrder()).get();
+        LocalDateTime to = occurrences.values().stream().max(Comparator.naturalOrder()).get();
+        Set<Long> handled = new HashSet<>();
+        for (HealthReminderOccurrence occurrence : occurrenceRepository.findByReminderIdsBetween(
+                occurrences.keySet(), from, to.plusNanos(1))) {
+            Long reminderId = occurrence.getReminder().getId();
+            if (occurrence.getOccurrenceTime().equals(occurrences.get(reminderId))) {
+                handled.add(reminderId);
+            }
+        }
+        
+        List<Object[]> rows = new ArrayList<>(occurrences.size());
+        Timestamp createdAt = Timestamp.valueOf(now);
+        occurrences.forEach((reminderId, occurrence) -> {
+            if (!handled.contains(reminderId)) {
+                rows.add(new Object[]{reminderId, Timestamp.valueOf(occurrence),
+                        HealthReminderOccurrence.Status.COMPLETED.name(), createdAt});
+            }
+        });
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE) {
+            int[] counts = jdbcTemplate.batchUpdate(INSERT_OCCURRENCE_SQL,
+                    rows.subList(from, Math.min(from + INSERT_BATCH_SIZE, rows.size())));
+            for (int count : counts) {
+                // 驱动改写为多行INSERT时不返回每行的结果；这些行已排除了已有记录，按插入计
+                inserted += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+            }
+        }
+        return inserted;
+    }
+    
+    @Override
+    @Transactional
+    public void skipOccurrence(Long id, LocalDateTime occurrenceTime) {
+        HealthReminder healthReminder = healthReminderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Health reminder not found with id: " + id));
+        markOccurrence(healthReminder, occurrenceTime, HealthReminderOccurrence.Status.SKIPPED);
+        upcomingReminderCache.invalidate(healthReminder.getUser().getId());
     }
     
     @Override
@@ -483,9 +1080,12 @@ public class HealthReminderServiceImpl implements HealthReminderService {
         healthReminder.setReminderTime(healthReminderDTO.getReminderTime());
         healthReminder.setIsRepeating(healthReminderDTO.getIsRepeating());
         healthReminder.setRepeatPattern(healthReminderDTO.getRepeatPattern());
+        applyRule(healthReminder, healthReminderDTO);
         healthReminder.setUpdatedAt(LocalDateTime.now());
         
         HealthReminder updatedReminder = healthReminderRepository.save(healthReminder);
+        scheduleNext(updatedReminder);
+        upcomingReminderCache.invalidate(updatedReminder.getUser().getId());
         return new HealthReminderDTO(updatedReminder);
     }
     
@@ -495,31 +1095,695 @@ public class HealthReminderServiceImpl implements HealthReminderService {
         HealthReminder healthReminder = healthReminderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Health reminder not found with id: " + id));
         
+        occurrenceRepository.deleteByReminderId(id);
         healthReminderRepository.delete(healthReminder);
+        reminderDispatcher.cancel(id);
+        upcomingReminderCache.invalidate(healthReminder.getUser().getId());
+    }
+    
+    private void applyRule(HealthReminder healthReminder, HealthReminderDTO healthReminderDTO) {
+        Integer interval = healthReminderDTO.getRepeatInterval();
+        healthReminder.setRepeatInterval(interval == null || interval < 1 ? 1 : interval);
+        healthReminder.setRepeatUntil(healthReminderDTO.getRepeatUntil());
+        healthReminder.setIsExpired(false);
+        // 没有可计算规则的重复模式（CUSTOM或为空）按一次性提醒保存，完成、过期和列表查询都按is_repeating区分，
+        // 与isRecurring()不一致时这类提醒既不能作为一次性提醒完成，也没有下一次可以推进
+        healthReminder.setIsRepeating(healthReminder.isRecurring());
+        healthReminder.resetNextOccurrence(LocalDateTime.now());
+    }
+    
+    private void scheduleNext(HealthReminder healthReminder) {
+        if (healthReminder.getNextOccurrenceTime() == null) {
+            reminderDispatcher.cancel(healthReminder.getId());
+        } else {
+            reminderDispatcher.schedule(healthReminder.getId(), healthReminder.getNextOccurrenceTime());
+        }
+    }
+    
+    private void markOccurrence(HealthReminder healthReminder, LocalDateTime occurrenceTime,
+                                HealthReminderOccurrence.Status status) {
+        HealthReminderOccurrence occurrence = occurrenceRepository
+                .findByReminderIdAndOccurrenceTime(healthReminder.getId(), occurrenceTime)
+                .orElseGet(() -> new HealthReminderOccurrence(healthReminder, occurrenceTime, status));
+        occurrence.setStatus(status.name());
+        occurrenceRepository.save(occurrence);
+    }
+    
+    /**
+     * 把重复规则展开为[from, to)内的每一次提醒
+     * 所有规则的完成和跳过记录用一次查询取出；跳过的不返回，includeCompleted为false时已完成的也不返回
+     */
+    private List<HealthReminderDTO> expand(List<HealthReminder> rules, LocalDateTime from, LocalDateTime to,
+                                           boolean includeCompleted) {
+        List<HealthReminderDTO> result = new ArrayList<>();
+        if (rules.isEmpty()) {
+            return result;
+        }
+        List<Long> ids = rules.stream().map(HealthReminder::getId).collect(Collectors.toList());
+        Map<Long, Map<LocalDateTime, String>> statuses = new HashMap<>();
+        for (HealthReminderOccurrence occurrence : occurrenceRepository.findByReminderIdsBetween(ids, from, to)) {
+            statuses.computeIfAbsent(occurrence.getReminder().getId(), key -> new HashMap<>())
+                    .put(occurrence.getOccurrenceTime(), occurrence.getStatus());
+        }
+        for (HealthReminder rule : rules) {
+            Map<LocalDateTime, String> ruleStatuses = statuses.getOrDefault(rule.getId(), Map.of());
+            for (LocalDateTime time : rule.occurrencesBetween(from, to)) {
+                String status = ruleStatuses.get(time);
+                if (HealthReminderOccurrence.Status.SKIPPED.name().equals(status)) {
+                    continue;
+                }
+                boolean completed = HealthReminderOccurrence.Status.COMPLETED.name().equals(status);
+                if (completed && !includeCompleted) {
+                    continue;
+                }
+                result.add(HealthReminderDTO.forOccurrence(rule, time, completed));
+            }
+        }
+        return result;
     }
 }
 
 /****************************
- * Controller
+ * 缓存
  ****************************/
 
-// 文件: src/main/java/com/health/health_demo/controller/HealthReminderController.java
-package com.health.health_demo.controller;
+// 文件: src/main/java/com/health/health_demo/service/cache/UserScopedCache.java
+package com.health.health_demo.service.cache;
 
-import com.health.health_demo.dto.ApiResponse;
-import com.health.health_demo.model.dto.HealthReminderDTO;
-import com.health.health_demo.service.HealthReminderService;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.*;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.time.LocalDate;
-import java.util.List;
+import java.time.Duration;
+import java.util.function.Function;
 
 /**
- * 健康提醒控制器
+ * 按用户ID缓存的进程内数据，最多缓存maxUsers个用户，写入ttl后过期
+ * 命中、未命中、淘汰次数通过Micrometer以cache.*指标导出，name作为cache标签。
+ * 缓存的值会被多个请求共享，必须是不可变的。
+ * 需要在pom.xml中添加com.github.ben-manes.caffeine:caffeine依赖。
+ */
+public class UserScopedCache<V> {
+    
+    private final Cache<Long, V> cache;
+    
+    public UserScopedCache(String name, long maxUsers, Duration ttl, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+    
+    public V get(Long userId, Function<Long, V> loader) {
+        return cache.get(userId, loader);
+    }
+    
+    /**
+     * 数据修改后调用；在事务中时提交后再失效一次，避免提交前被并发的读取用旧数据重新填充
+     */
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
+
+// 文件: src/main/java/com/health/health_demo/service/cache/UpcomingReminderCache.java
+package com.health.health_demo.service.cache;
+
+import com.health.health_demo.model.dto.HealthReminderDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 每个用户未来的提醒，由HealthReminderServiceImpl在提醒创建、修改、完成、跳过、删除时失效
+ */
+@Component
+public class UpcomingReminderCache extends UserScopedCache<List<HealthReminderDTO>> {
+    
+    private static final long MAX_USERS = 10_000;
+    private static final Duration TTL = Duration.ofMinutes(5);
+    
+    @Autowired
+    public UpcomingReminderCache(MeterRegistry meterRegistry) {
+        super("health.reminders.upcoming", MAX_USERS, TTL, meterRegistry);
+    }
+}
+
+/****************************
+ * 提醒调度
+ ****************************/
+
+// 文件: src/main/java/com/health/health_demo/service/reminder/HierarchicalTimingWheel.java
+package com.health.health_demo.service.reminder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分层时间轮
+ * 第0层每格一个tick，第L层每格wheelSize^L个tick；到期时间越远放在越高的层，
+ * 时间推进到高层格子的起点时把其中的条目重新放入低层（降级），在第0层到期。
+ * 添加和到期都是O(1)，推进的开销与经过的tick数和到期条目数成正比，与总条目数无关。
+ * 跨过最高层一圈边界的条目暂存在overflow中，到达边界时重新放入。
+ * 不是线程安全的，由调用方加锁。
+ */
+public class HierarchicalTimingWheel<T> {
+    
+    private static final class Entry<T> {
+        final long deadlineTick;
+        final T item;
+        
+        Entry(long deadlineTick, T item) {
+            this.deadlineTick = deadlineTick;
+            this.item = item;
+        }
+    }
+    
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] levelSpans; // 每层一格包含的tick数
+    private final List<List<ArrayDeque<Entry<T>>>> levels = new ArrayList<>();
+    private final List<Entry<T>> overflow = new ArrayList<>();
+    private long currentTick;
+    private int size;
+    
+    /**
+     * @param tickMillis 第0层每格的毫秒数
+     * @param wheelSize 每层的格数
+     * @param levelCount 层数，最高层一圈为tickMillis * wheelSize^levelCount
+     * @param startMillis 起始时间
+     */
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levelSpans = new long[levelCount + 1];
+        long span = 1;
+        for (int level = 0; level <= levelCount; level++) {
+            levelSpans[level] = span;
+            span *= wheelSize;
+        }
+        for (int level = 0; level < levelCount; level++) {
+            List<ArrayDeque<Entry<T>>> slots = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                slots.add(new ArrayDeque<>());
+            }
+            levels.add(slots);
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+    
+    /**
+     * 添加条目
+     *
+     * @return 已经到期时返回false，条目不会加入时间轮，由调用方立即处理
+     */
+    public boolean add(long deadlineMillis, T item) {
+        return add(new Entry<>(deadlineMillis / tickMillis, item));
+    }
+    
+    private boolean add(Entry<T> entry) {
+        long tick = entry.deadlineTick;
+        if (tick <= currentTick) {
+            return false;
+        }
+        // 选择最低的一层，使到期tick与当前tick处于该层的同一圈内
+        for (int level = 0; level < levels.size(); level++) {
+            if (tick / levelSpans[level + 1] == currentTick / levelSpans[level + 1]) {
+                int slot = (int) ((tick / levelSpans[level]) % wheelSize);
+                levels.get(level).get(slot).add(entry);
+                size++;
+                return true;
+            }
+        }
+        overflow.add(entry);
+        size++;
+        return true;
+    }
+    
+    /**
+     * 推进到指定时间，返回期间到期的条目（按到期tick排序）
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        if (size == 0) {
+            // 时间轮为空时直接跳到目标时间，不逐格推进
+            currentTick = Math.max(currentTick, targetTick);
+            return expired;
+        }
+        while (currentTick < targetTick && size > 0) {
+            currentTick++;
+            if (!overflow.isEmpty() && currentTick % levelSpans[levels.size()] == 0) {
+                List<Entry<T>> pending = new ArrayList<>(overflow);
+                overflow.clear();
+                size -= pending.size();
+                for (Entry<T> entry : pending) {
+                    if (!add(entry)) {
+                        expired.add(entry.item);
+                    }
+                }
+            }
+            // 先从高层往低层降级，再处理第0层当前格
+            for (int level = levels.size() - 1; level >= 1; level--) {
+                if (currentTick % levelSpans[level] == 0) {
+                    int slot = (int) ((currentTick / levelSpans[level]) % wheelSize);
+                    ArrayDeque<Entry<T>> bucket = levels.get(level).get(slot);
+                    Entry<T> entry;
+                    while ((entry = bucket.poll()) != null) {
+                        size--;
+                        if (!add(entry)) {
+                            expired.add(entry.item);
+                        }
+                    }
+                }
+            }
+            ArrayDeque<Entry<T>> bucket = levels.get(0).get((int) (currentTick % wheelSize));
+            Entry<T> entry;
+            while ((entry = bucket.poll()) != null) {
+                size--;
+                expired.add(entry.item);
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return expired;
+    }
+    
+    public int size() {
+        return size;
+    }
+}
+
+// 文件: src/main/java/com/health/health_demo/service/reminder/ReminderNotifier.java
+package com.health.health_demo.service.reminder;
+
+import com.health.health_demo.model.dto.HealthReminderDTO;
+
+import java.util.List;
+
+/**
+ * 提醒通知的发送通道，例如推送或短信
+ */
+public interface ReminderNotifier {
+    
+    /**
+     * 批量发送一批到期的提醒
+     * 
+     * @param reminders 到期的提醒，按提醒时间排序
+     */
+    void notifyDue(List<HealthReminderDTO> reminders);
+}
+
+// 文件: src/main/java/com/health/health_demo/service/reminder/LoggingReminderNotifier.java
+package com.health.health_demo.service.reminder;
+
+import com.health.health_demo.model.dto.HealthReminderDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 默认的通知实现，只记录日志；接入推送服务时把新的ReminderNotifier标记为@Primary即可替换
+ */
+@Component
+public class LoggingReminderNotifier implements ReminderNotifier {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoggingReminderNotifier.class);
+    
+    @Override
+    public void notifyDue(List<HealthReminderDTO> reminders) {
+        for (HealthReminderDTO reminder : reminders) {
+            log.info("提醒到期: userId={}, id={}, title={}", reminder.getUserId(), reminder.getId(), reminder.getTitle());
+        }
+    }
+}
+
+// 文件: src/main/java/com/health/health_demo/service/reminder/OverdueReminderSweeper.java
+package com.health.health_demo.service.reminder;
+
+import com.health.health_demo.repository.HealthReminderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 定期把过期太久仍未完成的一次性提醒、已经结束的重复提醒标记为过期
+ * 每块先按索引取CHUNK_SIZE个ID，再用一条UPDATE ... WHERE id IN (...)修改，每块单独提交，不逐条保存实体，也不长时间持有行锁。
+ * 批量写入需要在application.properties中开启JDBC批处理：
+ * spring.jpa.properties.hibernate.jdbc.batch_size=100
+ * spring.jpa.properties.hibernate.order_updates=true
+ * 以及MySQL连接参数rewriteBatchedStatements=true
+ */
+@Component
+public class OverdueReminderSweeper {
+    
+    private static final Logger log = LoggerFactory.getLogger(OverdueReminderSweeper.class);
+    
+    // 与过期列表展开重复提醒的天数一致；ReminderDispatcher启动时也不加载更早的提醒
+    static final int EXPIRE_AFTER_DAYS = 7;
+    private static final int CHUNK_SIZE = 1000;
+    
+    private final HealthReminderRepository healthReminderRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    public OverdueReminderSweeper(HealthReminderRepository healthReminderRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.healthReminderRepository = healthReminderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Scheduled(fixedDelay = 60 * 60 * 1000L, initialDelay = 5 * 60 * 1000L)
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusDays(EXPIRE_AFTER_DAYS);
+        int oneOff = expireInChunks(page -> healthReminderRepository.findStaleOneOffIds(cutoff, page), now);
+        int rules = expireInChunks(page -> healthReminderRepository.findEndedRuleIds(cutoff, page), now);
+        if (oneOff > 0 || rules > 0) {
+            log.info("标记过期提醒: 一次性 {} 条, 重复 {} 条", oneOff, rules);
+        }
+    }
+    
+    // 已标记的行不再满足查询条件，每次都取第一页即可
+    private int expireInChunks(Function<Pageable, List<Long>> findIds, LocalDateTime now) {
+        Pageable firstChunk = PageRequest.of(0, CHUNK_SIZE);
+        int total = 0;
+        while (true) {
+            Integer expired = transactionTemplate.execute(status -> {
+                List<Long> ids = findIds.apply(firstChunk);
+                return ids.isEmpty() ? 0 : healthReminderRepository.expireByIds(ids, now);
+            });
+            total += expired;
+            if (expired < CHUNK_SIZE) {
+                return total;
+            }
+        }
+    }
+}
+
+// 文件: src/main/java/com/health/health_demo/service/reminder/ReminderDispatcher.java
+package com.health.health_demo.service.reminder;
+
+import com.health.health_demo.model.HealthReminder;
+import com.health.health_demo.model.HealthReminderOccurrence;
+import com.health.health_demo.model.dto.HealthReminderDTO;
+import com.health.health_demo.repository.HealthReminderOccurrenceRepository;
+import com.health.health_demo.repository.HealthReminderRepository;
+import com.health.health_demo.repository.HealthReminderRepository.ReminderSchedule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 服务端提醒调度
+ * 每次补充只用一次索引范围扫描加载接下来HORIZON内到期的提醒（所有用户），放入分层时间轮；
+ * 之后每秒推进时间轮，到期的提醒按BATCH_SIZE分批加载并通知。
+ * 补充是增量的：每次只查询上次加载边界到新边界之间的时间段，已加载的部分不会重复查询。
+ * 调度开销与到期的提醒数成正比，与用户数和轮询次数无关。
+ * 提醒在加载后被修改或删除时，由HealthReminderServiceImpl调用schedule/cancel更新；
+ * 在事务中调用时等到提交后才生效：否则补充可能在提交前扫描新时间所在的范围并越过它，提醒就不会再被加载；回滚时也不留下多余的调度。
+ * 时间轮中的旧条目不删除，到期时与scheduled中的时间不一致即丢弃。
+ * 扫描按next_occurrence_time进行；重复提醒发送后把它推进到规则的下一次，落在已加载范围内的直接放回时间轮。
+ * 启动后第一次补充从最早未完成的提醒时间开始加载，停机期间到期的提醒在第一次推进时立即通知；
+ * 早于OverdueReminderSweeper过期期限的不再加载，由它标记过期。
+ * 需要在启动类上添加@EnableScheduling。
+ */
+@Component
+public class ReminderDispatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReminderDispatcher.class);
+    
+    // 预加载的时间范围和补充间隔
+    private static final long HORIZON_MILLIS = 10 * 60 * 1000L;
+    private static final long REFILL_INTERVAL_MILLIS = 60 * 1000L;
+    private static final int BATCH_SIZE = 500;
+    // 第0层每格1秒，64格×3层，最高层一圈约3天，远大于HORIZON
+    private static final long TICK_MILLIS = 1000L;
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 3;
+    
+    private final HealthReminderRepository healthReminderRepository;
+    private final HealthReminderOccurrenceRepository occurrenceRepository;
+    private final ReminderNotifier reminderNotifier;
+    private final ZoneId zone = ZoneId.systemDefault();
+    
+    private final HierarchicalTimingWheel<Long> wheel;
+    // 已放入时间轮的提醒ID到提醒时间（毫秒），用于丢弃被修改或删除的旧条目
+    private final Map<Long, Long> scheduled = new HashMap<>();
+    private long loadedUntil;
+    private long nextRefillAt;
+    
+    @Autowired
+    public ReminderDispatcher(HealthReminderRepository healthReminderRepository,
+                              HealthReminderOccurrenceRepository occurrenceRepository,
+                              ReminderNotifier reminderNotifier) {
+        this.healthReminderRepository = healthReminderRepository;
+        this.occurrenceRepository = occurrenceRepository;
+        this.reminderNotifier = reminderNotifier;
+        long now = System.currentTimeMillis();
+        this.wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, WHEEL_SIZE, WHEEL_LEVELS, now);
+        // 第一次补充时才确定加载起点，见refill
+        this.loadedUntil = Long.MIN_VALUE;
+        this.nextRefillAt = now;
+    }
+    
+    /**
+     * 提醒创建或修改后调用；不在已加载的时间范围内时由之后的补充加载
+     */
+    public void schedule(Long id, LocalDateTime reminderTime) {
+        afterCommit(() -> doSchedule(id, reminderTime));
+    }
+    
+    /**
+     * 提醒完成或删除后调用
+     */
+    public void cancel(Long id) {
+        afterCommit(() -> doCancel(id));
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private synchronized void doSchedule(Long id, LocalDateTime reminderTime) {
+        long deadline = toMillis(reminderTime);
+        if (deadline >= loadedUntil) {
+            scheduled.remove(id);
+            return;
+        }
+        scheduled.put(id, deadline);
+        if (!wheel.add(deadline, id)) {
+            // 修改为已经过去的时间，下一次推进时立即通知
+            wheel.add(System.currentTimeMillis() + TICK_MILLIS, id);
+        }
+    }
+    
+    private synchronized void doCancel(Long id) {
+        scheduled.remove(id);
+    }
+    
+    @Scheduled(fixedDelay = 1000L)
+    @Transactional
+    public void tick() {
+        long now = System.currentTimeMillis();
+        List<Long> due;
+        synchronized (this) {
+            if (now >= nextRefillAt) {
+                refill(now);
+            }
+            due = new ArrayList<>();
+            for (Long id : wheel.advance(now)) {
+                // 丢弃已取消的条目；同一提醒被改期时只认最新的时间
+                Long deadline = scheduled.get(id);
+                if (deadline != null && deadline <= now) {
+                    scheduled.remove(id);
+                    due.add(id);
+                }
+            }
+        }
+        for (int from = 0; from < due.size(); from += BATCH_SIZE) {
+            fire(due.subList(from, Math.min(from + BATCH_SIZE, due.size())), now);
+        }
+    }
+    
+    private void refill(long now) {
+        if (loadedUntil == Long.MIN_VALUE) {
+            loadedUntil = startupLoadFrom(now);
+        }
+        long until = now + HORIZON_MILLIS;
+        List<ReminderSchedule> schedules = healthReminderRepository.findDueSchedules(
+                toLocalDateTime(loadedUntil), toLocalDateTime(until));
+        for (ReminderSchedule schedule : schedules) {
+            long deadline = toMillis(schedule.getReminderTime());
+            scheduled.put(schedule.getId(), deadline);
+            if (!wheel.add(deadline, schedule.getId())) {
+                wheel.add(now + TICK_MILLIS, schedule.getId());
+            }
+        }
+        loadedUntil = until;
+        nextRefillAt = now + REFILL_INTERVAL_MILLIS;
+        log.debug("提醒调度补充: {} 条, 时间轮中共 {} 条", schedules.size(), wheel.size());
+    }
+    
+    // 启动前已经到期、尚未完成也未过期的提醒需要补发，从其中最早的时间开始加载
+    private long startupLoadFrom(long now) {
+        LocalDateTime since = toLocalDateTime(now).minusDays(OverdueReminderSweeper.EXPIRE_AFTER_DAYS);
+        LocalDateTime oldest = healthReminderRepository.findOldestPendingTime(since);
+        return oldest == null ? now : Math.min(now, toMillis(oldest));
+    }
+    
+    private void fire(List<Long> ids, long now) {
+        // 到期时重新读取，跳过调度后已被完成的提醒
+        List<HealthReminder> loaded = new ArrayList<>(healthReminderRepository.findAllWithUserByIdIn(ids));
+        LocalDateTime nowTime = toLocalDateTime(now);
+        Set<String> handled = loadHandledOccurrences(loaded);
+        List<HealthReminderDTO> reminders = new ArrayList<>();
+        loaded.sort(Comparator.comparing(HealthReminder::getNextOccurrenceTime,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        for (HealthReminder reminder : loaded) {
+            LocalDateTime occurrence = reminder.getNextOccurrenceTime();
+            if (reminder.getIsCompleted() || occurrence == null) {
+                continue;
+            }
+            if (!reminder.getIsRepeating()) {
+                reminders.add(new HealthReminderDTO(reminder));
+                continue;
+            }
+            // 已完成或跳过的这一次不发送；停机期间错过的各次不补发，直接推进到当前时间之后
+            if (!handled.contains(occurrenceKey(reminder.getId(), occurrence))) {
+                reminders.add(HealthReminderDTO.forOccurrence(reminder, occurrence, false));
+            }
+            LocalDateTime next = reminder.nextOccurrenceAfter(occurrence.isAfter(nowTime) ? occurrence : nowTime);
+            reminder.setNextOccurrenceTime(next);
+            if (next != null) {
+                schedule(reminder.getId(), next);
+            }
+        }
+        if (reminders.isEmpty()) {
+            return;
+        }
+        try {
+            reminderNotifier.notifyDue(reminders);
+        } catch (RuntimeException e) {
+            log.error("发送提醒通知失败, 共 {} 条", reminders.size(), e);
+        }
+    }
+    
+    // 一次查询取出这批重复提醒本次的完成和跳过记录
+    private Set<String> loadHandledOccurrences(List<HealthReminder> loaded) {
+        List<Long> ids = new ArrayList<>();
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (HealthReminder reminder : loaded) {
+            LocalDateTime occurrence = reminder.getNextOccurrenceTime();
+            if (!reminder.getIsRepeating() || occurrence == null) {
+                continue;
+            }
+            ids.add(reminder.getId());
+            from = from == null || occurrence.isBefore(from) ? occurrence : from;
+            to = to == null || occurrence.isAfter(to) ? occurrence : to;
+        }
+        Set<String> handled = new HashSet<>();
+        if (ids.isEmpty()) {
+            return handled;
+        }
+        for (HealthReminderOccurrence occurrence :
+                occurrenceRepository.findByReminderIdsBetween(ids, from, to.plusNanos(1))) {
+            handled.add(occurrenceKey(occurrence.getReminder().getId(), occurrence.getOccurrenceTime()));
+        }
+        return handled;
+    }
+    
+    private static String occurrenceKey(Long id, LocalDateTime time) {
+        return id + "@" + time;
+    }
+    
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+    
+    private LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+    }
+}
+
+/****************************
+ * Controller
+ ****************************/
+
+// 文件: src/main/java/com/health/health_demo/controller/HealthReminderController.java
+package com.health.health_demo.controller;
+
+import com.health.health_demo.dto.ApiResponse;
+import com.health.health_demo.model.HealthReminder.ReminderType;
+import com.health.health_demo.model.dto.CursorPage;
+import com.health.health_demo.model.dto.HealthReminderDTO;
+import com.health.health_demo.service.HealthReminderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 健康提醒控制器
  */
 @RestController
 @RequestMapping("/api/health-reminders")
@@ -561,13 +1825,25 @@ public class HealthReminderController {
         return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "获取成功", reminders));
     }
     
+    /**
+     * 按提醒时间分页获取用户的健康提醒，after为上一页返回的nextCursor
+     */
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<ApiResponse<CursorPage<HealthReminderDTO>>> getUserRemindersPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<HealthReminderDTO> page = healthReminderService.getUserRemindersPage(userId, after, limit);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "获取成功", page));
+    }
+    
     /**
      * 获取用户指定类型的健康提醒
      */
     @GetMapping("/user/{userId}/type")
     public ResponseEntity<ApiResponse<List<HealthReminderDTO>>> getUserRemindersByType(
             @PathVariable Long userId,
-            @RequestParam String reminderType) {
+            @RequestParam ReminderType reminderType) {
         List<HealthReminderDTO> reminders = healthReminderService.getUserRemindersByType(userId, reminderType);
         return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "获取成功", reminders));
     }
@@ -602,14 +1878,36 @@ public class HealthReminderController {
     }
     
     /**
-     * 完成健康提醒
+     * 完成健康提醒；重复提醒通过occurrenceTime指定完成哪一次
      */
     @PatchMapping("/{id}/complete")
-    public ResponseEntity<ApiResponse<HealthReminderDTO>> completeReminder(@PathVariable Long id) {
-        HealthReminderDTO completedReminder = healthReminderService.completeReminder(id);
+    public ResponseEntity<ApiResponse<HealthReminderDTO>> completeReminder(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime occurrenceTime) {
+        HealthReminderDTO completedReminder = healthReminderService.completeReminder(id, occurrenceTime);
         return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "提醒已标记为完成", completedReminder));
     }
     
+    /**
+     * 批量完成健康提醒，请求体为提醒ID数组
+     */
+    @PatchMapping("/complete")
+    public ResponseEntity<ApiResponse<Integer>> completeReminders(@RequestBody List<Long> ids) {
+        int completed = healthReminderService.completeReminders(ids);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "提醒已批量标记为完成", completed));
+    }
+    
+    /**
+     * 跳过重复提醒的某一次
+     */
+    @PatchMapping("/{id}/skip")
+    public ResponseEntity<ApiResponse<Void>> skipOccurrence(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime occurrenceTime) {
+        healthReminderService.skipOccurrence(id, occurrenceTime);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "已跳过本次提醒", null));
+    }
+    
     /**
      * 更新健康提醒
      */
@@ -629,4 +1927,338 @@ public class HealthReminderController {
         healthReminderService.deleteReminder(id);
         return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "健康提醒删除成功", null));
     }
-} 
\ No newline at end of file
+} 
+
+/****************************
+ * 测试
+ ****************************/
+
+// 文件: src/test/java/com/health/health_demo/repository/HealthReminderQueryPlanTest.java
+package com.health.health_demo.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 检查按用户查询提醒的语句在嵌入式H2上走以(user_id, reminder_time)开头的索引，并且按提醒时间做范围扫描。
+ * idx_health_reminders_user_time和idx_health_reminders_user_list前两列相同，H2按代价在两者中任选一个，
+ * 计划选哪个取决于优化器版本和统计信息，所以两者都接受；表结构以实体上的@Table(indexes)为准，测试不据此增删索引。
+ * H2的计划注释会列出索引列上的所有条件，不能说明是否按范围定位，所以用EXPLAIN ANALYZE的scanCount判断：
+ * 读取的行数不超过该用户落在时间范围内的行数，而不是该用户的全部行。
+ * 表结构由实体上的@Table(indexes)生成；需要在pom.xml中添加test范围的com.h2database:h2依赖。
+ */
+@DataJpaTest
+class HealthReminderQueryPlanTest {
+    
+    // H2把选中的索引写在表名后的注释中: /* PUBLIC.索引名: 条件 */
+    private static final Pattern RANGE_INDEX = Pattern.compile("/\\* PUBLIC\\.IDX_HEALTH_REMINDERS_USER_(TIME|LIST)\\b");
+    private static final Pattern SCAN_COUNT = Pattern.compile("SCANCOUNT: (\\d+)");
+    // 两个用户各有[04-28, 05-04)内每小时一条一次性提醒，每3条有1条已完成
+    private static final LocalDateTime DATA_START = LocalDateTime.of(2024, 4, 28, 0, 0);
+    private static final int HOURS = 6 * 24;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @BeforeEach
+    void insertReminders() {
+        // 只测试health_reminders上的索引，不创建用户
+        entityManager.createNativeQuery("SET REFERENTIAL_INTEGRITY FALSE").executeUpdate();
+        for (long userId = 1; userId <= 2; userId++) {
+            for (int hour = 0; hour < HOURS; hour++) {
+                LocalDateTime time = DATA_START.plusHours(hour);
+                entityManager.createNativeQuery("INSERT INTO health_reminders (user_id, reminder_type, title, "
+                                + "reminder_time, is_repeating, repeat_interval, next_occurrence_time, is_completed, "
+                                + "is_expired, created_at, updated_at) "
+                                + "VALUES (?1, 1, 'r', ?2, FALSE, 1, ?2, ?3, FALSE, ?2, ?2)")
+                        .setParameter(1, userId)
+                        .setParameter(2, time)
+                        .setParameter(3, hour % 3 == 0)
+                        .executeUpdate();
+            }
+        }
+    }
+    
+    @Test
+    void reminderTimeRangeUsesCompositeIndex() {
+        // 对应findByUserIdAndReminderTimeRange，按天查询时的[当天零点, 次日零点)，不限完成状态
+        assertRangeScan("reminder_time >= TIMESTAMP '2024-05-01 00:00:00' "
+                + "AND reminder_time < TIMESTAMP '2024-05-02 00:00:00'", "");
+    }
+    
+    @Test
+    void upcomingRemindersUseCompositeIndex() {
+        assertRangeScan("reminder_time >= TIMESTAMP '2024-05-02 12:00:00'", " AND is_completed = FALSE");
+    }
+    
+    @Test
+    void overdueRemindersUseCompositeIndex() {
+        assertRangeScan("reminder_time < TIMESTAMP '2024-04-29 00:00:00'", " AND is_completed = FALSE");
+    }
+    
+    private void assertRangeScan(String timeRange, String extraCondition) {
+        String plan = String.valueOf(entityManager.createNativeQuery("EXPLAIN ANALYZE SELECT * FROM health_reminders "
+                + "WHERE user_id = 1 AND is_repeating = FALSE AND " + timeRange + extraCondition
+                + " ORDER BY reminder_time").getSingleResult()).toUpperCase();
+        assertTrue(RANGE_INDEX.matcher(plan).find(), "未使用(user_id, reminder_time)开头的索引: " + plan);
+        
+        long inRange = count("WHERE user_id = 1 AND " + timeRange);
+        long total = count("WHERE user_id = 1");
+        assertTrue(inRange < total / 2, "时间范围应只覆盖该用户的一小部分提醒");
+        Matcher matcher = SCAN_COUNT.matcher(plan);
+        assertTrue(matcher.find(), "计划中没有scanCount: " + plan);
+        // scanCount比读取的行数多1（最后一次判断已到范围末尾）
+        long scanned = Long.parseLong(matcher.group(1));
+        assertTrue(scanned <= inRange + 1,
+                "读取了" + scanned + "行，范围内只有" + inRange + "行，提醒时间不是范围条件: " + plan);
+    }
+    
+    private long count(String where) {
+        return ((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM health_reminders " + where)
+                .getSingleResult()).longValue();
+    }
+}
+
+// 文件: src/test/java/com/health/health_demo/service/impl/HealthReminderServiceImplTest.java
+package com.health.health_demo.service.impl;
+
+import com.health.health_demo.model.HealthReminder;
+import com.health.health_demo.model.HealthReminderOccurrence;
+import com.health.health_demo.model.User;
+import com.health.health_demo.model.dto.HealthReminderDTO;
+import com.health.health_demo.repository.HealthReminderOccurrenceRepository;
+import com.health.health_demo.repository.HealthReminderRepository;
+import com.health.health_demo.repository.UserRepository;
+import com.health.health_demo.service.cache.UpcomingReminderCache;
+import com.health.health_demo.service.reminder.ReminderDispatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * completeReminders中重复提醒的处理：只完成已经到了的一次，返回实际插入的完成记录数；
+ * 没有可计算规则的重复模式按一次性提醒保存
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HealthReminderServiceImplTest {
+    
+    @Mock
+    private HealthReminderRepository healthReminderRepository;
+    @Mock
+    private HealthReminderOccurrenceRepository occurrenceRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ReminderDispatcher reminderDispatcher;
+    @Mock
+    private UpcomingReminderCache upcomingReminderCache;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Captor
+    private ArgumentCaptor<List<Object[]>> rowsCaptor;
+    
+    private HealthReminderServiceImpl service;
+    
+    @BeforeEach
+    void setUp() {
+        service = new HealthReminderServiceImpl(healthReminderRepository, occurrenceRepository, userRepository,
+                reminderDispatcher, upcomingReminderCache, jdbcTemplate);
+        when(healthReminderRepository.findUserIdsByIdIn(anyCollection())).thenReturn(List.of(1L));
+        when(healthReminderRepository.completeOneOffByIds(anyCollection(), any())).thenReturn(0);
+        when(occurrenceRepository.findByReminderIdsBetween(anyCollection(), any(), any())).thenReturn(List.of());
+    }
+    
+    @Test
+    void alreadyCompletedOccurrenceIsNotCounted() {
+        // 每天一次，今天的一次在一小时前
+        HealthReminder completedToday = dailyRule(10L, LocalDateTime.now().minusDays(3).minusHours(1));
+        HealthReminder pendingToday = dailyRule(11L, LocalDateTime.now().minusDays(3).minusHours(1));
+        LocalDateTime today = completedToday.latestOccurrenceUpTo(LocalDateTime.now());
+        when(healthReminderRepository.findRecurringByIdIn(anyCollection()))
+                .thenReturn(List.of(completedToday, pendingToday));
+        when(occurrenceRepository.findByReminderIdsBetween(anyCollection(), any(), any())).thenReturn(List.of(
+                new HealthReminderOccurrence(completedToday, today, HealthReminderOccurrence.Status.COMPLETED)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+        
+        assertEquals(1, service.completeReminders(List.of(10L, 11L)));
+        
+        verify(jdbcTemplate).batchUpdate(anyString(), rowsCaptor.capture());
+        List<Object[]> rows = rowsCaptor.getValue();
+        assertEquals(1, rows.size());
+        assertEquals(11L, rows.get(0)[0]);
+        assertEquals(Timestamp.valueOf(today), rows.get(0)[1]);
+    }
+    
+    @Test
+    void ruleNotStartedYetIsSkipped() {
+        HealthReminder startsTomorrow = dailyRule(20L, LocalDateTime.now().plusDays(1));
+        when(healthReminderRepository.findRecurringByIdIn(anyCollection())).thenReturn(List.of(startsTomorrow));
+        
+        assertEquals(0, service.completeReminders(List.of(20L)));
+        
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        // 重复提醒的调度不取消
+        verify(reminderDispatcher, never()).cancel(eq(20L));
+    }
+    
+    @Test
+    void customPatternIsStoredAsOneOff() {
+        User user = new User();
+        user.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(healthReminderRepository.save(any(HealthReminder.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        HealthReminderDTO dto = new HealthReminderDTO();
+        dto.setUserId(1L);
+        dto.setReminderType(HealthReminder.ReminderType.MEDICATION);
+        dto.setTitle("吃药");
+        dto.setReminderTime(LocalDateTime.now().plusHours(1));
+        dto.setIsRepeating(true);
+        dto.setRepeatPattern(HealthReminder.RepeatPattern.CUSTOM.name());
+        
+        HealthReminderDTO saved = service.createReminder(dto);
+        
+        // is_repeating为false时completeOneOffByIds和过期清理才会处理它
+        assertFalse(saved.getIsRepeating());
+    }
+    
+    private static HealthReminder dailyRule(Long id, LocalDateTime reminderTime) {
+        HealthReminder reminder = new HealthReminder();
+        reminder.setId(id);
+        reminder.setReminderTime(reminderTime);
+        reminder.setIsRepeating(true);
+        reminder.setRepeatPattern(HealthReminder.RepeatPattern.DAILY.name());
+        reminder.setRepeatInterval(1);
+        reminder.setIsCompleted(false);
+        return reminder;
+    }
+}
+
+// 文件: src/test/java/com/health/health_demo/service/reminder/ReminderDispatcherTest.java
+package com.health.health_demo.service.reminder;
+
+import com.health.health_demo.repository.HealthReminderOccurrenceRepository;
+import com.health.health_demo.repository.HealthReminderRepository;
+import com.health.health_demo.repository.HealthReminderRepository.ReminderSchedule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 启动时加载停机期间已经到期的提醒
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReminderDispatcherTest {
+    
+    @Mock
+    private HealthReminderRepository healthReminderRepository;
+    @Mock
+    private HealthReminderOccurrenceRepository occurrenceRepository;
+    @Mock
+    private ReminderNotifier reminderNotifier;
+    
+    private ReminderDispatcher dispatcher;
+    
+    @BeforeEach
+    void setUp() {
+        dispatcher = new ReminderDispatcher(healthReminderRepository, occurrenceRepository, reminderNotifier);
+        when(healthReminderRepository.findAllWithUserByIdIn(anyList())).thenReturn(List.of());
+    }
+    
+    @Test
+    void firstRefillStartsAtOldestPendingReminder() throws Exception {
+        LocalDateTime overdue = LocalDateTime.now().minusHours(2).withNano(0);
+        when(healthReminderRepository.findOldestPendingTime(any())).thenReturn(overdue);
+        when(healthReminderRepository.findDueSchedules(any(), any())).thenReturn(List.of(schedule(5L, overdue)));
+        
+        dispatcher.tick();
+        
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(healthReminderRepository).findOldestPendingTime(since.capture());
+        // 不加载早于过期期限的提醒
+        assertFalse(since.getValue().isAfter(LocalDateTime.now().minusDays(OverdueReminderSweeper.EXPIRE_AFTER_DAYS)));
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(healthReminderRepository).findDueSchedules(from.capture(), any());
+        assertEquals(overdue, from.getValue());
+        
+        // 已经过去的提醒放在下一格，下一次推进时通知
+        Thread.sleep(1100);
+        dispatcher.tick();
+        verify(healthReminderRepository).findAllWithUserByIdIn(List.of(5L));
+    }
+    
+    @Test
+    void noPendingReminderStartsAtNow() {
+        LocalDateTime before = LocalDateTime.now().withNano(0);
+        when(healthReminderRepository.findOldestPendingTime(any())).thenReturn(null);
+        when(healthReminderRepository.findDueSchedules(any(), any())).thenReturn(List.of());
+        
+        dispatcher.tick();
+        
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(healthReminderRepository).findDueSchedules(from.capture(), any());
+        assertFalse(from.getValue().isBefore(before));
+    }
+    
+    private static ReminderSchedule schedule(Long id, LocalDateTime time) {
+        return new ReminderSchedule() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+            
+            @Override
+            public LocalDateTime getReminderTime() {
+                return time;
+            }
+        };
+    }
+}
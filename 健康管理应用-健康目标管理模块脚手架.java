@@ -1,6 +1,6 @@
 /**
  * 健康目标管理模块脚手架
- * 包含：实体类、DTO、Repository、Service、Controller
+ * 包含：实体类、DTO、Repository、Service、缓存、目标进度、Controller
  */
 
 /****************************
@@ -22,7 +22,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "health_goals")
+@Table(name = "health_goals", indexes = {
+        // 按(结束日期, ID)游标分页列出用户的全部目标
+        @Index(name = "idx_health_goals_user_list", columnList = "user_id, end_date, id"),
+        // 按用户和目标类型筛选，记录事件更新进度时也按这两列查询
+        @Index(name = "idx_health_goals_user_type", columnList = "user_id, goal_type")
+})
 public class HealthGoal {
     
     @Id
@@ -33,8 +38,9 @@ public class HealthGoal {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
+    // 以GoalType.code保存，见GoalTypeConverter
     @Column(name = "goal_type", nullable = false)
-    private String goalType;
+    private GoalType goalType;
     
     @Column(name = "target_value", nullable = false)
     private Double targetValue;
@@ -54,35 +60,54 @@ public class HealthGoal {
     @Column(name = "is_completed", nullable = false)
     private Boolean isCompleted = false;
     
+    // 当前值对应的测量时间（体重、睡眠等最新值类目标），更早的记录不再覆盖当前值
+    @Column(name = "progress_recorded_at")
+    private LocalDateTime progressRecordedAt;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
-    // 目标类型枚举
+    // 目标类型枚举，code是数据库中保存的值，已有的code不能修改
     public enum GoalType {
-        WEIGHT_LOSS("减重"),
-        WEIGHT_GAIN("增重"),
-        STEPS("步数"),
-        EXERCISE_FREQUENCY("运动频率"),
-        SLEEP_DURATION("睡眠时长"),
-        CALORIE_CONTROL("卡路里控制"),
-        CUSTOM("自定义");
+        WEIGHT_LOSS(1, "减重"),
+        WEIGHT_GAIN(2, "增重"),
+        STEPS(3, "步数"),
+        EXERCISE_FREQUENCY(4, "运动频率"),
+        SLEEP_DURATION(5, "睡眠时长"),
+        CALORIE_CONTROL(6, "卡路里控制"),
+        CUSTOM(7, "自定义");
         
+        private final short code;
         private final String displayName;
         
-        GoalType(String displayName) {
+        GoalType(int code, String displayName) {
+            this.code = (short) code;
             this.displayName = displayName;
         }
         
+        public short getCode() {
+            return code;
+        }
+        
         public String getDisplayName() {
             return displayName;
         }
+        
+        public static GoalType fromCode(short code) {
+            for (GoalType type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown goal type code: " + code);
+        }
     }
     
     // 构造函数
-    public HealthGoal(User user, String goalType, Double targetValue, Double currentValue,
+    public HealthGoal(User user, GoalType goalType, Double targetValue, Double currentValue,
                       String unit, LocalDate startDate, LocalDate endDate) {
         this.user = user;
         this.goalType = goalType;
@@ -100,25 +125,73 @@ public class HealthGoal {
     public void updateProgress(Double newValue) {
         this.currentValue = newValue;
         this.updatedAt = LocalDateTime.now();
+        // 手动设置的值视为现在的测量值，之后补录的更早记录不覆盖它
+        this.progressRecordedAt = this.updatedAt;
         // 检查是否达成目标
         checkCompletion();
     }
     
+    // 应用一批记录事件汇总后的进度：latestValue的测量时间晚于当前值时才替换当前值，再累加delta，最后只检查一次是否完成
+    // 返回进度是否变化；补录的更早记录和合计为0的增量不修改目标
+    public boolean applyProgressBatch(Double latestValue, LocalDateTime latestRecordedAt, double delta) {
+        boolean replace = latestValue != null
+                && (progressRecordedAt == null || latestRecordedAt.isAfter(progressRecordedAt));
+        if (!replace && delta == 0) {
+            return false;
+        }
+        if (replace) {
+            this.currentValue = latestValue;
+            this.progressRecordedAt = latestRecordedAt;
+        }
+        this.currentValue += delta;
+        this.updatedAt = LocalDateTime.now();
+        checkCompletion();
+        return true;
+    }
+    
     // 检查目标是否完成
     private void checkCompletion() {
-        if (GoalType.WEIGHT_LOSS.name().equals(goalType)) {
-            // 减重目标：当前值 <= 目标值时完成
-            this.isCompleted = currentValue <= targetValue;
-        } else if (GoalType.WEIGHT_GAIN.name().equals(goalType)) {
-            // 增重目标：当前值 >= 目标值时完成
-            this.isCompleted = currentValue >= targetValue;
-        } else {
-            // 其他目标：当前值 >= 目标值时完成
-            this.isCompleted = currentValue >= targetValue;
+        switch (goalType) {
+            case WEIGHT_LOSS:
+                // 减重目标：当前值 <= 目标值时完成
+                this.isCompleted = currentValue <= targetValue;
+                break;
+            case WEIGHT_GAIN:
+                // 增重目标：当前值 >= 目标值时完成
+                this.isCompleted = currentValue >= targetValue;
+                break;
+            default:
+                // 其他目标：当前值 >= 目标值时完成
+                this.isCompleted = currentValue >= targetValue;
+                break;
         }
     }
 }
 
+// 文件: src/main/java/com/health/health_demo/model/GoalTypeConverter.java
+package com.health.health_demo.model;
+
+import com.health.health_demo.model.HealthGoal.GoalType;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * 目标类型在数据库中保存为SMALLINT编码，比字符串占用更少的索引空间，重命名枚举常量也不影响已有数据
+ */
+@Converter(autoApply = true)
+public class GoalTypeConverter implements AttributeConverter<GoalType, Short> {
+    
+    @Override
+    public Short convertToDatabaseColumn(GoalType type) {
+        return type == null ? null : type.getCode();
+    }
+    
+    @Override
+    public GoalType convertToEntityAttribute(Short code) {
+        return code == null ? null : GoalType.fromCode(code);
+    }
+}
+
 /****************************
  * DTO
  ****************************/
@@ -127,6 +200,7 @@ public class HealthGoal {
 package com.health.health_demo.model.dto;
 
 import com.health.health_demo.model.HealthGoal;
+import com.health.health_demo.model.HealthGoal.GoalType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -134,6 +208,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+// 全参构造方法按字段声明顺序，也用于Repository中JPQL构造表达式的直接投影
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -141,7 +216,8 @@ public class HealthGoalDTO {
     
     private Long id;
     private Long userId;
-    private String goalType;
+    // JSON中仍为枚举名称
+    private GoalType goalType;
     private Double targetValue;
     private Double currentValue;
     private String unit;
@@ -175,11 +251,19 @@ public class HealthGoalDTO {
 package com.health.health_demo.repository;
 
 import com.health.health_demo.model.HealthGoal;
+import com.health.health_demo.model.HealthGoal.GoalType;
 import com.health.health_demo.model.User;
+import com.health.health_demo.model.dto.HealthGoalDTO;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -191,8 +275,35 @@ public interface HealthGoalRepository extends JpaRepository<HealthGoal, Long> {
     // 根据用户ID查询所有健康目标，按结束日期升序排序
     List<HealthGoal> findByUserIdOrderByEndDateAsc(Long userId);
     
-    // 根据用户ID和目标类型查询健康目标，按结束日期升序排序
-    List<HealthGoal> findByUserIdAndGoalTypeOrderByEndDateAsc(Long userId, String goalType);
+    // 按(结束日期, ID)分页查询用户的健康目标，直接投影为DTO，不加载实体和用户；走idx_health_goals_user_list索引
+    @Query("SELECT new com.health.health_demo.model.dto.HealthGoalDTO(hg.id, hg.user.id, hg.goalType, " +
+           "hg.targetValue, hg.currentValue, hg.unit, hg.startDate, hg.endDate, hg.isCompleted, " +
+           "hg.createdAt, hg.updatedAt) FROM HealthGoal hg " +
+           "WHERE hg.user.id = :userId ORDER BY hg.endDate ASC, hg.id ASC")
+    List<HealthGoalDTO> findFirstPage(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT new com.health.health_demo.model.dto.HealthGoalDTO(hg.id, hg.user.id, hg.goalType, " +
+           "hg.targetValue, hg.currentValue, hg.unit, hg.startDate, hg.endDate, hg.isCompleted, " +
+           "hg.createdAt, hg.updatedAt) FROM HealthGoal hg " +
+           "WHERE hg.user.id = :userId AND (hg.endDate > :afterDate " +
+           "OR (hg.endDate = :afterDate AND hg.id > :afterId)) " +
+           "ORDER BY hg.endDate ASC, hg.id ASC")
+    List<HealthGoalDTO> findPageAfter(
+            @Param("userId") Long userId,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+    
+    // 按用户和目标类型锁定未完成的目标，用于记录事件批量更新进度；按ID排序加锁，避免并发事务互相死锁
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT hg FROM HealthGoal hg WHERE hg.user.id IN :userIds AND hg.goalType IN :goalTypes " +
+           "AND hg.isCompleted = false ORDER BY hg.id ASC")
+    List<HealthGoal> findActiveForProgressUpdate(
+            @Param("userIds") Collection<Long> userIds,
+            @Param("goalTypes") Collection<GoalType> goalTypes);
+    
+    // 根据用户ID和目标类型查询健康目标，按结束日期升序排序；走idx_health_goals_user_type索引
+    List<HealthGoal> findByUserIdAndGoalTypeOrderByEndDateAsc(Long userId, GoalType goalType);
     
     // 根据用户ID查询当前活跃的健康目标（未完成且未过期）
     List<HealthGoal> findByUserIdAndIsCompletedFalseAndEndDateGreaterThanEqualOrderByEndDateAsc(
@@ -200,7 +311,7 @@ public interface HealthGoalRepository extends JpaRepository<HealthGoal, Long> {
     
     // 根据用户ID和目标类型查询当前活跃的健康目标
     List<HealthGoal> findByUserIdAndGoalTypeAndIsCompletedFalseAndEndDateGreaterThanEqualOrderByEndDateAsc(
-            Long userId, String goalType, LocalDate currentDate);
+            Long userId, GoalType goalType, LocalDate currentDate);
 }
 
 /****************************
@@ -210,6 +321,8 @@ public interface HealthGoalRepository extends JpaRepository<HealthGoal, Long> {
 // 文件: src/main/java/com/health/health_demo/service/HealthGoalService.java
 package com.health.health_demo.service;
 
+import com.health.health_demo.model.HealthGoal.GoalType;
+import com.health.health_demo.model.dto.CursorPage;
 import com.health.health_demo.model.dto.HealthGoalDTO;
 
 import java.util.List;
@@ -240,6 +353,16 @@ public interface HealthGoalService {
      */
     List<HealthGoalDTO> getUserGoals(Long userId);
     
+    /**
+     * 按结束日期分页获取用户的健康目标
+     * 
+     * @param userId 用户ID
+     * @param after 上一页返回的nextCursor，第一页为null
+     * @param limit 每页条数
+     * @return 一页健康目标DTO
+     */
+    CursorPage<HealthGoalDTO> getUserGoalsPage(Long userId, String after, Integer limit);
+    
     /**
      * 获取用户指定类型的健康目标
      * 
@@ -247,7 +370,7 @@ public interface HealthGoalService {
      * @param goalType 目标类型
      * @return 健康目标DTO列表
      */
-    List<HealthGoalDTO> getUserGoalsByType(Long userId, String goalType);
+    List<HealthGoalDTO> getUserGoalsByType(Long userId, GoalType goalType);
     
     /**
      * 获取用户当前活跃的健康目标
@@ -296,17 +419,23 @@ package com.health.health_demo.service.impl;
 
 import com.health.health_demo.exception.ResourceNotFoundException;
 import com.health.health_demo.model.HealthGoal;
+import com.health.health_demo.model.HealthGoal.GoalType;
 import com.health.health_demo.model.User;
+import com.health.health_demo.model.dto.CursorPage;
 import com.health.health_demo.model.dto.HealthGoalDTO;
 import com.health.health_demo.repository.HealthGoalRepository;
 import com.health.health_demo.repository.UserRepository;
 import com.health.health_demo.service.HealthGoalService;
+import com.health.health_demo.service.cache.ActiveGoalCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -315,11 +444,14 @@ public class HealthGoalServiceImpl implements HealthGoalService {
     
     private final HealthGoalRepository healthGoalRepository;
     private final UserRepository userRepository;
+    private final ActiveGoalCache activeGoalCache;
     
     @Autowired
-    public HealthGoalServiceImpl(HealthGoalRepository healthGoalRepository, UserRepository userRepository) {
+    public HealthGoalServiceImpl(HealthGoalRepository healthGoalRepository, UserRepository userRepository,
+                                 ActiveGoalCache activeGoalCache) {
         this.healthGoalRepository = healthGoalRepository;
         this.userRepository = userRepository;
+        this.activeGoalCache = activeGoalCache;
     }
     
     @Override
@@ -339,6 +471,7 @@ public class HealthGoalServiceImpl implements HealthGoalService {
         );
         
         HealthGoal savedGoal = healthGoalRepository.save(healthGoal);
+        activeGoalCache.invalidate(user.getId());
         return new HealthGoalDTO(savedGoal);
     }
     
@@ -358,7 +491,33 @@ public class HealthGoalServiceImpl implements HealthGoalService {
     }
     
     @Override
-    public List<HealthGoalDTO> getUserGoalsByType(Long userId, String goalType) {
+    @Transactional(readOnly = true)
+    public CursorPage<HealthGoalDTO> getUserGoalsPage(Long userId, String after, Integer limit) {
+        int pageSize = CursorPage.normalizeLimit(limit);
+        // 多取一条判断是否还有下一页
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+        List<HealthGoalDTO> items;
+        if (after == null || after.isEmpty()) {
+            items = healthGoalRepository.findFirstPage(userId, pageRequest);
+        } else {
+            String[] cursor = CursorPage.splitCursor(after);
+            try {
+                items = healthGoalRepository.findPageAfter(
+                        userId, LocalDate.parse(cursor[0]), Long.parseLong(cursor[1]), pageRequest);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + after, e);
+            }
+        }
+        if (items.size() <= pageSize) {
+            return new CursorPage<>(items, null);
+        }
+        items = new ArrayList<>(items.subList(0, pageSize));
+        HealthGoalDTO last = items.get(pageSize - 1);
+        return new CursorPage<>(items, last.getEndDate() + "," + last.getId());
+    }
+    
+    @Override
+    public List<HealthGoalDTO> getUserGoalsByType(Long userId, GoalType goalType) {
         List<HealthGoal> goals = healthGoalRepository.findByUserIdAndGoalTypeOrderByEndDateAsc(userId, goalType);
         return goals.stream()
                 .map(HealthGoalDTO::new)
@@ -367,11 +526,19 @@ public class HealthGoalServiceImpl implements HealthGoalService {
     
     @Override
     public List<HealthGoalDTO> getUserActiveGoals(Long userId) {
+        // 缓存的是加载当天的列表，跨过零点后去掉已经结束的目标
+        LocalDate today = LocalDate.now();
+        return activeGoalCache.get(userId, this::loadActiveGoals).stream()
+                .filter(goal -> !goal.getEndDate().isBefore(today))
+                .collect(Collectors.toList());
+    }
+    
+    private List<HealthGoalDTO> loadActiveGoals(Long userId) {
         List<HealthGoal> goals = healthGoalRepository
                 .findByUserIdAndIsCompletedFalseAndEndDateGreaterThanEqualOrderByEndDateAsc(userId, LocalDate.now());
         return goals.stream()
                 .map(HealthGoalDTO::new)
-                .collect(Collectors.toList());
+                .collect(Collectors.toUnmodifiableList());
     }
     
     @Override
@@ -382,6 +549,7 @@ public class HealthGoalServiceImpl implements HealthGoalService {
         
         healthGoal.updateProgress(newValue);
         HealthGoal updatedGoal = healthGoalRepository.save(healthGoal);
+        activeGoalCache.invalidate(updatedGoal.getUser().getId());
         return new HealthGoalDTO(updatedGoal);
     }
     
@@ -394,6 +562,7 @@ public class HealthGoalServiceImpl implements HealthGoalService {
         healthGoal.setIsCompleted(true);
         healthGoal.setUpdatedAt(LocalDateTime.now());
         HealthGoal updatedGoal = healthGoalRepository.save(healthGoal);
+        activeGoalCache.invalidate(updatedGoal.getUser().getId());
         return new HealthGoalDTO(updatedGoal);
     }
     
@@ -411,6 +580,7 @@ public class HealthGoalServiceImpl implements HealthGoalService {
         healthGoal.setUpdatedAt(LocalDateTime.now());
         
         HealthGoal updatedGoal = healthGoalRepository.save(healthGoal);
+        activeGoalCache.invalidate(updatedGoal.getUser().getId());
         return new HealthGoalDTO(updatedGoal);
     }
     
@@ -421,6 +591,240 @@ public class HealthGoalServiceImpl implements HealthGoalService {
                 .orElseThrow(() -> new ResourceNotFoundException("Health goal not found with id: " + id));
         
         healthGoalRepository.delete(healthGoal);
+        activeGoalCache.invalidate(healthGoal.getUser().getId());
+    }
+}
+
+/****************************
+ * 缓存
+ ****************************/
+
+// 文件: src/main/java/com/health/health_demo/service/cache/ActiveGoalCache.java
+package com.health.health_demo.service.cache;
+
+import com.health.health_demo.model.dto.HealthGoalDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 每个用户当前活跃的目标，由HealthGoalServiceImpl和GoalProgressUpdater在目标变化时失效
+ * UserScopedCache见健康提醒模块
+ */
+@Component
+public class ActiveGoalCache extends UserScopedCache<List<HealthGoalDTO>> {
+    
+    private static final long MAX_USERS = 10_000;
+    private static final Duration TTL = Duration.ofMinutes(10);
+    
+    @Autowired
+    public ActiveGoalCache(MeterRegistry meterRegistry) {
+        super("health.goals.active", MAX_USERS, TTL, meterRegistry);
+    }
+}
+
+/****************************
+ * 目标进度
+ ****************************/
+
+// 文件: src/main/java/com/health/health_demo/service/goal/HealthRecordEvent.java
+package com.health.health_demo.service.goal;
+
+import com.health.health_demo.model.HealthGoal.GoalType;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 健康记录写入事件，由体重、步数、睡眠、运动记录的Service在保存、修改、删除记录的同一事务中发布：
+ * applicationEventPublisher.publishEvent(HealthRecordEvent.steps(userId, date, newSteps - oldSteps));
+ * 体重和睡眠是最新值，带记录的测量时间，补录的更早记录不会覆盖目标的当前值；
+ * 步数和运动次数是相对于修改前的增量，删除记录时为负数。
+ */
+@Getter
+public class HealthRecordEvent {
+    
+    public enum Kind {
+        // 最新体重(kg)
+        WEIGHT(true, EnumSet.of(GoalType.WEIGHT_LOSS, GoalType.WEIGHT_GAIN)),
+        // 步数增量
+        STEPS(false, EnumSet.of(GoalType.STEPS)),
+        // 最近一晚的睡眠时长(小时)
+        SLEEP(true, EnumSet.of(GoalType.SLEEP_DURATION)),
+        // 运动次数增量
+        EXERCISE(false, EnumSet.of(GoalType.EXERCISE_FREQUENCY));
+        
+        private final boolean latestValue;
+        private final Set<GoalType> goalTypes;
+        
+        Kind(boolean latestValue, Set<GoalType> goalTypes) {
+            this.latestValue = latestValue;
+            this.goalTypes = goalTypes;
+        }
+        
+        public boolean isLatestValue() {
+            return latestValue;
+        }
+        
+        public Set<GoalType> getGoalTypes() {
+            return goalTypes;
+        }
+    }
+    
+    private final Long userId;
+    private final Kind kind;
+    // 记录的测量时间，按天的记录为当天零点
+    private final LocalDateTime recordedAt;
+    private final LocalDate recordDate;
+    private final double amount;
+    
+    public HealthRecordEvent(Long userId, Kind kind, LocalDateTime recordedAt, double amount) {
+        this.userId = userId;
+        this.kind = kind;
+        this.recordedAt = recordedAt;
+        this.recordDate = recordedAt.toLocalDate();
+        this.amount = amount;
+    }
+    
+    public static HealthRecordEvent weight(Long userId, LocalDateTime measuredAt, double weight) {
+        return new HealthRecordEvent(userId, Kind.WEIGHT, measuredAt, weight);
+    }
+    
+    public static HealthRecordEvent steps(Long userId, LocalDate recordDate, int stepsDelta) {
+        return new HealthRecordEvent(userId, Kind.STEPS, recordDate.atStartOfDay(), stepsDelta);
+    }
+    
+    // 睡眠以醒来时间作为测量时间
+    public static HealthRecordEvent sleep(Long userId, LocalDateTime wakeTime, double hours) {
+        return new HealthRecordEvent(userId, Kind.SLEEP, wakeTime, hours);
+    }
+    
+    public static HealthRecordEvent exercise(Long userId, LocalDate recordDate, int sessionsDelta) {
+        return new HealthRecordEvent(userId, Kind.EXERCISE, recordDate.atStartOfDay(), sessionsDelta);
+    }
+}
+
+// 文件: src/main/java/com/health/health_demo/service/goal/GoalProgressUpdater.java
+package com.health.health_demo.service.goal;
+
+import com.health.health_demo.model.HealthGoal;
+import com.health.health_demo.model.HealthGoal.GoalType;
+import com.health.health_demo.repository.HealthGoalRepository;
+import com.health.health_demo.service.cache.ActiveGoalCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 根据健康记录事件自动更新目标进度
+ * 同一事务内的事件先缓存，在事务提交前一次性应用：只查询并锁定涉及的用户和目标类型下未完成的目标，
+ * 每个目标汇总这批事件中落在目标起止日期内的部分，只调用一次applyProgressBatch，也就只检查一次是否完成。
+ * 目标的修改与记录在同一事务中提交，事务回滚时进度也不会改变。没有事务时在单独的事务中立即应用。
+ */
+@Component
+public class GoalProgressUpdater {
+    
+    private static final Logger log = LoggerFactory.getLogger(GoalProgressUpdater.class);
+    
+    private final HealthGoalRepository healthGoalRepository;
+    private final ActiveGoalCache activeGoalCache;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    public GoalProgressUpdater(HealthGoalRepository healthGoalRepository, ActiveGoalCache activeGoalCache,
+                               PlatformTransactionManager transactionManager) {
+        this.healthGoalRepository = healthGoalRepository;
+        this.activeGoalCache = activeGoalCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @EventListener
+    public void onRecordWritten(HealthRecordEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            transactionTemplate.executeWithoutResult(status -> apply(List.of(event)));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<HealthRecordEvent> pending = (List<HealthRecordEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<HealthRecordEvent> batch = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    apply(batch);
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(GoalProgressUpdater.this);
+                }
+            });
+            pending = batch;
+        }
+        pending.add(event);
+    }
+    
+    private void apply(List<HealthRecordEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Set<Long> userIds = new HashSet<>();
+        Set<GoalType> goalTypes = EnumSet.noneOf(GoalType.class);
+        for (HealthRecordEvent event : events) {
+            userIds.add(event.getUserId());
+            goalTypes.addAll(event.getKind().getGoalTypes());
+        }
+        
+        List<HealthGoal> goals = healthGoalRepository.findActiveForProgressUpdate(userIds, goalTypes);
+        for (HealthGoal goal : goals) {
+            Double latestValue = null;
+            LocalDateTime latestRecordedAt = null;
+            double delta = 0;
+            for (HealthRecordEvent event : events) {
+                if (!event.getUserId().equals(goal.getUser().getId()) || !covers(event, goal)) {
+                    continue;
+                }
+                if (!event.getKind().isLatestValue()) {
+                    delta += event.getAmount();
+                } else if (latestRecordedAt == null || !event.getRecordedAt().isBefore(latestRecordedAt)) {
+                    // 同一批中取测量时间最晚的值，时间相同的以后发布的为准；是否比目标的当前值新由applyProgressBatch判断
+                    latestValue = event.getAmount();
+                    latestRecordedAt = event.getRecordedAt();
+                }
+            }
+            if (goal.applyProgressBatch(latestValue, latestRecordedAt, delta)) {
+                activeGoalCache.invalidate(goal.getUser().getId());
+            }
+        }
+        log.debug("记录事件更新目标进度: {} 个事件, {} 个目标", events.size(), goals.size());
+    }
+    
+    // 事件类型对应该目标类型，且记录日期在目标起止日期内
+    private static boolean covers(HealthRecordEvent event, HealthGoal goal) {
+        LocalDate date = event.getRecordDate();
+        return event.getKind().getGoalTypes().contains(goal.getGoalType())
+                && !date.isBefore(goal.getStartDate()) && !date.isAfter(goal.getEndDate());
     }
 }
 
@@ -432,6 +836,8 @@ public class HealthGoalServiceImpl implements HealthGoalService {
 package com.health.health_demo.controller;
 
 import com.health.health_demo.dto.ApiResponse;
+import com.health.health_demo.model.HealthGoal.GoalType;
+import com.health.health_demo.model.dto.CursorPage;
 import com.health.health_demo.model.dto.HealthGoalDTO;
 import com.health.health_demo.service.HealthGoalService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -485,13 +891,25 @@ public class HealthGoalController {
         return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "获取成功", goals));
     }
     
+    /**
+     * 按结束日期分页获取用户的健康目标，after为上一页返回的nextCursor
+     */
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<ApiResponse<CursorPage<HealthGoalDTO>>> getUserGoalsPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<HealthGoalDTO> page = healthGoalService.getUserGoalsPage(userId, after, limit);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "获取成功", page));
+    }
+    
     /**
      * 获取用户指定类型的健康目标
      */
     @GetMapping("/user/{userId}/type")
     public ResponseEntity<ApiResponse<List<HealthGoalDTO>>> getUserGoalsByType(
             @PathVariable Long userId,
-            @RequestParam String goalType) {
+            @RequestParam GoalType goalType) {
         List<HealthGoalDTO> goals = healthGoalService.getUserGoalsByType(userId, goalType);
         return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "获取成功", goals));
     }